@@ -26,6 +26,11 @@ import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockImporter;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolScheduleBuilder;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /** Defines the protocol behaviours for a blockchain using Clique. */
 public class CliqueProtocolSchedule {
@@ -34,6 +39,14 @@ public class CliqueProtocolSchedule {
 
   public static ProtocolSchedule<CliqueContext> create(
       final GenesisConfigOptions config, final KeyPair nodeKeys) {
+    return create(config, nodeKeys, Optional.empty(), new CodeCache(new NoOpMetricsSystem()));
+  }
+
+  public static ProtocolSchedule<CliqueContext> create(
+      final GenesisConfigOptions config,
+      final KeyPair nodeKeys,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
 
     final CliqueConfigOptions cliqueConfig = config.getCliqueConfigOptions();
 
@@ -45,7 +58,9 @@ public class CliqueProtocolSchedule {
             DEFAULT_CHAIN_ID,
             builder ->
                 applyCliqueSpecificModifications(
-                    epochManager, cliqueConfig.getBlockPeriodSeconds(), localNodeAddress, builder))
+                    epochManager, cliqueConfig.getBlockPeriodSeconds(), localNodeAddress, builder),
+            speculativeExecutor,
+            codeCache)
         .createProtocolSchedule();
   }
 
@@ -24,8 +24,12 @@ import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockImporter;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolScheduleBuilder;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpecBuilder;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
 import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /** Defines the protocol behaviours for a blockchain using IBFT. */
 public class IbftProtocolSchedule {
@@ -33,6 +37,13 @@ public class IbftProtocolSchedule {
   private static final int DEFAULT_CHAIN_ID = 1;
 
   public static ProtocolSchedule<IbftContext> create(final GenesisConfigOptions config) {
+    return create(config, Optional.empty(), new CodeCache(new NoOpMetricsSystem()));
+  }
+
+  public static ProtocolSchedule<IbftContext> create(
+      final GenesisConfigOptions config,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
     final IbftConfigOptions ibftConfig = config.getIbftConfigOptions();
     final long epochLength = ibftConfig.getEpochLength();
     final long blockPeriod = ibftConfig.getBlockPeriodSeconds();
@@ -41,7 +52,9 @@ public class IbftProtocolSchedule {
     return new ProtocolScheduleBuilder<>(
             config,
             DEFAULT_CHAIN_ID,
-            builder -> applyIbftChanges(blockPeriod, epochManager, builder))
+            builder -> applyIbftChanges(blockPeriod, epochManager, builder),
+            speculativeExecutor,
+            codeCache)
         .createProtocolSchedule();
   }
 
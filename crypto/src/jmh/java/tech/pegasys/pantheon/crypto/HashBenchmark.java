@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class HashBenchmark {
+
+  // An address, a typical trie node and a large SHA3 operand.
+  @Param({"20", "532", "4096"})
+  public int size;
+
+  private byte[] bytes;
+  private BytesValue value;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    bytes = new byte[size];
+    new Random(1).nextBytes(bytes);
+    value = BytesValue.wrap(bytes);
+  }
+
+  @Benchmark
+  public Bytes32 keccak256WithProviderLookup() throws NoSuchAlgorithmException {
+    // How every hash used to be computed.
+    final MessageDigest digest = BouncyCastleMessageDigestFactory.create(Hash.KECCAK256_ALG);
+    value.update(digest);
+    return Bytes32.wrap(digest.digest());
+  }
+
+  @Benchmark
+  public Bytes32 keccak256() {
+    return Hash.keccak256(value);
+  }
+
+  @Benchmark
+  public Bytes32 keccak256OfArray() {
+    return Hash.keccak256(bytes);
+  }
+}
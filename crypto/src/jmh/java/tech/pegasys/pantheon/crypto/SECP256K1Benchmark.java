@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.Random;
+
+import org.bouncycastle.asn1.sec.SECNamedCurves;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the optimised secp256k1 curve used by {@link SECP256K1} with the generic Bouncy Castle
+ * implementation of the same curve.
+ */
+@State(Scope.Thread)
+public class SECP256K1Benchmark {
+
+  private ECDomainParameters referenceCurve;
+  private SECP256K1.KeyPair keyPair;
+  private Bytes32 dataHash;
+  private SECP256K1.Signature signature;
+  private ECDSASigner referenceVerifier;
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    final X9ECParameters params = SECNamedCurves.getByName("secp256k1");
+    referenceCurve =
+        new ECDomainParameters(params.getCurve(), params.getG(), params.getN(), params.getH());
+
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    new Random(1).nextBytes(bytes);
+    dataHash = Bytes32.wrap(bytes);
+    keyPair = SECP256K1.KeyPair.generate();
+    signature = SECP256K1.sign(dataHash, keyPair);
+
+    final BytesValue encodedPublicKey =
+        BytesValues.concatenate(BytesValue.of(0x04), keyPair.getPublicKey().getEncodedBytes());
+    referenceVerifier = new ECDSASigner();
+    referenceVerifier.init(
+        false,
+        new ECPublicKeyParameters(
+            referenceCurve.getCurve().decodePoint(encodedPublicKey.extractArray()),
+            referenceCurve));
+  }
+
+  @Benchmark
+  public Optional<SECP256K1.PublicKey> recoverPublicKey() {
+    return SECP256K1.PublicKey.recoverFromSignature(dataHash, signature);
+  }
+
+  @Benchmark
+  public BigInteger recoverPublicKeyWithReferenceCurve() {
+    return SECP256K1.recoverFromSignature(
+        referenceCurve, signature.getRecId(), signature.getR(), signature.getS(), dataHash);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return SECP256K1.verify(dataHash, signature, keyPair.getPublicKey());
+  }
+
+  @Benchmark
+  public boolean verifyWithReferenceCurve() {
+    return referenceVerifier.verifySignature(
+        dataHash.extractArray(), signature.getR(), signature.getS());
+  }
+
+  @Benchmark
+  public SECP256K1.Signature sign() {
+    return SECP256K1.sign(dataHash, keyPair);
+  }
+}
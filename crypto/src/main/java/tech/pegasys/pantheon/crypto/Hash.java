@@ -15,13 +15,22 @@ package tech.pegasys.pantheon.crypto;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.Security;
+import java.util.function.Supplier;
 
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+import org.bouncycastle.crypto.digests.RIPEMD160Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
-/** Various utilities for providing hashes (digests) of arbitrary data. */
+/**
+ * Various utilities for providing hashes (digests) of arbitrary data.
+ *
+ * <p>Each thread reuses one instance of each of Bouncy Castle's lightweight digests, rather than
+ * looking up a {@link java.security.MessageDigest} through the JCA providers, as these are computed
+ * far too often to pay for a lookup, a new digest and the JCA wrapper every time.
+ */
 public abstract class Hash {
   private Hash() {}
 
@@ -31,53 +40,54 @@ public abstract class Hash {
 
   public static final String KECCAK256_ALG = "KECCAK-256";
 
-  private static final String SHA256_ALG = "SHA-256";
-  private static final String RIPEMD160 = "RIPEMD160";
+  private static final ThreadLocal<Digest> KECCAK256 = threadLocal(() -> new KeccakDigest(256));
+  private static final ThreadLocal<Digest> SHA256_DIGEST = threadLocal(SHA256Digest::new);
+  private static final ThreadLocal<Digest> RIPEMD160_DIGEST = threadLocal(RIPEMD160Digest::new);
+
+  private static ThreadLocal<Digest> threadLocal(final Supplier<Digest> factory) {
+    return ThreadLocal.withInitial(factory);
+  }
 
   /**
-   * Helper method to generate a digest using the provided algorithm.
+   * Helper method to generate a digest using the current thread's instance of a digest.
    *
    * @param input The input bytes to produce the digest for.
-   * @param alg The name of the digest algorithm to use.
+   * @param digests The thread local instances of the digest to use.
    * @return A digest.
    */
-  private static byte[] digestUsingAlgorithm(final byte[] input, final String alg) {
-    final MessageDigest digest;
-    try {
-      digest = BouncyCastleMessageDigestFactory.create(alg);
-      digest.update(input);
-      return digest.digest();
-    } catch (final NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+  private static byte[] digest(final BytesValue input, final ThreadLocal<Digest> digests) {
+    // Only copies values that don't cover the whole of their backing array.
+    return digest(input.getArrayUnsafe(), digests);
+  }
+
+  private static byte[] digest(final byte[] input, final ThreadLocal<Digest> digests) {
+    final Digest digest = digests.get();
+    // Left over input from a digest that failed part way through would corrupt this one.
+    digest.reset();
+    digest.update(input, 0, input.length);
+    final byte[] output = new byte[digest.getDigestSize()];
+    digest.doFinal(output, 0);
+    return output;
   }
 
   /**
-   * Helper method to generate a digest using the provided algorithm.
+   * Digest using SHA2-256.
    *
    * @param input The input bytes to produce the digest for.
-   * @param alg The name of the digest algorithm to use.
    * @return A digest.
    */
-  private static byte[] digestUsingAlgorithm(final BytesValue input, final String alg) {
-    final MessageDigest digest;
-    try {
-      digest = BouncyCastleMessageDigestFactory.create(alg);
-      input.update(digest);
-      return digest.digest();
-    } catch (final NoSuchAlgorithmException e) {
-      throw new RuntimeException(e);
-    }
+  public static Bytes32 sha256(final BytesValue input) {
+    return Bytes32.wrap(digest(input, SHA256_DIGEST));
   }
 
   /**
-   * Digest using SHA2-256.
+   * Digest using keccak-256.
    *
    * @param input The input bytes to produce the digest for.
    * @return A digest.
    */
-  public static Bytes32 sha256(final BytesValue input) {
-    return Bytes32.wrap(digestUsingAlgorithm(input, SHA256_ALG));
+  public static Bytes32 keccak256(final BytesValue input) {
+    return Bytes32.wrap(digest(input, KECCAK256));
   }
 
   /**
@@ -86,8 +96,8 @@ public abstract class Hash {
    * @param input The input bytes to produce the digest for.
    * @return A digest.
    */
-  public static Bytes32 keccak256(final BytesValue input) {
-    return Bytes32.wrap(digestUsingAlgorithm(input, KECCAK256_ALG));
+  public static Bytes32 keccak256(final byte[] input) {
+    return Bytes32.wrap(digest(input, KECCAK256));
   }
 
   /**
@@ -97,6 +107,6 @@ public abstract class Hash {
    * @return A digest.
    */
   public static BytesValue ripemd160(final BytesValue input) {
-    return BytesValue.wrap(digestUsingAlgorithm(input, RIPEMD160));
+    return BytesValue.wrap(digest(input, RIPEMD160_DIGEST));
   }
 }
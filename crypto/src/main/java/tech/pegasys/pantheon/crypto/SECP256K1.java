@@ -40,12 +40,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
-import org.bouncycastle.asn1.sec.SECNamedCurves;
 import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.asn1.x9.X9IntegerConverter;
 import org.bouncycastle.crypto.agreement.ECDHBasicAgreement;
 import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
@@ -55,6 +56,7 @@ import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 import org.bouncycastle.math.ec.custom.sec.SecP256K1Curve;
@@ -82,7 +84,9 @@ public class SECP256K1 {
   static {
     Security.addProvider(new BouncyCastleProvider());
 
-    final X9ECParameters params = SECNamedCurves.getByName(CURVE_NAME);
+    // The custom curve implements the field arithmetic on fixed-size limbs and multiplies points
+    // using the curve's GLV endomorphism.
+    final X9ECParameters params = CustomNamedCurves.getByName(CURVE_NAME);
     CURVE = new ECDomainParameters(params.getCurve(), params.getG(), params.getN(), params.getH());
     CURVE_ORDER = CURVE.getN();
     HALF_CURVE_ORDER = CURVE_ORDER.shiftRight(1);
@@ -100,13 +104,14 @@ public class SECP256K1 {
   }
 
   /** Decompress a compressed public key (x co-ord and low-bit of y-coord). */
-  private static ECPoint decompressKey(final BigInteger xBN, final boolean yBit) {
+  private static ECPoint decompressKey(
+      final ECCurve curve, final BigInteger xBN, final boolean yBit) {
     final X9IntegerConverter x9 = new X9IntegerConverter();
-    final byte[] compEnc = x9.integerToBytes(xBN, 1 + x9.getByteLength(CURVE.getCurve()));
+    final byte[] compEnc = x9.integerToBytes(xBN, 1 + x9.getByteLength(curve));
     compEnc[0] = (byte) (yBit ? 0x03 : 0x02);
     // TODO: Find a better way to handle an invalid point compression here.
     // Currently ECCurve#decodePoint throws an IllegalArgumentException.
-    return CURVE.getCurve().decodePoint(compEnc);
+    return curve.decodePoint(compEnc);
   }
 
   /**
@@ -127,6 +132,22 @@ public class SECP256K1 {
    */
   private static BigInteger recoverFromSignature(
       final int recId, final BigInteger r, final BigInteger s, final Bytes32 dataHash) {
+    return recoverFromSignature(CURVE, recId, r, s, dataHash);
+  }
+
+  /**
+   * Recovers the public key that generated a signature on the given curve, as {@link
+   * #recoverFromSignature(int, BigInteger, BigInteger, Bytes32)} does on {@link #CURVE}. The
+   * generic Bouncy Castle implementation of secp256k1 can be passed to check the results of the
+   * optimised one against.
+   */
+  @VisibleForTesting
+  static BigInteger recoverFromSignature(
+      final ECDomainParameters curve,
+      final int recId,
+      final BigInteger r,
+      final BigInteger s,
+      final Bytes32 dataHash) {
     assert (recId >= 0);
     assert (r.signum() >= 0);
     assert (s.signum() >= 0);
@@ -134,7 +155,7 @@ public class SECP256K1 {
 
     // 1.0 For j from 0 to h (h == recId here and the loop is outside this function)
     // 1.1 Let x = r + jn
-    final BigInteger n = CURVE.getN(); // Curve order.
+    final BigInteger n = curve.getN(); // Curve order.
     final BigInteger i = BigInteger.valueOf((long) recId / 2);
     final BigInteger x = r.add(i.multiply(n));
     // 1.2. Convert the integer x to an octet string X of length mlen using the conversion
@@ -151,10 +172,13 @@ public class SECP256K1 {
     }
     // Compressed keys require you to know an extra bit of data about the y-coord as there are
     // two possibilities. So it's encoded in the recId.
-    final ECPoint R = decompressKey(x, (recId & 1) == 1);
+    final ECPoint R = decompressKey(curve.getCurve(), x, (recId & 1) == 1);
     // 1.4. If nR != point at infinity, then do another iteration of Step 1 (callers
     // responsibility).
-    if (!R.multiply(n).isInfinity()) {
+    //
+    // With a cofactor of 1, as secp256k1 has, every point on the curve is a multiple of G, so nR
+    // is always the point at infinity and the costly multiplication can be skipped.
+    if (!curve.getH().equals(BigInteger.ONE) && !R.multiply(n).isInfinity()) {
       return null;
     }
     // 1.5. Compute e from M using Steps 2 and 3 of ECDSA signature verification.
@@ -177,7 +201,7 @@ public class SECP256K1 {
     final BigInteger rInv = r.modInverse(n);
     final BigInteger srInv = rInv.multiply(s).mod(n);
     final BigInteger eInvrInv = rInv.multiply(eInv).mod(n);
-    final ECPoint q = ECAlgorithms.sumOfTwoMultiplies(CURVE.getG(), eInvrInv, R, srInv);
+    final ECPoint q = ECAlgorithms.sumOfTwoMultiplies(curve.getG(), eInvrInv, R, srInv);
 
     if (q.isInfinity()) {
       return null;
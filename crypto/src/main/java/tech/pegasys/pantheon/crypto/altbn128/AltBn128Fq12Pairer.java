@@ -12,14 +12,20 @@
  */
 package tech.pegasys.pantheon.crypto.altbn128;
 
-import static tech.pegasys.pantheon.crypto.altbn128.AltBn128Fq12Point.twist;
+import static tech.pegasys.pantheon.crypto.altbn128.MontgomeryFq.LIMBS;
 
 import java.math.BigInteger;
-import java.util.Arrays;
 
 /**
  * Adapted from the pc_ecc (Apache 2 License) implementation:
  * https://github.com/ethereum/py_ecc/blob/master/py_ecc/bn128/bn128_field_elements.py
+ *
+ * <p>The arithmetic is done on {@link MutableFq2} and {@link MutableFq12} values rather than the
+ * immutable field elements, and the results are the same as those of py_ecc. The Miller loop keeps
+ * its point on the twist over {@link Fq2}, where py_ecc twists it into {@link Fq12} first, and
+ * evaluates the same line functions directly. The final exponentiation raises to {@code p^6 - 1}
+ * and {@code p^2 + 1} with the Frobenius map, and to the remaining factor as a product of
+ * Frobenius images.
  */
 public class AltBn128Fq12Pairer {
 
@@ -31,74 +37,189 @@ public class AltBn128Fq12Pairer {
       new BigInteger(
           "21888242871839275222246405745257275088548364400416034343698204186575808495617");
 
-  public static Fq12 pair(final AltBn128Point p, final AltBn128Fq2Point q) {
-    return millerLoop(cast(p), twist(q));
+  // The Frobenius map takes a twisted point (x w^2, y w^3) to (x' w^2, y' w^3) with
+  // x' = conj(x) * (9 + i)^((p - 1) / 3) and y' = conj(y) * (9 + i)^((p - 1) / 2).
+  private static final MutableFq2 FROBENIUS_X;
+  private static final MutableFq2 FROBENIUS_Y;
+
+  // (p^4 - p^2 + 1) / r, the part of the final exponent that isn't a polynomial in p, in base p.
+  private static final BigInteger[] HARD_EXPONENT_DIGITS = new BigInteger[4];
+
+  static {
+    final BigInteger p = FieldElement.FIELD_MODULUS;
+    final Fq2 xi = Fq2.create(9, 1);
+    FROBENIUS_X = MutableFq2.of(xi.power(p.subtract(BigInteger.ONE).divide(BigInteger.valueOf(3))));
+    FROBENIUS_Y = MutableFq2.of(xi.power(p.subtract(BigInteger.ONE).divide(BigInteger.valueOf(2))));
+
+    BigInteger hardExponent = p.pow(4).subtract(p.pow(2)).add(BigInteger.ONE).divide(CURVE_ORDER);
+    for (int i = 0; i < HARD_EXPONENT_DIGITS.length; i++) {
+      final BigInteger[] quotientAndRemainder = hardExponent.divideAndRemainder(p);
+      HARD_EXPONENT_DIGITS[i] = quotientAndRemainder[1];
+      hardExponent = quotientAndRemainder[0];
+    }
   }
 
-  private static AltBn128Fq12Point cast(final AltBn128Point p) {
-    final Fq[] newX = new Fq[Fq12.DEGREE];
-    Arrays.fill(newX, Fq.zero());
-    newX[0] = p.getX();
-    final Fq[] newY = new Fq[Fq12.DEGREE];
-    Arrays.fill(newY, Fq.zero());
-    newY[0] = p.getY();
-
-    return new AltBn128Fq12Point(new Fq12(newX), new Fq12(newY));
+  public static Fq12 pair(final AltBn128Point p, final AltBn128Fq2Point q) {
+    return millerLoop(p, q).toFq12();
   }
 
-  private static Fq12 millerLoop(final AltBn128Fq12Point p, final AltBn128Fq12Point q) {
-    if (p.isInfinity() || q.isInfinity()) {
-      return Fq12.one();
+  private static MutableFq12 millerLoop(final AltBn128Point p, final AltBn128Fq2Point q) {
+    final TwistPoint twistedQ = TwistPoint.of(q);
+    if (p.isInfinity() || twistedQ.isInfinity()) {
+      return MutableFq12.one();
     }
 
-    AltBn128Fq12Point r = q;
-    Fq12 f = Fq12.one();
+    final long[] xP = new long[LIMBS];
+    MontgomeryFq.set(p.getX().toBigInteger(), xP, 0);
+    final long[] negatedYP = new long[LIMBS];
+    MontgomeryFq.set(p.getY().toBigInteger().negate(), negatedYP, 0);
+
+    final TwistPoint r = twistedQ.copy();
+    final MutableFq12 f = MutableFq12.one();
     for (int i = LOG_ATE_LOOP_COUNT; i >= 0; --i) {
-      f = f.multiply(f).multiply(lineFunc(r, r, p));
-      r = r.doub();
+      f.square().multiply(r.addAndGetLine(r, xP, negatedYP));
       if (ATE_LOOP_COUNT.testBit(i)) {
-        f = f.multiply(lineFunc(r, q, p));
-        r = r.add(q);
+        f.multiply(r.addAndGetLine(twistedQ, xP, negatedYP));
       }
     }
 
-    final AltBn128Fq12Point q1 =
-        new AltBn128Fq12Point(
-            q.getX().power(FieldElement.FIELD_MODULUS), q.getY().power(FieldElement.FIELD_MODULUS));
-    final AltBn128Fq12Point nQ2 =
-        new AltBn128Fq12Point(
-            q1.getX().power(FieldElement.FIELD_MODULUS),
-            q1.getY().negate().power(FieldElement.FIELD_MODULUS));
-    f = f.multiply(lineFunc(r, q1, p));
-    r = r.add(q1);
-    f = f.multiply(lineFunc(r, nQ2, p));
+    final TwistPoint q1 = twistedQ.frobenius();
+    final TwistPoint nQ2 = q1.frobenius().negate();
+    f.multiply(r.addAndGetLine(q1, xP, negatedYP));
+    f.multiply(r.copy().addAndGetLine(nQ2, xP, negatedYP));
 
     return f;
   }
 
   public static Fq12 finalize(final Fq12 f) {
-    return f.power(FieldElement.FIELD_MODULUS.pow(12).subtract(BigInteger.ONE).divide(CURVE_ORDER));
+    final MutableFq12 value = MutableFq12.of(f);
+    if (value.isZero()) {
+      return value.toFq12();
+    }
+
+    // f^((p^6 - 1)(p^2 + 1)) = (f^(p^6) / f)^(p^2) * (f^(p^6) / f)
+    final MutableFq12 inverse = value.copy().inverse();
+    for (int i = 0; i < 6; i++) {
+      value.frobenius();
+    }
+    value.multiply(inverse);
+    final MutableFq12 easy = value.copy().frobenius().frobenius().multiply(value);
+
+    // easy^((p^4 - p^2 + 1) / r) is the product of (easy^(p^i))^digit_i, so all four powers are
+    // taken together, sharing their squarings.
+    final MutableFq12[] products = new MutableFq12[1 << HARD_EXPONENT_DIGITS.length];
+    products[1] = easy;
+    for (int i = 1; i < HARD_EXPONENT_DIGITS.length; i++) {
+      products[1 << i] = products[1 << (i - 1)].copy().frobenius();
+    }
+    for (int mask = 3; mask < products.length; mask++) {
+      final int lowestBit = Integer.lowestOneBit(mask);
+      if (mask != lowestBit) {
+        products[mask] = products[mask ^ lowestBit].copy().multiply(products[lowestBit]);
+      }
+    }
+
+    int bits = 0;
+    for (final BigInteger digit : HARD_EXPONENT_DIGITS) {
+      bits = Math.max(bits, digit.bitLength());
+    }
+    final MutableFq12 result = MutableFq12.one();
+    for (int bit = bits - 1; bit >= 0; bit--) {
+      result.square();
+      int mask = 0;
+      for (int i = 0; i < HARD_EXPONENT_DIGITS.length; i++) {
+        if (HARD_EXPONENT_DIGITS[i].testBit(bit)) {
+          mask |= 1 << i;
+        }
+      }
+      if (mask != 0) {
+        result.multiply(products[mask]);
+      }
+    }
+    return result.toFq12();
   }
 
-  private static Fq12 lineFunc(
-      final AltBn128Fq12Point p1, final AltBn128Fq12Point p2, final AltBn128Fq12Point t) {
-    final Fq12 x1 = p1.getX();
-    final Fq12 y1 = p1.getY();
-    final Fq12 x2 = p2.getX();
-    final Fq12 y2 = p2.getY();
-    final Fq12 xT = t.getX();
-    final Fq12 yT = t.getY();
-
-    if (!x1.equals(x2)) {
-      final Fq12 m = y2.subtract(y1).divide(x2.subtract(x1));
-      final Fq12 result = m.multiply(xT.subtract(x1)).subtract(yT.subtract(y1));
-      return result;
-    } else if (y1.equals(y2)) {
-      final Fq12 m = x1.power(2).multiply(3).divide(y1.multiply(2));
-      final Fq12 result = m.multiply(xT.subtract(x1)).subtract(yT.subtract(y1));
-      return result;
-    } else {
-      return xT.subtract(x1);
+  /**
+   * An affine point {@code (x, y)} on the twist curve over {@link Fq2}, standing for the point
+   * {@code (x w^2, y w^3)} on the curve over {@link Fq12}. As in {@link AbstractFieldPoint}, the
+   * point at infinity is {@code (0, 0)}.
+   */
+  private static class TwistPoint {
+    private MutableFq2 x;
+    private MutableFq2 y;
+
+    private TwistPoint(final MutableFq2 x, final MutableFq2 y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    static TwistPoint of(final AltBn128Fq2Point point) {
+      return new TwistPoint(MutableFq2.of(point.getX()), MutableFq2.of(point.getY()));
+    }
+
+    TwistPoint copy() {
+      return new TwistPoint(x.copy(), y.copy());
+    }
+
+    boolean isInfinity() {
+      return x.isZero() && y.isZero();
+    }
+
+    TwistPoint frobenius() {
+      return new TwistPoint(
+          x.copy().conjugate().multiply(FROBENIUS_X), y.copy().conjugate().multiply(FROBENIUS_Y));
+    }
+
+    TwistPoint negate() {
+      y.negate();
+      return this;
+    }
+
+    /**
+     * Evaluates the line through this point and {@code other} at the point {@code (xP, yP)} of
+     * the curve over the base field, then adds {@code other} to this point.
+     *
+     * @return The line function, as py_ecc computes it on the points twisted into {@link Fq12}.
+     */
+    MutableFq12 addAndGetLine(final TwistPoint other, final long[] xP, final long[] negatedYP) {
+      final MutableFq12 line = new MutableFq12();
+      final MutableFq2 slope;
+      if (!x.isEqualTo(other.x)) {
+        slope = other.y.copy().subtract(y).multiply(other.x.copy().subtract(x).inverse());
+      } else if (y.isEqualTo(other.y)) {
+        final MutableFq2 xSquared = x.copy().square();
+        slope = xSquared.copy().add(xSquared).add(xSquared).multiply(y.copy().add(y).inverse());
+      } else {
+        // The vertical line x = x1: xP - x1 w^2
+        line.set(0, xP, 0).set(2, x.copy().negate());
+        add(other, null);
+        return line;
+      }
+      // The line through the twisted points has slope m = slope * w, so
+      // m (xP - x1 w^2) - (yP - y1 w^3) = -yP + slope xP w + (y1 - slope x1) w^3
+      line.set(0, negatedYP, 0)
+          .set(1, slope.copy().multiply(xP, 0))
+          .set(3, y.copy().subtract(slope.copy().multiply(x)));
+      add(other, slope);
+      return line;
+    }
+
+    // Adds other to this point as AbstractFieldPoint does, given the slope of the line through
+    // them, which is null when the line is vertical.
+    private void add(final TwistPoint other, final MutableFq2 slope) {
+      if (isInfinity()) {
+        x = other.x.copy();
+        y = other.y.copy();
+      } else if (slope == null) {
+        x = new MutableFq2();
+        y = new MutableFq2();
+      } else {
+        // x3 = m^2 - x1 - x2, y3 = m (x1 - x3) - y1
+        final MutableFq2 newX = slope.copy().square().subtract(x).subtract(other.x);
+        final MutableFq2 newY = x.copy().subtract(newX).multiply(slope).subtract(y);
+        x = newX;
+        y = newY;
+      }
     }
   }
 }
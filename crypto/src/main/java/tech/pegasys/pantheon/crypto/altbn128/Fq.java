@@ -54,6 +54,10 @@ public class Fq implements FieldElement<Fq> {
     return BytesValues.trimLeadingZeros(BytesValue.wrap(n.toByteArray()));
   }
 
+  BigInteger toBigInteger() {
+    return n;
+  }
+
   @Override
   public boolean isZero() {
     return n.compareTo(BigInteger.ZERO) == 0;
@@ -98,20 +102,12 @@ public class Fq implements FieldElement<Fq> {
     if (a.compareTo(BigInteger.ZERO) == 0) {
       return BigInteger.ZERO;
     }
-    BigInteger lm = BigInteger.ONE;
-    BigInteger hm = BigInteger.ZERO;
-    BigInteger low = a.mod(n);
-    BigInteger high = n;
-    while (low.compareTo(BigInteger.ONE) > 0) {
-      final BigInteger r = high.divide(low);
-      final BigInteger nm = hm.subtract(lm.multiply(r));
-      final BigInteger neww = high.subtract(low.multiply(r));
-      high = low;
-      hm = lm;
-      low = neww;
-      lm = nm;
+    final BigInteger low = a.mod(n);
+    if (low.compareTo(BigInteger.ZERO) == 0) {
+      // Non-zero multiples of the modulus have always been given an inverse of one.
+      return BigInteger.ONE;
     }
-    return lm.mod(n);
+    return low.modInverse(n);
   }
 
   @Override
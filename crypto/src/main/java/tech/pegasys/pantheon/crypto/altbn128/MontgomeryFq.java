@@ -0,0 +1,265 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo {@link FieldElement#FIELD_MODULUS} on numbers in Montgomery form, held as
+ * eight 32-bit limbs, least significant first, in the low halves of consecutive longs. The limbs
+ * of a number start at an offset in a larger array so that the coefficients of an extension
+ * field element can be packed together and updated in place.
+ *
+ * <p>Every result is fully reduced, so two numbers are equal exactly when their limbs are.
+ */
+final class MontgomeryFq {
+
+  static final int LIMBS = 8;
+
+  private static final long MASK = 0xFFFFFFFFL;
+  private static final BigInteger MODULUS = FieldElement.FIELD_MODULUS;
+  private static final long[] MODULUS_LIMBS = new long[LIMBS];
+  private static final long P0 = limb(MODULUS, 0);
+  private static final long P1 = limb(MODULUS, 1);
+  private static final long P2 = limb(MODULUS, 2);
+  private static final long P3 = limb(MODULUS, 3);
+  private static final long P4 = limb(MODULUS, 4);
+  private static final long P5 = limb(MODULUS, 5);
+  private static final long P6 = limb(MODULUS, 6);
+  private static final long P7 = limb(MODULUS, 7);
+  private static final BigInteger R = BigInteger.ONE.shiftLeft(32 * LIMBS);
+  private static final BigInteger R_INVERSE = R.modInverse(MODULUS);
+  private static final BigInteger R_SQUARED = R.multiply(R).mod(MODULUS);
+  // -MODULUS^-1 mod 2^32, used to clear the lowest limb in each reduction step.
+  private static final long INVERSE =
+      MODULUS.negate().modInverse(BigInteger.ONE.shiftLeft(32)).longValue();
+
+  static {
+    toLimbs(MODULUS, MODULUS_LIMBS, 0);
+  }
+
+  private MontgomeryFq() {}
+
+  static void set(final BigInteger value, final long[] r, final int ri) {
+    toLimbs(value.mod(MODULUS).multiply(R).mod(MODULUS), r, ri);
+  }
+
+  static void setOne(final long[] r, final int ri) {
+    set(BigInteger.ONE, r, ri);
+  }
+
+  static BigInteger get(final long[] a, final int ai) {
+    return toBigInteger(a, ai).multiply(R_INVERSE).mod(MODULUS);
+  }
+
+  static boolean isZero(final long[] a, final int ai) {
+    for (int i = 0; i < LIMBS; i++) {
+      if (a[ai + i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean equal(final long[] a, final int ai, final long[] b, final int bi) {
+    for (int i = 0; i < LIMBS; i++) {
+      if (a[ai + i] != b[bi + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static void copy(final long[] a, final int ai, final long[] r, final int ri) {
+    System.arraycopy(a, ai, r, ri, LIMBS);
+  }
+
+  static void add(
+      final long[] a, final int ai, final long[] b, final int bi, final long[] r, final int ri) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long sum = a[ai + i] + b[bi + i] + carry;
+      r[ri + i] = sum & MASK;
+      carry = sum >>> 32;
+    }
+    // The modulus is below 2^254, so the sum can't overflow the limbs.
+    if (compareToModulus(r, ri) >= 0) {
+      subtractModulus(r, ri);
+    }
+  }
+
+  static void subtract(
+      final long[] a, final int ai, final long[] b, final int bi, final long[] r, final int ri) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long difference = a[ai + i] - b[bi + i] - borrow;
+      r[ri + i] = difference & MASK;
+      borrow = difference >>> 63;
+    }
+    if (borrow != 0) {
+      long carry = 0;
+      for (int i = 0; i < LIMBS; i++) {
+        final long sum = r[ri + i] + MODULUS_LIMBS[i] + carry;
+        r[ri + i] = sum & MASK;
+        carry = sum >>> 32;
+      }
+    }
+  }
+
+  static void negate(final long[] a, final int ai, final long[] r, final int ri) {
+    if (isZero(a, ai)) {
+      copy(a, ai, r, ri);
+      return;
+    }
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long difference = MODULUS_LIMBS[i] - a[ai + i] - borrow;
+      r[ri + i] = difference & MASK;
+      borrow = difference >>> 63;
+    }
+  }
+
+  /**
+   * Computes {@code a * b / R mod p}, the Montgomery product, interleaving each row of the
+   * multiplication with a reduction step. The limbs of {@code b}, the modulus and the running
+   * total are kept in locals.
+   */
+  static void multiply(
+      final long[] a, final int ai, final long[] b, final int bi, final long[] r, final int ri) {
+    final long b0 = b[bi + 0];
+    final long b1 = b[bi + 1];
+    final long b2 = b[bi + 2];
+    final long b3 = b[bi + 3];
+    final long b4 = b[bi + 4];
+    final long b5 = b[bi + 5];
+    final long b6 = b[bi + 6];
+    final long b7 = b[bi + 7];
+    long t0 = 0;
+    long t1 = 0;
+    long t2 = 0;
+    long t3 = 0;
+    long t4 = 0;
+    long t5 = 0;
+    long t6 = 0;
+    long t7 = 0;
+    long t8 = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long x = a[ai + i];
+      // Each sum is at most (2^32 - 1)^2 + 2 * (2^32 - 1), which fits in 64 unsigned bits.
+      long sum = t0 + x * b0;
+      t0 = sum & MASK;
+      sum = t1 + x * b1 + (sum >>> 32);
+      t1 = sum & MASK;
+      sum = t2 + x * b2 + (sum >>> 32);
+      t2 = sum & MASK;
+      sum = t3 + x * b3 + (sum >>> 32);
+      t3 = sum & MASK;
+      sum = t4 + x * b4 + (sum >>> 32);
+      t4 = sum & MASK;
+      sum = t5 + x * b5 + (sum >>> 32);
+      t5 = sum & MASK;
+      sum = t6 + x * b6 + (sum >>> 32);
+      t6 = sum & MASK;
+      sum = t7 + x * b7 + (sum >>> 32);
+      t7 = sum & MASK;
+      sum = t8 + (sum >>> 32);
+      t8 = sum & MASK;
+      final long t9 = sum >>> 32;
+
+      // Adding m * p clears the lowest limb, which is then shifted out.
+      final long m = (t0 * INVERSE) & MASK;
+      sum = t0 + m * P0;
+      sum = t1 + m * P1 + (sum >>> 32);
+      t0 = sum & MASK;
+      sum = t2 + m * P2 + (sum >>> 32);
+      t1 = sum & MASK;
+      sum = t3 + m * P3 + (sum >>> 32);
+      t2 = sum & MASK;
+      sum = t4 + m * P4 + (sum >>> 32);
+      t3 = sum & MASK;
+      sum = t5 + m * P5 + (sum >>> 32);
+      t4 = sum & MASK;
+      sum = t6 + m * P6 + (sum >>> 32);
+      t5 = sum & MASK;
+      sum = t7 + m * P7 + (sum >>> 32);
+      t6 = sum & MASK;
+      sum = t8 + (sum >>> 32);
+      t7 = sum & MASK;
+      t8 = t9 + (sum >>> 32);
+    }
+    r[ri + 0] = t0;
+    r[ri + 1] = t1;
+    r[ri + 2] = t2;
+    r[ri + 3] = t3;
+    r[ri + 4] = t4;
+    r[ri + 5] = t5;
+    r[ri + 6] = t6;
+    r[ri + 7] = t7;
+    // Both inputs are below the modulus, so the product is below twice the modulus.
+    if (t8 != 0 || compareToModulus(r, ri) >= 0) {
+      subtractModulus(r, ri);
+    }
+  }
+
+  /**
+   * Computes the multiplicative inverse of a non-zero number.
+   *
+   * @throws ArithmeticException if the number is zero.
+   */
+  static void inverse(final long[] a, final int ai, final long[] r, final int ri) {
+    // (aR)^-1 * R^2 = a^-1 * R
+    toLimbs(
+        toBigInteger(a, ai).modInverse(MODULUS).multiply(R_SQUARED).mod(MODULUS), r, ri);
+  }
+
+  private static int compareToModulus(final long[] a, final int ai) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      if (a[ai + i] != MODULUS_LIMBS[i]) {
+        return a[ai + i] < MODULUS_LIMBS[i] ? -1 : 1;
+      }
+    }
+    return 0;
+  }
+
+  private static void subtractModulus(final long[] r, final int ri) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long difference = r[ri + i] - MODULUS_LIMBS[i] - borrow;
+      r[ri + i] = difference & MASK;
+      borrow = difference >>> 63;
+    }
+  }
+
+  private static long limb(final BigInteger value, final int index) {
+    return value.shiftRight(32 * index).longValue() & MASK;
+  }
+
+  private static void toLimbs(final BigInteger value, final long[] r, final int ri) {
+    for (int i = 0; i < LIMBS; i++) {
+      r[ri + i] = limb(value, i);
+    }
+  }
+
+  private static BigInteger toBigInteger(final long[] a, final int ai) {
+    final byte[] bytes = new byte[4 * LIMBS + 1];
+    for (int i = 0; i < LIMBS; i++) {
+      final long limb = a[ai + i];
+      final int offset = bytes.length - 4 * (i + 1);
+      bytes[offset] = (byte) (limb >>> 24);
+      bytes[offset + 1] = (byte) (limb >>> 16);
+      bytes[offset + 2] = (byte) (limb >>> 8);
+      bytes[offset + 3] = (byte) limb;
+    }
+    return new BigInteger(bytes);
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import static tech.pegasys.pantheon.crypto.altbn128.MontgomeryFq.LIMBS;
+
+import java.math.BigInteger;
+
+/**
+ * An element of {@link Fq12}, a polynomial in {@code w} with {@code w^12 = 18 w^6 - 82}, held in
+ * Montgomery form and updated in place. Coefficients that are zero are skipped when multiplying,
+ * so multiplying by the sparse line functions of the pairing is cheap.
+ */
+final class MutableFq12 {
+
+  private static final int DEGREE = Fq12.DEGREE;
+  private static final int HALF_DEGREE = DEGREE / 2;
+
+  private static final long[] NINE = constant(9);
+  private static final long[] EIGHTEEN = constant(18);
+  private static final long[] EIGHTY_TWO = constant(82);
+
+  // FROBENIUS[i] is the image of w^i under x -> x^p, which is (gamma * w)^i for
+  // gamma = (9 + i)^((p - 1) / 6), as w^6 is 9 + i.
+  private static final MutableFq12[] FROBENIUS = new MutableFq12[DEGREE];
+
+  static {
+    final BigInteger exponent =
+        FieldElement.FIELD_MODULUS.subtract(BigInteger.ONE).divide(BigInteger.valueOf(6));
+    final MutableFq2 gamma = MutableFq2.of(Fq2.create(9, 1).power(exponent));
+    FROBENIUS[0] = one();
+    FROBENIUS[1] = new MutableFq12().set(1, gamma);
+    for (int i = 2; i < DEGREE; i++) {
+      FROBENIUS[i] = FROBENIUS[i - 1].copy().multiply(FROBENIUS[1]);
+    }
+  }
+
+  final long[] limbs = new long[DEGREE * LIMBS];
+
+  static MutableFq12 of(final Fq12 value) {
+    final Fq[] coefficients = value.getCoefficients();
+    final MutableFq12 result = new MutableFq12();
+    for (int i = 0; i < DEGREE; i++) {
+      MontgomeryFq.set(coefficients[i].toBigInteger(), result.limbs, i * LIMBS);
+    }
+    return result;
+  }
+
+  static MutableFq12 one() {
+    final MutableFq12 result = new MutableFq12();
+    MontgomeryFq.setOne(result.limbs, 0);
+    return result;
+  }
+
+  Fq12 toFq12() {
+    final Fq[] coefficients = new Fq[DEGREE];
+    for (int i = 0; i < DEGREE; i++) {
+      coefficients[i] = Fq.create(MontgomeryFq.get(limbs, i * LIMBS));
+    }
+    return new Fq12(coefficients);
+  }
+
+  MutableFq12 copy() {
+    final MutableFq12 result = new MutableFq12();
+    System.arraycopy(limbs, 0, result.limbs, 0, limbs.length);
+    return result;
+  }
+
+  boolean isZero() {
+    for (int i = 0; i < DEGREE; i++) {
+      if (!MontgomeryFq.isZero(limbs, i * LIMBS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sets the coefficient of {@code w^power} to a base field value.
+   *
+   * @param power The power of {@code w}, below 12.
+   * @param value The array holding the value.
+   * @param offset The offset of the value's limbs.
+   */
+  MutableFq12 set(final int power, final long[] value, final int offset) {
+    MontgomeryFq.copy(value, offset, limbs, power * LIMBS);
+    return this;
+  }
+
+  /**
+   * Sets the terms in {@code w^power} and {@code w^(power + 6)} to {@code value * w^power}, where
+   * {@code value = c0 + c1 * i} is embedded as {@code c0 + c1 * (w^6 - 9)}.
+   *
+   * @param power The power of {@code w}, below 6.
+   * @param value The {@link Fq2} value.
+   */
+  MutableFq12 set(final int power, final MutableFq2 value) {
+    final int low = power * LIMBS;
+    final int high = (power + HALF_DEGREE) * LIMBS;
+    MontgomeryFq.multiply(value.limbs, LIMBS, NINE, 0, limbs, low);
+    MontgomeryFq.subtract(value.limbs, 0, limbs, low, limbs, low);
+    MontgomeryFq.copy(value.limbs, LIMBS, limbs, high);
+    return this;
+  }
+
+  MutableFq12 multiply(final MutableFq12 other) {
+    final long[] product = new long[(2 * DEGREE - 1) * LIMBS];
+    final long[] term = new long[LIMBS];
+    for (int i = 0; i < DEGREE; i++) {
+      if (MontgomeryFq.isZero(limbs, i * LIMBS)) {
+        continue;
+      }
+      for (int j = 0; j < DEGREE; j++) {
+        if (MontgomeryFq.isZero(other.limbs, j * LIMBS)) {
+          continue;
+        }
+        MontgomeryFq.multiply(limbs, i * LIMBS, other.limbs, j * LIMBS, term, 0);
+        MontgomeryFq.add(product, (i + j) * LIMBS, term, 0, product, (i + j) * LIMBS);
+      }
+    }
+    reduce(product);
+    return this;
+  }
+
+  MutableFq12 square() {
+    final long[] product = new long[(2 * DEGREE - 1) * LIMBS];
+    final long[] term = new long[LIMBS];
+    for (int i = 0; i < DEGREE; i++) {
+      if (MontgomeryFq.isZero(limbs, i * LIMBS)) {
+        continue;
+      }
+      MontgomeryFq.multiply(limbs, i * LIMBS, limbs, i * LIMBS, term, 0);
+      MontgomeryFq.add(product, 2 * i * LIMBS, term, 0, product, 2 * i * LIMBS);
+      for (int j = i + 1; j < DEGREE; j++) {
+        if (MontgomeryFq.isZero(limbs, j * LIMBS)) {
+          continue;
+        }
+        MontgomeryFq.multiply(limbs, i * LIMBS, limbs, j * LIMBS, term, 0);
+        MontgomeryFq.add(term, 0, term, 0, term, 0);
+        MontgomeryFq.add(product, (i + j) * LIMBS, term, 0, product, (i + j) * LIMBS);
+      }
+    }
+    reduce(product);
+    return this;
+  }
+
+  /** Raises this element to the power of the field modulus. */
+  MutableFq12 frobenius() {
+    final long[] result = new long[DEGREE * LIMBS];
+    final long[] term = new long[LIMBS];
+    for (int i = 0; i < DEGREE; i++) {
+      if (MontgomeryFq.isZero(limbs, i * LIMBS)) {
+        continue;
+      }
+      final long[] image = FROBENIUS[i].limbs;
+      for (int j = 0; j < DEGREE; j++) {
+        if (MontgomeryFq.isZero(image, j * LIMBS)) {
+          continue;
+        }
+        MontgomeryFq.multiply(limbs, i * LIMBS, image, j * LIMBS, term, 0);
+        MontgomeryFq.add(result, j * LIMBS, term, 0, result, j * LIMBS);
+      }
+    }
+    System.arraycopy(result, 0, limbs, 0, limbs.length);
+    return this;
+  }
+
+  /**
+   * Replaces this element with its multiplicative inverse, found by solving {@code this * x = 1}
+   * as a system of linear equations in the coefficients of {@code x}.
+   *
+   * @throws ArithmeticException if this element is zero.
+   */
+  MutableFq12 inverse() {
+    final int columns = DEGREE + 1;
+    // Column j holds the coefficients of this * w^j, and the last column those of 1.
+    final long[][] rows = new long[DEGREE][columns * LIMBS];
+    final long[] multiple = limbs.clone();
+    for (int j = 0; j < DEGREE; j++) {
+      for (int i = 0; i < DEGREE; i++) {
+        MontgomeryFq.copy(multiple, i * LIMBS, rows[i], j * LIMBS);
+      }
+      multiplyByW(multiple);
+    }
+    MontgomeryFq.setOne(rows[0], DEGREE * LIMBS);
+
+    final long[] term = new long[LIMBS];
+    for (int column = 0; column < DEGREE; column++) {
+      int pivot = column;
+      while (MontgomeryFq.isZero(rows[pivot], column * LIMBS)) {
+        if (++pivot == DEGREE) {
+          throw new ArithmeticException("Zero has no inverse");
+        }
+      }
+      final long[] pivotRow = rows[pivot];
+      rows[pivot] = rows[column];
+      rows[column] = pivotRow;
+
+      MontgomeryFq.inverse(pivotRow, column * LIMBS, term, 0);
+      for (int j = column; j < columns; j++) {
+        MontgomeryFq.multiply(pivotRow, j * LIMBS, term, 0, pivotRow, j * LIMBS);
+      }
+      for (int i = 0; i < DEGREE; i++) {
+        final long[] row = rows[i];
+        if (i == column || MontgomeryFq.isZero(row, column * LIMBS)) {
+          continue;
+        }
+        final long[] factor = new long[LIMBS];
+        MontgomeryFq.copy(row, column * LIMBS, factor, 0);
+        for (int j = column; j < columns; j++) {
+          MontgomeryFq.multiply(pivotRow, j * LIMBS, factor, 0, term, 0);
+          MontgomeryFq.subtract(row, j * LIMBS, term, 0, row, j * LIMBS);
+        }
+      }
+    }
+
+    for (int i = 0; i < DEGREE; i++) {
+      MontgomeryFq.copy(rows[i], DEGREE * LIMBS, limbs, i * LIMBS);
+    }
+    return this;
+  }
+
+  // Folds the terms in w^12 and above back into the lower ones, using w^12 = 18 w^6 - 82, and
+  // stores the result in this element.
+  private void reduce(final long[] product) {
+    final long[] term = new long[LIMBS];
+    for (int i = 2 * DEGREE - 2; i >= DEGREE; i--) {
+      if (MontgomeryFq.isZero(product, i * LIMBS)) {
+        continue;
+      }
+      MontgomeryFq.multiply(product, i * LIMBS, EIGHTEEN, 0, term, 0);
+      MontgomeryFq.add(
+          product, (i - HALF_DEGREE) * LIMBS, term, 0, product, (i - HALF_DEGREE) * LIMBS);
+      MontgomeryFq.multiply(product, i * LIMBS, EIGHTY_TWO, 0, term, 0);
+      MontgomeryFq.subtract(product, (i - DEGREE) * LIMBS, term, 0, product, (i - DEGREE) * LIMBS);
+    }
+    System.arraycopy(product, 0, limbs, 0, limbs.length);
+  }
+
+  private static void multiplyByW(final long[] coefficients) {
+    final long[] top = new long[LIMBS];
+    MontgomeryFq.copy(coefficients, (DEGREE - 1) * LIMBS, top, 0);
+    System.arraycopy(coefficients, 0, coefficients, LIMBS, (DEGREE - 1) * LIMBS);
+    final long[] term = new long[LIMBS];
+    MontgomeryFq.multiply(top, 0, EIGHTEEN, 0, term, 0);
+    MontgomeryFq.add(coefficients, HALF_DEGREE * LIMBS, term, 0, coefficients, HALF_DEGREE * LIMBS);
+    MontgomeryFq.multiply(top, 0, EIGHTY_TWO, 0, term, 0);
+    MontgomeryFq.negate(term, 0, coefficients, 0);
+  }
+
+  private static long[] constant(final long value) {
+    final long[] result = new long[LIMBS];
+    MontgomeryFq.set(BigInteger.valueOf(value), result, 0);
+    return result;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import static tech.pegasys.pantheon.crypto.altbn128.MontgomeryFq.LIMBS;
+
+/**
+ * An element of {@link Fq2}, {@code c0 + c1 * i} with {@code i^2 = -1}, held in Montgomery form
+ * and updated in place.
+ */
+final class MutableFq2 {
+
+  private static final int C0 = 0;
+  private static final int C1 = LIMBS;
+
+  final long[] limbs = new long[2 * LIMBS];
+
+  static MutableFq2 of(final Fq2 value) {
+    final Fq[] coefficients = value.getCoefficients();
+    final MutableFq2 result = new MutableFq2();
+    MontgomeryFq.set(coefficients[0].toBigInteger(), result.limbs, C0);
+    MontgomeryFq.set(coefficients[1].toBigInteger(), result.limbs, C1);
+    return result;
+  }
+
+  MutableFq2 copy() {
+    final MutableFq2 result = new MutableFq2();
+    System.arraycopy(limbs, 0, result.limbs, 0, limbs.length);
+    return result;
+  }
+
+  boolean isZero() {
+    return MontgomeryFq.isZero(limbs, C0) && MontgomeryFq.isZero(limbs, C1);
+  }
+
+  boolean isEqualTo(final MutableFq2 other) {
+    return MontgomeryFq.equal(limbs, C0, other.limbs, C0)
+        && MontgomeryFq.equal(limbs, C1, other.limbs, C1);
+  }
+
+  MutableFq2 add(final MutableFq2 other) {
+    MontgomeryFq.add(limbs, C0, other.limbs, C0, limbs, C0);
+    MontgomeryFq.add(limbs, C1, other.limbs, C1, limbs, C1);
+    return this;
+  }
+
+  MutableFq2 subtract(final MutableFq2 other) {
+    MontgomeryFq.subtract(limbs, C0, other.limbs, C0, limbs, C0);
+    MontgomeryFq.subtract(limbs, C1, other.limbs, C1, limbs, C1);
+    return this;
+  }
+
+  MutableFq2 negate() {
+    MontgomeryFq.negate(limbs, C0, limbs, C0);
+    MontgomeryFq.negate(limbs, C1, limbs, C1);
+    return this;
+  }
+
+  /** Raises this element to the power of the field modulus, which negates {@code c1}. */
+  MutableFq2 conjugate() {
+    MontgomeryFq.negate(limbs, C1, limbs, C1);
+    return this;
+  }
+
+  MutableFq2 multiply(final MutableFq2 other) {
+    final long[] t = new long[3 * LIMBS];
+    final long[] b = other.limbs;
+    // (a0 + a1 i)(b0 + b1 i) = a0 b0 - a1 b1 + ((a0 + a1)(b0 + b1) - a0 b0 - a1 b1) i
+    MontgomeryFq.multiply(limbs, C0, b, C0, t, 0);
+    MontgomeryFq.multiply(limbs, C1, b, C1, t, LIMBS);
+    MontgomeryFq.add(b, C0, b, C1, t, 2 * LIMBS);
+    MontgomeryFq.add(limbs, C0, limbs, C1, limbs, C1);
+    MontgomeryFq.multiply(limbs, C1, t, 2 * LIMBS, limbs, C1);
+    MontgomeryFq.subtract(limbs, C1, t, 0, limbs, C1);
+    MontgomeryFq.subtract(limbs, C1, t, LIMBS, limbs, C1);
+    MontgomeryFq.subtract(t, 0, t, LIMBS, limbs, C0);
+    return this;
+  }
+
+  /**
+   * Multiplies this element by a base field value.
+   *
+   * @param value The array holding the value, in Montgomery form.
+   * @param offset The offset of the value's limbs.
+   */
+  MutableFq2 multiply(final long[] value, final int offset) {
+    MontgomeryFq.multiply(limbs, C0, value, offset, limbs, C0);
+    MontgomeryFq.multiply(limbs, C1, value, offset, limbs, C1);
+    return this;
+  }
+
+  MutableFq2 square() {
+    final long[] t = new long[2 * LIMBS];
+    // (a0 + a1 i)^2 = (a0 + a1)(a0 - a1) + 2 a0 a1 i
+    MontgomeryFq.add(limbs, C0, limbs, C1, t, 0);
+    MontgomeryFq.subtract(limbs, C0, limbs, C1, t, LIMBS);
+    MontgomeryFq.multiply(limbs, C0, limbs, C1, limbs, C1);
+    MontgomeryFq.add(limbs, C1, limbs, C1, limbs, C1);
+    MontgomeryFq.multiply(t, 0, t, LIMBS, limbs, C0);
+    return this;
+  }
+
+  /**
+   * Replaces this element with its multiplicative inverse.
+   *
+   * @throws ArithmeticException if this element is zero.
+   */
+  MutableFq2 inverse() {
+    final long[] t = new long[2 * LIMBS];
+    // (a0 + a1 i)^-1 = (a0 - a1 i) / (a0^2 + a1^2)
+    MontgomeryFq.multiply(limbs, C0, limbs, C0, t, 0);
+    MontgomeryFq.multiply(limbs, C1, limbs, C1, t, LIMBS);
+    MontgomeryFq.add(t, 0, t, LIMBS, t, 0);
+    MontgomeryFq.inverse(t, 0, t, 0);
+    MontgomeryFq.multiply(limbs, C0, t, 0, limbs, C0);
+    MontgomeryFq.multiply(limbs, C1, t, 0, limbs, C1);
+    MontgomeryFq.negate(limbs, C1, limbs, C1);
+    return this;
+  }
+}
@@ -35,4 +35,25 @@ public class HashTest {
     final BytesValue resultCow = Hash.keccak256(BytesValue.wrap("cow".getBytes(UTF_8)));
     assertEquals(BytesValue.fromHexString(cowKeccak256), resultCow);
   }
+
+  @Test
+  public void keccak256HashOfSlice() {
+    final BytesValue horse = BytesValue.wrap("a horse!".getBytes(UTF_8)).slice(2, 5);
+    assertEquals(BytesValue.fromHexString(horseKeccak256), Hash.keccak256(horse));
+  }
+
+  @Test
+  public void sha256Hash() {
+    assertEquals(
+        BytesValue.fromHexString(
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"),
+        Hash.sha256(BytesValue.wrap("abc".getBytes(UTF_8))));
+  }
+
+  @Test
+  public void ripemd160Hash() {
+    assertEquals(
+        BytesValue.fromHexString("8eb208f7e05d987a9b044a8e98c6b087f15a0bfc"),
+        Hash.ripemd160(BytesValue.wrap("abc".getBytes(UTF_8))));
+  }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.Random;
+
+import org.bouncycastle.asn1.sec.SECNamedCurves;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.Test;
+
+/**
+ * Checks the optimised secp256k1 curve used by {@link SECP256K1} against the generic Bouncy Castle
+ * implementation of the same curve.
+ */
+public class SECP256K1DifferentialTest {
+
+  private static final int ITERATIONS = 200;
+
+  private static final ECDomainParameters REFERENCE_CURVE;
+
+  static {
+    final X9ECParameters params = SECNamedCurves.getByName("secp256k1");
+    REFERENCE_CURVE =
+        new ECDomainParameters(params.getCurve(), params.getG(), params.getN(), params.getH());
+  }
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void shouldRecoverSameKeyFromValidSignatures() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+      final Bytes32 dataHash = randomBytes32();
+      final SECP256K1.Signature signature = SECP256K1.sign(dataHash, keyPair);
+
+      for (int recId = 0; recId < 4; recId++) {
+        assertRecoveryMatchesReference(recId, signature.getR(), signature.getS(), dataHash);
+      }
+      assertThat(SECP256K1.PublicKey.recoverFromSignature(dataHash, signature))
+          .contains(keyPair.getPublicKey());
+    }
+  }
+
+  @Test
+  public void shouldRecoverSameKeyFromArbitrarySignatures() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      final BigInteger r = randomScalar();
+      final BigInteger s = randomScalar();
+      final Bytes32 dataHash = randomBytes32();
+
+      for (int recId = 0; recId < 4; recId++) {
+        assertRecoveryMatchesReference(recId, r, s, dataHash);
+      }
+    }
+  }
+
+  @Test
+  public void shouldVerifySignaturesLikeReference() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+      final Bytes32 dataHash = randomBytes32();
+      final SECP256K1.Signature signature = SECP256K1.sign(dataHash, keyPair);
+      final SECP256K1.Signature tampered =
+          SECP256K1.Signature.create(signature.getS(), signature.getR(), signature.getRecId());
+
+      assertThat(SECP256K1.verify(dataHash, signature, keyPair.getPublicKey()))
+          .isEqualTo(referenceVerify(dataHash, signature, keyPair.getPublicKey()))
+          .isTrue();
+      assertThat(SECP256K1.verify(dataHash, tampered, keyPair.getPublicKey()))
+          .isEqualTo(referenceVerify(dataHash, tampered, keyPair.getPublicKey()))
+          .isFalse();
+      assertThat(SECP256K1.verify(randomBytes32(), signature, keyPair.getPublicKey())).isFalse();
+    }
+  }
+
+  @Test
+  public void shouldDerivePublicKeyAndAgreementLikeReference() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      final SECP256K1.KeyPair keyPair = SECP256K1.KeyPair.generate();
+      final SECP256K1.KeyPair otherKeyPair = SECP256K1.KeyPair.generate();
+      final BigInteger d = keyPair.getPrivateKey().getD();
+
+      final byte[] referenceEncoded = REFERENCE_CURVE.getG().multiply(d).getEncoded(false);
+      assertThat(SECP256K1.PublicKey.create(keyPair.getPrivateKey()).getEncodedBytes())
+          .isEqualTo(BytesValue.wrap(referenceEncoded, 1, 64));
+
+      final ECPoint referenceShared =
+          referencePoint(otherKeyPair.getPublicKey()).multiply(d).normalize();
+      assertThat(
+              SECP256K1.calculateKeyAgreement(
+                  keyPair.getPrivateKey(), otherKeyPair.getPublicKey()))
+          .isEqualTo(Bytes32.wrap(referenceShared.getAffineXCoord().getEncoded()));
+    }
+  }
+
+  private void assertRecoveryMatchesReference(
+      final int recId, final BigInteger r, final BigInteger s, final Bytes32 dataHash) {
+    assertThat(recover(SECP256K1.CURVE, recId, r, s, dataHash))
+        .isEqualTo(recover(REFERENCE_CURVE, recId, r, s, dataHash));
+  }
+
+  private Optional<Object> recover(
+      final ECDomainParameters curve,
+      final int recId,
+      final BigInteger r,
+      final BigInteger s,
+      final Bytes32 dataHash) {
+    try {
+      return Optional.ofNullable(SECP256K1.recoverFromSignature(curve, recId, r, s, dataHash));
+    } catch (final IllegalArgumentException e) {
+      // An r value that isn't the x coordinate of a point on the curve.
+      return Optional.of(e.getClass());
+    }
+  }
+
+  private boolean referenceVerify(
+      final Bytes32 dataHash,
+      final SECP256K1.Signature signature,
+      final SECP256K1.PublicKey publicKey) {
+    final ECDSASigner signer = new ECDSASigner();
+    signer.init(false, new ECPublicKeyParameters(referencePoint(publicKey), REFERENCE_CURVE));
+    return signer.verifySignature(dataHash.extractArray(), signature.getR(), signature.getS());
+  }
+
+  private ECPoint referencePoint(final SECP256K1.PublicKey publicKey) {
+    final BytesValue encoded =
+        BytesValues.concatenate(BytesValue.of(0x04), publicKey.getEncodedBytes());
+    return REFERENCE_CURVE.getCurve().decodePoint(encoded.extractArray());
+  }
+
+  private BigInteger randomScalar() {
+    final BigInteger n = SECP256K1.CURVE.getN();
+    BigInteger value;
+    do {
+      value = new BigInteger(n.bitLength(), random);
+    } while (value.signum() == 0 || value.compareTo(n) >= 0);
+    return value;
+  }
+
+  private Bytes32 randomBytes32() {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    random.nextBytes(bytes);
+    return Bytes32.wrap(bytes);
+  }
+}
@@ -90,4 +90,21 @@ public class AltBn128Fq12PairerTest {
     assertThat(p1Finalized).isNotEqualTo(np1Finalized);
     assertThat(p2Finalized).isNotEqualTo(np1Finalized);
   }
+
+  @Test
+  public void shouldFinalizeByRaisingToTheFinalExponent() {
+    final Fq12 f = AltBn128Fq12Pairer.pair(AltBn128Point.g1(), AltBn128Fq2Point.g2());
+    final BigInteger curveOrder =
+        new BigInteger(
+            "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+    final BigInteger finalExponent =
+        FieldElement.FIELD_MODULUS.pow(12).subtract(BigInteger.ONE).divide(curveOrder);
+
+    assertThat(AltBn128Fq12Pairer.finalize(f)).isEqualTo(f.power(finalExponent));
+  }
+
+  @Test
+  public void shouldFinalizeZeroToZero() {
+    assertThat(AltBn128Fq12Pairer.finalize(Fq12.zero())).isEqualTo(Fq12.zero());
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MutableFq12Test {
+
+  private final Random random = new Random(1);
+  private final Fq12 f = randomFq12();
+  private final Fq12 g = randomFq12();
+
+  @Test
+  public void shouldMultiplyLikeFq12() {
+    assertThat(MutableFq12.of(f).multiply(MutableFq12.of(g)).toFq12()).isEqualTo(f.multiply(g));
+  }
+
+  @Test
+  public void shouldMultiplyByItself() {
+    final MutableFq12 value = MutableFq12.of(f);
+
+    assertThat(value.multiply(value).toFq12()).isEqualTo(f.multiply(f));
+  }
+
+  @Test
+  public void shouldSquareLikeFq12() {
+    assertThat(MutableFq12.of(f).square().toFq12()).isEqualTo(f.multiply(f));
+  }
+
+  @Test
+  public void shouldInvertLikeFq12() {
+    assertThat(MutableFq12.of(f).inverse().toFq12()).isEqualTo(Fq12.one().divide(f));
+  }
+
+  @Test
+  public void shouldNotInvertZero() {
+    assertThatThrownBy(() -> MutableFq12.of(Fq12.zero()).inverse())
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void shouldRaiseToTheFieldModulusWithFrobenius() {
+    assertThat(MutableFq12.of(f).frobenius().toFq12())
+        .isEqualTo(f.power(FieldElement.FIELD_MODULUS));
+  }
+
+  @Test
+  public void shouldReduceCoefficientsOutsideTheField() {
+    final Fq12 unreduced = Fq12.create(-1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+    final Fq[] coefficients = unreduced.getCoefficients().clone();
+    coefficients[0] = Fq.create(FieldElement.FIELD_MODULUS.subtract(BigInteger.ONE));
+
+    assertThat(MutableFq12.of(unreduced).toFq12()).isEqualTo(new Fq12(coefficients));
+  }
+
+  private Fq12 randomFq12() {
+    final Fq[] coefficients = new Fq[12];
+    for (int i = 0; i < coefficients.length; i++) {
+      coefficients[i] = Fq.create(new BigInteger(256, random).mod(FieldElement.FIELD_MODULUS));
+    }
+    return new Fq12(coefficients);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet.precompiles;
+
+import tech.pegasys.pantheon.crypto.altbn128.AltBn128Fq2Point;
+import tech.pegasys.pantheon.crypto.altbn128.AltBn128Point;
+import tech.pegasys.pantheon.crypto.altbn128.Fq;
+import tech.pegasys.pantheon.ethereum.mainnet.SpuriousDragonGasCalculator;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Runs the alt_bn128 precompiles on valid inputs shaped like those of the reference tests: adding
+ * two points, multiplying a point by a full-width scalar, and pairing checks that hold.
+ */
+@State(Scope.Thread)
+public class AltBN128PrecompiledContractBenchmark {
+
+  private static final BigInteger CURVE_ORDER =
+      new BigInteger(
+          "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+
+  // The number of (G1, G2) pairs to check, in products of e(a G1, b G2) e(-a G1, b G2).
+  @Param({"2", "8"})
+  public int pairs;
+
+  private final SpuriousDragonGasCalculator gasCalculator = new SpuriousDragonGasCalculator();
+  private final AltBN128AddPrecompiledContract addContract =
+      new AltBN128AddPrecompiledContract(gasCalculator);
+  private final AltBN128MulPrecompiledContract mulContract =
+      new AltBN128MulPrecompiledContract(gasCalculator);
+  private final AltBN128PairingPrecompiledContract pairingContract =
+      new AltBN128PairingPrecompiledContract(gasCalculator);
+
+  private BytesValue addInput;
+  private BytesValue mulInput;
+  private BytesValue pairingInput;
+
+  @Setup
+  public void prepare() {
+    final AltBn128Point g1 = AltBn128Point.g1();
+    final BigInteger scalar = CURVE_ORDER.subtract(BigInteger.valueOf(0x1234567));
+    addInput =
+        BytesValues.concatenate(
+            encode(g1.multiply(BigInteger.valueOf(3))), encode(g1.multiply(scalar)));
+    mulInput = BytesValues.concatenate(encode(g1.multiply(BigInteger.valueOf(5))), encode(scalar));
+
+    final List<BytesValue> pairingParameters = new ArrayList<>();
+    for (int i = 0; i < pairs / 2; i++) {
+      final BigInteger a = BigInteger.valueOf(i + 2);
+      final AltBn128Fq2Point g2 = AltBn128Fq2Point.g2().multiply(BigInteger.valueOf(i + 1));
+      pairingParameters.add(encode(g1.multiply(a)));
+      pairingParameters.add(encode(g2));
+      pairingParameters.add(encode(g1.multiply(CURVE_ORDER.subtract(a))));
+      pairingParameters.add(encode(g2));
+    }
+    pairingInput = BytesValues.concatenate(pairingParameters.toArray(new BytesValue[0]));
+  }
+
+  @Benchmark
+  public BytesValue add() {
+    return addContract.compute(addInput);
+  }
+
+  @Benchmark
+  public BytesValue mul() {
+    return mulContract.compute(mulInput);
+  }
+
+  @Benchmark
+  public BytesValue pairing() {
+    return pairingContract.compute(pairingInput);
+  }
+
+  private static BytesValue encode(final AltBn128Point point) {
+    return BytesValues.concatenate(encode(point.getX()), encode(point.getY()));
+  }
+
+  private static BytesValue encode(final AltBn128Fq2Point point) {
+    // The imaginary part of each coordinate comes first.
+    final Fq[] x = point.getX().getCoefficients();
+    final Fq[] y = point.getY().getCoefficients();
+    return BytesValues.concatenate(encode(x[1]), encode(x[0]), encode(y[1]), encode(y[0]));
+  }
+
+  private static BytesValue encode(final Fq value) {
+    return Bytes32.leftPad(value.toBytesValue());
+  }
+
+  private static BytesValue encode(final BigInteger value) {
+    return UInt256.of(value).getBytes();
+  }
+}
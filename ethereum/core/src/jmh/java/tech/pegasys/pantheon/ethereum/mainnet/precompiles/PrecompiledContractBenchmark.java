@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet.precompiles;
+
+import tech.pegasys.pantheon.crypto.SECP256K1;
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PrivateKey;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.mainnet.ConstantinopleGasCalculator;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetPrecompiledContractRegistries;
+import tech.pegasys.pantheon.ethereum.mainnet.PrecompiledContract;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Runs the precompiled contracts other than alt_bn128, which has its own benchmark in {@link
+ * AltBN128PrecompiledContractBenchmark}.
+ */
+@State(Scope.Thread)
+public class PrecompiledContractBenchmark {
+
+  private static final int HASHED_INPUT_SIZE = 1024;
+
+  public enum Precompile {
+    ECREC(Address.ECREC),
+    SHA256(Address.SHA256),
+    RIPEMD160(Address.RIPEMD160),
+    ID(Address.ID),
+    MODEXP(Address.MODEXP);
+
+    private final Address address;
+
+    Precompile(final Address address) {
+      this.address = address;
+    }
+  }
+
+  @Param public Precompile precompile;
+
+  private PrecompiledContract contract;
+  private BytesValue input;
+
+  @Setup
+  public void prepare() {
+    contract =
+        MainnetPrecompiledContractRegistries.byzantium(new ConstantinopleGasCalculator())
+            .get(precompile.address);
+    final Random random = new Random(1);
+    switch (precompile) {
+      case ECREC:
+        input = ecrecInput(random);
+        break;
+      case MODEXP:
+        input = modExpInput(random);
+        break;
+      default:
+        input = randomBytes(random, HASHED_INPUT_SIZE);
+    }
+  }
+
+  @Benchmark
+  public BytesValue compute() {
+    return contract.compute(input);
+  }
+
+  private static BytesValue ecrecInput(final Random random) {
+    final Bytes32 hash = Bytes32.wrap(randomBytes(random, Bytes32.SIZE), 0);
+    final KeyPair keyPair = KeyPair.create(PrivateKey.create(BigInteger.valueOf(0xbe9c4)));
+    final SECP256K1.Signature signature = SECP256K1.sign(hash, keyPair);
+    return BytesValues.concatenate(
+        hash,
+        UInt256.of(signature.getRecId() + 27).getBytes(),
+        UInt256.of(signature.getR()).getBytes(),
+        UInt256.of(signature.getS()).getBytes());
+  }
+
+  // A 256-bit base, exponent and modulus.
+  private static BytesValue modExpInput(final Random random) {
+    final BytesValue length = UInt256.of(Bytes32.SIZE).getBytes();
+    return BytesValues.concatenate(
+        length,
+        length,
+        length,
+        randomBytes(random, Bytes32.SIZE),
+        randomBytes(random, Bytes32.SIZE),
+        randomBytes(random, Bytes32.SIZE));
+  }
+
+  private static BytesValue randomBytes(final Random random, final int size) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return BytesValue.wrap(bytes);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.crypto.Hash;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.AddressHelpers;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Calls {@code transfer(address,uint256)} on a token contract from a loop in another contract,
+ * following the storage layout, checks and event of a Solidity ERC20 token. Each transfer is to a
+ * new holder, as airdrops and exchange withdrawals do.
+ */
+@State(Scope.Thread)
+public class Erc20TransferBenchmark {
+
+  private static final int TRANSFERS = 1_000;
+
+  private static final Address TOKEN = AddressHelpers.ofValue(0x70ce);
+  private static final Address SPENDER = AddressHelpers.ofValue(0x5bed);
+
+  private static final String TOKEN_CODE =
+      "600035" // PUSH1 0 CALLDATALOAD
+          + "60e01c" // PUSH1 0xe0 SHR
+          + "63a9059cbb14" // PUSH4 transfer(address,uint256) EQ
+          + "601357" // PUSH1 transfer JUMPI
+          + "600080fd" // PUSH1 0 DUP1 REVERT
+          // transfer, at offset 0x13
+          + "5b"
+          + "602435" // PUSH1 36 CALLDATALOAD, the amount
+          + "600435" // PUSH1 4 CALLDATALOAD, the recipient
+          + "33600052" // CALLER PUSH1 0 MSTORE
+          + "6000602052" // PUSH1 0 PUSH1 32 MSTORE, balances are in mapping slot 0
+          + "6040600020" // PUSH1 64 PUSH1 0 SHA3, the sender's balance slot
+          + "8054" // DUP1 SLOAD
+          + "838110" // DUP4 DUP2 LT, balance < amount
+          + "15603557" // ISZERO PUSH1 debit JUMPI
+          + "600080fd" // PUSH1 0 DUP1 REVERT
+          // debit, at offset 0x35
+          + "5b"
+          + "83900390" // DUP4 SWAP1 SUB SWAP1
+          + "55" // SSTORE
+          + "80600052" // DUP1 PUSH1 0 MSTORE
+          + "6040600020" // PUSH1 64 PUSH1 0 SHA3, the recipient's balance slot
+          + "8054" // DUP1 SLOAD
+          + "8301" // DUP4 ADD
+          + "9055" // SWAP1 SSTORE
+          + "81600052" // DUP2 PUSH1 0 MSTORE
+          + "33" // CALLER
+          // PUSH32 Transfer(address,address,uint256)
+          + "7fddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef"
+          + "60206000a3" // PUSH1 32 PUSH1 0 LOG3
+          + "50" // POP
+          + "6001600052" // PUSH1 1 PUSH1 0 MSTORE
+          + "60206000f3"; // PUSH1 32 PUSH1 0 RETURN
+
+  private static final String SPENDER_CODE =
+      "63a9059cbb60e01b600052" // PUSH4 transfer(address,uint256) PUSH1 0xe0 SHL PUSH1 0 MSTORE
+          + "6001602452" // PUSH1 1 PUSH1 36 MSTORE, the amount
+          + String.format("61%04x", TRANSFERS) // PUSH2 TRANSFERS
+          // loop, at offset 0x13
+          + "5b"
+          + "80600452" // DUP1 PUSH1 4 MSTORE, the loop counter is the recipient
+          + "60206080604460006000" // out size, out offset, in size, in offset, value
+          + "6170ce" // PUSH2 TOKEN
+          + "5af150" // GAS CALL POP
+          + "60019003" // PUSH1 1 SWAP1 SUB
+          + "80601357" // DUP1 PUSH1 loop JUMPI
+          + "00"; // STOP
+
+  private EvmBenchmarkHelper evmBenchmarkHelper;
+
+  @Setup
+  public void prepare() {
+    evmBenchmarkHelper = new EvmBenchmarkHelper();
+    final Bytes32 spenderBalanceSlot =
+        Hash.keccak256(BytesValues.concatenate(Bytes32.leftPad(SPENDER), Bytes32.ZERO));
+    evmBenchmarkHelper.deploy(
+        TOKEN,
+        BytesValue.fromHexString(TOKEN_CODE),
+        account -> account.setStorageValue(spenderBalanceSlot.asUInt256(), UInt256.of(TRANSFERS)));
+    evmBenchmarkHelper.deploy(SPENDER, BytesValue.fromHexString(SPENDER_CODE));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRANSFERS)
+  public MessageFrame transfer() {
+    return evmBenchmarkHelper.call(SPENDER, BytesValue.EMPTY);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.AddressHelpers;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.ExecutionContextTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.mainnet.ConstantinopleGasCalculator;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetMessageCallProcessor;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetPrecompiledContractRegistries;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runs message calls to contracts deployed in an in-memory Constantinople world state. Each call
+ * runs against a fresh {@link WorldUpdater} that is never committed, so every benchmark invocation
+ * starts from the same state.
+ */
+public class EvmBenchmarkHelper {
+
+  private static final Address SENDER = AddressHelpers.ofValue(0x5e4de2);
+  private static final Gas INITIAL_GAS = Gas.of(1_000_000_000L);
+
+  private final ExecutionContextTestFixture executionContext = ExecutionContextTestFixture.create();
+  private final MainnetMessageCallProcessor messageCallProcessor =
+      new MainnetMessageCallProcessor(
+          executionContext.getProtocolSchedule().getByBlockNumber(0).getEvm(),
+          MainnetPrecompiledContractRegistries.byzantium(new ConstantinopleGasCalculator()));
+  private final MutableWorldState worldState = executionContext.getStateArchive().getMutable();
+  private final BlockHeader blockHeader = executionContext.getBlockchain().getChainHeadHeader();
+  private final Map<Address, Code> contracts = new HashMap<>();
+
+  public EvmBenchmarkHelper() {
+    final WorldUpdater updater = worldState.updater();
+    updater.getOrCreate(SENDER);
+    updater.commit();
+    worldState.persist();
+  }
+
+  public void deploy(final Address address, final BytesValue code) {
+    deploy(address, code, account -> {});
+  }
+
+  public void deploy(
+      final Address address, final BytesValue code, final Consumer<MutableAccount> accountSetup) {
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.getOrCreate(address);
+    account.setCode(code);
+    accountSetup.accept(account);
+    updater.commit();
+    worldState.persist();
+    contracts.put(address, new Code(code));
+  }
+
+  public MessageFrame call(final Address address, final BytesValue inputData) {
+    final Deque<MessageFrame> messageFrameStack = new ArrayDeque<>();
+    final MessageFrame initialFrame =
+        MessageFrame.builder()
+            .type(MessageFrame.Type.MESSAGE_CALL)
+            .messageFrameStack(messageFrameStack)
+            .blockchain(executionContext.getBlockchain())
+            .worldState(worldState.updater())
+            .initialGas(INITIAL_GAS)
+            .address(address)
+            .originator(SENDER)
+            .contract(address)
+            .gasPrice(Wei.ZERO)
+            .inputData(inputData)
+            .sender(SENDER)
+            .value(Wei.ZERO)
+            .apparentValue(Wei.ZERO)
+            .code(contracts.get(address))
+            .blockHeader(blockHeader)
+            .depth(0)
+            .completer(frame -> {})
+            .miningBeneficiary(blockHeader.getCoinbase())
+            .blockHashLookup(new BlockHashLookup(blockHeader, executionContext.getBlockchain()))
+            .build();
+    messageFrameStack.addFirst(initialFrame);
+
+    while (!messageFrameStack.isEmpty()) {
+      messageCallProcessor.process(messageFrameStack.peekFirst(), OperationTracer.NO_TRACING);
+    }
+    return initialFrame;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static java.util.Collections.emptyList;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
+import tech.pegasys.pantheon.ethereum.worldstate.DebuggableMutableWorldState;
+import tech.pegasys.pantheon.testutil.JsonTestParameters;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Replays the transaction of every case of a directory of the GeneralStateTests as one benchmark
+ * operation, the same way {@link GeneralStateReferenceTestTools} runs them but without checking
+ * the resulting state. Requires the reference tests submodule to be checked out.
+ */
+@State(Scope.Thread)
+public class GeneralStateReferenceTestBenchmark {
+
+  // Relative to the ethereum/core project, where the jmh task runs.
+  @Param("../referencetests/src/test/resources")
+  public String referenceTestsDirectory;
+
+  @Param({
+    "GeneralStateTests/stPreCompiledContracts2",
+    "GeneralStateTests/stRandom",
+    "GeneralStateTests/stSolidityTest",
+    "GeneralStateTests/stZeroKnowledge"
+  })
+  public String testDirectory;
+
+  @Param("Constantinople")
+  public String fork;
+
+  private TransactionProcessor transactionProcessor;
+  private final List<Case> cases = new ArrayList<>();
+
+  private static class Case {
+    private final BlockHeader blockHeader;
+    private final Transaction transaction;
+    private final MutableWorldState worldState;
+    private final TestBlockchain blockchain;
+
+    private Case(final GeneralStateTestCaseEipSpec spec) {
+      this.blockHeader = spec.blockHeader();
+      this.transaction = spec.transaction();
+      this.worldState = new DebuggableMutableWorldState(spec.initialWorldState());
+      this.blockchain = new TestBlockchain(blockHeader.getNumber());
+    }
+  }
+
+  @Setup
+  public void prepare() {
+    transactionProcessor =
+        ReferenceTestProtocolSchedules.create()
+            .getByName(fork)
+            .getByBlockNumber(0)
+            .getTransactionProcessor();
+
+    final JsonTestParameters<?, ?> parameters =
+        JsonTestParameters.create(GeneralStateTestCaseSpec.class, GeneralStateTestCaseEipSpec.class)
+            .generator(
+                (testName, stateSpec, collector) ->
+                    stateSpec
+                        .finalStateSpecs()
+                        .getOrDefault(fork, emptyList())
+                        .forEach(spec -> collector.add(testName, spec, true)));
+    for (final Object[] testParameters :
+        parameters.generate(Paths.get(referenceTestsDirectory, testDirectory))) {
+      final Case testCase = new Case((GeneralStateTestCaseEipSpec) testParameters[1]);
+      // The reference test runner skips these too, as the block importer rejects them.
+      if (testCase.transaction.getGasLimit()
+          <= testCase.blockHeader.getGasLimit() - testCase.blockHeader.getGasUsed()) {
+        cases.add(testCase);
+      }
+    }
+  }
+
+  @Benchmark
+  public void executeTests(final Blackhole blackhole) {
+    for (final Case testCase : cases) {
+      blackhole.consume(
+          transactionProcessor.processTransaction(
+              testCase.blockchain,
+              testCase.worldState.updater(),
+              testCase.blockHeader,
+              testCase.transaction,
+              testCase.blockHeader.getCoinbase(),
+              new BlockHashLookup(testCase.blockHeader, testCase.blockchain)));
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.AddressHelpers;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Runs a loop whose body exercises one family of opcodes, so each score is the cost of one pass
+ * through the body plus the few opcodes that drive the loop. The loop counter stays on the stack
+ * and every body leaves the stack as it found it.
+ */
+@State(Scope.Thread)
+public class OperationFamilyBenchmark {
+
+  private static final int ITERATIONS = 1_000;
+
+  private static final Address CONTRACT = AddressHelpers.ofValue(0xc0de);
+  private static final Address CALLEE = AddressHelpers.ofValue(0xca11ee);
+  // Returns the first word of its memory.
+  private static final String CALLEE_CODE = "60206000f3";
+
+  public enum Family {
+    ARITHMETIC(
+        "8080" // DUP1 DUP1
+            + "02" // MUL
+            + "8101" // DUP2 ADD
+            + "60039004" // PUSH1 3 SWAP1 DIV
+            + "819006" // DUP2 SWAP1 MOD
+            + "60020a" // PUSH1 2 EXP
+            + "808008" // DUP1 DUP1 ADDMOD
+            + "50"), // POP
+    BITWISE(
+        "80600f16" // DUP1 PUSH1 0x0f AND
+            + "8117" // DUP2 OR
+            + "8118" // DUP2 XOR
+            + "19" // NOT
+            + "60041b" // PUSH1 4 SHL
+            + "60081c" // PUSH1 8 SHR
+            + "601f1a" // PUSH1 31 BYTE
+            + "1550"), // ISZERO POP
+    MEMORY(
+        "8061040052" // DUP1 PUSH2 0x0400 MSTORE
+            + "6104005150" // PUSH2 0x0400 MLOAD POP
+            + "80601f53" // DUP1 PUSH1 31 MSTORE8
+            + "5950"), // MSIZE POP
+    STORAGE(
+        "808055" // DUP1 DUP1 SSTORE, to a new slot each iteration
+            + "805450" // DUP1 SLOAD POP
+            + "80600055" // DUP1 PUSH1 0 SSTORE, to the same slot each iteration
+            + "60005450"), // PUSH1 0 SLOAD POP
+    SHA3(
+        "80600052" // DUP1 PUSH1 0 MSTORE
+            + "60206000" // PUSH1 32 PUSH1 0
+            + "2050" // SHA3 POP
+            + "60406000" // PUSH1 64 PUSH1 0
+            + "2050"), // SHA3 POP
+    LOG(
+        "60206000a0" // PUSH1 32 PUSH1 0 LOG0
+            + "808060206000a2"), // DUP1 DUP1 PUSH1 32 PUSH1 0 LOG2
+    CALL_PRECOMPILE(
+        "60206000602060006000" // out size, out offset, in size, in offset, value
+            + "6004" // PUSH1 the identity precompile
+            + "5af150"), // GAS CALL POP
+    CALL_CONTRACT(
+        "60206000602060006000" // out size, out offset, in size, in offset, value
+            + "62ca11ee" // PUSH3 CALLEE
+            + "5af150"); // GAS CALL POP
+
+    private final String body;
+
+    Family(final String body) {
+      this.body = body;
+    }
+  }
+
+  @Param public Family family;
+
+  private EvmBenchmarkHelper evmBenchmarkHelper;
+
+  @Setup
+  public void prepare() {
+    evmBenchmarkHelper = new EvmBenchmarkHelper();
+    evmBenchmarkHelper.deploy(CALLEE, BytesValue.fromHexString(CALLEE_CODE));
+    evmBenchmarkHelper.deploy(CONTRACT, loop(family.body));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITERATIONS)
+  public MessageFrame executeLoop() {
+    return evmBenchmarkHelper.call(CONTRACT, BytesValue.EMPTY);
+  }
+
+  private static BytesValue loop(final String body) {
+    return BytesValue.fromHexString(
+        String.format("61%04x", ITERATIONS) // PUSH2 ITERATIONS
+            + "5b" // JUMPDEST, at offset 3
+            + body
+            + "60019003" // PUSH1 1 SWAP1 SUB
+            + "80600357" // DUP1 PUSH1 3 JUMPI
+            + "00"); // STOP
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static tech.pegasys.pantheon.ethereum.vm.OperationTracer.NO_TRACING;
+
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSpecs;
+import tech.pegasys.pantheon.ethereum.mainnet.MutableProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
+import tech.pegasys.pantheon.ethereum.worldstate.DefaultMutableWorldState;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.testutil.JsonTestParameters;
+
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Replays every case of a directory of the VMTests as one benchmark operation, the same way {@link
+ * VMReferenceTest} runs them but without checking the results. Requires the reference tests
+ * submodule to be checked out.
+ */
+@State(Scope.Thread)
+public class VMReferenceTestBenchmark {
+
+  private static final int CHAIN_ID = 1;
+
+  // Relative to the ethereum/core project, where the jmh task runs.
+  @Param("../referencetests/src/test/resources")
+  public String referenceTestsDirectory;
+
+  @Param({
+    "VMTests/vmArithmeticTest",
+    "VMTests/vmBitwiseLogicOperation",
+    "VMTests/vmIOandFlowOperations",
+    "VMTests/vmLogTest",
+    "VMTests/vmPerformance",
+    "VMTests/vmSha3Test"
+  })
+  public String testDirectory;
+
+  private final EVM evm =
+      MainnetProtocolSpecs.frontierDefinition()
+          .codeCache(new CodeCache(new NoOpMetricsSystem()))
+          .build(new MutableProtocolSchedule<>(CHAIN_ID))
+          .getEvm();
+  private final List<VMReferenceTestCaseSpec> specs = new ArrayList<>();
+  private final List<MutableWorldState> worldStates = new ArrayList<>();
+
+  @Setup
+  public void prepare() {
+    for (final Object[] parameters :
+        JsonTestParameters.create(VMReferenceTestCaseSpec.class)
+            .generate(Paths.get(referenceTestsDirectory, testDirectory))) {
+      final VMReferenceTestCaseSpec spec = (VMReferenceTestCaseSpec) parameters[1];
+      specs.add(spec);
+      worldStates.add(new DefaultMutableWorldState(spec.getInitialWorldState()));
+    }
+  }
+
+  @Benchmark
+  public void executeTests(final Blackhole blackhole) {
+    for (int i = 0; i < specs.size(); i++) {
+      blackhole.consume(execute(specs.get(i), worldStates.get(i)));
+    }
+  }
+
+  private MessageFrame execute(
+      final VMReferenceTestCaseSpec spec, final MutableWorldState worldState) {
+    final EnvironmentInformation execEnv = spec.getExec();
+    final TestBlockchain blockchain = new TestBlockchain(execEnv.getBlockHeader().getNumber());
+    final MessageFrame frame =
+        MessageFrame.builder()
+            .type(MessageFrame.Type.MESSAGE_CALL)
+            .messageFrameStack(new ArrayDeque<>())
+            .blockchain(blockchain)
+            .worldState(worldState.updater())
+            .initialGas(execEnv.getGas())
+            .contract(execEnv.getAccountAddress())
+            .address(execEnv.getAccountAddress())
+            .originator(execEnv.getOriginAddress())
+            .gasPrice(execEnv.getGasPrice())
+            .inputData(execEnv.getData())
+            .sender(execEnv.getCallerAddress())
+            .value(execEnv.getValue())
+            .apparentValue(execEnv.getValue())
+            .code(execEnv.getCode())
+            .blockHeader(execEnv.getBlockHeader())
+            .depth(execEnv.getDepth())
+            .completer(c -> {})
+            .miningBeneficiary(execEnv.getBlockHeader().getCoinbase())
+            .blockHashLookup(new BlockHashLookup(execEnv.getBlockHeader(), blockchain))
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+
+    try {
+      evm.runToHalt(frame, NO_TRACING);
+    } catch (final ExceptionalHaltException e) {
+      // Some cases are expected to halt.
+    }
+    return frame;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import static org.apache.logging.log4j.LogManager.getLogger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Recovers the senders of batches of transactions in parallel, so the expensive signature
+ * recovery is already done by the time the transactions reach the serial stages that need their
+ * senders, like block import and the transaction pool.
+ *
+ * <p>Recovered senders are cached by each {@link Transaction}. Transactions whose sender can't be
+ * recovered are left alone, so the failure is reported by whatever validates them later.
+ */
+public class TransactionSenderRecovery implements AutoCloseable {
+  private static final Logger LOG = getLogger();
+
+  private final ExecutorService executor;
+
+  public TransactionSenderRecovery(final ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  /** @return A sender recovery running on its own threads, one per available processor. */
+  public static TransactionSenderRecovery create() {
+    return new TransactionSenderRecovery(
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat(TransactionSenderRecovery.class.getSimpleName() + "-%d")
+                .build()));
+  }
+
+  /**
+   * Recovers the senders of the given transactions, returning once all of them are done.
+   *
+   * @param transactions The transactions to recover the senders of.
+   */
+  public void recoverSenders(final Collection<Transaction> transactions) {
+    if (transactions.size() < 2) {
+      // Not worth handing off; the sender is recovered when first needed.
+      return;
+    }
+    final List<RecoverSenderTask> tasks = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      tasks.add(new RecoverSenderTask(transaction));
+    }
+    try {
+      executor.invokeAll(tasks);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("Failed to recover transaction senders", e);
+    }
+  }
+
+  /** Stops the threads recovering senders. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private static class RecoverSenderTask implements Callable<Void> {
+    private final Transaction transaction;
+
+    private RecoverSenderTask(final Transaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public Void call() {
+      try {
+        transaction.getSender();
+      } catch (final RuntimeException e) {
+        LOG.trace("Unable to recover sender of transaction {}", transaction.hash(), e);
+      }
+      return null;
+    }
+  }
+}
@@ -17,6 +17,7 @@ import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.Collection;
@@ -35,6 +36,24 @@ public interface BlockchainStorage {
 
   Optional<List<TransactionReceipt>> getTransactionReceipts(Hash blockHash);
 
+  /**
+   * @param blockHash The hash of the block.
+   * @return The RLP encoded header, as stored, without decoding it.
+   */
+  Optional<BytesValue> getBlockHeaderRlp(Hash blockHash);
+
+  /**
+   * @param blockHash The hash of the block.
+   * @return The RLP encoded body, as stored, without decoding it.
+   */
+  Optional<BytesValue> getBlockBodyRlp(Hash blockHash);
+
+  /**
+   * @param blockHash The hash of the block.
+   * @return The RLP encoded list of the block's receipts, as stored, without decoding it.
+   */
+  Optional<BytesValue> getTransactionReceiptsRlp(Hash blockHash);
+
   Optional<Hash> getBlockHash(long blockNumber);
 
   Optional<UInt256> getTotalDifficulty(Hash blockHash);
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.db;
+
+import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps recently read and written headers, bodies, receipts and total difficulties in memory, so
+ * the same recent blocks aren't decoded from storage again for every peer request, RPC call and
+ * validation that looks at them.
+ *
+ * <p>Only data keyed by block hash is cached. A block's data never changes once written, so a
+ * reorg can't make these entries stale; the canonical block numbers, transaction locations and
+ * chain head that a reorg does rewrite are always read from the underlying storage.
+ */
+public class CachingBlockchainStorage implements BlockchainStorage {
+
+  public static final long DEFAULT_HEADER_CACHE_SIZE = 4096;
+  public static final long DEFAULT_BODY_CACHE_SIZE = 256;
+  public static final long DEFAULT_RECEIPTS_CACHE_SIZE = 256;
+  public static final long DEFAULT_TOTAL_DIFFICULTY_CACHE_SIZE = 4096;
+
+  private final BlockchainStorage delegate;
+  private final CachedValues<BlockHeader> headers;
+  private final CachedValues<BlockBody> bodies;
+  private final CachedValues<List<TransactionReceipt>> receipts;
+  private final CachedValues<UInt256> totalDifficulties;
+
+  public CachingBlockchainStorage(
+      final BlockchainStorage delegate, final MetricsSystem metricsSystem) {
+    this(
+        delegate,
+        DEFAULT_HEADER_CACHE_SIZE,
+        DEFAULT_BODY_CACHE_SIZE,
+        DEFAULT_RECEIPTS_CACHE_SIZE,
+        DEFAULT_TOTAL_DIFFICULTY_CACHE_SIZE,
+        metricsSystem);
+  }
+
+  public CachingBlockchainStorage(
+      final BlockchainStorage delegate,
+      final long headerCacheSize,
+      final long bodyCacheSize,
+      final long receiptsCacheSize,
+      final long totalDifficultyCacheSize,
+      final MetricsSystem metricsSystem) {
+    this.delegate = delegate;
+
+    final LabelledMetric<Counter> cacheRequests =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.BLOCKCHAIN,
+            "storage_cache_requests_total",
+            "Lookups of block data in the blockchain storage caches",
+            "cache",
+            "result");
+    headers = new CachedValues<>("header", headerCacheSize, cacheRequests, metricsSystem);
+    bodies = new CachedValues<>("body", bodyCacheSize, cacheRequests, metricsSystem);
+    receipts = new CachedValues<>("receipts", receiptsCacheSize, cacheRequests, metricsSystem);
+    totalDifficulties =
+        new CachedValues<>(
+            "total_difficulty", totalDifficultyCacheSize, cacheRequests, metricsSystem);
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return delegate.getChainHead();
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return delegate.getForkHeads();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return headers.get(blockHash, delegate::getBlockHeader);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return bodies.get(blockHash, delegate::getBlockBody);
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return receipts.get(blockHash, delegate::getTransactionReceipts);
+  }
+
+  @Override
+  public Optional<BytesValue> getBlockHeaderRlp(final Hash blockHash) {
+    return delegate.getBlockHeaderRlp(blockHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getBlockBodyRlp(final Hash blockHash) {
+    return delegate.getBlockBodyRlp(blockHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getTransactionReceiptsRlp(final Hash blockHash) {
+    return delegate.getTransactionReceiptsRlp(blockHash);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    return delegate.getBlockHash(blockNumber);
+  }
+
+  @Override
+  public Optional<UInt256> getTotalDifficulty(final Hash blockHash) {
+    return totalDifficulties.get(blockHash, delegate::getTotalDifficulty);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return delegate.getTransactionLocation(transactionHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(delegate.updater());
+  }
+
+  private static class CachedValues<V> {
+    private final Cache<Hash, V> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    private CachedValues(
+        final String name,
+        final long maximumSize,
+        final LabelledMetric<Counter> cacheRequests,
+        final MetricsSystem metricsSystem) {
+      this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+      this.hits = cacheRequests.labels(name, "hit");
+      this.misses = cacheRequests.labels(name, "miss");
+      metricsSystem.createGauge(
+          MetricCategory.BLOCKCHAIN,
+          "storage_" + name + "_cache_entries",
+          "Number of entries held in the blockchain storage " + name + " cache",
+          () -> (double) cache.size());
+    }
+
+    private Optional<V> get(final Hash blockHash, final Function<Hash, Optional<V>> loader) {
+      final V cached = cache.getIfPresent(blockHash);
+      if (cached != null) {
+        hits.inc();
+        return Optional.of(cached);
+      }
+      misses.inc();
+      final Optional<V> value = loader.apply(blockHash);
+      value.ifPresent(v -> cache.put(blockHash, v));
+      return value;
+    }
+
+    private void putAll(final Map<Hash, V> values) {
+      cache.putAll(values);
+    }
+  }
+
+  /** Adds the block data it writes to the caches once it has been committed. */
+  private class Updater implements BlockchainStorage.Updater {
+
+    private final BlockchainStorage.Updater delegateUpdater;
+    private final Map<Hash, BlockHeader> pendingHeaders = new HashMap<>();
+    private final Map<Hash, BlockBody> pendingBodies = new HashMap<>();
+    private final Map<Hash, List<TransactionReceipt>> pendingReceipts = new HashMap<>();
+    private final Map<Hash, UInt256> pendingTotalDifficulties = new HashMap<>();
+
+    private Updater(final BlockchainStorage.Updater delegateUpdater) {
+      this.delegateUpdater = delegateUpdater;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      delegateUpdater.putBlockHeader(blockHash, blockHeader);
+      pendingHeaders.put(blockHash, blockHeader);
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      delegateUpdater.putBlockBody(blockHash, blockBody);
+      pendingBodies.put(blockHash, blockBody);
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      delegateUpdater.putTransactionLocation(transactionHash, transactionLocation);
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      delegateUpdater.putTransactionReceipts(blockHash, transactionReceipts);
+      pendingReceipts.put(blockHash, transactionReceipts);
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      delegateUpdater.putBlockHash(blockNumber, blockHash);
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final UInt256 totalDifficulty) {
+      delegateUpdater.putTotalDifficulty(blockHash, totalDifficulty);
+      pendingTotalDifficulties.put(blockHash, totalDifficulty);
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      delegateUpdater.setChainHead(blockHash);
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      delegateUpdater.setForkHeads(forkHeadHashes);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      delegateUpdater.removeBlockHash(blockNumber);
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      delegateUpdater.removeTransactionLocation(transactionHash);
+    }
+
+    @Override
+    public void commit() {
+      delegateUpdater.commit();
+      headers.putAll(pendingHeaders);
+      bodies.putAll(pendingBodies);
+      receipts.putAll(pendingReceipts);
+      totalDifficulties.putAll(pendingTotalDifficulties);
+      clearPending();
+    }
+
+    @Override
+    public void rollback() {
+      delegateUpdater.rollback();
+      clearPending();
+    }
+
+    private void clearPending() {
+      pendingHeaders.clear();
+      pendingBodies.clear();
+      pendingReceipts.clear();
+      pendingTotalDifficulties.clear();
+    }
+  }
+}
@@ -32,6 +32,7 @@ import tech.pegasys.pantheon.ethereum.util.InvalidConfigurationException;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.util.Subscribers;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
@@ -52,6 +53,10 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
 
   private final Subscribers<BlockAddedObserver> blockAddedObservers = new Subscribers<>();
 
+  // The chain head is read far more often than it changes, so it's kept in memory and replaced as
+  // a whole once the block that changes it has been committed.
+  private volatile CachedChainHead chainHead;
+
   public DefaultMutableBlockchain(
       final Block genesisBlock,
       final BlockchainStorage blockchainStorage,
@@ -59,6 +64,7 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
     checkNotNull(genesisBlock);
     this.blockchainStorage = blockchainStorage;
     this.setGenesis(genesisBlock);
+    this.chainHead = loadChainHead();
 
     metricsSystem.createGauge(
         MetricCategory.BLOCKCHAIN,
@@ -74,25 +80,22 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
 
   @Override
   public ChainHead getChainHead() {
-    return blockchainStorage
-        .getChainHead()
-        .flatMap(h -> blockchainStorage.getTotalDifficulty(h).map(td -> new ChainHead(h, td)))
-        .get();
+    return chainHead.chainHead;
   }
 
   @Override
   public Hash getChainHeadHash() {
-    return blockchainStorage.getChainHead().get();
+    return chainHead.chainHead.getHash();
   }
 
   @Override
   public long getChainHeadBlockNumber() {
-    // Head should always be set, so we can call get()
-    return blockchainStorage
-        .getChainHead()
-        .flatMap(blockchainStorage::getBlockHeader)
-        .map(BlockHeader::getNumber)
-        .get();
+    return chainHead.header.getNumber();
+  }
+
+  @Override
+  public BlockHeader getChainHeadHeader() {
+    return chainHead.header;
   }
 
   @Override
@@ -115,6 +118,21 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
     return blockchainStorage.getTransactionReceipts(blockHeaderHash);
   }
 
+  @Override
+  public Optional<BytesValue> getBlockHeaderRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getBlockHeaderRlp(blockHeaderHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getBlockBodyRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getBlockBodyRlp(blockHeaderHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getTxReceiptsRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getTransactionReceiptsRlp(blockHeaderHash);
+  }
+
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
     return blockchainStorage.getBlockHash(number);
@@ -173,10 +191,21 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
     final BlockAddedEvent blockAddedEvent = updateCanonicalChainData(updater, block, td);
 
     updater.commit();
+    if (blockAddedEvent.isNewCanonicalHead()) {
+      chainHead = new CachedChainHead(block.getHeader(), td);
+    }
 
     return blockAddedEvent;
   }
 
+  private CachedChainHead loadChainHead() {
+    // Head should always be set, so we can call get()
+    final Hash hash = blockchainStorage.getChainHead().get();
+    return new CachedChainHead(
+        blockchainStorage.getBlockHeader(hash).get(),
+        blockchainStorage.getTotalDifficulty(hash).get());
+  }
+
   private UInt256 calculateTotalDifficulty(final Block block) {
     if (block.getHeader().getNumber() == BlockHeader.GENESIS_BLOCK_NUMBER) {
       return block.getHeader().getDifficulty();
@@ -195,21 +224,17 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
       final BlockchainStorage.Updater updater,
       final Block newBlock,
       final UInt256 totalDifficulty) {
-    final Hash chainHead = blockchainStorage.getChainHead().orElse(null);
-    if (newBlock.getHeader().getNumber() != BlockHeader.GENESIS_BLOCK_NUMBER && chainHead == null) {
-      throw new IllegalStateException("Blockchain is missing chain head.");
-    }
+    final ChainHead chainHead = this.chainHead.chainHead;
 
     final Hash newBlockHash = newBlock.getHash();
     try {
-      if (chainHead == null || newBlock.getHeader().getParentHash().equals(chainHead)) {
+      if (newBlock.getHeader().getParentHash().equals(chainHead.getHash())) {
         // This block advances the chain, update the chain head
         updater.putBlockHash(newBlock.getHeader().getNumber(), newBlockHash);
         updater.setChainHead(newBlockHash);
         indexTransactionForBlock(updater, newBlockHash, newBlock.getBody().getTransactions());
         return BlockAddedEvent.createForHeadAdvancement(newBlock);
-      } else if (totalDifficulty.compareTo(blockchainStorage.getTotalDifficulty(chainHead).get())
-          > 0) {
+      } else if (totalDifficulty.compareTo(chainHead.getTotalDifficulty()) > 0) {
         // New block represents a chain reorganization
         return handleChainReorg(updater, newBlock);
       } else {
@@ -242,8 +267,8 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
 
   private BlockAddedEvent handleChainReorg(
       final BlockchainStorage.Updater updater, final Block newChainHead) {
-    final Hash oldChainHead = blockchainStorage.getChainHead().get();
-    BlockHeader oldChain = blockchainStorage.getBlockHeader(oldChainHead).get();
+    final Hash oldChainHead = chainHead.chainHead.getHash();
+    BlockHeader oldChain = chainHead.header;
     BlockHeader newChain = newChainHead.getHeader();
 
     // Update chain head
@@ -397,4 +422,14 @@ public class DefaultMutableBlockchain implements MutableBlockchain {
   private void notifyBlockAdded(final BlockAddedEvent event) {
     blockAddedObservers.forEach(observer -> observer.onBlockAdded(event, this));
   }
+
+  private static class CachedChainHead {
+    private final ChainHead chainHead;
+    private final BlockHeader header;
+
+    private CachedChainHead(final BlockHeader header, final UInt256 totalDifficulty) {
+      this.chainHead = new ChainHead(header.getHash(), totalDifficulty);
+      this.header = header;
+    }
+  }
 }
@@ -16,15 +16,36 @@ import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.WorldState;
 import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
 import tech.pegasys.pantheon.ethereum.worldstate.DefaultMutableWorldState;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshot;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
 
 public class WorldStateArchive {
   private final WorldStateStorage storage;
+  private final Optional<WorldStateSnapshot> snapshot;
+  private final TrieHashingPool hashingPool;
   private static final Hash EMPTY_ROOT_HASH = Hash.wrap(MerklePatriciaTrie.EMPTY_TRIE_ROOT_HASH);
 
   public WorldStateArchive(final WorldStateStorage storage) {
+    this(storage, Optional.empty());
+  }
+
+  public WorldStateArchive(
+      final WorldStateStorage storage, final Optional<WorldStateSnapshot> snapshot) {
+    this(storage, snapshot, TrieHashingPool.sequential());
+  }
+
+  public WorldStateArchive(
+      final WorldStateStorage storage,
+      final Optional<WorldStateSnapshot> snapshot,
+      final TrieHashingPool hashingPool) {
     this.storage = storage;
+    this.snapshot = snapshot;
+    this.hashingPool = hashingPool;
   }
 
   public WorldState get(final Hash rootHash) {
@@ -32,7 +53,7 @@ public class WorldStateArchive {
   }
 
   public MutableWorldState getMutable(final Hash rootHash) {
-    return new DefaultMutableWorldState(rootHash, storage);
+    return new DefaultMutableWorldState(rootHash, storage, snapshot, hashingPool);
   }
 
   public WorldState get() {
@@ -42,4 +63,24 @@ public class WorldStateArchive {
   public MutableWorldState getMutable() {
     return getMutable(EMPTY_ROOT_HASH);
   }
+
+  /**
+   * Looks up a world state trie node or contract code by its hash, as requested by peers syncing
+   * state.
+   *
+   * @param hash The hash of the node or code.
+   * @return The node or code, if held locally.
+   */
+  public Optional<BytesValue> getNodeData(final Hash hash) {
+    final Optional<BytesValue> node = storage.getAccountStateTrieNode(hash);
+    return node.isPresent() ? node : storage.getCode(hash);
+  }
+
+  public WorldStateStorage getStorage() {
+    return storage;
+  }
+
+  public Optional<WorldStateSnapshot> getSnapshot() {
+    return snapshot;
+  }
 }
@@ -17,15 +17,29 @@ import static tech.pegasys.pantheon.ethereum.mainnet.MainnetTransactionValidator
 import tech.pegasys.pantheon.config.GenesisConfigOptions;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolScheduleBuilder;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /** A ProtocolSchedule which behaves similarly to MainNet, but with a much reduced difficulty. */
 public class DevelopmentProtocolSchedule {
 
   public static ProtocolSchedule<Void> create(final GenesisConfigOptions config) {
+    return create(config, Optional.empty(), new CodeCache(new NoOpMetricsSystem()));
+  }
+
+  public static ProtocolSchedule<Void> create(
+      final GenesisConfigOptions config,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
     return new ProtocolScheduleBuilder<>(
             config,
             NO_CHAIN_ID,
-            builder -> builder.difficultyCalculator(DevelopmentDifficultyCalculators.DEVELOPER))
+            builder -> builder.difficultyCalculator(DevelopmentDifficultyCalculators.DEVELOPER),
+            speculativeExecutor,
+            codeCache)
         .createProtocolSchedule();
   }
 }
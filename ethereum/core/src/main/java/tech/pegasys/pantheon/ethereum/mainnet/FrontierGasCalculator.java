@@ -302,8 +302,15 @@ public class FrontierGasCalculator implements GasCalculator {
   public Gas memoryExpansionGasCost(
       final MessageFrame frame, final UInt256 offset, final UInt256 length) {
 
-    final Gas pre = memoryCost(frame.memoryWordSize());
-    final Gas post = memoryCost(frame.calculateMemoryExpansion(offset, length));
+    final UInt256 activeWords = frame.memoryWordSize();
+    final UInt256 newActiveWords = frame.calculateMemoryExpansion(offset, length);
+    if (newActiveWords.equals(activeWords)) {
+      // Most accesses are to memory that is already active, which costs nothing extra.
+      return Gas.ZERO;
+    }
+
+    final Gas pre = memoryCost(activeWords);
+    final Gas post = memoryCost(newActiveWords);
 
     return post.minus(pre);
   }
@@ -23,10 +23,21 @@ import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.core.WorldState;
 import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.core.WorldView;
 import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
@@ -45,6 +56,9 @@ public class MainnetBlockProcessor implements BlockProcessor {
 
   private static final int MAX_GENERATION = 6;
 
+  // Smaller blocks aren't worth handing off to other threads.
+  private static final int MIN_SPECULATIVE_TRANSACTIONS = 4;
+
   public static class Result implements BlockProcessor.Result {
 
     private static final Result FAILED = new Result(false, null);
@@ -85,15 +99,32 @@ public class MainnetBlockProcessor implements BlockProcessor {
 
   private final MiningBeneficiaryCalculator miningBeneficiaryCalculator;
 
+  private final Optional<ExecutorService> speculativeExecutor;
+
   public MainnetBlockProcessor(
       final TransactionProcessor transactionProcessor,
       final TransactionReceiptFactory transactionReceiptFactory,
       final Wei blockReward,
       final MiningBeneficiaryCalculator miningBeneficiaryCalculator) {
+    this(
+        transactionProcessor,
+        transactionReceiptFactory,
+        blockReward,
+        miningBeneficiaryCalculator,
+        Optional.empty());
+  }
+
+  public MainnetBlockProcessor(
+      final TransactionProcessor transactionProcessor,
+      final TransactionReceiptFactory transactionReceiptFactory,
+      final Wei blockReward,
+      final MiningBeneficiaryCalculator miningBeneficiaryCalculator,
+      final Optional<ExecutorService> speculativeExecutor) {
     this.transactionProcessor = transactionProcessor;
     this.transactionReceiptFactory = transactionReceiptFactory;
     this.blockReward = blockReward;
     this.miningBeneficiaryCalculator = miningBeneficiaryCalculator;
+    this.speculativeExecutor = speculativeExecutor;
   }
 
   @Override
@@ -104,17 +135,35 @@ public class MainnetBlockProcessor implements BlockProcessor {
       final List<Transaction> transactions,
       final List<BlockHeader> ommers) {
 
+    final Optional<List<TransactionReceipt>> receipts =
+        speculativeExecutor.isPresent() && transactions.size() >= MIN_SPECULATIVE_TRANSACTIONS
+            ? processTransactionsSpeculatively(
+                speculativeExecutor.get(), blockchain, worldState, blockHeader, transactions)
+            : processTransactions(blockchain, worldState, blockHeader, transactions);
+    if (!receipts.isPresent()) {
+      return Result.failed();
+    }
+
+    if (!rewardCoinbase(worldState, blockHeader, ommers)) {
+      return Result.failed();
+    }
+
+    worldState.persist();
+    return Result.successful(receipts.get());
+  }
+
+  private Optional<List<TransactionReceipt>> processTransactions(
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions) {
+
     long gasUsed = 0;
     final List<TransactionReceipt> receipts = new ArrayList<>();
 
     for (final Transaction transaction : transactions) {
-      final long remainingGasBudget = blockHeader.getGasLimit() - gasUsed;
-      if (Long.compareUnsigned(transaction.getGasLimit(), remainingGasBudget) > 0) {
-        LOG.warn(
-            "Transaction processing error: transaction gas limit {} exceeds available block budget remaining {}",
-            transaction.getGasLimit(),
-            remainingGasBudget);
-        return Result.failed();
+      if (exceedsGasBudget(blockHeader, transaction, gasUsed)) {
+        return Optional.empty();
       }
 
       final WorldUpdater worldStateUpdater = worldState.updater();
@@ -130,7 +179,7 @@ public class MainnetBlockProcessor implements BlockProcessor {
               miningBeneficiary,
               blockHashLookup);
       if (result.isInvalid()) {
-        return Result.failed();
+        return Optional.empty();
       }
 
       worldStateUpdater.commit();
@@ -139,13 +188,183 @@ public class MainnetBlockProcessor implements BlockProcessor {
           transactionReceiptFactory.create(result, worldState, gasUsed);
       receipts.add(transactionReceipt);
     }
+    return Optional.of(receipts);
+  }
 
-    if (!rewardCoinbase(worldState, blockHeader, ommers)) {
-      return Result.failed();
+  /**
+   * Processes the transactions like {@link #processTransactions}, but first executes them in
+   * parallel on the state the block starts from. Each speculative execution is then used in order
+   * if none of the state it read has been changed by the transactions before it, and the
+   * transaction is executed again on the current state otherwise.
+   */
+  private Optional<List<TransactionReceipt>> processTransactionsSpeculatively(
+      final ExecutorService executor,
+      final Blockchain blockchain,
+      final MutableWorldState worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions) {
+
+    final Address miningBeneficiary = miningBeneficiaryCalculator.calculateBeneficiary(blockHeader);
+    final List<Optional<TransactionExecution>> speculativeExecutions =
+        executeSpeculatively(
+            executor, blockchain, worldState, blockHeader, transactions, miningBeneficiary);
+
+    long gasUsed = 0;
+    final List<TransactionReceipt> receipts = new ArrayList<>();
+    final StateAccessSet blockWrites = new StateAccessSet();
+    int reExecuted = 0;
+
+    for (int i = 0; i < transactions.size(); i++) {
+      final Transaction transaction = transactions.get(i);
+      if (exceedsGasBudget(blockHeader, transaction, gasUsed)) {
+        return Optional.empty();
+      }
+
+      final Optional<TransactionExecution> speculativeExecution =
+          speculativeExecutions.get(i).filter(e -> e.updater.isValidAfter(blockWrites));
+      final TransactionExecution execution;
+      if (speculativeExecution.isPresent()) {
+        execution = speculativeExecution.get();
+      } else {
+        execution =
+            execute(blockchain, worldState, blockHeader, transaction, miningBeneficiary, null);
+        reExecuted++;
+      }
+      if (execution.result.isInvalid()) {
+        return Optional.empty();
+      }
+
+      final WorldUpdater worldStateUpdater = worldState.updater();
+      blockWrites.addAll(execution.updater.applyTo(worldStateUpdater));
+      worldStateUpdater.commit();
+      gasUsed = transaction.getGasLimit() - execution.result.getGasRemaining() + gasUsed;
+      final TransactionReceipt transactionReceipt =
+          transactionReceiptFactory.create(execution.result, worldState, gasUsed);
+      receipts.add(transactionReceipt);
     }
 
-    worldState.persist();
-    return Result.successful(receipts);
+    LOG.debug(
+        "Executed {} of {} transactions of block {} serially",
+        reExecuted,
+        transactions.size(),
+        blockHeader.getNumber());
+    return Optional.of(receipts);
+  }
+
+  private List<Optional<TransactionExecution>> executeSpeculatively(
+      final ExecutorService executor,
+      final Blockchain blockchain,
+      final WorldView worldState,
+      final BlockHeader blockHeader,
+      final List<Transaction> transactions,
+      final Address miningBeneficiary) {
+    // Senders are recovered by the speculative executions, so this also happens in parallel.
+    final List<SpeculativeExecution> speculativeExecutions = new ArrayList<>(transactions.size());
+    for (final Transaction transaction : transactions) {
+      speculativeExecutions.add(
+          new SpeculativeExecution(
+              blockchain, worldState, blockHeader, transaction, miningBeneficiary));
+    }
+
+    final List<Future<Optional<TransactionExecution>>> results;
+    try {
+      results = executor.invokeAll(speculativeExecutions);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Collections.nCopies(transactions.size(), Optional.empty());
+    } catch (final RejectedExecutionException e) {
+      LOG.debug("Failed to execute transactions speculatively", e);
+      return Collections.nCopies(transactions.size(), Optional.empty());
+    }
+
+    // Only the first transaction of each sender can run early, as the next depend on its nonce.
+    final Set<Address> senders = new HashSet<>();
+    final List<Optional<TransactionExecution>> executions = new ArrayList<>(transactions.size());
+    for (int i = 0; i < transactions.size(); i++) {
+      final Optional<Address> sender = sender(transactions.get(i));
+      if (sender.isPresent()
+          && senders.add(sender.get())
+          && !sender.get().equals(miningBeneficiary)) {
+        executions.add(speculativeResult(results.get(i)));
+      } else {
+        executions.add(Optional.empty());
+      }
+    }
+    return executions;
+  }
+
+  private static Optional<TransactionExecution> speculativeResult(
+      final Future<Optional<TransactionExecution>> result) {
+    try {
+      return result.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final ExecutionException e) {
+      LOG.debug("Failed to execute transaction speculatively", e);
+    }
+    return Optional.empty();
+  }
+
+  private Optional<TransactionExecution> tryExecute(
+      final Blockchain blockchain,
+      final WorldView worldState,
+      final BlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary) {
+    try {
+      return Optional.of(
+          execute(
+              blockchain,
+              worldState,
+              blockHeader,
+              transaction,
+              miningBeneficiary,
+              miningBeneficiary));
+    } catch (final RuntimeException e) {
+      // The transaction is executed again in order, which reports any genuine failure.
+      LOG.trace("Speculative execution of transaction {} failed", transaction.hash(), e);
+      return Optional.empty();
+    }
+  }
+
+  private TransactionExecution execute(
+      final Blockchain blockchain,
+      final WorldView worldState,
+      final BlockHeader blockHeader,
+      final Transaction transaction,
+      final Address miningBeneficiary,
+      @Nullable final Address feeBeneficiary) {
+    final SpeculativeWorldUpdater updater = new SpeculativeWorldUpdater(worldState, feeBeneficiary);
+    final TransactionProcessor.Result result =
+        transactionProcessor.processTransaction(
+            blockchain,
+            updater,
+            blockHeader,
+            transaction,
+            miningBeneficiary,
+            new BlockHashLookup(blockHeader, blockchain));
+    return new TransactionExecution(updater, result);
+  }
+
+  private static Optional<Address> sender(final Transaction transaction) {
+    try {
+      return Optional.of(transaction.getSender());
+    } catch (final IllegalStateException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static boolean exceedsGasBudget(
+      final BlockHeader blockHeader, final Transaction transaction, final long gasUsed) {
+    final long remainingGasBudget = blockHeader.getGasLimit() - gasUsed;
+    if (Long.compareUnsigned(transaction.getGasLimit(), remainingGasBudget) > 0) {
+      LOG.warn(
+          "Transaction processing error: transaction gas limit {} exceeds available block budget remaining {}",
+          transaction.getGasLimit(),
+          remainingGasBudget);
+      return true;
+    }
+    return false;
   }
 
   private boolean rewardCoinbase(
@@ -180,4 +399,44 @@ public class MainnetBlockProcessor implements BlockProcessor {
 
     return true;
   }
+
+  private class SpeculativeExecution implements Callable<Optional<TransactionExecution>> {
+    private final Blockchain blockchain;
+    private final WorldView worldState;
+    private final BlockHeader blockHeader;
+    private final Transaction transaction;
+    private final Address miningBeneficiary;
+
+    private SpeculativeExecution(
+        final Blockchain blockchain,
+        final WorldView worldState,
+        final BlockHeader blockHeader,
+        final Transaction transaction,
+        final Address miningBeneficiary) {
+      this.blockchain = blockchain;
+      this.worldState = worldState;
+      this.blockHeader = blockHeader;
+      this.transaction = transaction;
+      this.miningBeneficiary = miningBeneficiary;
+    }
+
+    @Override
+    public Optional<TransactionExecution> call() {
+      if (!sender(transaction).isPresent()) {
+        return Optional.empty();
+      }
+      return tryExecute(blockchain, worldState, blockHeader, transaction, miningBeneficiary);
+    }
+  }
+
+  private static class TransactionExecution {
+    private final SpeculativeWorldUpdater updater;
+    private final TransactionProcessor.Result result;
+
+    private TransactionExecution(
+        final SpeculativeWorldUpdater updater, final TransactionProcessor.Result result) {
+      this.updater = updater;
+      this.result = result;
+    }
+  }
 }
@@ -12,6 +12,7 @@
  */
 package tech.pegasys.pantheon.ethereum.mainnet;
 
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.ethereum.vm.EVM;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.Operation;
@@ -102,19 +103,6 @@ public abstract class MainnetEvmRegistries {
 
   private interface OperationFactory extends Function<GasCalculator, Operation> {}
 
-  private static final List<OperationFactory> FRONTIER_OPERATION_FACTORIES;
-  private static final List<OperationFactory> HOMESTEAD_OPERATION_FACTORIES;
-  private static final List<OperationFactory> BYZANTIUM_OPERATION_FACTORIES;
-  private static final List<OperationFactory> CONSTANTINOPLE_OPERATION_FACTORIES;
-
-  static {
-    FRONTIER_OPERATION_FACTORIES = buildFrontierFactories();
-    HOMESTEAD_OPERATION_FACTORIES = buildHomesteadFactories(FRONTIER_OPERATION_FACTORIES);
-    BYZANTIUM_OPERATION_FACTORIES = buildByzantiumFactories(HOMESTEAD_OPERATION_FACTORIES);
-    CONSTANTINOPLE_OPERATION_FACTORIES =
-        buildConstantinopleFactories(BYZANTIUM_OPERATION_FACTORIES);
-  }
-
   private static EVM createAndPopulate(
       final List<OperationFactory> factories, final GasCalculator gasCalculator) {
     final OperationRegistry registry = new OperationRegistry();
@@ -127,23 +115,32 @@ public abstract class MainnetEvmRegistries {
     return new EVM(registry, new InvalidOperation(gasCalculator));
   }
 
-  public static EVM frontier(final GasCalculator gasCalculator) {
-    return createAndPopulate(FRONTIER_OPERATION_FACTORIES, gasCalculator);
+  public static EVM frontier(final GasCalculator gasCalculator, final CodeCache codeCache) {
+    return createAndPopulate(buildFrontierFactories(codeCache), gasCalculator);
+  }
+
+  public static EVM homestead(final GasCalculator gasCalculator, final CodeCache codeCache) {
+    return createAndPopulate(homesteadFactories(codeCache), gasCalculator);
   }
 
-  public static EVM homestead(final GasCalculator gasCalculator) {
-    return createAndPopulate(HOMESTEAD_OPERATION_FACTORIES, gasCalculator);
+  public static EVM byzantium(final GasCalculator gasCalculator, final CodeCache codeCache) {
+    return createAndPopulate(byzantiumFactories(codeCache), gasCalculator);
   }
 
-  public static EVM byzantium(final GasCalculator gasCalculator) {
-    return createAndPopulate(BYZANTIUM_OPERATION_FACTORIES, gasCalculator);
+  public static EVM constantinople(final GasCalculator gasCalculator, final CodeCache codeCache) {
+    return createAndPopulate(
+        buildConstantinopleFactories(byzantiumFactories(codeCache)), gasCalculator);
   }
 
-  public static EVM constantinople(final GasCalculator gasCalculator) {
-    return createAndPopulate(CONSTANTINOPLE_OPERATION_FACTORIES, gasCalculator);
+  private static List<OperationFactory> homesteadFactories(final CodeCache codeCache) {
+    return buildHomesteadFactories(buildFrontierFactories(codeCache), codeCache);
   }
 
-  private static List<OperationFactory> buildFrontierFactories() {
+  private static List<OperationFactory> byzantiumFactories(final CodeCache codeCache) {
+    return buildByzantiumFactories(homesteadFactories(codeCache), codeCache);
+  }
+
+  private static List<OperationFactory> buildFrontierFactories(final CodeCache codeCache) {
     final ImmutableList.Builder<OperationFactory> builder = ImmutableList.builder();
 
     builder.add(AddOperation::new);
@@ -206,8 +203,8 @@ public abstract class MainnetEvmRegistries {
     builder.add(StopOperation::new);
     builder.add(SelfDestructOperation::new);
     builder.add(CreateOperation::new);
-    builder.add(CallOperation::new);
-    builder.add(CallCodeOperation::new);
+    builder.add(gasCalculator -> new CallOperation(gasCalculator, codeCache));
+    builder.add(gasCalculator -> new CallCodeOperation(gasCalculator, codeCache));
 
     // Register the PUSH1, PUSH2, ..., PUSH32 operations.
     for (int i = 1; i <= 32; ++i) {
@@ -237,24 +234,24 @@ public abstract class MainnetEvmRegistries {
   }
 
   private static List<OperationFactory> buildHomesteadFactories(
-      final List<OperationFactory> factories) {
+      final List<OperationFactory> factories, final CodeCache codeCache) {
     final ImmutableList.Builder<OperationFactory> builder = ImmutableList.builder();
 
     builder.addAll(factories);
-    builder.add(DelegateCallOperation::new);
+    builder.add(gasCalculator -> new DelegateCallOperation(gasCalculator, codeCache));
 
     return builder.build();
   }
 
   private static List<OperationFactory> buildByzantiumFactories(
-      final List<OperationFactory> factories) {
+      final List<OperationFactory> factories, final CodeCache codeCache) {
     final ImmutableList.Builder<OperationFactory> builder = ImmutableList.builder();
 
     builder.addAll(factories);
     builder.add(ReturnDataCopyOperation::new);
     builder.add(ReturnDataSizeOperation::new);
     builder.add(RevertOperation::new);
-    builder.add(StaticCallOperation::new);
+    builder.add(gasCalculator -> new StaticCallOperation(gasCalculator, codeCache));
 
     return builder.build();
   }
@@ -14,7 +14,11 @@ package tech.pegasys.pantheon.ethereum.mainnet;
 
 import tech.pegasys.pantheon.config.GenesisConfigFile;
 import tech.pegasys.pantheon.config.GenesisConfigOptions;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 /** Provides {@link ProtocolSpec} lookups for mainnet hard forks. */
@@ -34,7 +38,25 @@ public class MainnetProtocolSchedule {
    * @return A configured mainnet protocol schedule
    */
   public static ProtocolSchedule<Void> fromConfig(final GenesisConfigOptions config) {
-    return new ProtocolScheduleBuilder<>(config, DEFAULT_CHAIN_ID, Function.identity())
+    return fromConfig(config, Optional.empty(), new CodeCache(new NoOpMetricsSystem()));
+  }
+
+  /**
+   * Create a Mainnet protocol schedule from a config object
+   *
+   * @param config {@link GenesisConfigOptions} containing the config options for the milestone
+   *     starting points
+   * @param speculativeExecutor executor on which blocks execute their transactions in parallel
+   *     before applying them in order, if enabled
+   * @param codeCache cache of analysed contract code shared by every milestone
+   * @return A configured mainnet protocol schedule
+   */
+  public static ProtocolSchedule<Void> fromConfig(
+      final GenesisConfigOptions config,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
+    return new ProtocolScheduleBuilder<>(
+            config, DEFAULT_CHAIN_ID, Function.identity(), speculativeExecutor, codeCache)
         .createProtocolSchedule();
   }
 }
@@ -13,8 +13,12 @@
 package tech.pegasys.pantheon.ethereum.mainnet;
 
 import tech.pegasys.pantheon.config.GenesisConfigOptions;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
+import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 public class ProtocolScheduleBuilder<C> {
@@ -22,14 +26,32 @@ public class ProtocolScheduleBuilder<C> {
   private final GenesisConfigOptions config;
   private final Function<ProtocolSpecBuilder<Void>, ProtocolSpecBuilder<C>> protocolSpecAdapter;
   private final int defaultChainId;
+  private final Optional<ExecutorService> speculativeExecutor;
+  private final CodeCache codeCache;
 
   public ProtocolScheduleBuilder(
       final GenesisConfigOptions config,
       final int defaultChainId,
       final Function<ProtocolSpecBuilder<Void>, ProtocolSpecBuilder<C>> protocolSpecAdapter) {
+    this(
+        config,
+        defaultChainId,
+        protocolSpecAdapter,
+        Optional.empty(),
+        new CodeCache(new NoOpMetricsSystem()));
+  }
+
+  public ProtocolScheduleBuilder(
+      final GenesisConfigOptions config,
+      final int defaultChainId,
+      final Function<ProtocolSpecBuilder<Void>, ProtocolSpecBuilder<C>> protocolSpecAdapter,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
     this.config = config;
     this.protocolSpecAdapter = protocolSpecAdapter;
     this.defaultChainId = defaultChainId;
+    this.speculativeExecutor = speculativeExecutor;
+    this.codeCache = codeCache;
   }
 
   public ProtocolSchedule<C> createProtocolSchedule() {
@@ -91,6 +113,11 @@ public class ProtocolScheduleBuilder<C> {
     blockNumber.ifPresent(
         number ->
             protocolSchedule.putMilestone(
-                number, protocolSpecAdapter.apply(definition).build(protocolSchedule)));
+                number,
+                protocolSpecAdapter
+                    .apply(definition)
+                    .speculativeExecutor(speculativeExecutor)
+                    .codeCache(codeCache)
+                    .build(protocolSchedule)));
   }
 }
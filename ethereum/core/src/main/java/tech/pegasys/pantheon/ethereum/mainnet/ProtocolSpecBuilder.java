@@ -18,9 +18,12 @@ import tech.pegasys.pantheon.ethereum.core.BlockHashFunction;
 import tech.pegasys.pantheon.ethereum.core.BlockImporter;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockProcessor.TransactionReceiptFactory;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.ethereum.vm.EVM;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -31,7 +34,7 @@ public class ProtocolSpecBuilder<T> {
   private BlockHashFunction blockHashFunction;
   private TransactionReceiptFactory transactionReceiptFactory;
   private DifficultyCalculator<T> difficultyCalculator;
-  private Function<GasCalculator, EVM> evmBuilder;
+  private BiFunction<GasCalculator, CodeCache, EVM> evmBuilder;
   private Function<GasCalculator, TransactionValidator> transactionValidatorBuilder;
   private Function<DifficultyCalculator<T>, BlockHeaderValidator<T>> blockHeaderValidatorBuilder;
   private Function<DifficultyCalculator<T>, BlockHeaderValidator<T>> ommerHeaderValidatorBuilder;
@@ -46,6 +49,8 @@ public class ProtocolSpecBuilder<T> {
   private TransactionReceiptType transactionReceiptType;
   private String name;
   private MiningBeneficiaryCalculator miningBeneficiaryCalculator;
+  private Optional<ExecutorService> speculativeExecutor = Optional.empty();
+  private CodeCache codeCache;
 
   public ProtocolSpecBuilder<T> gasCalculator(final Supplier<GasCalculator> gasCalculatorBuilder) {
     this.gasCalculatorBuilder = gasCalculatorBuilder;
@@ -74,7 +79,8 @@ public class ProtocolSpecBuilder<T> {
     return this;
   }
 
-  public ProtocolSpecBuilder<T> evmBuilder(final Function<GasCalculator, EVM> evmBuilder) {
+  public ProtocolSpecBuilder<T> evmBuilder(
+      final BiFunction<GasCalculator, CodeCache, EVM> evmBuilder) {
     this.evmBuilder = evmBuilder;
     return this;
   }
@@ -155,6 +161,17 @@ public class ProtocolSpecBuilder<T> {
     return this;
   }
 
+  public ProtocolSpecBuilder<T> speculativeExecutor(
+      final Optional<ExecutorService> speculativeExecutor) {
+    this.speculativeExecutor = speculativeExecutor;
+    return this;
+  }
+
+  public ProtocolSpecBuilder<T> codeCache(final CodeCache codeCache) {
+    this.codeCache = codeCache;
+    return this;
+  }
+
   public ProtocolSpecBuilder<T> name(final String name) {
     this.name = name;
     return this;
@@ -185,6 +202,8 @@ public class ProtocolSpecBuilder<T> {
         .transactionReceiptFactory(transactionReceiptFactory)
         .transactionReceiptType(transactionReceiptType)
         .miningBeneficiaryCalculator(miningBeneficiaryCalculator)
+        .speculativeExecutor(speculativeExecutor)
+        .codeCache(codeCache)
         .name(name);
   }
 
@@ -208,9 +227,10 @@ public class ProtocolSpecBuilder<T> {
     checkNotNull(name, "Missing name");
     checkNotNull(miningBeneficiaryCalculator, "Missing Mining Beneficiary Calculator");
     checkNotNull(protocolSchedule, "Missing protocol schedule");
+    checkNotNull(codeCache, "Missing code cache");
 
     final GasCalculator gasCalculator = gasCalculatorBuilder.get();
-    final EVM evm = evmBuilder.apply(gasCalculator);
+    final EVM evm = evmBuilder.apply(gasCalculator, codeCache);
     final TransactionValidator transactionValidator =
         transactionValidatorBuilder.apply(gasCalculator);
     final AbstractMessageProcessor contractCreationProcessor =
@@ -221,7 +241,11 @@ public class ProtocolSpecBuilder<T> {
         messageCallProcessorBuilder.apply(evm, precompileContractRegistry);
     final TransactionProcessor transactionProcessor =
         transactionProcessorBuilder.apply(
-            gasCalculator, transactionValidator, contractCreationProcessor, messageCallProcessor);
+            gasCalculator,
+            transactionValidator,
+            contractCreationProcessor,
+            messageCallProcessor,
+            codeCache);
     final BlockHeaderValidator<T> blockHeaderValidator =
         blockHeaderValidatorBuilder.apply(difficultyCalculator);
     final BlockHeaderValidator<T> ommerHeaderValidator =
@@ -233,7 +257,8 @@ public class ProtocolSpecBuilder<T> {
             transactionProcessor,
             transactionReceiptFactory,
             blockReward,
-            miningBeneficiaryCalculator);
+            miningBeneficiaryCalculator,
+            speculativeExecutor);
     final BlockImporter<T> blockImporter =
         blockImporterBuilder.apply(blockHeaderValidator, blockBodyValidator, blockProcessor);
     return new ProtocolSpec<>(
@@ -259,7 +284,8 @@ public class ProtocolSpecBuilder<T> {
         GasCalculator gasCalculator,
         TransactionValidator transactionValidator,
         AbstractMessageProcessor contractCreationProcessor,
-        AbstractMessageProcessor messageCallProcessor);
+        AbstractMessageProcessor messageCallProcessor,
+        CodeCache codeCache);
   }
 
   public interface BlockProcessorBuilder {
@@ -267,7 +293,8 @@ public class ProtocolSpecBuilder<T> {
         TransactionProcessor transactionProcessor,
         TransactionReceiptFactory transactionReceiptFactory,
         Wei blockReward,
-        MiningBeneficiaryCalculator miningBeneficiaryCalculator);
+        MiningBeneficiaryCalculator miningBeneficiaryCalculator,
+        Optional<ExecutorService> speculativeExecutor);
   }
 
   public interface BlockImporterBuilder<T> {
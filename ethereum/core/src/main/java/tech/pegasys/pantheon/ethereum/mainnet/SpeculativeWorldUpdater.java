@@ -0,0 +1,249 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import tech.pegasys.pantheon.ethereum.core.AbstractWorldUpdater;
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.core.WorldView;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.NavigableMap;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link WorldUpdater} for executing a single transaction on a possibly outdated world view. It
+ * records the accounts and storage slots the transaction reads from that view, so the execution
+ * can be checked against the changes made since, and its updates are applied to another updater
+ * with {@link #applyTo(WorldUpdater)} rather than committed.
+ *
+ * <p>Every transaction pays its fee to the mining beneficiary, so if the fee was paid like any
+ * other balance change, any two transactions of a block would conflict. When given a beneficiary
+ * to defer fees for, the first time that account is requested directly from this updater without
+ * having been read, it is assumed to be the transaction processor paying the fee: the fee is
+ * collected in a fresh account and only added to the beneficiary's balance by {@link
+ * #applyTo(WorldUpdater)}. This requires the sender of the transaction not to be the beneficiary.
+ */
+class SpeculativeWorldUpdater
+    extends AbstractWorldUpdater<SpeculativeWorldUpdater.ReadRecorder, Account> {
+
+  @Nullable private final Address feeBeneficiary;
+  @Nullable private MutableAccount collectedFees;
+
+  /**
+   * @param world The world view to execute the transaction on.
+   * @param feeBeneficiary The beneficiary to defer fee payments to, or {@code null} to pay them
+   *     like any other balance change.
+   */
+  SpeculativeWorldUpdater(final WorldView world, @Nullable final Address feeBeneficiary) {
+    super(new ReadRecorder(world));
+    this.feeBeneficiary = feeBeneficiary;
+  }
+
+  @Override
+  protected Account getForMutation(final Address address) {
+    return wrappedWorldView().get(address);
+  }
+
+  @Override
+  public MutableAccount getMutable(final Address address) {
+    if (address.equals(feeBeneficiary) && !wrappedWorldView().reads.contains(address)) {
+      if (collectedFees == null) {
+        collectedFees = createAccount(address);
+      }
+      return collectedFees;
+    }
+    return super.getMutable(address);
+  }
+
+  @Override
+  public Collection<Account> getTouchedAccounts() {
+    return new ArrayList<>(updatedAccounts());
+  }
+
+  @Override
+  public void revert() {
+    deletedAccounts().clear();
+    updatedAccounts().clear();
+  }
+
+  @Override
+  public void commit() {
+    throw new UnsupportedOperationException(
+        "Speculative updates must be applied to an up to date updater");
+  }
+
+  /**
+   * Whether the updates of this updater are still valid once the given changes have been made to
+   * the world view it read from.
+   *
+   * @param writes The parts of the world state changed since.
+   * @return {@code true} if none of the state read was changed, and any deferred fee can be paid.
+   */
+  boolean isValidAfter(final StateAccessSet writes) {
+    if (collectedFees != null && collectedFees.getBalance().isZero()) {
+      // Paying no fee still touches the beneficiary, which may delete it if it is empty.
+      return false;
+    }
+    return !wrappedWorldView().reads.intersects(writes);
+  }
+
+  /**
+   * Applies the updates made to this updater, including any deferred fee, to another updater.
+   *
+   * @param target The updater to apply the updates to.
+   * @return The parts of the world state changed by the updates.
+   */
+  StateAccessSet applyTo(final WorldUpdater target) {
+    final StateAccessSet writes = new StateAccessSet();
+    for (final Address address : deletedAccounts()) {
+      target.deleteAccount(address);
+      writes.addAccount(address);
+      writes.addAllStorage(address);
+    }
+
+    for (final UpdateTrackingAccount<Account> updated : updatedAccounts()) {
+      if (updated == collectedFees) {
+        continue;
+      }
+      final Address address = updated.getAddress();
+      final Account origin = updated.getWrappedAccount();
+      final MutableAccount account;
+      if (origin == null) {
+        account = target.createAccount(address, updated.getNonce(), updated.getBalance());
+        writes.addAccount(address);
+        writes.addAllStorage(address);
+      } else {
+        account = target.getMutable(address);
+        checkState(account != null, "Updated account %s no longer exists", address);
+        if (updated.getNonce() != origin.getNonce()
+            || !updated.getBalance().equals(origin.getBalance())
+            || updated.codeWasUpdated()) {
+          writes.addAccount(address);
+        }
+        account.setNonce(updated.getNonce());
+        account.setBalance(updated.getBalance());
+      }
+      if (updated.codeWasUpdated()) {
+        account.setCode(updated.getCode());
+      }
+      if (updated.getStorageWasCleared()) {
+        account.clearStorage();
+        writes.addAccount(address);
+        writes.addAllStorage(address);
+      }
+      updated
+          .getUpdatedStorage()
+          .forEach(
+              (key, value) -> {
+                account.setStorageValue(key, value);
+                writes.addStorage(address, key);
+              });
+    }
+
+    if (collectedFees != null) {
+      target.getOrCreate(feeBeneficiary).incrementBalance(collectedFees.getBalance());
+      writes.addAccount(feeBeneficiary);
+    }
+    return writes;
+  }
+
+  /** A view of the world that records which accounts and storage slots are read from it. */
+  static class ReadRecorder implements WorldView {
+    private final WorldView world;
+    private final StateAccessSet reads = new StateAccessSet();
+
+    private ReadRecorder(final WorldView world) {
+      this.world = world;
+    }
+
+    @Override
+    public Account get(final Address address) {
+      reads.addAccount(address);
+      final Account account = world.get(address);
+      return account == null ? null : new RecordedAccount(account);
+    }
+
+    private class RecordedAccount implements Account {
+      private final Account account;
+
+      private RecordedAccount(final Account account) {
+        this.account = account;
+      }
+
+      @Override
+      public Hash getAddressHash() {
+        return account.getAddressHash();
+      }
+
+      @Override
+      public Address getAddress() {
+        return account.getAddress();
+      }
+
+      @Override
+      public long getNonce() {
+        return account.getNonce();
+      }
+
+      @Override
+      public Wei getBalance() {
+        return account.getBalance();
+      }
+
+      @Override
+      public BytesValue getCode() {
+        return account.getCode();
+      }
+
+      @Override
+      public Hash getCodeHash() {
+        return account.getCodeHash();
+      }
+
+      @Override
+      public boolean hasCode() {
+        return account.hasCode();
+      }
+
+      @Override
+      public UInt256 getStorageValue(final UInt256 key) {
+        reads.addStorage(account.getAddress(), key);
+        return account.getStorageValue(key);
+      }
+
+      @Override
+      public UInt256 getOriginalStorageValue(final UInt256 key) {
+        reads.addStorage(account.getAddress(), key);
+        return account.getOriginalStorageValue(key);
+      }
+
+      @Override
+      public NavigableMap<Bytes32, UInt256> storageEntriesFrom(
+          final Bytes32 startKeyHash, final int limit) {
+        reads.addAllStorage(account.getAddress());
+        return account.storageEntriesFrom(startKeyHash, limit);
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The parts of the world state read or written by some transactions: the accounts themselves
+ * (nonce, balance, code and whether they exist) and their storage slots.
+ */
+class StateAccessSet {
+  private final Set<Address> accounts = new HashSet<>();
+  private final Map<Address, Set<UInt256>> storage = new HashMap<>();
+  // Accounts whose whole storage was accessed, like when it is cleared.
+  private final Set<Address> allStorage = new HashSet<>();
+
+  void addAccount(final Address address) {
+    accounts.add(address);
+  }
+
+  void addStorage(final Address address, final UInt256 key) {
+    storage.computeIfAbsent(address, a -> new HashSet<>()).add(key);
+  }
+
+  void addAllStorage(final Address address) {
+    allStorage.add(address);
+  }
+
+  void addAll(final StateAccessSet other) {
+    accounts.addAll(other.accounts);
+    other.storage.forEach((address, keys) -> keys.forEach(key -> addStorage(address, key)));
+    allStorage.addAll(other.allStorage);
+  }
+
+  boolean contains(final Address address) {
+    return accounts.contains(address);
+  }
+
+  /**
+   * Whether any part of the state in this set is also in the other one.
+   *
+   * @param other The set to compare with.
+   * @return {@code true} if both sets share an account or a storage slot.
+   */
+  boolean intersects(final StateAccessSet other) {
+    if (!Collections.disjoint(accounts, other.accounts)) {
+      return true;
+    }
+    for (final Map.Entry<Address, Set<UInt256>> entry : storage.entrySet()) {
+      final Address address = entry.getKey();
+      final Set<UInt256> otherKeys = other.storage.get(address);
+      if (other.allStorage.contains(address)
+          || (otherKeys != null && !Collections.disjoint(entry.getValue(), otherKeys))) {
+        return true;
+      }
+    }
+    for (final Address address : allStorage) {
+      if (other.allStorage.contains(address) || other.storage.containsKey(address)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage;
+
+import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.db.CachingBlockchainStorage;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.worldstate.CachingWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import java.io.IOException;
+
+/** Places in-memory caches in front of the storage created by another provider. */
+public class CachingStorageProvider implements StorageProvider {
+
+  private final StorageProvider delegate;
+  private final MetricsSystem metricsSystem;
+
+  public CachingStorageProvider(final StorageProvider delegate, final MetricsSystem metricsSystem) {
+    this.delegate = delegate;
+    this.metricsSystem = metricsSystem;
+  }
+
+  @Override
+  public BlockchainStorage createBlockchainStorage(final ProtocolSchedule<?> protocolSchedule) {
+    return new CachingBlockchainStorage(
+        delegate.createBlockchainStorage(protocolSchedule), metricsSystem);
+  }
+
+  @Override
+  public WorldStateStorage createWorldStateStorage() {
+    return new CachingWorldStateStorage(
+        delegate.createWorldStateStorage(),
+        CachingWorldStateStorage.DEFAULT_NODE_CACHE_SIZE_IN_BYTES,
+        metricsSystem);
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage;
+
+import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshot;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/** Keeps a {@link WorldStateSnapshot} alongside the world state created by another provider. */
+public class SnapshotStorageProvider implements StorageProvider {
+
+  private final StorageProvider delegate;
+
+  public SnapshotStorageProvider(final StorageProvider delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public BlockchainStorage createBlockchainStorage(final ProtocolSchedule<?> protocolSchedule) {
+    return delegate.createBlockchainStorage(protocolSchedule);
+  }
+
+  @Override
+  public WorldStateStorage createWorldStateStorage() {
+    return delegate.createWorldStateStorage();
+  }
+
+  @Override
+  public WorldStateArchive createWorldStateArchive(final TrieHashingPool hashingPool) {
+    final WorldStateStorage worldStateStorage = createWorldStateStorage();
+    return new WorldStateArchive(
+        worldStateStorage, Optional.of(new WorldStateSnapshot(worldStateStorage)), hashingPool);
+  }
+
+  @Override
+  public void close() throws IOException {
+    delegate.close();
+  }
+}
@@ -13,14 +13,25 @@
 package tech.pegasys.pantheon.ethereum.storage;
 
 import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 
 import java.io.Closeable;
+import java.util.Optional;
 
 public interface StorageProvider extends Closeable {
 
   BlockchainStorage createBlockchainStorage(ProtocolSchedule<?> protocolSchedule);
 
   WorldStateStorage createWorldStateStorage();
+
+  default WorldStateArchive createWorldStateArchive() {
+    return createWorldStateArchive(TrieHashingPool.sequential());
+  }
+
+  default WorldStateArchive createWorldStateArchive(final TrieHashingPool hashingPool) {
+    return new WorldStateArchive(createWorldStateStorage(), Optional.empty(), hashingPool);
+  }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.ReadPattern;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Segment;
+
+/** The segments blockchain and world state data are split into when stored as segments. */
+public enum KeyValueSegmentIdentifier implements Segment {
+  /** Chain head, fork heads, canonical block hashes by number and total difficulties. */
+  BLOCKCHAIN_INDEX("default", ReadPattern.RANDOM, 32),
+  BLOCK_HEADERS("blockHeaders", ReadPattern.RANDOM, 64),
+  BLOCK_BODIES("blockBodies", ReadPattern.SEQUENTIAL, 16),
+  TRANSACTION_RECEIPTS("transactionReceipts", ReadPattern.SEQUENTIAL, 16),
+  TRANSACTION_LOCATIONS("transactionLocations", ReadPattern.RANDOM, 16),
+  WORLD_STATE("worldState", ReadPattern.RANDOM, 256),
+  CODE("code", ReadPattern.RANDOM, 32),
+  /** Flat copy of the accounts and storage values of the world state at the chain head. */
+  SNAPSHOT("snapshot", ReadPattern.RANDOM, 64);
+
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  private final String name;
+  private final ReadPattern readPattern;
+  private final long blockCacheSize;
+
+  KeyValueSegmentIdentifier(
+      final String name, final ReadPattern readPattern, final long blockCacheSizeMegabytes) {
+    this.name = name;
+    this.readPattern = readPattern;
+    this.blockCacheSize = blockCacheSizeMegabytes * BYTES_PER_MEGABYTE;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public ReadPattern getReadPattern() {
+    return readPattern;
+  }
+
+  @Override
+  public long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+}
@@ -15,14 +15,20 @@ package tech.pegasys.pantheon.ethereum.storage.keyvalue;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.util.Subscribers;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 public class KeyValueStorageWorldStateStorage implements WorldStateStorage {
 
   private final KeyValueStorage keyValueStorage;
+  private final Subscribers<NodeAddedListener> nodeAddedListeners = new Subscribers<>();
 
   public KeyValueStorageWorldStateStorage(final KeyValueStorage keyValueStorage) {
     this.keyValueStorage = keyValueStorage;
@@ -43,17 +49,62 @@ public class KeyValueStorageWorldStateStorage implements WorldStateStorage {
     return keyValueStorage.get(nodeHash);
   }
 
+  @Override
+  public Optional<BytesValue> getSnapshotAccount(final Hash accountHash) {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotStorage(final Hash accountHash, final Hash slotHash) {
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotMetadata() {
+    return Optional.empty();
+  }
+
+  @Override
+  public void clearSnapshot() {
+    throw new UnsupportedOperationException(
+        "A world state snapshot requires world state data to be stored in its own segment");
+  }
+
   @Override
   public Updater updater() {
-    return new Updater(keyValueStorage.getStartTransaction());
+    return new Updater(keyValueStorage.getStartTransaction(), nodeAddedListeners);
+  }
+
+  @Override
+  public void prune(
+      final Predicate<Bytes32> inUseCheck,
+      final BiConsumer<Bytes32, BytesValue> removedNodeListener) {
+    // Trie nodes share their keyspace with code and blockchain data so can't be told apart.
+    throw new UnsupportedOperationException(
+        "Pruning requires world state data to be stored in its own segment");
+  }
+
+  @Override
+  public long addNodeAddedListener(final NodeAddedListener listener) {
+    return nodeAddedListeners.subscribe(listener);
+  }
+
+  @Override
+  public void removeNodeAddedListener(final long id) {
+    nodeAddedListeners.unsubscribe(id);
   }
 
   public static class Updater implements WorldStateStorage.Updater {
 
     private final KeyValueStorage.Transaction transaction;
+    private final Subscribers<NodeAddedListener> nodeAddedListeners;
+    private final List<Bytes32> addedNodes = new ArrayList<>();
 
-    public Updater(final KeyValueStorage.Transaction transaction) {
+    public Updater(
+        final KeyValueStorage.Transaction transaction,
+        final Subscribers<NodeAddedListener> nodeAddedListeners) {
       this.transaction = transaction;
+      this.nodeAddedListeners = nodeAddedListeners;
     }
 
     @Override
@@ -63,16 +114,45 @@ public class KeyValueStorageWorldStateStorage implements WorldStateStorage {
 
     @Override
     public void putAccountStateTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      addedNodes.add(nodeHash);
       transaction.put(nodeHash, node);
     }
 
     @Override
     public void putAccountStorageTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      addedNodes.add(nodeHash);
       transaction.put(nodeHash, node);
     }
 
+    @Override
+    public void putSnapshotAccount(final Hash accountHash, final BytesValue account) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeSnapshotAccount(final Hash accountHash) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putSnapshotStorage(
+        final Hash accountHash, final Hash slotHash, final BytesValue value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeSnapshotStorage(final Hash accountHash, final Hash slotHash) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putSnapshotMetadata(final BytesValue metadata) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public void commit() {
+      nodeAddedListeners.forEach(listener -> listener.onNodesAdded(addedNodes));
       transaction.commit();
     }
 
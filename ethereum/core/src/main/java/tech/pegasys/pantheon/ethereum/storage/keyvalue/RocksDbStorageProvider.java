@@ -13,17 +13,38 @@
 package tech.pegasys.pantheon.ethereum.storage.keyvalue;
 
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.services.kvstore.ColumnarRocksDbKeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.RocksDbConfiguration;
 import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 public class RocksDbStorageProvider {
 
   public static StorageProvider create(final Path databaseDir) throws IOException {
-    final KeyValueStorage kv = RocksDbKeyValueStorage.create(Files.createDirectories(databaseDir));
-    return new KeyValueStorageProvider(kv);
+    return create(databaseDir, RocksDbConfiguration.createDefault());
+  }
+
+  /**
+   * Opens the database in the given directory. New databases store each kind of data in its own
+   * column family, while databases created before segmented storage existed keep using a single
+   * keyspace.
+   */
+  public static StorageProvider create(
+      final Path databaseDir, final RocksDbConfiguration configuration) throws IOException {
+    Files.createDirectories(databaseDir);
+    if (ColumnarRocksDbKeyValueStorage.isUnsegmentedDatabase(databaseDir)) {
+      final KeyValueStorage kv = RocksDbKeyValueStorage.create(databaseDir, configuration);
+      return new KeyValueStorageProvider(kv);
+    }
+    final SegmentedKeyValueStorage segmentedStorage =
+        ColumnarRocksDbKeyValueStorage.create(
+            databaseDir, Arrays.asList(KeyValueSegmentIdentifier.values()), configuration);
+    return new SegmentedKeyValueStorageProvider(segmentedStorage);
   }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.CODE;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.SNAPSHOT;
+import static tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueSegmentIdentifier.WORLD_STATE;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.Subscribers;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public class SegmentedKeyValueStorageWorldStateStorage implements WorldStateStorage {
+
+  private static final int REMOVAL_BATCH_SIZE = 10_000;
+  private static final BytesValue SNAPSHOT_METADATA_KEY =
+      BytesValue.wrap("snapshotMetadata".getBytes(StandardCharsets.UTF_8));
+
+  private final SegmentedKeyValueStorage storage;
+  private final Subscribers<NodeAddedListener> nodeAddedListeners = new Subscribers<>();
+  // Held while committing trie nodes, so a node can't be re-added between the pruner deciding it
+  // is unused and removing it.
+  private final Lock commitLock = new ReentrantLock();
+
+  public SegmentedKeyValueStorageWorldStateStorage(final SegmentedKeyValueStorage storage) {
+    this.storage = storage;
+  }
+
+  @Override
+  public Optional<BytesValue> getCode(final Hash codeHash) {
+    return storage.get(CODE, codeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    return storage.get(WORLD_STATE, nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    return storage.get(WORLD_STATE, nodeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotAccount(final Hash accountHash) {
+    return storage.get(SNAPSHOT, accountHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotStorage(final Hash accountHash, final Hash slotHash) {
+    return storage.get(SNAPSHOT, snapshotStorageKey(accountHash, slotHash));
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotMetadata() {
+    return storage.get(SNAPSHOT, SNAPSHOT_METADATA_KEY);
+  }
+
+  @Override
+  public void clearSnapshot() {
+    try (final Stream<Entry> entries = storage.entries(SNAPSHOT)) {
+      final Iterator<Entry> snapshotEntries = entries.iterator();
+      SegmentedKeyValueStorage.Transaction transaction = storage.getStartTransaction();
+      int pendingRemovals = 0;
+      while (snapshotEntries.hasNext()) {
+        transaction.remove(SNAPSHOT, snapshotEntries.next().getKey());
+        if (++pendingRemovals >= REMOVAL_BATCH_SIZE) {
+          transaction.commit();
+          transaction = storage.getStartTransaction();
+          pendingRemovals = 0;
+        }
+      }
+      transaction.commit();
+    }
+  }
+
+  private static BytesValue snapshotStorageKey(final Hash accountHash, final Hash slotHash) {
+    return BytesValue.wrap(accountHash, slotHash);
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(storage.getStartTransaction(), nodeAddedListeners, commitLock);
+  }
+
+  @Override
+  public void prune(
+      final Predicate<Bytes32> inUseCheck,
+      final BiConsumer<Bytes32, BytesValue> removedNodeListener) {
+    try (final Stream<Entry> entries = storage.entries(WORLD_STATE)) {
+      final Iterator<Entry> nodes = entries.iterator();
+      final List<Entry> unusedNodes = new ArrayList<>();
+      while (nodes.hasNext()) {
+        final Entry node = nodes.next();
+        if (inUseCheck.test(Bytes32.wrap(node.getKey(), 0))) {
+          continue;
+        }
+        unusedNodes.add(node);
+        if (unusedNodes.size() >= REMOVAL_BATCH_SIZE) {
+          removeUnusedNodes(unusedNodes, inUseCheck, removedNodeListener);
+          unusedNodes.clear();
+        }
+      }
+      removeUnusedNodes(unusedNodes, inUseCheck, removedNodeListener);
+    }
+  }
+
+  private void removeUnusedNodes(
+      final List<Entry> unusedNodes,
+      final Predicate<Bytes32> inUseCheck,
+      final BiConsumer<Bytes32, BytesValue> removedNodeListener) {
+    commitLock.lock();
+    try {
+      // A block may have committed some of the nodes again since they were checked.
+      final SegmentedKeyValueStorage.Transaction transaction = storage.getStartTransaction();
+      for (final Entry node : unusedNodes) {
+        final Bytes32 nodeHash = Bytes32.wrap(node.getKey(), 0);
+        if (!inUseCheck.test(nodeHash)) {
+          transaction.remove(WORLD_STATE, node.getKey());
+          removedNodeListener.accept(nodeHash, node.getValue());
+        }
+      }
+      transaction.commit();
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  @Override
+  public long addNodeAddedListener(final NodeAddedListener listener) {
+    return nodeAddedListeners.subscribe(listener);
+  }
+
+  @Override
+  public void removeNodeAddedListener(final long id) {
+    nodeAddedListeners.unsubscribe(id);
+  }
+
+  public static class Updater implements WorldStateStorage.Updater {
+
+    private final SegmentedKeyValueStorage.Transaction transaction;
+    private final Subscribers<NodeAddedListener> nodeAddedListeners;
+    private final Lock commitLock;
+    private final List<Bytes32> addedNodes = new ArrayList<>();
+
+    public Updater(
+        final SegmentedKeyValueStorage.Transaction transaction,
+        final Subscribers<NodeAddedListener> nodeAddedListeners,
+        final Lock commitLock) {
+      this.transaction = transaction;
+      this.nodeAddedListeners = nodeAddedListeners;
+      this.commitLock = commitLock;
+    }
+
+    @Override
+    public void putCode(final BytesValue code) {
+      transaction.put(CODE, Hash.hash(code), code);
+    }
+
+    @Override
+    public void putAccountStateTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      addedNodes.add(nodeHash);
+      transaction.put(WORLD_STATE, nodeHash, node);
+    }
+
+    @Override
+    public void putAccountStorageTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      addedNodes.add(nodeHash);
+      transaction.put(WORLD_STATE, nodeHash, node);
+    }
+
+    @Override
+    public void putSnapshotAccount(final Hash accountHash, final BytesValue account) {
+      transaction.put(SNAPSHOT, accountHash, account);
+    }
+
+    @Override
+    public void removeSnapshotAccount(final Hash accountHash) {
+      transaction.remove(SNAPSHOT, accountHash);
+    }
+
+    @Override
+    public void putSnapshotStorage(
+        final Hash accountHash, final Hash slotHash, final BytesValue value) {
+      transaction.put(SNAPSHOT, snapshotStorageKey(accountHash, slotHash), value);
+    }
+
+    @Override
+    public void removeSnapshotStorage(final Hash accountHash, final Hash slotHash) {
+      transaction.remove(SNAPSHOT, snapshotStorageKey(accountHash, slotHash));
+    }
+
+    @Override
+    public void putSnapshotMetadata(final BytesValue metadata) {
+      transaction.put(SNAPSHOT, SNAPSHOT_METADATA_KEY, metadata);
+    }
+
+    @Override
+    public void commit() {
+      commitLock.lock();
+      try {
+        // Listeners must see new nodes before they are visible so they can't be pruned in between.
+        nodeAddedListeners.forEach(listener -> listener.onNodesAdded(addedNodes));
+        transaction.commit();
+      } finally {
+        commitLock.unlock();
+      }
+    }
+
+    @Override
+    public void rollback() {
+      transaction.rollback();
+    }
+  }
+}
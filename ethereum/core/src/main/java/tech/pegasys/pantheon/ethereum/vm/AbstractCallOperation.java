@@ -28,6 +28,8 @@ import tech.pegasys.pantheon.util.uint.UInt256;
  */
 public abstract class AbstractCallOperation extends AbstractOperation {
 
+  private final CodeCache codeCache;
+
   public AbstractCallOperation(
       final int opcode,
       final String name,
@@ -35,7 +37,8 @@ public abstract class AbstractCallOperation extends AbstractOperation {
       final int stackItemsProduced,
       final boolean updatesProgramCounter,
       final int opSize,
-      final GasCalculator gasCalculator) {
+      final GasCalculator gasCalculator,
+      final CodeCache codeCache) {
     super(
         opcode,
         name,
@@ -44,6 +47,7 @@ public abstract class AbstractCallOperation extends AbstractOperation {
         updatesProgramCounter,
         opSize,
         gasCalculator);
+    this.codeCache = codeCache;
   }
 
   /**
@@ -177,7 +181,7 @@ public abstract class AbstractCallOperation extends AbstractOperation {
             .sender(sender(frame))
             .value(value(frame))
             .apparentValue(apparentValue(frame))
-            .code(new Code(contract != null ? contract.getCode() : BytesValue.EMPTY))
+            .code(contract != null ? codeCache.getCode(contract) : new Code())
             .blockHeader(frame.getBlockHeader())
             .depth(frame.getMessageStackDepth() + 1)
             .isStatic(isStatic(frame))
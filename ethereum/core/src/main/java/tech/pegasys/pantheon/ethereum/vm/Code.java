@@ -26,8 +26,11 @@ public class Code {
   /** The bytes representing the code. */
   private final BytesValue bytes;
 
-  /** Used to cache valid jump destinations. */
-  private BitSet validJumpDestinations;
+  /**
+   * Used to cache valid jump destinations. Code can be shared between threads through the {@link
+   * CodeCache}, so this is only assigned once fully built.
+   */
+  private volatile BitSet validJumpDestinations;
 
   /**
    * Public constructor.
@@ -81,18 +84,21 @@ public class Code {
     final int jumpDestination = destination.toInt();
     if (jumpDestination > getSize()) return false;
 
-    if (validJumpDestinations == null) {
+    BitSet jumpDestinations = validJumpDestinations;
+    if (jumpDestinations == null) {
       // Calculate valid jump destinations
-      validJumpDestinations = new BitSet(getSize());
+      final BitSet calculated = new BitSet(getSize());
       evm.forEachOperation(
           this,
           (final Operation op, final Integer offset) -> {
             if (op.getOpcode() == JumpDestOperation.OPCODE) {
-              validJumpDestinations.set(offset);
+              calculated.set(offset);
             }
           });
+      jumpDestinations = calculated;
+      validJumpDestinations = calculated;
     }
-    return validJumpDestinations.get(jumpDestination);
+    return jumpDestinations.get(jumpDestination);
   }
 
   public BytesValue getBytes() {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shares {@link Code} instances between message calls to the same contract code, so popular
+ * contracts are read from storage and have their jump destinations analysed once, rather than
+ * once per call.
+ *
+ * <p>Entries are keyed by code hash, which identifies the code itself, so they never become stale
+ * and one cache serves every world state and fork of a node.
+ */
+public class CodeCache {
+
+  // Bounds the total size of the cached code, in bytes.
+  private static final long DEFAULT_MAXIMUM_CODE_SIZE = 64 * 1024 * 1024;
+
+  private final Cache<Hash, Code> cache;
+  private final Counter cacheHits;
+  private final Counter cacheMisses;
+
+  public CodeCache(final MetricsSystem metricsSystem) {
+    this(metricsSystem, DEFAULT_MAXIMUM_CODE_SIZE);
+  }
+
+  CodeCache(final MetricsSystem metricsSystem, final long maximumCodeSize) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumCodeSize)
+            .weigher((final Hash hash, final Code code) -> code.getSize())
+            .build();
+
+    final LabelledMetric<Counter> cacheRequests =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.BLOCKCHAIN,
+            "code_cache_requests_total",
+            "Lookups of contract code in the code cache",
+            "result");
+    cacheHits = cacheRequests.labels("hit");
+    cacheMisses = cacheRequests.labels("miss");
+    metricsSystem.createGauge(
+        MetricCategory.BLOCKCHAIN,
+        "code_cache_entries",
+        "Number of contracts whose code is in the code cache",
+        () -> (double) cache.size());
+  }
+
+  /**
+   * Returns the code of an account, only reading it from the account on a cache miss.
+   *
+   * @param account The account to get the code of.
+   * @return The account's code.
+   */
+  public Code getCode(final Account account) {
+    final Hash codeHash = account.getCodeHash();
+    final Code cached = cache.getIfPresent(codeHash);
+    if (cached != null) {
+      cacheHits.inc();
+      return cached;
+    }
+    cacheMisses.inc();
+    final Code code = new Code(account.getCode());
+    cache.put(codeHash, code);
+    return code;
+  }
+}
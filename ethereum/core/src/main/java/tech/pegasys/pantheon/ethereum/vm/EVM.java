@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.vm;
 
 import static org.apache.logging.log4j.LogManager.getLogger;
 import static tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS;
+import static tech.pegasys.pantheon.ethereum.vm.ehalt.StackOverflowExceptionalHaltPredicate.MAX_STACK_SIZE;
 
 import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame.State;
@@ -31,18 +32,42 @@ public class EVM {
   private static final Logger LOG = getLogger();
 
   private static final int STOP_OPCODE = 0x00;
+  private static final int INVALID_OPCODE = 0xfe;
+  private static final int NUM_OPCODES = 256;
   private final OperationRegistry operations;
   private final Operation invalidOperation;
 
+  // The range of stack sizes each opcode can execute with, so the untraced path can check for
+  // stack underflow and overflow without going through the halt predicates.
+  private final int[] minStackSizes = new int[NUM_OPCODES];
+  private final int[] maxStackSizes = new int[NUM_OPCODES];
+
   public EVM(final OperationRegistry operations, final Operation invalidOperation) {
     this.operations = operations;
     this.invalidOperation = invalidOperation;
+    for (int opcode = 0; opcode < NUM_OPCODES; opcode++) {
+      final Operation operation = operations.get(opcode);
+      if (operation == null || opcode == INVALID_OPCODE) {
+        // Always halts, which is left to the regular path.
+        minStackSizes[opcode] = Integer.MAX_VALUE;
+        maxStackSizes[opcode] = Integer.MIN_VALUE;
+      } else {
+        minStackSizes[opcode] = operation.getStackItemsConsumed();
+        maxStackSizes[opcode] = MAX_STACK_SIZE - operation.getStackSizeChange();
+      }
+    }
   }
 
   public void runToHalt(final MessageFrame frame, final OperationTracer operationTracer)
       throws ExceptionalHaltException {
-    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
-      executeNextOperation(frame, operationTracer);
+    if (operationTracer == OperationTracer.NO_TRACING && !LOG.isTraceEnabled()) {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        executeNextOperationWithoutTracing(frame);
+      }
+    } else {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        executeNextOperation(frame, operationTracer);
+      }
     }
   }
 
@@ -75,6 +100,45 @@ public class EVM {
         });
   }
 
+  /**
+   * Executes the next operation like {@link #executeNextOperation(MessageFrame, OperationTracer)}
+   * does with no tracer, but checks the halt conditions directly rather than collecting them into
+   * sets and optionals first. Anything that would halt goes through the regular path, so it is
+   * reported the same way.
+   */
+  private void executeNextOperationWithoutTracing(final MessageFrame frame)
+      throws ExceptionalHaltException {
+    final Operation operation = operationAtOffset(frame.getCode(), frame.getPC());
+    frame.setCurrentOperation(operation);
+
+    final int opcode = operation.getOpcode() & 0xff;
+    final int stackSize = frame.stackSize();
+    if (stackSize < minStackSizes[opcode]
+        || stackSize > maxStackSizes[opcode]
+        || operation
+            .exceptionalHaltCondition(frame, frame.getExceptionalHaltReasons(), this)
+            .isPresent()) {
+      executeNextOperation(frame, OperationTracer.NO_TRACING);
+      return;
+    }
+
+    final Gas cost;
+    try {
+      cost = operation.cost(frame);
+    } catch (final IllegalArgumentException e) {
+      executeNextOperation(frame, OperationTracer.NO_TRACING);
+      return;
+    }
+    if (cost == null || frame.getRemainingGas().toLong() < cost.toLong()) {
+      executeNextOperation(frame, OperationTracer.NO_TRACING);
+      return;
+    }
+
+    frame.decrementRemainingGas(cost);
+    operation.execute(frame);
+    incrementProgramCounter(frame);
+  }
+
   private void evaluateExceptionalHaltReasons(final MessageFrame frame) {
     final EnumSet<ExceptionalHaltReason> haltReasons =
         ExceptionalHaltManager.evaluateAll(frame, this);
@@ -16,7 +16,7 @@ import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
-import tech.pegasys.pantheon.util.uint.UInt256;
+import tech.pegasys.pantheon.util.uint.UInt256Limbs;
 
 public class AddOperation extends AbstractOperation {
 
@@ -31,11 +31,8 @@ public class AddOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = frame.popStackItem().asUInt256();
-    final UInt256 value1 = frame.popStackItem().asUInt256();
-
-    final UInt256 result = value0.plus(value1);
-
-    frame.pushStackItem(result.getBytes());
+    final UInt256Limbs value0 = UInt256Limbs.of(frame.popStackItem());
+    final UInt256Limbs value1 = UInt256Limbs.of(frame.popStackItem());
+    frame.pushStackItem(value0.add(value1).toBytes32());
   }
 }
@@ -17,6 +17,7 @@ import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.vm.AbstractCallOperation;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.ethereum.vm.EVM;
 import tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
@@ -29,8 +30,8 @@ import java.util.Optional;
 
 public class CallOperation extends AbstractCallOperation {
 
-  public CallOperation(final GasCalculator gasCalculator) {
-    super(0xF1, "CALL", 7, 1, false, 1, gasCalculator);
+  public CallOperation(final GasCalculator gasCalculator, final CodeCache codeCache) {
+    super(0xF1, "CALL", 7, 1, false, 1, gasCalculator, codeCache);
   }
 
   @Override
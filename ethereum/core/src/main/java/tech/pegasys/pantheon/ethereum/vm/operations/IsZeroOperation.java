@@ -17,7 +17,6 @@ import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
-import tech.pegasys.pantheon.util.uint.UInt256;
 
 public class IsZeroOperation extends AbstractOperation {
 
@@ -32,8 +31,7 @@ public class IsZeroOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value = frame.popStackItem().asUInt256();
-
+    final Bytes32 value = frame.popStackItem();
     frame.pushStackItem(value.isZero() ? Bytes32.TRUE : Bytes32.FALSE);
   }
 }
@@ -12,15 +12,11 @@
  */
 package tech.pegasys.pantheon.ethereum.vm.operations;
 
-import static tech.pegasys.pantheon.util.uint.UInt256s.greaterThanOrEqualTo256;
-
 import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
-import tech.pegasys.pantheon.util.bytes.Bytes32;
-import tech.pegasys.pantheon.util.bytes.Bytes32s;
-import tech.pegasys.pantheon.util.uint.UInt256;
+import tech.pegasys.pantheon.util.uint.UInt256Limbs;
 
 public class ShlOperation extends AbstractOperation {
 
@@ -35,13 +31,10 @@ public class ShlOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 shiftAmount = frame.popStackItem().asUInt256();
-    final Bytes32 value = frame.popStackItem();
-
-    if (greaterThanOrEqualTo256(shiftAmount)) {
-      frame.pushStackItem(Bytes32.ZERO);
-    } else {
-      frame.pushStackItem(Bytes32s.shiftLeft(value, shiftAmount.toInt()));
-    }
+    final UInt256Limbs shiftAmount = UInt256Limbs.of(frame.popStackItem());
+    final UInt256Limbs value = UInt256Limbs.of(frame.popStackItem());
+    // Shifting by 256 bits or more gives the same result as shifting by exactly 256.
+    final int shift = shiftAmount.lessThan(256) ? shiftAmount.lowInt() : 256;
+    frame.pushStackItem(value.shiftLeft(shift).toBytes32());
   }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps recently read and written trie nodes in memory so repeated lookups, particularly of the
+ * upper levels of the account trie which every account read passes through, don't go to disk.
+ * The cache is bounded by the total size of the cached nodes rather than their number.
+ */
+public class CachingWorldStateStorage implements WorldStateStorage {
+
+  public static final long DEFAULT_NODE_CACHE_SIZE_IN_BYTES = 64 * 1024 * 1024;
+
+  private final WorldStateStorage delegate;
+  private final Cache<Bytes32, BytesValue> nodeCache;
+  private final Counter cacheHits;
+  private final Counter cacheMisses;
+
+  public CachingWorldStateStorage(
+      final WorldStateStorage delegate,
+      final long maximumCacheSizeInBytes,
+      final MetricsSystem metricsSystem) {
+    this.delegate = delegate;
+    this.nodeCache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumCacheSizeInBytes)
+            .weigher((final Bytes32 hash, final BytesValue node) -> Bytes32.SIZE + node.size())
+            .build();
+
+    final LabelledMetric<Counter> cacheRequests =
+        metricsSystem.createLabelledCounter(
+            MetricCategory.STORAGE,
+            "world_state_node_cache_requests_total",
+            "Lookups of world state trie nodes in the node cache",
+            "result");
+    cacheHits = cacheRequests.labels("hit");
+    cacheMisses = cacheRequests.labels("miss");
+    metricsSystem.createGauge(
+        MetricCategory.STORAGE,
+        "world_state_node_cache_entries",
+        "Number of world state trie nodes held in the node cache",
+        () -> (double) nodeCache.size());
+  }
+
+  @Override
+  public Optional<BytesValue> getCode(final Hash codeHash) {
+    return delegate.getCode(codeHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStateTrieNode(final Bytes32 nodeHash) {
+    return getTrieNode(nodeHash, delegate::getAccountStateTrieNode);
+  }
+
+  @Override
+  public Optional<BytesValue> getAccountStorageTrieNode(final Bytes32 nodeHash) {
+    return getTrieNode(nodeHash, delegate::getAccountStorageTrieNode);
+  }
+
+  private Optional<BytesValue> getTrieNode(
+      final Bytes32 nodeHash, final Function<Bytes32, Optional<BytesValue>> loader) {
+    final BytesValue cached = nodeCache.getIfPresent(nodeHash);
+    if (cached != null) {
+      cacheHits.inc();
+      return Optional.of(cached);
+    }
+    cacheMisses.inc();
+    final Optional<BytesValue> node = loader.apply(nodeHash);
+    node.ifPresent(value -> nodeCache.put(nodeHash, value));
+    return node;
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotAccount(final Hash accountHash) {
+    return delegate.getSnapshotAccount(accountHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotStorage(final Hash accountHash, final Hash slotHash) {
+    return delegate.getSnapshotStorage(accountHash, slotHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getSnapshotMetadata() {
+    return delegate.getSnapshotMetadata();
+  }
+
+  @Override
+  public void clearSnapshot() {
+    delegate.clearSnapshot();
+  }
+
+  @Override
+  public Updater updater() {
+    return new Updater(delegate.updater());
+  }
+
+  @Override
+  public void prune(
+      final Predicate<Bytes32> inUseCheck,
+      final BiConsumer<Bytes32, BytesValue> removedNodeListener) {
+    // Evict each node as it is removed, while the delegate is still preventing it being re-added.
+    delegate.prune(
+        inUseCheck,
+        (nodeHash, node) -> {
+          nodeCache.invalidate(nodeHash);
+          removedNodeListener.accept(nodeHash, node);
+        });
+  }
+
+  @Override
+  public long addNodeAddedListener(final NodeAddedListener listener) {
+    return delegate.addNodeAddedListener(listener);
+  }
+
+  @Override
+  public void removeNodeAddedListener(final long id) {
+    delegate.removeNodeAddedListener(id);
+  }
+
+  /** Adds the nodes it writes to the cache once they have been committed. */
+  private class Updater implements WorldStateStorage.Updater {
+
+    private final WorldStateStorage.Updater delegateUpdater;
+    private final Map<Bytes32, BytesValue> pendingNodes = new HashMap<>();
+
+    private Updater(final WorldStateStorage.Updater delegateUpdater) {
+      this.delegateUpdater = delegateUpdater;
+    }
+
+    @Override
+    public void putCode(final BytesValue code) {
+      delegateUpdater.putCode(code);
+    }
+
+    @Override
+    public void putAccountStateTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      delegateUpdater.putAccountStateTrieNode(nodeHash, node);
+      pendingNodes.put(nodeHash, node);
+    }
+
+    @Override
+    public void putAccountStorageTrieNode(final Bytes32 nodeHash, final BytesValue node) {
+      delegateUpdater.putAccountStorageTrieNode(nodeHash, node);
+      pendingNodes.put(nodeHash, node);
+    }
+
+    @Override
+    public void putSnapshotAccount(final Hash accountHash, final BytesValue account) {
+      delegateUpdater.putSnapshotAccount(accountHash, account);
+    }
+
+    @Override
+    public void removeSnapshotAccount(final Hash accountHash) {
+      delegateUpdater.removeSnapshotAccount(accountHash);
+    }
+
+    @Override
+    public void putSnapshotStorage(
+        final Hash accountHash, final Hash slotHash, final BytesValue value) {
+      delegateUpdater.putSnapshotStorage(accountHash, slotHash, value);
+    }
+
+    @Override
+    public void removeSnapshotStorage(final Hash accountHash, final Hash slotHash) {
+      delegateUpdater.removeSnapshotStorage(accountHash, slotHash);
+    }
+
+    @Override
+    public void putSnapshotMetadata(final BytesValue metadata) {
+      delegateUpdater.putSnapshotMetadata(metadata);
+    }
+
+    @Override
+    public void commit() {
+      delegateUpdater.commit();
+      nodeCache.putAll(pendingNodes);
+      pendingNodes.clear();
+    }
+
+    @Override
+    public void rollback() {
+      delegateUpdater.rollback();
+      pendingNodes.clear();
+    }
+  }
+}
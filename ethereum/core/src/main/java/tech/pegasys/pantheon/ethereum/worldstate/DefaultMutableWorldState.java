@@ -25,6 +25,7 @@ import tech.pegasys.pantheon.ethereum.rlp.RLPException;
 import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
 import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
 import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
@@ -32,21 +33,36 @@ import tech.pegasys.pantheon.util.uint.UInt256;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.Stream;
 
 public class DefaultMutableWorldState implements MutableWorldState {
+  // Storage tries are hashed in parallel with each other once there are enough of them to outweigh
+  // the cost of the hand-off.
+  private static final int PARALLEL_STORAGE_HASHING_THRESHOLD = 8;
 
   private final MerklePatriciaTrie<Bytes32, BytesValue> accountStateTrie;
   private final Map<Address, MerklePatriciaTrie<Bytes32, BytesValue>> updatedStorageTries =
       new HashMap<>();
   private final Map<Address, BytesValue> updatedAccountCode = new HashMap<>();
   private final WorldStateStorage worldStateStorage;
+  private final Optional<WorldStateSnapshot> snapshot;
+  private final TrieHashingPool hashingPool;
+
+  // Changes made since the state was last persisted, by account hash, tracked for the snapshot.
+  private Hash persistedRootHash;
+  private final Map<Hash, Optional<BytesValue>> pendingAccountUpdates = new HashMap<>();
+  private final Map<Hash, Map<Hash, Optional<BytesValue>>> pendingStorageUpdates =
+      new HashMap<>();
+  private final Set<Hash> clearedStorage = new HashSet<>();
 
   public DefaultMutableWorldState(final WorldStateStorage storage) {
     this(MerklePatriciaTrie.EMPTY_TRIE_ROOT_HASH, storage);
@@ -54,7 +70,25 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   public DefaultMutableWorldState(
       final Bytes32 rootHash, final WorldStateStorage worldStateStorage) {
+    this(rootHash, worldStateStorage, Optional.empty());
+  }
+
+  public DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final Optional<WorldStateSnapshot> snapshot) {
+    this(rootHash, worldStateStorage, snapshot, TrieHashingPool.sequential());
+  }
+
+  public DefaultMutableWorldState(
+      final Bytes32 rootHash,
+      final WorldStateStorage worldStateStorage,
+      final Optional<WorldStateSnapshot> snapshot,
+      final TrieHashingPool hashingPool) {
     this.worldStateStorage = worldStateStorage;
+    this.snapshot = snapshot;
+    this.hashingPool = hashingPool;
+    this.persistedRootHash = Hash.wrap(rootHash);
     this.accountStateTrie = newAccountStateTrie(rootHash);
   }
 
@@ -68,17 +102,20 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     final DefaultMutableWorldState other = (DefaultMutableWorldState) worldState;
     this.worldStateStorage = other.worldStateStorage;
+    this.snapshot = other.snapshot;
+    this.hashingPool = other.hashingPool;
+    this.persistedRootHash = other.rootHash();
     this.accountStateTrie = newAccountStateTrie(other.accountStateTrie.getRootHash());
   }
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b, hashingPool);
   }
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStorageTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStorageTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStorageTrieNode, rootHash, b -> b, b -> b, hashingPool);
   }
 
   @Override
@@ -88,18 +125,28 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
   @Override
   public MutableWorldState copy() {
-    return new DefaultMutableWorldState(rootHash(), worldStateStorage);
+    return new DefaultMutableWorldState(rootHash(), worldStateStorage, snapshot);
   }
 
   @Override
   public Account get(final Address address) {
     final Hash addressHash = Hash.hash(address);
-    return accountStateTrie
-        .get(Hash.hash(address))
+    return getAccountValue(addressHash)
         .map(bytes -> deserializeAccount(address, addressHash, bytes))
         .orElse(null);
   }
 
+  private Optional<BytesValue> getAccountValue(final Hash addressHash) {
+    if (!snapshot.isPresent()) {
+      return accountStateTrie.get(addressHash);
+    }
+    final Optional<BytesValue> pendingUpdate = pendingAccountUpdates.get(addressHash);
+    if (pendingUpdate != null) {
+      return pendingUpdate;
+    }
+    return snapshot.get().getAccount(persistedRootHash, addressHash, accountStateTrie::get);
+  }
+
   private AccountState deserializeAccount(
       final Address address, final Hash addressHash, final BytesValue encoded) throws RLPException {
     final RLPInput in = RLP.input(encoded);
@@ -165,19 +212,117 @@ public class DefaultMutableWorldState implements MutableWorldState {
       updater.putCode(code);
     }
     // Commit account storage tries
-    for (final MerklePatriciaTrie<Bytes32, BytesValue> updatedStorage :
-        updatedStorageTries.values()) {
-      updatedStorage.commit(updater::putAccountStorageTrieNode);
-    }
+    commitStorageTries(updater);
     // Commit account updates
     accountStateTrie.commit(updater::putAccountStateTrieNode);
 
+    // Push changes to underlying storage, along with the snapshot's
+    final Hash rootHash = rootHash();
+    if (snapshot.isPresent()) {
+      snapshot
+          .get()
+          .commit(
+              updater,
+              persistedRootHash,
+              rootHash,
+              pendingAccountUpdates,
+              pendingStorageUpdates,
+              clearedStorage);
+    } else {
+      updater.commit();
+    }
+
     // Clear pending changes that we just flushed
     updatedStorageTries.clear();
     updatedAccountCode.clear();
+    pendingAccountUpdates.clear();
+    pendingStorageUpdates.clear();
+    clearedStorage.clear();
+    persistedRootHash = rootHash;
+  }
+
+  private void recordAccountUpdate(final Hash addressHash, final Optional<BytesValue> account) {
+    if (snapshot.isPresent()) {
+      pendingAccountUpdates.put(addressHash, account);
+    }
+  }
+
+  private void recordStorageUpdate(
+      final Hash addressHash, final Hash slotHash, final Optional<BytesValue> value) {
+    if (snapshot.isPresent()) {
+      pendingStorageUpdates
+          .computeIfAbsent(addressHash, hash -> new HashMap<>())
+          .put(slotHash, value);
+    }
+  }
+
+  private void recordStorageCleared(final Hash addressHash) {
+    if (snapshot.isPresent()) {
+      pendingStorageUpdates.remove(addressHash);
+      clearedStorage.add(addressHash);
+    }
+  }
+
+  private void commitStorageTries(final WorldStateStorage.Updater updater) {
+    if (!shouldHashStorageInParallel(updatedStorageTries.size())) {
+      for (final MerklePatriciaTrie<Bytes32, BytesValue> updatedStorage :
+          updatedStorageTries.values()) {
+        updatedStorage.commit(updater::putAccountStorageTrieNode);
+      }
+      return;
+    }
+    // The updater isn't thread-safe, so each trie's nodes are collected and stored afterwards.
+    final List<StorageTrieCommit> commits = new ArrayList<>(updatedStorageTries.size());
+    for (final MerklePatriciaTrie<Bytes32, BytesValue> updatedStorage :
+        updatedStorageTries.values()) {
+      commits.add(new StorageTrieCommit(updatedStorage));
+    }
+    hashingPool.invokeAll(commits);
+    commits.forEach(commit -> commit.nodes.forEach(updater::putAccountStorageTrieNode));
+  }
+
+  private void hashStorageTries(
+      final Collection<MerklePatriciaTrie<Bytes32, BytesValue>> storageTries) {
+    if (!shouldHashStorageInParallel(storageTries.size())) {
+      // Each trie is hashed on demand when its account is serialized.
+      return;
+    }
+    final List<StorageTrieHash> hashes = new ArrayList<>(storageTries.size());
+    for (final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie : storageTries) {
+      hashes.add(new StorageTrieHash(storageTrie));
+    }
+    hashingPool.invokeAll(hashes);
+  }
 
-    // Push changes to underlying storage
-    updater.commit();
+  private boolean shouldHashStorageInParallel(final int storageTrieCount) {
+    return hashingPool.isParallel() && storageTrieCount >= PARALLEL_STORAGE_HASHING_THRESHOLD;
+  }
+
+  private static class StorageTrieCommit implements Runnable {
+    private final MerklePatriciaTrie<Bytes32, BytesValue> trie;
+    private final Map<Bytes32, BytesValue> nodes = new HashMap<>();
+
+    private StorageTrieCommit(final MerklePatriciaTrie<Bytes32, BytesValue> trie) {
+      this.trie = trie;
+    }
+
+    @Override
+    public void run() {
+      trie.commit(nodes::put);
+    }
+  }
+
+  private static class StorageTrieHash implements Runnable {
+    private final MerklePatriciaTrie<Bytes32, BytesValue> trie;
+
+    private StorageTrieHash(final MerklePatriciaTrie<Bytes32, BytesValue> trie) {
+      this.trie = trie;
+    }
+
+    @Override
+    public void run() {
+      trie.getRootHash();
+    }
   }
 
   // An immutable class that represents an individual account as stored in
@@ -191,6 +336,8 @@ public class DefaultMutableWorldState implements MutableWorldState {
     private final Wei balance;
     private final Hash storageRoot;
     private final Hash codeHash;
+    // The last persisted state when this account was read, which the snapshot may hold.
+    private final Hash persistedRootHash;
 
     // Lazily initialized since we don't always access storage.
     private volatile MerklePatriciaTrie<Bytes32, BytesValue> storageTrie;
@@ -209,6 +356,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
       this.balance = balance;
       this.storageRoot = storageRoot;
       this.codeHash = codeHash;
+      this.persistedRootHash = DefaultMutableWorldState.this.persistedRootHash;
     }
 
     private MerklePatriciaTrie<Bytes32, BytesValue> storageTrie() {
@@ -267,13 +415,26 @@ public class DefaultMutableWorldState implements MutableWorldState {
 
     @Override
     public UInt256 getStorageValue(final UInt256 key) {
-      final Optional<BytesValue> val = storageTrie().get(Hash.hash(key.getBytes()));
+      final Hash slotHash = Hash.hash(key.getBytes());
+      final Optional<BytesValue> val;
+      if (snapshot.isPresent() && isStorageAsPersisted()) {
+        val =
+            snapshot.get().getStorage(persistedRootHash, addressHash, slotHash, storageTrie()::get);
+      } else {
+        val = storageTrie().get(slotHash);
+      }
       if (!val.isPresent()) {
         return UInt256.ZERO;
       }
       return convertToUInt256(val.get());
     }
 
+    private boolean isStorageAsPersisted() {
+      return persistedRootHash.equals(DefaultMutableWorldState.this.persistedRootHash)
+          && !updatedStorageTries.containsKey(address)
+          && !clearedStorage.contains(addressHash);
+    }
+
     @Override
     public UInt256 getOriginalStorageValue(final UInt256 key) {
       return getStorageValue(key);
@@ -321,8 +482,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
       final DefaultMutableWorldState wrapped = wrappedWorldView();
       final Hash addressHash = Hash.hash(address);
       return wrapped
-          .accountStateTrie
-          .get(addressHash)
+          .getAccountValue(addressHash)
           .map(bytes -> wrapped.deserializeAccount(address, addressHash, bytes))
           .orElse(null);
     }
@@ -347,22 +507,20 @@ public class DefaultMutableWorldState implements MutableWorldState {
         wrapped.accountStateTrie.remove(addressHash);
         wrapped.updatedStorageTries.remove(address);
         wrapped.updatedAccountCode.remove(address);
+        wrapped.recordAccountUpdate(addressHash, Optional.empty());
+        wrapped.recordStorageCleared(addressHash);
       }
 
+      // Apply storage updates to every account first, so the storage tries can be hashed together.
+      final Map<Address, MerklePatriciaTrie<Bytes32, BytesValue>> storageTries = new HashMap<>();
       for (final UpdateTrackingAccount<AccountState> updated : updatedAccounts()) {
         final AccountState origin = updated.getWrappedAccount();
-
-        // Save the code in key-value storage ...
-        Hash codeHash = origin == null ? Hash.EMPTY : origin.codeHash;
-        if (updated.codeWasUpdated()) {
-          codeHash = Hash.hash(updated.getCode());
-          wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
-        }
-        // ...and storage in the account trie first.
         final boolean freshState = origin == null || updated.getStorageWasCleared();
-        Hash storageRoot = freshState ? Hash.EMPTY_TRIE_HASH : origin.storageRoot;
         if (freshState) {
           wrapped.updatedStorageTries.remove(updated.getAddress());
+          if (origin != null) {
+            wrapped.recordStorageCleared(updated.getAddressHash());
+          }
         }
         final SortedMap<UInt256, UInt256> updatedStorage = updated.getUpdatedStorage();
         if (!updatedStorage.isEmpty()) {
@@ -372,16 +530,43 @@ public class DefaultMutableWorldState implements MutableWorldState {
                   ? wrapped.newAccountStorageTrie(Hash.EMPTY_TRIE_HASH)
                   : origin.storageTrie();
           wrapped.updatedStorageTries.put(updated.getAddress(), storageTrie);
+          storageTries.put(updated.getAddress(), storageTrie);
           for (final Map.Entry<UInt256, UInt256> entry : updatedStorage.entrySet()) {
             final UInt256 value = entry.getValue();
             final Hash keyHash = Hash.hash(entry.getKey().getBytes());
             if (value.isZero()) {
               storageTrie.remove(keyHash);
+              wrapped.recordStorageUpdate(updated.getAddressHash(), keyHash, Optional.empty());
             } else {
-              storageTrie.put(keyHash, RLP.encode(out -> out.writeUInt256Scalar(entry.getValue())));
+              final BytesValue encodedValue = RLP.encode(out -> out.writeUInt256Scalar(value));
+              storageTrie.put(keyHash, encodedValue);
+              wrapped.recordStorageUpdate(
+                  updated.getAddressHash(), keyHash, Optional.of(encodedValue));
             }
           }
+        }
+      }
+      wrapped.hashStorageTries(storageTries.values());
+
+      for (final UpdateTrackingAccount<AccountState> updated : updatedAccounts()) {
+        final AccountState origin = updated.getWrappedAccount();
+
+        // Save the code in key-value storage ...
+        Hash codeHash = origin == null ? Hash.EMPTY : origin.codeHash;
+        if (updated.codeWasUpdated()) {
+          codeHash = Hash.hash(updated.getCode());
+          wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
+        }
+        // ...and take the storage root from the updated storage trie.
+        final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie =
+            storageTries.get(updated.getAddress());
+        final Hash storageRoot;
+        if (storageTrie != null) {
           storageRoot = Hash.wrap(storageTrie.getRootHash());
+        } else if (origin == null || updated.getStorageWasCleared()) {
+          storageRoot = Hash.EMPTY_TRIE_HASH;
+        } else {
+          storageRoot = origin.storageRoot;
         }
 
         // Lastly, save the new account.
@@ -389,6 +574,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
             serializeAccount(updated.getNonce(), updated.getBalance(), codeHash, storageRoot);
 
         wrapped.accountStateTrie.put(updated.getAddressHash(), account);
+        wrapped.recordAccountUpdate(updated.getAddressHash(), Optional.of(account));
       }
     }
   }
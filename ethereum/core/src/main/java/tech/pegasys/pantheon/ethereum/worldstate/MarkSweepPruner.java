@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.ethereum.trie.NodeLoader;
+import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.MetricCategory;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Removes world state trie nodes which can't be reached from a given state root.
+ *
+ * <p>Pruning happens in three steps. {@link #prepare()} starts tracking every node committed from
+ * then on as in use. {@link #mark(Hash)} walks the account trie and every storage trie under a
+ * state root, marking each node it finds. {@link #sweep()} then removes every node which was not
+ * marked. Only the marked state and states committed after {@link #prepare()} remain readable.
+ */
+public class MarkSweepPruner {
+
+  private final WorldStateStorage worldStateStorage;
+  private final Set<Bytes32> markedNodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final Counter markedNodesCounter;
+  private final Counter sweptNodesCounter;
+  private final Counter sweptBytesCounter;
+  private long nodeAddedListenerId;
+
+  public MarkSweepPruner(
+      final WorldStateStorage worldStateStorage, final MetricsSystem metricsSystem) {
+    this.worldStateStorage = worldStateStorage;
+    markedNodesCounter =
+        metricsSystem.createCounter(
+            MetricCategory.STORAGE, "pruner_marked_nodes_total", "Trie nodes marked as in use");
+    sweptNodesCounter =
+        metricsSystem.createCounter(
+            MetricCategory.STORAGE, "pruner_swept_nodes_total", "Unreachable trie nodes removed");
+    sweptBytesCounter =
+        metricsSystem.createCounter(
+            MetricCategory.STORAGE,
+            "pruner_swept_bytes_total",
+            "Bytes of trie node data removed by pruning");
+  }
+
+  public void prepare() {
+    markedNodes.clear();
+    nodeAddedListenerId = worldStateStorage.addNodeAddedListener(this::markNewNodes);
+  }
+
+  public void mark(final Hash rootHash) {
+    createTrie(rootHash, worldStateStorage::getAccountStateTrieNode)
+        .visitAll(this::markNode, this::markStorageTrie);
+  }
+
+  /**
+   * @param rootHash The root hash of a world state.
+   * @return true if the world state's root node is stored locally. It won't be for blocks which
+   *     were imported by fast sync without being executed.
+   */
+  public boolean isWorldStateAvailable(final Hash rootHash) {
+    return rootHash.equals(Hash.EMPTY_TRIE_HASH)
+        || worldStateStorage.getAccountStateTrieNode(rootHash).isPresent();
+  }
+
+  public void sweep() {
+    worldStateStorage.prune(markedNodes::contains, this::recordSweptNode);
+    cleanup();
+  }
+
+  /** Abandons the current pruning cycle without removing any nodes. */
+  public void cleanup() {
+    worldStateStorage.removeNodeAddedListener(nodeAddedListenerId);
+    markedNodes.clear();
+  }
+
+  private void markStorageTrie(final BytesValue account) {
+    final RLPInput in = RLP.input(account);
+    in.enterList();
+    in.skipNext(); // nonce
+    in.skipNext(); // balance
+    final Hash storageRoot = Hash.wrap(in.readBytes32());
+    if (!storageRoot.equals(Hash.EMPTY_TRIE_HASH)) {
+      createTrie(storageRoot, worldStateStorage::getAccountStorageTrieNode)
+          .visitAll(this::markNode, value -> {});
+    }
+  }
+
+  private StoredMerklePatriciaTrie<Bytes32, BytesValue> createTrie(
+      final Bytes32 rootHash, final NodeLoader nodeLoader) {
+    return new StoredMerklePatriciaTrie<>(nodeLoader, rootHash, b -> b, b -> b);
+  }
+
+  private void markNode(final Bytes32 nodeHash) {
+    if (markedNodes.add(nodeHash)) {
+      markedNodesCounter.inc();
+    }
+  }
+
+  private void markNewNodes(final Collection<Bytes32> nodeHashes) {
+    nodeHashes.forEach(this::markNode);
+  }
+
+  private void recordSweptNode(final Bytes32 nodeHash, final BytesValue node) {
+    sweptNodesCounter.inc();
+    sweptBytesCounter.inc(Bytes32.SIZE + node.size());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs {@link MarkSweepPruner} cycles in the background as the chain advances.
+ *
+ * <p>When a new canonical head is added the state at that block is marked. Once the chain has
+ * advanced a further {@code blocksRetained} blocks, nodes which were neither marked nor committed
+ * since are swept, so at least the last {@code blocksRetained} states remain available.
+ */
+public class Pruner {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final MarkSweepPruner pruningStrategy;
+  private final Blockchain blockchain;
+  private final ExecutorService executorService;
+  private final long blocksRetained;
+  private final AtomicReference<State> state = new AtomicReference<>(State.IDLE);
+  private volatile long markedBlockNumber = 0;
+  private long blockAddedObserverId;
+
+  public Pruner(
+      final MarkSweepPruner pruningStrategy,
+      final Blockchain blockchain,
+      final ExecutorService executorService,
+      final long blocksRetained) {
+    checkArgument(blocksRetained > 0, "blocksRetained must be positive");
+    this.pruningStrategy = pruningStrategy;
+    this.blockchain = blockchain;
+    this.executorService = executorService;
+    this.blocksRetained = blocksRetained;
+  }
+
+  public void start() {
+    blockAddedObserverId =
+        blockchain.observeBlockAdded((event, chain) -> handleNewBlock(event));
+  }
+
+  public void stop() throws InterruptedException {
+    blockchain.removeObserver(blockAddedObserverId);
+    executorService.shutdownNow();
+    executorService.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  private void handleNewBlock(final BlockAddedEvent event) {
+    if (!event.isNewCanonicalHead()) {
+      return;
+    }
+
+    final BlockHeader header = event.getBlock().getHeader();
+    if (state.get() == State.IDLE
+        && !pruningStrategy.isWorldStateAvailable(header.getStateRoot())) {
+      // Nothing to mark until the chain reaches a block whose state we hold.
+      return;
+    }
+    if (state.compareAndSet(State.IDLE, State.MARKING)) {
+      markedBlockNumber = header.getNumber();
+      // Start tracking new nodes before the next block can be imported.
+      pruningStrategy.prepare();
+      execute(new MarkTask(header));
+    } else if (header.getNumber() >= markedBlockNumber + blocksRetained
+        && state.compareAndSet(State.MARKING_COMPLETE, State.SWEEPING)) {
+      execute(new SweepTask());
+    }
+  }
+
+  private void execute(final Runnable task) {
+    try {
+      executorService.execute(task);
+    } catch (final RuntimeException e) {
+      LOG.error("Failed to schedule pruning task. Pruning cycle abandoned.", e);
+      pruningStrategy.cleanup();
+      state.set(State.IDLE);
+    }
+  }
+
+  private class MarkTask implements Runnable {
+    private final BlockHeader header;
+
+    private MarkTask(final BlockHeader header) {
+      this.header = header;
+    }
+
+    @Override
+    public void run() {
+      try {
+        LOG.debug("Marking world state at block {}", header.getNumber());
+        pruningStrategy.mark(header.getStateRoot());
+        state.compareAndSet(State.MARKING, State.MARKING_COMPLETE);
+      } catch (final RuntimeException e) {
+        LOG.error("Pruning failed while marking world state. Pruning cycle abandoned.", e);
+        pruningStrategy.cleanup();
+        state.set(State.IDLE);
+      }
+    }
+  }
+
+  private class SweepTask implements Runnable {
+    @Override
+    public void run() {
+      try {
+        LOG.debug("Sweeping world state nodes unreachable since block {}", markedBlockNumber);
+        pruningStrategy.sweep();
+      } catch (final RuntimeException e) {
+        LOG.error("Pruning failed while sweeping world state. Pruning cycle abandoned.", e);
+        pruningStrategy.cleanup();
+      } finally {
+        state.set(State.IDLE);
+      }
+    }
+  }
+
+  private enum State {
+    IDLE,
+    MARKING,
+    MARKING_COMPLETE,
+    SWEEPING
+  }
+}
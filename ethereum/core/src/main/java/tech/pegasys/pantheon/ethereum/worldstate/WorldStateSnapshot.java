@@ -0,0 +1,581 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A flat copy of the accounts and storage values of a single world state, keyed by the hash of the
+ * account address and of the storage slot, so reads of that state take one lookup rather than a
+ * walk down the tries.
+ *
+ * <p>{@link DefaultMutableWorldState#persist()} applies the changes of every state built directly
+ * on the snapshot's state, in the same transaction as the new trie nodes. The keys changed by
+ * recently persisted states are remembered so {@link #moveTo(Hash)} can switch the snapshot to any
+ * of those states, re-reading the affected keys from the trie, when the chain reorganises. If the
+ * snapshot can't be moved it has to be regenerated from the trie, which {@link
+ * #generateNextBatch()} does a bounded batch of entries at a time, splitting the storage of large
+ * accounts across batches. Only a complete snapshot is read from; reads of any other state, or
+ * while generating, go to the trie.
+ */
+public class WorldStateSnapshot {
+
+  private static final int MAX_RECENT_CHANGES = 64;
+  private static final int MAX_ACCOUNTS_PER_BATCH = 1_000;
+  private static final int MAX_ENTRIES_PER_BATCH = 10_000;
+  private static final int TRIE_PAGE_SIZE = 1_000;
+
+  private final WorldStateStorage storage;
+  private final StampedLock lock = new StampedLock();
+  private final Map<Hash, ChangedKeys> recentChanges =
+      new LinkedHashMap<Hash, ChangedKeys>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Hash, ChangedKeys> eldest) {
+          return size() > MAX_RECENT_CHANGES;
+        }
+      };
+
+  // The state the snapshot reflects, if there is one.
+  private volatile Optional<Hash> rootHash = Optional.empty();
+  // While generating, the first account hash not yet completely copied from the trie.
+  private volatile Optional<Bytes32> generationStart = Optional.empty();
+  // Set when only part of that account's storage has been copied, to the first slot hash not yet
+  // copied. The account itself has been copied.
+  private volatile Optional<Bytes32> storageGenerationStart = Optional.empty();
+
+  public WorldStateSnapshot(final WorldStateStorage storage) {
+    this.storage = storage;
+    storage.getSnapshotMetadata().ifPresent(this::readMetadata);
+  }
+
+  /** @return The state the snapshot reflects, or is being generated for. */
+  public Optional<Hash> getRootHash() {
+    return rootHash;
+  }
+
+  public boolean isGenerating() {
+    return rootHash.isPresent() && generationStart.isPresent();
+  }
+
+  boolean isStateAvailable(final Hash stateRoot) {
+    return stateRoot.equals(Hash.EMPTY_TRIE_HASH)
+        || storage.getAccountStateTrieNode(stateRoot).isPresent();
+  }
+
+  Optional<BytesValue> getAccount(
+      final Hash stateRoot,
+      final Hash accountHash,
+      final Function<Bytes32, Optional<BytesValue>> trieLookup) {
+    final long stamp = lock.tryOptimisticRead();
+    if (isComplete(stateRoot)) {
+      final Optional<BytesValue> account = storage.getSnapshotAccount(accountHash);
+      if (lock.validate(stamp)) {
+        return account;
+      }
+    }
+    return trieLookup.apply(accountHash);
+  }
+
+  Optional<BytesValue> getStorage(
+      final Hash stateRoot,
+      final Hash accountHash,
+      final Hash slotHash,
+      final Function<Bytes32, Optional<BytesValue>> trieLookup) {
+    final long stamp = lock.tryOptimisticRead();
+    if (isComplete(stateRoot)) {
+      final Optional<BytesValue> value = storage.getSnapshotStorage(accountHash, slotHash);
+      if (lock.validate(stamp)) {
+        return value;
+      }
+    }
+    return trieLookup.apply(slotHash);
+  }
+
+  private boolean isComplete(final Hash stateRoot) {
+    return !generationStart.isPresent()
+        && rootHash.map(stateRoot::equals).orElse(false);
+  }
+
+  /**
+   * Commits a new world state, applying its changes to the snapshot if they were made on top of
+   * the snapshot's state.
+   *
+   * @param updater The updater holding the new state's trie nodes, which is committed.
+   * @param parentRoot The root of the state the changes were made to.
+   * @param newRoot The root of the new state.
+   * @param updatedAccounts The new encoding of each changed account, or empty if it was deleted.
+   * @param updatedStorage The new encoding of each changed storage value by account, or empty if
+   *     it was removed.
+   * @param clearedStorage The accounts whose storage was removed before applying {@code
+   *     updatedStorage}.
+   */
+  void commit(
+      final WorldStateStorage.Updater updater,
+      final Hash parentRoot,
+      final Hash newRoot,
+      final Map<Hash, Optional<BytesValue>> updatedAccounts,
+      final Map<Hash, Map<Hash, Optional<BytesValue>>> updatedStorage,
+      final Set<Hash> clearedStorage) {
+    final long stamp = lock.writeLock();
+    try {
+      if (!rootHash.isPresent()) {
+        updater.commit();
+        return;
+      }
+      if (!parentRoot.equals(newRoot)) {
+        recentChanges.put(
+            newRoot,
+            new ChangedKeys(parentRoot, updatedAccounts, updatedStorage, clearedStorage));
+      }
+      if (!rootHash.get().equals(parentRoot)) {
+        updater.commit();
+        return;
+      }
+
+      clearedStorage
+          .stream()
+          .filter(this::isGenerated)
+          .forEach(accountHash -> removeStorage(updater, accountHash));
+      updatedAccounts.forEach(
+          (accountHash, account) -> {
+            if (isGenerated(accountHash)) {
+              putAccount(updater, accountHash, account);
+            }
+          });
+      updatedStorage.forEach(
+          (accountHash, values) ->
+              values.forEach(
+                  (slotHash, value) -> {
+                    if (isGenerated(accountHash, slotHash)) {
+                      putStorage(updater, accountHash, slotHash, value);
+                    }
+                  }));
+      writeMetadata(updater, newRoot, generationStart, storageGenerationStart);
+      updater.commit();
+      rootHash = Optional.of(newRoot);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Switches the snapshot to another recently persisted state.
+   *
+   * @param targetRoot The root of the state to switch to.
+   * @return false if the snapshot can't reach the target state and must be regenerated.
+   */
+  public boolean moveTo(final Hash targetRoot) {
+    final long stamp = lock.writeLock();
+    try {
+      if (!rootHash.isPresent() || rootHash.get().equals(targetRoot)) {
+        return true;
+      }
+      final List<Hash> currentAncestors = ancestors(rootHash.get());
+      final List<Hash> targetAncestors = ancestors(targetRoot);
+      final Optional<Hash> commonAncestor =
+          targetAncestors.stream().filter(currentAncestors::contains).findFirst();
+      if (!commonAncestor.isPresent()) {
+        return false;
+      }
+
+      final ChangedKeys changedKeys = new ChangedKeys();
+      collectChanges(currentAncestors, commonAncestor.get(), changedKeys);
+      collectChanges(targetAncestors, commonAncestor.get(), changedKeys);
+      applyState(targetRoot, changedKeys);
+      return true;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  private List<Hash> ancestors(final Hash root) {
+    final List<Hash> ancestors = new ArrayList<>();
+    Hash current = root;
+    ancestors.add(current);
+    ChangedKeys changes;
+    while ((changes = recentChanges.get(current)) != null
+        && ancestors.size() <= MAX_RECENT_CHANGES) {
+      current = changes.parentRoot;
+      ancestors.add(current);
+    }
+    return ancestors;
+  }
+
+  private void collectChanges(
+      final List<Hash> ancestors, final Hash commonAncestor, final ChangedKeys target) {
+    for (final Hash root : ancestors) {
+      if (root.equals(commonAncestor)) {
+        return;
+      }
+      target.addAll(recentChanges.get(root));
+    }
+  }
+
+  // Re-reads the given keys from the target state's trie.
+  private void applyState(final Hash targetRoot, final ChangedKeys changedKeys) {
+    final WorldStateStorage.Updater updater = storage.updater();
+    final MerklePatriciaTrie<Bytes32, BytesValue> accountTrie = accountTrie(targetRoot);
+    for (final Hash accountHash : changedKeys.clearedStorage) {
+      if (isGenerated(accountHash)) {
+        removeStorage(updater, accountHash);
+        accountTrie
+            .get(accountHash)
+            .ifPresent(account -> copyStorage(updater, accountHash, storageRoot(account)));
+      }
+    }
+    for (final Hash accountHash : changedKeys.accounts) {
+      if (isGenerated(accountHash)) {
+        putAccount(updater, accountHash, accountTrie.get(accountHash));
+      }
+    }
+    changedKeys.storage.forEach(
+        (accountHash, slotHashes) -> {
+          if (!isGenerated(accountHash) || changedKeys.clearedStorage.contains(accountHash)) {
+            return;
+          }
+          final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie =
+              storageTrie(accountTrie.get(accountHash).map(WorldStateSnapshot::storageRoot));
+          slotHashes
+              .stream()
+              .filter(slotHash -> isGenerated(accountHash, slotHash))
+              .forEach(
+                  slotHash ->
+                      putStorage(updater, accountHash, slotHash, storageTrie.get(slotHash)));
+        });
+    writeMetadata(updater, targetRoot, generationStart, storageGenerationStart);
+    updater.commit();
+    rootHash = Optional.of(targetRoot);
+  }
+
+  /**
+   * Discards the snapshot and starts generating a new one.
+   *
+   * @param stateRoot Supplies the root of the state to generate a snapshot of, once the old
+   *     snapshot has been removed.
+   */
+  public void startGeneration(final Supplier<Hash> stateRoot) {
+    long stamp = lock.writeLock();
+    try {
+      rootHash = Optional.empty();
+      generationStart = Optional.empty();
+      storageGenerationStart = Optional.empty();
+      recentChanges.clear();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+
+    // Nothing is written to the snapshot while it has no state, so it can be cleared unlocked.
+    storage.clearSnapshot();
+
+    stamp = lock.writeLock();
+    try {
+      final Hash root = stateRoot.get();
+      final Optional<Bytes32> start = Optional.of(Bytes32.ZERO);
+      final WorldStateStorage.Updater updater = storage.updater();
+      writeMetadata(updater, root, start, Optional.empty());
+      updater.commit();
+      rootHash = Optional.of(root);
+      generationStart = start;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Copies the next batch of accounts and storage values from the trie of the snapshot's state.
+   * The number of entries in a batch is bounded, so the storage of a large account is copied over
+   * several batches.
+   *
+   * @return true once the snapshot is complete.
+   */
+  public boolean generateNextBatch() {
+    final long stamp = lock.writeLock();
+    try {
+      if (!isGenerating()) {
+        return true;
+      }
+      final Hash root = rootHash.get();
+      final Bytes32 accountStart = generationStart.get();
+      final List<Map.Entry<Bytes32, BytesValue>> accounts =
+          new ArrayList<>(
+              accountTrie(root).entriesFrom(accountStart, MAX_ACCOUNTS_PER_BATCH + 1).entrySet());
+
+      final GenerationBatch batch = new GenerationBatch(storage.updater());
+      Optional<Bytes32> nextAccountStart = Optional.empty();
+      Optional<Bytes32> nextStorageStart = Optional.empty();
+      for (int i = 0; i < accounts.size(); i++) {
+        final Map.Entry<Bytes32, BytesValue> account = accounts.get(i);
+        if (i == MAX_ACCOUNTS_PER_BATCH || batch.isFull()) {
+          nextAccountStart = Optional.of(account.getKey());
+          break;
+        }
+        final Hash accountHash = Hash.wrap(account.getKey());
+        // Carry on where the previous batch stopped if it split this account's storage.
+        final Bytes32 storageStart =
+            account.getKey().equals(accountStart)
+                ? storageGenerationStart.orElse(Bytes32.ZERO)
+                : Bytes32.ZERO;
+        batch.putAccount(accountHash, account.getValue());
+        nextStorageStart =
+            forEachEntry(
+                storageTrie(Optional.of(storageRoot(account.getValue()))),
+                storageStart,
+                batch.remainingEntries(),
+                (slotHash, value) -> batch.putStorage(accountHash, slotHash, value));
+        if (nextStorageStart.isPresent()) {
+          nextAccountStart = Optional.of(account.getKey());
+          break;
+        }
+      }
+      writeMetadata(batch.updater, root, nextAccountStart, nextStorageStart);
+      batch.updater.commit();
+      generationStart = nextAccountStart;
+      storageGenerationStart = nextStorageStart;
+      return !nextAccountStart.isPresent();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // Whether the snapshot holds the account, though maybe not all of its storage yet.
+  private boolean isGenerated(final Hash accountHash) {
+    if (!generationStart.isPresent()) {
+      return true;
+    }
+    final int comparison = accountHash.compareTo(generationStart.get());
+    return comparison < 0 || (comparison == 0 && storageGenerationStart.isPresent());
+  }
+
+  private boolean isGenerated(final Hash accountHash, final Bytes32 slotHash) {
+    if (!generationStart.isPresent()) {
+      return true;
+    }
+    final int comparison = accountHash.compareTo(generationStart.get());
+    return comparison < 0
+        || (comparison == 0
+            && storageGenerationStart.map(start -> slotHash.compareTo(start) < 0).orElse(false));
+  }
+
+  private void putAccount(
+      final WorldStateStorage.Updater updater,
+      final Hash accountHash,
+      final Optional<BytesValue> account) {
+    if (account.isPresent()) {
+      updater.putSnapshotAccount(accountHash, account.get());
+    } else {
+      updater.removeSnapshotAccount(accountHash);
+    }
+  }
+
+  private void putStorage(
+      final WorldStateStorage.Updater updater,
+      final Hash accountHash,
+      final Bytes32 slotHash,
+      final Optional<BytesValue> value) {
+    if (value.isPresent()) {
+      updater.putSnapshotStorage(accountHash, Hash.wrap(slotHash), value.get());
+    } else {
+      updater.removeSnapshotStorage(accountHash, Hash.wrap(slotHash));
+    }
+  }
+
+  // Removes the storage the account has in the snapshot's current state.
+  private void removeStorage(final WorldStateStorage.Updater updater, final Hash accountHash) {
+    final Optional<Hash> storageRoot =
+        storage.getSnapshotAccount(accountHash).map(WorldStateSnapshot::storageRoot);
+    forEachEntry(
+        storageTrie(storageRoot),
+        Bytes32.ZERO,
+        Integer.MAX_VALUE,
+        (slotHash, value) -> updater.removeSnapshotStorage(accountHash, Hash.wrap(slotHash)));
+  }
+
+  // Copies the storage values generation has already reached.
+  private void copyStorage(
+      final WorldStateStorage.Updater updater, final Hash accountHash, final Hash storageRoot) {
+    forEachEntry(
+        storageTrie(Optional.of(storageRoot)),
+        Bytes32.ZERO,
+        Integer.MAX_VALUE,
+        (slotHash, value) -> {
+          if (isGenerated(accountHash, slotHash)) {
+            updater.putSnapshotStorage(accountHash, Hash.wrap(slotHash), value);
+          }
+        });
+  }
+
+  /**
+   * Visits the trie's entries in key order, starting from the given key.
+   *
+   * @return The key of the first entry left unvisited once {@code limit} entries have been
+   *     visited, or empty if every entry was visited.
+   */
+  private static Optional<Bytes32> forEachEntry(
+      final MerklePatriciaTrie<Bytes32, BytesValue> trie,
+      final Bytes32 start,
+      final int limit,
+      final BiConsumer<Bytes32, BytesValue> action) {
+    int remaining = limit;
+    Bytes32 pageStart = start;
+    while (true) {
+      // Fetch one entry beyond the page to find where the next page starts.
+      final Map<Bytes32, BytesValue> page = trie.entriesFrom(pageStart, TRIE_PAGE_SIZE + 1);
+      int pageIndex = 0;
+      for (final Map.Entry<Bytes32, BytesValue> entry : page.entrySet()) {
+        if (remaining == 0) {
+          return Optional.of(entry.getKey());
+        }
+        if (pageIndex++ == TRIE_PAGE_SIZE) {
+          pageStart = entry.getKey();
+          break;
+        }
+        action.accept(entry.getKey(), entry.getValue());
+        remaining--;
+      }
+      if (page.size() <= TRIE_PAGE_SIZE) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  private MerklePatriciaTrie<Bytes32, BytesValue> accountTrie(final Hash rootHash) {
+    return new StoredMerklePatriciaTrie<>(
+        storage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+  }
+
+  private MerklePatriciaTrie<Bytes32, BytesValue> storageTrie(final Optional<Hash> rootHash) {
+    return new StoredMerklePatriciaTrie<>(
+        storage::getAccountStorageTrieNode,
+        rootHash.orElse(Hash.EMPTY_TRIE_HASH),
+        b -> b,
+        b -> b);
+  }
+
+  private static Hash storageRoot(final BytesValue account) {
+    final RLPInput in = RLP.input(account);
+    in.enterList();
+    in.skipNext(); // nonce
+    in.skipNext(); // balance
+    return Hash.wrap(in.readBytes32());
+  }
+
+  private static void writeMetadata(
+      final WorldStateStorage.Updater updater,
+      final Hash rootHash,
+      final Optional<Bytes32> generationStart,
+      final Optional<Bytes32> storageGenerationStart) {
+    updater.putSnapshotMetadata(
+        RLP.encode(
+            out -> {
+              out.startList();
+              out.writeBytesValue(rootHash);
+              generationStart.ifPresent(out::writeBytesValue);
+              storageGenerationStart.ifPresent(out::writeBytesValue);
+              out.endList();
+            }));
+  }
+
+  private void readMetadata(final BytesValue metadata) {
+    final RLPInput in = RLP.input(metadata);
+    in.enterList();
+    rootHash = Optional.of(Hash.wrap(in.readBytes32()));
+    generationStart = readOptionalBytes32(in);
+    storageGenerationStart = readOptionalBytes32(in);
+    in.leaveList();
+  }
+
+  private static Optional<Bytes32> readOptionalBytes32(final RLPInput in) {
+    return in.isEndOfCurrentList() ? Optional.empty() : Optional.of(in.readBytes32());
+  }
+
+  // The entries copied from the trie by one generation batch.
+  private static class GenerationBatch {
+    private final WorldStateStorage.Updater updater;
+    private int entries = 0;
+
+    private GenerationBatch(final WorldStateStorage.Updater updater) {
+      this.updater = updater;
+    }
+
+    private void putAccount(final Hash accountHash, final BytesValue account) {
+      updater.putSnapshotAccount(accountHash, account);
+      entries++;
+    }
+
+    private void putStorage(final Hash accountHash, final Bytes32 slotHash, final BytesValue value) {
+      updater.putSnapshotStorage(accountHash, Hash.wrap(slotHash), value);
+      entries++;
+    }
+
+    private boolean isFull() {
+      return entries >= MAX_ENTRIES_PER_BATCH;
+    }
+
+    private int remainingEntries() {
+      return Math.max(0, MAX_ENTRIES_PER_BATCH - entries);
+    }
+  }
+
+  // The keys changed between a recently persisted state and its parent.
+  private static class ChangedKeys {
+    private final Hash parentRoot;
+    private final Set<Hash> accounts;
+    private final Map<Hash, Set<Hash>> storage = new HashMap<>();
+    private final Set<Hash> clearedStorage;
+
+    private ChangedKeys() {
+      this.parentRoot = null;
+      this.accounts = new HashSet<>();
+      this.clearedStorage = new HashSet<>();
+    }
+
+    private ChangedKeys(
+        final Hash parentRoot,
+        final Map<Hash, Optional<BytesValue>> updatedAccounts,
+        final Map<Hash, Map<Hash, Optional<BytesValue>>> updatedStorage,
+        final Set<Hash> clearedStorage) {
+      this.parentRoot = parentRoot;
+      this.accounts = new HashSet<>(updatedAccounts.keySet());
+      updatedStorage.forEach(
+          (accountHash, values) -> storage.put(accountHash, new HashSet<>(values.keySet())));
+      this.clearedStorage = new HashSet<>(clearedStorage);
+    }
+
+    private void addAll(final ChangedKeys other) {
+      accounts.addAll(other.accounts);
+      other.storage.forEach(
+          (accountHash, slotHashes) ->
+              storage.computeIfAbsent(accountHash, hash -> new HashSet<>()).addAll(slotHashes));
+      clearedStorage.addAll(other.clearedStorage);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Keeps a {@link WorldStateSnapshot} at the state of the canonical chain head, moving it when the
+ * chain reorganises and regenerating it in the background when it is missing or can't be moved.
+ */
+public class WorldStateSnapshotManager {
+  private static final Logger LOG = LogManager.getLogger();
+  private static final int BATCHES_PER_PROGRESS_LOG = 100;
+
+  private final WorldStateSnapshot snapshot;
+  private final Blockchain blockchain;
+  private final ExecutorService executorService;
+  private final AtomicBoolean generating = new AtomicBoolean(false);
+  private final AtomicBoolean restartRequested = new AtomicBoolean(false);
+  private volatile boolean failed = false;
+  private long blockAddedObserverId;
+
+  public WorldStateSnapshotManager(
+      final WorldStateSnapshot snapshot,
+      final Blockchain blockchain,
+      final ExecutorService executorService) {
+    this.snapshot = snapshot;
+    this.blockchain = blockchain;
+    this.executorService = executorService;
+  }
+
+  public void start() {
+    blockAddedObserverId =
+        blockchain.observeBlockAdded((event, chain) -> handleNewBlock(event));
+    if (snapshot.isGenerating()) {
+      // Continue where the previous run left off.
+      executeGeneration(false);
+    } else {
+      ensureAt(chainHeadStateRoot());
+    }
+  }
+
+  public void stop() throws InterruptedException {
+    blockchain.removeObserver(blockAddedObserverId);
+    executorService.shutdownNow();
+    executorService.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  private void handleNewBlock(final BlockAddedEvent event) {
+    if (event.isNewCanonicalHead()) {
+      ensureAt(event.getBlock().getHeader().getStateRoot());
+    }
+  }
+
+  private void ensureAt(final Hash stateRoot) {
+    if (failed || !snapshot.isStateAvailable(stateRoot)) {
+      // Fast sync imports blocks without their state, which the snapshot can't be built from.
+      return;
+    }
+    if (!snapshot.getRootHash().isPresent()) {
+      // Any generation already running will start from the chain head.
+      executeGeneration(true);
+      return;
+    }
+    if (snapshot.moveTo(stateRoot)) {
+      return;
+    }
+    if (generating.get()) {
+      restartRequested.set(true);
+    } else {
+      executeGeneration(true);
+    }
+  }
+
+  private void executeGeneration(final boolean restart) {
+    if (!generating.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executorService.execute(new GenerationTask(restart));
+    } catch (final RuntimeException e) {
+      LOG.error("Failed to schedule world state snapshot generation.", e);
+      generating.set(false);
+    }
+  }
+
+  private void restartGeneration() {
+    restartRequested.set(false);
+    LOG.info("Generating world state snapshot");
+    snapshot.startGeneration(this::chainHeadStateRoot);
+  }
+
+  private Hash chainHeadStateRoot() {
+    return blockchain.getChainHeadHeader().getStateRoot();
+  }
+
+  private class GenerationTask implements Runnable {
+    private final boolean restart;
+
+    private GenerationTask(final boolean restart) {
+      this.restart = restart;
+    }
+
+    @Override
+    public void run() {
+      try {
+        if (restart) {
+          restartGeneration();
+        }
+        int batches = 0;
+        while (!snapshot.generateNextBatch()) {
+          if (Thread.currentThread().isInterrupted()) {
+            return;
+          }
+          if (restartRequested.getAndSet(false)) {
+            restartGeneration();
+          }
+          if (++batches % BATCHES_PER_PROGRESS_LOG == 0) {
+            LOG.info("Generated {} batches of the world state snapshot", batches);
+          }
+        }
+        LOG.info("World state snapshot generated at state {}", snapshot.getRootHash().orElse(null));
+      } catch (final RuntimeException e) {
+        LOG.error(
+            "World state snapshot generation failed. Reads will use the trie until restarted.", e);
+        failed = true;
+      } finally {
+        generating.set(false);
+      }
+    }
+  }
+}
@@ -16,7 +16,10 @@ import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 public interface WorldStateStorage {
 
@@ -26,8 +29,56 @@ public interface WorldStateStorage {
 
   Optional<BytesValue> getAccountStorageTrieNode(Bytes32 nodeHash);
 
+  /**
+   * @param accountHash The hash of the account's address.
+   * @return The RLP encoded account held in the flat snapshot, as it would be stored in the trie.
+   */
+  Optional<BytesValue> getSnapshotAccount(Hash accountHash);
+
+  /**
+   * @param accountHash The hash of the account's address.
+   * @param slotHash The hash of the storage slot.
+   * @return The RLP encoded storage value held in the flat snapshot.
+   */
+  Optional<BytesValue> getSnapshotStorage(Hash accountHash, Hash slotHash);
+
+  /** @return The description of which state the flat snapshot reflects, if one is stored. */
+  Optional<BytesValue> getSnapshotMetadata();
+
+  /**
+   * Removes every account, storage value and the metadata of the flat snapshot.
+   *
+   * @throws UnsupportedOperationException if the underlying storage can't hold a snapshot.
+   */
+  void clearSnapshot();
+
   Updater updater();
 
+  /**
+   * Removes every account and storage trie node that is no longer in use. Nodes are checked again
+   * while no updater can commit, just before they are removed, so a node committed again after its
+   * first check is kept.
+   *
+   * @param inUseCheck Returns true for the hashes of nodes which must be kept.
+   * @param removedNodeListener Receives the hash and encoded form of each node removed.
+   * @throws UnsupportedOperationException if the underlying storage can't enumerate its nodes.
+   */
+  void prune(Predicate<Bytes32> inUseCheck, BiConsumer<Bytes32, BytesValue> removedNodeListener);
+
+  /**
+   * Registers a listener which is told about trie nodes just before they are committed.
+   *
+   * @param listener The listener to notify.
+   * @return An ID which can be used to remove the listener.
+   */
+  long addNodeAddedListener(NodeAddedListener listener);
+
+  void removeNodeAddedListener(long id);
+
+  interface NodeAddedListener {
+    void onNodesAdded(Collection<Bytes32> nodeHashes);
+  }
+
   interface Updater {
 
     void putCode(BytesValue code);
@@ -36,6 +87,16 @@ public interface WorldStateStorage {
 
     void putAccountStorageTrieNode(Bytes32 nodeHash, BytesValue node);
 
+    void putSnapshotAccount(Hash accountHash, BytesValue account);
+
+    void removeSnapshotAccount(Hash accountHash);
+
+    void putSnapshotStorage(Hash accountHash, Hash slotHash, BytesValue value);
+
+    void removeSnapshotStorage(Hash accountHash, Hash slotHash);
+
+    void putSnapshotMetadata(BytesValue metadata);
+
     void commit();
 
     void rollback();
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TransactionSenderRecoveryTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final TransactionSenderRecovery senderRecovery =
+      new TransactionSenderRecovery(Executors.newFixedThreadPool(2));
+
+  @After
+  public void tearDown() {
+    senderRecovery.close();
+  }
+
+  @Test
+  public void shouldRecoverSenderOfEveryTransaction() {
+    final List<Transaction> transactions =
+        Stream.generate(this::receivedTransaction).limit(10).collect(Collectors.toList());
+
+    senderRecovery.recoverSenders(transactions);
+
+    assertThat(transactions).allSatisfy(transaction -> assertThat(transaction.sender).isNotNull());
+    assertThat(transactions)
+        .extracting(transaction -> transaction.sender)
+        .containsExactlyElementsOf(
+            transactions.stream().map(this::recoverSerially).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void shouldLeaveSingleTransactionToBeRecoveredWhenNeeded() {
+    final Transaction transaction = receivedTransaction();
+
+    senderRecovery.recoverSenders(Stream.of(transaction).collect(Collectors.toList()));
+
+    assertThat(transaction.sender).isNull();
+  }
+
+  private Transaction receivedTransaction() {
+    // Decoded transactions, unlike freshly signed ones, don't know their sender yet.
+    final Transaction transaction = gen.transaction();
+    return Transaction.readFrom(RLP.input(RLP.encode(transaction::writeTo)));
+  }
+
+  private Address recoverSerially(final Transaction transaction) {
+    return Transaction.readFrom(RLP.input(RLP.encode(transaction::writeTo))).getSender();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class CachingBlockchainStorageTest {
+
+  private static final UInt256 TOTAL_DIFFICULTY = UInt256.of(100);
+
+  private final BlockHeader header = new BlockDataGenerator().header();
+  private final Hash blockHash = header.getHash();
+  private final BlockchainStorage delegate = mock(BlockchainStorage.class);
+  private final CachingBlockchainStorage storage =
+      new CachingBlockchainStorage(delegate, 16, 16, 16, 16, new NoOpMetricsSystem());
+
+  @Test
+  public void repeatedReadsAreServedFromCache() {
+    when(delegate.getBlockHeader(blockHash)).thenReturn(Optional.of(header));
+    when(delegate.getTotalDifficulty(blockHash)).thenReturn(Optional.of(TOTAL_DIFFICULTY));
+
+    assertThat(storage.getBlockHeader(blockHash)).contains(header);
+    assertThat(storage.getBlockHeader(blockHash)).contains(header);
+    assertThat(storage.getTotalDifficulty(blockHash)).contains(TOTAL_DIFFICULTY);
+    assertThat(storage.getTotalDifficulty(blockHash)).contains(TOTAL_DIFFICULTY);
+
+    verify(delegate, times(1)).getBlockHeader(blockHash);
+    verify(delegate, times(1)).getTotalDifficulty(blockHash);
+  }
+
+  @Test
+  public void missingValuesAreNotCached() {
+    when(delegate.getBlockHeader(blockHash)).thenReturn(Optional.empty());
+
+    assertThat(storage.getBlockHeader(blockHash)).isEmpty();
+    assertThat(storage.getBlockHeader(blockHash)).isEmpty();
+
+    verify(delegate, times(2)).getBlockHeader(blockHash);
+  }
+
+  @Test
+  public void committedValuesAreCached() {
+    when(delegate.updater()).thenReturn(mock(BlockchainStorage.Updater.class));
+
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(blockHash, header);
+    updater.putTotalDifficulty(blockHash, TOTAL_DIFFICULTY);
+    updater.commit();
+
+    assertThat(storage.getBlockHeader(blockHash)).contains(header);
+    assertThat(storage.getTotalDifficulty(blockHash)).contains(TOTAL_DIFFICULTY);
+    verify(delegate, never()).getBlockHeader(any());
+    verify(delegate, never()).getTotalDifficulty(any());
+  }
+
+  @Test
+  public void rolledBackValuesAreNotCached() {
+    when(delegate.updater()).thenReturn(mock(BlockchainStorage.Updater.class));
+    when(delegate.getBlockHeader(blockHash)).thenReturn(Optional.empty());
+
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(blockHash, header);
+    updater.rollback();
+
+    assertThat(storage.getBlockHeader(blockHash)).isEmpty();
+  }
+
+  @Test
+  public void canonicalChainDataIsNotCached() {
+    when(delegate.getBlockHash(1L)).thenReturn(Optional.of(blockHash));
+
+    assertThat(storage.getBlockHash(1L)).contains(blockHash);
+    assertThat(storage.getBlockHash(1L)).contains(blockHash);
+
+    verify(delegate, times(2)).getBlockHash(1L);
+  }
+}
@@ -74,6 +74,25 @@ public class DefaultMutableBlockchainTest {
     assertThat(blockchain.getForks()).isEmpty();
   }
 
+  @Test
+  public void initializeExistingWithChainHeadFromStorage() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+
+    final KeyValueStorage kvStore = new InMemoryKeyValueStorage();
+    final List<Block> chain = gen.blockSequence(3);
+    final DefaultMutableBlockchain originalBlockchain = createBlockchain(kvStore, chain.get(0));
+    for (int i = 1; i < chain.size(); i++) {
+      originalBlockchain.appendBlock(chain.get(i), gen.receipts(chain.get(i)));
+    }
+
+    // Initialize a new blockchain store, which must load the chain head written by the first
+    final DefaultMutableBlockchain blockchain = createBlockchain(kvStore, chain.get(0));
+
+    final Block head = chain.get(chain.size() - 1);
+    assertBlockIsHead(blockchain, head);
+    assertTotalDifficultiesAreConsistent(blockchain, head);
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void initializeExistingWithWrongGenesisBlock() {
     final BlockDataGenerator gen = new BlockDataGenerator();
@@ -690,6 +709,7 @@ public class DefaultMutableBlockchainTest {
     assertEquals(head.getHash(), blockchain.getChainHeadHash());
     assertEquals(head.getHeader().getNumber(), blockchain.getChainHeadBlockNumber());
     assertEquals(head.getHash(), blockchain.getChainHead().getHash());
+    assertEquals(head.getHeader(), blockchain.getChainHeadHeader());
   }
 
   private void assertTotalDifficultiesAreConsistent(final Blockchain blockchain, final Block head) {
@@ -17,15 +17,34 @@ import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.InMemoryStorageProvider;
 import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.core.TransactionTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Util;
 import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockProcessor.TransactionReceiptFactory;
+import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.ethereum.vm.TestBlockchain;
 import tech.pegasys.pantheon.ethereum.vm.WorldStateMock;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
@@ -55,4 +74,121 @@ public class MainnetBlockProcessorTest {
     // An empty block with 0 reward should not change the world state
     assertThat(worldState.rootHash()).isEqualTo(initialHash);
   }
+
+  @Test
+  public void speculativeExecutionMatchesSerialExecution() {
+    final int chainId = 2018;
+    final ProtocolSpec<Void> protocolSpec =
+        MainnetProtocolSpecs.spuriousDragonDefinition(chainId)
+            .codeCache(new CodeCache(new NoOpMetricsSystem()))
+            .build(new MutableProtocolSchedule<>(chainId));
+    final Blockchain blockchain = new TestBlockchain();
+    final Address coinbase = Address.fromHexString("0x00000000000000000000000000000000000000cb");
+    final Address counter = Address.fromHexString("0x00000000000000000000000000000000000000cc");
+    final Address recipient = Address.fromHexString("0x00000000000000000000000000000000000000aa");
+    final Address otherRecipient =
+        Address.fromHexString("0x00000000000000000000000000000000000000bb");
+    final BlockHeader header =
+        new BlockHeaderTestFixture()
+            .coinbase(coinbase)
+            .number(1)
+            .gasLimit(10_000_000)
+            .buildHeader();
+
+    final List<KeyPair> senders = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      senders.add(KeyPair.generate());
+    }
+    final WorldStateArchive worldStateArchive =
+        InMemoryStorageProvider.createInMemoryWorldStateArchive();
+    final MutableWorldState genesisState = worldStateArchive.getMutable();
+    final WorldUpdater genesisUpdater = genesisState.updater();
+    senders.forEach(
+        keys ->
+            genesisUpdater
+                .createAccount(Util.publicKeyToAddress(keys.getPublicKey()))
+                .setBalance(Wei.fromEth(1)));
+    // Increments the value at slot 0 each time it is called.
+    genesisUpdater
+        .createAccount(counter)
+        .setCode(BytesValue.fromHexString("0x600160005401600055"));
+    genesisUpdater.commit();
+    genesisState.persist();
+
+    final List<Transaction> transactions = new ArrayList<>();
+    transactions.add(transfer(senders.get(0), 0, recipient, chainId));
+    transactions.add(transfer(senders.get(1), 0, otherRecipient, chainId));
+    // The same sender again, ...
+    transactions.add(transfer(senders.get(0), 1, otherRecipient, chainId));
+    // ... a transfer to an account updated by an earlier transaction ...
+    transactions.add(transfer(senders.get(2), 0, recipient, chainId));
+    // ... from an account updated by an earlier transaction ...
+    final Address fourthSender = Util.publicKeyToAddress(senders.get(4).getPublicKey());
+    transactions.add(transfer(senders.get(3), 0, fourthSender, chainId));
+    transactions.add(transfer(senders.get(4), 0, counter, chainId));
+    // ... updating the same storage slot ...
+    transactions.add(transfer(senders.get(5), 0, counter, chainId));
+    transactions.add(transfer(senders.get(6), 0, counter, chainId));
+    // ... to the mining beneficiary ...
+    transactions.add(transfer(senders.get(7), 0, coinbase, chainId));
+    // ... and paying no fee.
+    transactions.add(
+        new TransactionTestFixture()
+            .to(Optional.of(recipient))
+            .gasLimit(100_000)
+            .gasPrice(Wei.ZERO)
+            .chainId(chainId)
+            .createTransaction(senders.get(8)));
+
+    final MutableWorldState expectedState = worldStateArchive.getMutable(genesisState.rootHash());
+    final List<TransactionReceipt> expectedReceipts = new ArrayList<>();
+    long gasUsed = 0;
+    for (final Transaction transaction : transactions) {
+      final WorldUpdater updater = expectedState.updater();
+      final TransactionProcessor.Result result =
+          protocolSpec
+              .getTransactionProcessor()
+              .processTransaction(
+                  blockchain,
+                  updater,
+                  header,
+                  transaction,
+                  coinbase,
+                  new BlockHashLookup(header, blockchain));
+      assertThat(result.isSuccessful()).isTrue();
+      updater.commit();
+      gasUsed += transaction.getGasLimit() - result.getGasRemaining();
+      expectedReceipts.add(
+          protocolSpec.getTransactionReceiptFactory().create(result, expectedState, gasUsed));
+    }
+
+    final MutableWorldState worldState = worldStateArchive.getMutable(genesisState.rootHash());
+    final ExecutorService speculativeExecutor = Executors.newFixedThreadPool(4);
+    try {
+      final MainnetBlockProcessor.Result result =
+          new MainnetBlockProcessor(
+                  protocolSpec.getTransactionProcessor(),
+                  protocolSpec.getTransactionReceiptFactory(),
+                  Wei.ZERO,
+                  BlockHeader::getCoinbase,
+                  Optional.of(speculativeExecutor))
+              .processBlock(blockchain, worldState, header, transactions, emptyList());
+
+      assertThat(result.isSuccessful()).isTrue();
+      assertThat(result.getReceipts()).isEqualTo(expectedReceipts);
+      assertThat(worldState.rootHash()).isEqualTo(expectedState.rootHash());
+    } finally {
+      speculativeExecutor.shutdownNow();
+    }
+  }
+
+  private static Transaction transfer(
+      final KeyPair sender, final long nonce, final Address to, final int chainId) {
+    return new TransactionTestFixture()
+        .nonce(nonce)
+        .to(Optional.of(to))
+        .gasLimit(100_000)
+        .chainId(chainId)
+        .createTransaction(sender);
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.storage.keyvalue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.services.kvstore.InMemorySegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+public class SegmentedKeyValueStorageWorldStateStorageTest {
+
+  private static final Bytes32 HASH1 = Bytes32.fromHexString("0x01");
+  private static final Bytes32 HASH2 = Bytes32.fromHexString("0x02");
+  private static final BytesValue NODE1 = BytesValue.fromHexString("0xc101");
+  private static final BytesValue NODE2 = BytesValue.fromHexString("0xc102");
+
+  private final WorldStateStorage storage =
+      new SegmentedKeyValueStorageWorldStateStorage(new InMemorySegmentedKeyValueStorage());
+
+  @Test
+  public void shouldRemoveNodesNotInUse() {
+    putNode(HASH1, NODE1);
+    putNode(HASH2, NODE2);
+    final Map<Bytes32, BytesValue> removedNodes = new HashMap<>();
+
+    storage.prune(HASH1::equals, removedNodes::put);
+
+    assertThat(storage.getAccountStateTrieNode(HASH1)).contains(NODE1);
+    assertThat(storage.getAccountStateTrieNode(HASH2)).isEmpty();
+    assertThat(removedNodes).containsExactly(entry(HASH2, NODE2));
+  }
+
+  @Test
+  public void shouldKeepNodesCommittedAgainDuringPrune() {
+    putNode(HASH1, NODE1);
+    putNode(HASH2, NODE2);
+    final Set<Bytes32> inUseNodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    storage.addNodeAddedListener(inUseNodes::addAll);
+    final Map<Bytes32, BytesValue> removedNodes = new HashMap<>();
+
+    storage.prune(
+        nodeHash -> {
+          final boolean inUse = inUseNodes.contains(nodeHash);
+          // A block importing after the node was found unused, but before it is removed.
+          if (nodeHash.equals(HASH1) && !inUse) {
+            putNode(HASH1, NODE1);
+          }
+          return inUse;
+        },
+        removedNodes::put);
+
+    assertThat(storage.getAccountStateTrieNode(HASH1)).contains(NODE1);
+    assertThat(storage.getAccountStateTrieNode(HASH2)).isEmpty();
+    assertThat(removedNodes).containsExactly(entry(HASH2, NODE2));
+  }
+
+  private void putNode(final Bytes32 nodeHash, final BytesValue node) {
+    final WorldStateStorage.Updater updater = storage.updater();
+    updater.putAccountStateTrieNode(nodeHash, node);
+    updater.commit();
+  }
+}
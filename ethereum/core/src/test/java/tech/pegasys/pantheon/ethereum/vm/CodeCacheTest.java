@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import org.junit.Test;
+
+public class CodeCacheTest {
+
+  private final CodeCache codeCache = new CodeCache(new NoOpMetricsSystem(), 1024);
+
+  @Test
+  public void shouldReadCodeOncePerCodeHash() {
+    final BytesValue bytes = BytesValue.fromHexString("0x6001600055");
+    final Account account = account(bytes);
+
+    final Code code = codeCache.getCode(account);
+
+    assertThat(code.getBytes()).isEqualTo(bytes);
+    assertThat(codeCache.getCode(account)).isSameAs(code);
+    assertThat(codeCache.getCode(account(bytes))).isSameAs(code);
+    verify(account, times(1)).getCode();
+  }
+
+  @Test
+  public void shouldKeepDifferentCodeApart() {
+    final BytesValue bytes1 = BytesValue.fromHexString("0x6001600055");
+    final BytesValue bytes2 = BytesValue.fromHexString("0x6002600055");
+
+    assertThat(codeCache.getCode(account(bytes1)).getBytes()).isEqualTo(bytes1);
+    assertThat(codeCache.getCode(account(bytes2)).getBytes()).isEqualTo(bytes2);
+  }
+
+  private Account account(final BytesValue code) {
+    final Account account = mock(Account.class);
+    when(account.getCodeHash()).thenReturn(Hash.hash(code));
+    when(account.getCode()).thenReturn(code);
+    return account;
+  }
+}
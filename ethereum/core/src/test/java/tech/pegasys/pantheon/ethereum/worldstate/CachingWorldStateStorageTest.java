@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+
+public class CachingWorldStateStorageTest {
+
+  private static final Bytes32 NODE_HASH = Bytes32.fromHexString("0x01");
+  private static final Bytes32 OTHER_NODE_HASH = Bytes32.fromHexString("0x02");
+  private static final BytesValue NODE = BytesValue.fromHexString("0xc0");
+
+  private final WorldStateStorage delegate = mock(WorldStateStorage.class);
+  private final CachingWorldStateStorage storage =
+      new CachingWorldStateStorage(delegate, 1024, new NoOpMetricsSystem());
+
+  @Test
+  public void repeatedReadsAreServedFromCache() {
+    when(delegate.getAccountStateTrieNode(NODE_HASH)).thenReturn(Optional.of(NODE));
+
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).contains(NODE);
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).contains(NODE);
+    assertThat(storage.getAccountStorageTrieNode(NODE_HASH)).contains(NODE);
+
+    verify(delegate, times(1)).getAccountStateTrieNode(NODE_HASH);
+    verify(delegate, never()).getAccountStorageTrieNode(any());
+  }
+
+  @Test
+  public void missingNodesAreNotCached() {
+    when(delegate.getAccountStateTrieNode(NODE_HASH)).thenReturn(Optional.empty());
+
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).isEmpty();
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).isEmpty();
+
+    verify(delegate, times(2)).getAccountStateTrieNode(NODE_HASH);
+  }
+
+  @Test
+  public void committedNodesAreCached() {
+    when(delegate.updater()).thenReturn(mock(WorldStateStorage.Updater.class));
+
+    final WorldStateStorage.Updater updater = storage.updater();
+    updater.putAccountStateTrieNode(NODE_HASH, NODE);
+    updater.commit();
+
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).contains(NODE);
+    verify(delegate, never()).getAccountStateTrieNode(any());
+  }
+
+  @Test
+  public void rolledBackNodesAreNotCached() {
+    when(delegate.updater()).thenReturn(mock(WorldStateStorage.Updater.class));
+    when(delegate.getAccountStateTrieNode(NODE_HASH)).thenReturn(Optional.empty());
+
+    final WorldStateStorage.Updater updater = storage.updater();
+    updater.putAccountStateTrieNode(NODE_HASH, NODE);
+    updater.rollback();
+
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).isEmpty();
+  }
+
+  @Test
+  public void prunedNodesAreEvicted() {
+    when(delegate.updater()).thenReturn(mock(WorldStateStorage.Updater.class));
+    final WorldStateStorage.Updater updater = storage.updater();
+    updater.putAccountStateTrieNode(NODE_HASH, NODE);
+    updater.putAccountStateTrieNode(OTHER_NODE_HASH, NODE);
+    updater.commit();
+    doAnswer(
+            invocation -> {
+              final BiConsumer<Bytes32, BytesValue> removedNodeListener =
+                  invocation.getArgument(1);
+              removedNodeListener.accept(NODE_HASH, NODE);
+              return null;
+            })
+        .when(delegate)
+        .prune(any(), any());
+    when(delegate.getAccountStateTrieNode(NODE_HASH)).thenReturn(Optional.empty());
+
+    storage.prune(nodeHash -> false, (nodeHash, node) -> {});
+
+    assertThat(storage.getAccountStateTrieNode(NODE_HASH)).isEmpty();
+    assertThat(storage.getAccountStateTrieNode(OTHER_NODE_HASH)).contains(NODE);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.SegmentedKeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemorySegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import org.junit.Test;
+
+public class MarkSweepPrunerTest {
+
+  private static final Address ADDRESS1 =
+      Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+  private static final Address ADDRESS2 =
+      Address.fromHexString("0x095e7baea6a6c7c4c2dfeb977efac326af552d87");
+
+  private final WorldStateStorage worldStateStorage =
+      new SegmentedKeyValueStorageWorldStateStorage(new InMemorySegmentedKeyValueStorage());
+  private final MarkSweepPruner pruner =
+      new MarkSweepPruner(worldStateStorage, new NoOpMetricsSystem());
+
+  @Test
+  public void shouldRemoveNodesOnlyReachableFromOldStates() {
+    final MutableWorldState worldState = new DefaultMutableWorldState(worldStateStorage);
+    final Hash oldRoot = update(worldState, 1);
+    final Hash markedRoot = update(worldState, 2);
+
+    pruner.prepare();
+    pruner.mark(markedRoot);
+    pruner.sweep();
+
+    assertStateReadable(markedRoot, 2);
+    assertThat(worldStateStorage.getAccountStateTrieNode(oldRoot)).isEmpty();
+  }
+
+  @Test
+  public void shouldRetainNodesAddedAfterPrepare() {
+    final MutableWorldState worldState = new DefaultMutableWorldState(worldStateStorage);
+    update(worldState, 1);
+    final Hash markedRoot = update(worldState, 2);
+
+    pruner.prepare();
+    final Hash newRoot = update(worldState, 3);
+    pruner.mark(markedRoot);
+    pruner.sweep();
+
+    assertStateReadable(markedRoot, 2);
+    assertStateReadable(newRoot, 3);
+  }
+
+  @Test
+  public void shouldNotRemoveAnythingWhenCycleIsAbandoned() {
+    final MutableWorldState worldState = new DefaultMutableWorldState(worldStateStorage);
+    final Hash oldRoot = update(worldState, 1);
+    final Hash markedRoot = update(worldState, 2);
+
+    pruner.prepare();
+    pruner.mark(markedRoot);
+    pruner.cleanup();
+
+    assertStateReadable(oldRoot, 1);
+    assertStateReadable(markedRoot, 2);
+  }
+
+  private Hash update(final MutableWorldState worldState, final long value) {
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account1 = updater.getOrCreate(ADDRESS1);
+    account1.setBalance(Wei.of(value));
+    account1.setStorageValue(UInt256.of(1), UInt256.of(value));
+    updater.getOrCreate(ADDRESS2).setBalance(Wei.of(value * 2));
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private void assertStateReadable(final Hash rootHash, final long value) {
+    final MutableWorldState worldState = new DefaultMutableWorldState(rootHash, worldStateStorage);
+    assertThat(worldState.get(ADDRESS1).getBalance()).isEqualTo(Wei.of(value));
+    assertThat(worldState.get(ADDRESS1).getStorageValue(UInt256.of(1)))
+        .isEqualTo(UInt256.of(value));
+    assertThat(worldState.get(ADDRESS2).getBalance()).isEqualTo(Wei.of(value * 2));
+  }
+}
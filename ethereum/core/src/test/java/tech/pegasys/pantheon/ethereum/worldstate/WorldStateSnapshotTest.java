@@ -0,0 +1,275 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.SegmentedKeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.services.kvstore.InMemorySegmentedKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class WorldStateSnapshotTest {
+
+  private static final Address ADDRESS1 =
+      Address.fromHexString("0xa94f5374fce5edbc8e2a8697c15331677e6ebf0b");
+  private static final Address ADDRESS2 =
+      Address.fromHexString("0x095e7baea6a6c7c4c2dfeb977efac326af552d87");
+  private static final UInt256 SLOT = UInt256.of(1);
+  // More storage values than a single generation batch holds.
+  private static final int LARGE_STORAGE_SIZE = 12_000;
+
+  private final WorldStateStorage worldStateStorage =
+      new SegmentedKeyValueStorageWorldStateStorage(new InMemorySegmentedKeyValueStorage());
+  private final WorldStateSnapshot snapshot = new WorldStateSnapshot(worldStateStorage);
+
+  @Test
+  public void shouldGenerateSnapshotFromTrie() {
+    final Hash root = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+
+    generate(root);
+
+    assertThat(snapshot.getRootHash()).contains(root);
+    assertSnapshotMatchesTrie(root);
+  }
+
+  @Test
+  public void shouldApplyChangesPersistedOnTopOfSnapshot() {
+    final Hash parentRoot = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    generate(parentRoot);
+
+    final Hash root = update(newWorldState(parentRoot), 2);
+
+    assertThat(snapshot.getRootHash()).contains(root);
+    assertSnapshotMatchesTrie(root);
+    assertBalances(newWorldState(root), 2);
+  }
+
+  @Test
+  public void shouldNotBeUpdatedByWorldStatesWithoutSnapshot() {
+    final Hash parentRoot = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    generate(parentRoot);
+
+    final Hash root = update(new DefaultMutableWorldState(parentRoot, worldStateStorage), 2);
+
+    assertThat(snapshot.getRootHash()).contains(parentRoot);
+    assertSnapshotMatchesTrie(parentRoot);
+    assertBalances(newWorldState(root), 2);
+  }
+
+  @Test
+  public void shouldRemoveStorageOfDeletedAccounts() {
+    final Hash parentRoot = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    generate(parentRoot);
+
+    final MutableWorldState worldState = newWorldState(parentRoot);
+    final WorldUpdater updater = worldState.updater();
+    updater.deleteAccount(ADDRESS1);
+    updater.commit();
+    worldState.persist();
+
+    assertThat(worldStateStorage.getSnapshotAccount(Hash.hash(ADDRESS1))).isEmpty();
+    assertThat(snapshotStorageValue()).isEmpty();
+    assertSnapshotMatchesTrie(worldState.rootHash());
+  }
+
+  @Test
+  public void shouldNotApplyChangesMadeToOtherStates() {
+    final Hash parentRoot = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    final Hash snapshotRoot = update(newWorldState(parentRoot), 2);
+    generate(snapshotRoot);
+
+    final Hash siblingRoot = update(newWorldState(parentRoot), 3);
+
+    assertThat(snapshot.getRootHash()).contains(snapshotRoot);
+    assertSnapshotMatchesTrie(snapshotRoot);
+    assertBalances(newWorldState(siblingRoot), 3);
+    assertBalances(newWorldState(parentRoot), 1);
+  }
+
+  @Test
+  public void shouldMoveToSiblingState() {
+    final Hash parentRoot = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    generate(parentRoot);
+    final Hash firstChildRoot = update(newWorldState(parentRoot), 2);
+    final Hash secondChildRoot = update(newWorldState(parentRoot), 3);
+
+    assertThat(snapshot.moveTo(secondChildRoot)).isTrue();
+    assertThat(snapshot.getRootHash()).contains(secondChildRoot);
+    assertSnapshotMatchesTrie(secondChildRoot);
+
+    assertThat(snapshot.moveTo(firstChildRoot)).isTrue();
+    assertSnapshotMatchesTrie(firstChildRoot);
+  }
+
+  @Test
+  public void shouldNotMoveToUnknownState() {
+    final Hash root = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    generate(root);
+
+    assertThat(snapshot.moveTo(Hash.hash(BytesValue.of(1)))).isFalse();
+    assertThat(snapshot.getRootHash()).contains(root);
+  }
+
+  @Test
+  public void shouldResumeGenerationFromStoredMetadata() {
+    final Hash root = update(newWorldState(Hash.EMPTY_TRIE_HASH), 1);
+    snapshot.startGeneration(() -> root);
+
+    final WorldStateSnapshot reloaded = new WorldStateSnapshot(worldStateStorage);
+    assertThat(reloaded.isGenerating()).isTrue();
+    generateAll(reloaded);
+
+    assertThat(reloaded.isGenerating()).isFalse();
+    assertThat(reloaded.getRootHash()).contains(root);
+    assertSnapshotMatchesTrie(root);
+  }
+
+  @Test
+  public void shouldSplitStorageOfLargeAccountAcrossBatches() {
+    final Hash root = createLargeStorage(newWorldState(Hash.EMPTY_TRIE_HASH));
+    snapshot.startGeneration(() -> root);
+
+    assertThat(snapshot.generateNextBatch()).isFalse();
+    assertThat(worldStateStorage.getSnapshotAccount(Hash.hash(ADDRESS1))).isPresent();
+    assertThat(countLargeStorageInSnapshot()).isGreaterThan(0).isLessThan(LARGE_STORAGE_SIZE);
+
+    final WorldStateSnapshot reloaded = new WorldStateSnapshot(worldStateStorage);
+    generateAll(reloaded);
+
+    assertThat(reloaded.getRootHash()).contains(root);
+    assertLargeStorageMatchesTrie(root);
+  }
+
+  @Test
+  public void shouldApplyChangesToPartlyGeneratedAccount() {
+    final Hash parentRoot = createLargeStorage(newWorldState(Hash.EMPTY_TRIE_HASH));
+    snapshot.startGeneration(() -> parentRoot);
+    assertThat(snapshot.generateNextBatch()).isFalse();
+
+    // Slot hashes are spread across the trie, so some of these have been copied and some not.
+    final MutableWorldState worldState = newWorldState(parentRoot);
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.getOrCreate(ADDRESS1);
+    for (int i = 0; i < LARGE_STORAGE_SIZE; i += 100) {
+      account.setStorageValue(UInt256.of(i), UInt256.ZERO);
+    }
+    updater.commit();
+    worldState.persist();
+    generateAll(snapshot);
+
+    assertThat(snapshot.getRootHash()).contains(worldState.rootHash());
+    assertLargeStorageMatchesTrie(worldState.rootHash());
+  }
+
+  private MutableWorldState newWorldState(final Hash root) {
+    return new DefaultMutableWorldState(root, worldStateStorage, Optional.of(snapshot));
+  }
+
+  private void generate(final Hash root) {
+    snapshot.startGeneration(() -> root);
+    generateAll(snapshot);
+  }
+
+  private void generateAll(final WorldStateSnapshot target) {
+    boolean complete = false;
+    while (!complete) {
+      complete = target.generateNextBatch();
+    }
+  }
+
+  private Hash update(final MutableWorldState worldState, final long value) {
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account1 = updater.getOrCreate(ADDRESS1);
+    account1.setBalance(Wei.of(value));
+    account1.setStorageValue(SLOT, UInt256.of(value));
+    updater.getOrCreate(ADDRESS2).setBalance(Wei.of(value * 2));
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private Hash createLargeStorage(final MutableWorldState worldState) {
+    final WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.getOrCreate(ADDRESS1);
+    for (int i = 0; i < LARGE_STORAGE_SIZE; i++) {
+      account.setStorageValue(UInt256.of(i), UInt256.of(i + 1));
+    }
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private long countLargeStorageInSnapshot() {
+    return IntStream.range(0, LARGE_STORAGE_SIZE)
+        .filter(i -> snapshotStorageValue(UInt256.of(i)).isPresent())
+        .count();
+  }
+
+  private void assertLargeStorageMatchesTrie(final Hash root) {
+    final Account account = new DefaultMutableWorldState(root, worldStateStorage).get(ADDRESS1);
+    for (int i = 0; i < LARGE_STORAGE_SIZE; i++) {
+      final UInt256 slot = UInt256.of(i);
+      final UInt256 storageValue = account.getStorageValue(slot);
+      assertThat(snapshotStorageValue(slot).map(value -> RLP.input(value).readUInt256Scalar()))
+          .isEqualTo(storageValue.isZero() ? Optional.empty() : Optional.of(storageValue));
+    }
+  }
+
+  private void assertBalances(final MutableWorldState worldState, final long value) {
+    assertThat(worldState.get(ADDRESS1).getBalance()).isEqualTo(Wei.of(value));
+    assertThat(worldState.get(ADDRESS1).getStorageValue(SLOT)).isEqualTo(UInt256.of(value));
+    assertThat(worldState.get(ADDRESS2).getBalance()).isEqualTo(Wei.of(value * 2));
+  }
+
+  private void assertSnapshotMatchesTrie(final Hash root) {
+    final MerklePatriciaTrie<Bytes32, BytesValue> accountTrie =
+        new StoredMerklePatriciaTrie<>(
+            worldStateStorage::getAccountStateTrieNode, root, b -> b, b -> b);
+    for (final Address address : new Address[] {ADDRESS1, ADDRESS2}) {
+      final Hash accountHash = Hash.hash(address);
+      assertThat(worldStateStorage.getSnapshotAccount(accountHash))
+          .isEqualTo(accountTrie.get(accountHash));
+    }
+
+    // A world state without the snapshot reads storage from the trie.
+    final Account account = new DefaultMutableWorldState(root, worldStateStorage).get(ADDRESS1);
+    final UInt256 storageValue = account == null ? UInt256.ZERO : account.getStorageValue(SLOT);
+    assertThat(snapshotStorageValue().map(value -> RLP.input(value).readUInt256Scalar()))
+        .isEqualTo(storageValue.isZero() ? Optional.empty() : Optional.of(storageValue));
+  }
+
+  private Optional<BytesValue> snapshotStorageValue() {
+    return snapshotStorageValue(SLOT);
+  }
+
+  private Optional<BytesValue> snapshotStorageValue(final UInt256 slot) {
+    return worldStateStorage.getSnapshotStorage(Hash.hash(ADDRESS1), Hash.hash(slot.getBytes()));
+  }
+}
@@ -22,6 +22,8 @@ import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.util.ExceptionUtils;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
@@ -42,11 +44,12 @@ public abstract class AbstractPeerRequestTask<R> extends AbstractPeerTask<R> {
   @Override
   protected final void executeTaskWithPeer(final EthPeer peer) throws PeerNotConnected {
     final CompletableFuture<R> promise = new CompletableFuture<>();
+    final long requestTime = System.currentTimeMillis();
     responseStream =
         sendRequest(peer)
             .then(
                 (streamClosed, message, peer1) ->
-                    handleMessage(promise, streamClosed, message, peer1));
+                    handleMessage(promise, streamClosed, message, peer1, requestTime));
 
     promise.whenComplete(
         (r, t) -> {
@@ -68,14 +71,19 @@ public abstract class AbstractPeerRequestTask<R> extends AbstractPeerTask<R> {
       final CompletableFuture<R> promise,
       final boolean streamClosed,
       final MessageData message,
-      final EthPeer peer) {
+      final EthPeer peer,
+      final long requestTime) {
     if (promise.isDone()) {
       // We've already got our response, don't pass on the stream closed event.
       return;
     }
     try {
       final Optional<R> result = processResponse(streamClosed, message, peer);
-      result.ifPresent(promise::complete);
+      result.ifPresent(
+          r -> {
+            recordPerformance(peer, streamClosed, message, r, requestTime);
+            promise.complete(r);
+          });
     } catch (final RLPException e) {
       // Peer sent us malformed data - disconnect
       peer.disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
@@ -83,6 +91,31 @@ public abstract class AbstractPeerRequestTask<R> extends AbstractPeerTask<R> {
     }
   }
 
+  private void recordPerformance(
+      final EthPeer peer,
+      final boolean streamClosed,
+      final MessageData message,
+      final R result,
+      final long requestTime) {
+    final int items = itemCount(result);
+    if (streamClosed || items == 0) {
+      peer.performance().recordFailure(requestCode);
+    } else {
+      peer.performance()
+          .recordResponse(
+              requestCode, items, message.getSize(), System.currentTimeMillis() - requestTime);
+    }
+  }
+
+  private static int itemCount(final Object result) {
+    if (result instanceof Collection) {
+      return ((Collection<?>) result).size();
+    } else if (result instanceof Map) {
+      return ((Map<?, ?>) result).size();
+    }
+    return 1;
+  }
+
   @Override
   protected void cleanup() {
     super.cleanup();
@@ -21,6 +21,7 @@ import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockBodiesMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockHeadersMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.GetNodeDataMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetReceiptsMessage;
 import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
@@ -58,9 +59,11 @@ public class EthPeer {
   private final RequestManager headersRequestManager = new RequestManager(this);
   private final RequestManager bodiesRequestManager = new RequestManager(this);
   private final RequestManager receiptsRequestManager = new RequestManager(this);
+  private final RequestManager nodeDataRequestManager = new RequestManager(this);
 
   private final AtomicReference<Consumer<EthPeer>> onStatusesExchanged = new AtomicReference<>();
   private final PeerReputation reputation = new PeerReputation();
+  private final PeerPerformance performance = new PeerPerformance();
   private final Subscribers<DisconnectCallback> disconnectCallbacks = new Subscribers<>();
 
   EthPeer(
@@ -92,9 +95,14 @@ public class EthPeer {
 
   public void recordRequestTimeout(final int requestCode) {
     LOG.debug("Timed out while waiting for response from peer {}", this);
+    performance.recordFailure(requestCode);
     reputation.recordRequestTimeout(requestCode).ifPresent(this::disconnect);
   }
 
+  public PeerPerformance performance() {
+    return performance;
+  }
+
   public void recordUselessResponse() {
     LOG.debug("Received useless response from peer {}", this);
     reputation.recordUselessResponse(System.currentTimeMillis()).ifPresent(this::disconnect);
@@ -120,6 +128,8 @@ public class EthPeer {
         return sendBodiesRequest(messageData);
       case EthPV63.GET_RECEIPTS:
         return sendReceiptsRequest(messageData);
+      case EthPV63.GET_NODE_DATA:
+        return sendNodeDataRequest(messageData);
       default:
         connection.sendForProtocol(protocolName, messageData);
         return null;
@@ -168,6 +178,17 @@ public class EthPeer {
         () -> connection.sendForProtocol(protocolName, messageData));
   }
 
+  public ResponseStream getNodeData(final Iterable<Hash> nodeHashes) throws PeerNotConnected {
+    final GetNodeDataMessage message = GetNodeDataMessage.create(nodeHashes);
+    return sendNodeDataRequest(message);
+  }
+
+  private ResponseStream sendNodeDataRequest(final MessageData messageData)
+      throws PeerNotConnected {
+    return nodeDataRequestManager.dispatchRequest(
+        () -> connection.sendForProtocol(protocolName, messageData));
+  }
+
   boolean validateReceivedMessage(final EthMessage message) {
     checkArgument(message.getPeer().equals(this), "Mismatched message sent to peer for dispatch");
     switch (message.getData().getCode()) {
@@ -189,6 +210,12 @@ public class EthPeer {
           return false;
         }
         break;
+      case EthPV63.NODE_DATA:
+        if (nodeDataRequestManager.outstandingRequests() == 0) {
+          LOG.warn("Unsolicited node data received.");
+          return false;
+        }
+        break;
       default:
         // Nothing to do
     }
@@ -215,6 +242,10 @@ public class EthPeer {
         reputation.resetTimeoutCount(EthPV63.GET_RECEIPTS);
         receiptsRequestManager.dispatchResponse(message);
         break;
+      case EthPV63.NODE_DATA:
+        reputation.resetTimeoutCount(EthPV63.GET_NODE_DATA);
+        nodeDataRequestManager.dispatchResponse(message);
+        break;
       default:
         // Nothing to do
     }
@@ -228,6 +259,7 @@ public class EthPeer {
     headersRequestManager.close();
     bodiesRequestManager.close();
     receiptsRequestManager.close();
+    nodeDataRequestManager.close();
     disconnectCallbacks.forEach(callback -> callback.onDisconnect(this));
   }
 
@@ -294,7 +326,8 @@ public class EthPeer {
   public int outstandingRequests() {
     return headersRequestManager.outstandingRequests()
         + bodiesRequestManager.outstandingRequests()
-        + receiptsRequestManager.outstandingRequests();
+        + receiptsRequestManager.outstandingRequests()
+        + nodeDataRequestManager.outstandingRequests();
   }
 
   public BytesValue nodeId() {
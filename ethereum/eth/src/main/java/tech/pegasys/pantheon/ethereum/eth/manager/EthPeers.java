@@ -38,6 +38,20 @@ public class EthPeers {
   public static final Comparator<EthPeer> LEAST_TO_MOST_BUSY =
       Comparator.comparing(EthPeer::outstandingRequests);
 
+  /**
+   * Orders peers by how soon they are expected to answer a request of the given type, then from
+   * least to most busy.
+   *
+   * @param requestCode The message code of the request.
+   * @return A comparator putting the peer to send the request to first.
+   */
+  public static Comparator<EthPeer> fastestResponse(final int requestCode) {
+    return Comparator.comparingDouble(
+            (final EthPeer p) ->
+                p.performance().expectedResponseMillis(requestCode, p.outstandingRequests()))
+        .thenComparing(LEAST_TO_MOST_BUSY);
+  }
+
   private final int maxOutstandingRequests = 5;
   private final Map<PeerConnection, EthPeer> connections = new ConcurrentHashMap<>();
   private final String protocolName;
@@ -110,6 +124,35 @@ public class EthPeers {
     return idlePeers().filter(p -> p.chainState().getEstimatedHeight() >= withBlocksUpTo).findAny();
   }
 
+  /**
+   * Selects the idle peer with blocks up to the given number that is expected to answer a request
+   * of the given type soonest, so work is spread over all useful peers in favour of faster ones.
+   *
+   * @param withBlocksUpTo The block number the peer must have.
+   * @param requestCode The message code of the request to send.
+   * @return The peer to send the request to, if any.
+   */
+  public Optional<EthPeer> idlePeer(final long withBlocksUpTo, final int requestCode) {
+    return idlePeers()
+        .filter(p -> p.chainState().getEstimatedHeight() >= withBlocksUpTo)
+        .min(fastestResponse(requestCode));
+  }
+
+  /**
+   * Lists the idle peers with blocks up to the given number, from the one expected to answer a
+   * request of the given type soonest to the slowest, so a request can be split between them.
+   *
+   * @param withBlocksUpTo The block number the peers must have.
+   * @param requestCode The message code of the requests to send.
+   * @return The peers to send the requests to.
+   */
+  public List<EthPeer> idlePeers(final long withBlocksUpTo, final int requestCode) {
+    return idlePeers()
+        .filter(p -> p.chainState().getEstimatedHeight() >= withBlocksUpTo)
+        .sorted(fastestResponse(requestCode))
+        .collect(Collectors.toList());
+  }
+
   @FunctionalInterface
   public interface ConnectCallback {
     void onPeerConnected(EthPeer newPeer);
@@ -13,10 +13,9 @@
 package tech.pegasys.pantheon.ethereum.eth.manager;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
-import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
-import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.eth.messages.BlockBodiesMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.BlockHeadersMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
@@ -39,7 +38,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
-import com.google.common.collect.Lists;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -47,11 +45,17 @@ class EthServer {
   private static final Logger LOG = LogManager.getLogger();
 
   private final Blockchain blockchain;
+  private final WorldStateArchive worldStateArchive;
   private final EthMessages ethMessages;
   private final int requestLimit;
 
-  EthServer(final Blockchain blockchain, final EthMessages ethMessages, final int requestLimit) {
+  EthServer(
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final EthMessages ethMessages,
+      final int requestLimit) {
     this.blockchain = blockchain;
+    this.worldStateArchive = worldStateArchive;
     this.ethMessages = ethMessages;
     this.requestLimit = requestLimit;
     this.setupListeners();
@@ -106,7 +110,8 @@ class EthServer {
   private void handleGetNodeData(final EthMessage message) {
     LOG.trace("Responding to GET_NODE_DATA request");
     try {
-      final MessageData response = constructGetNodeDataResponse(message.getData(), requestLimit);
+      final MessageData response =
+          constructGetNodeDataResponse(worldStateArchive, message.getData(), requestLimit);
       message.getPeer().send(response);
     } catch (final RLPException e) {
       message.getPeer().disconnect(DisconnectReason.BREACH_OF_PROTOCOL);
@@ -122,26 +127,32 @@ class EthServer {
     final int skip = getHeaders.skip();
     final int maxHeaders = Math.min(requestLimit, getHeaders.maxHeaders());
     final boolean reversed = getHeaders.reverse();
-    final BlockHeader firstHeader;
+    // Headers are copied into the response as stored, without being decoded and re-encoded.
+    final Optional<BytesValue> firstHeader;
+    final long firstNumber;
     if (hash.isPresent()) {
+      // Only the first header is decoded, to find the numbers of the headers that follow it.
       final Hash startHash = hash.get();
-      firstHeader = blockchain.getBlockHeader(startHash).orElse(null);
+      final Optional<BlockHeader> startHeader = blockchain.getBlockHeader(startHash);
+      firstHeader = startHeader.flatMap(header -> blockchain.getBlockHeaderRlp(startHash));
+      firstNumber = startHeader.map(BlockHeader::getNumber).orElse(0L);
     } else {
-      final long firstNumber = getHeaders.blockNumber().getAsLong();
-      firstHeader = blockchain.getBlockHeader(firstNumber).orElse(null);
+      firstNumber = getHeaders.blockNumber().getAsLong();
+      firstHeader = blockchain.getBlockHeaderRlp(firstNumber);
     }
-    final Collection<BlockHeader> resp;
-    if (firstHeader == null) {
+    final List<BytesValue> resp;
+    if (!firstHeader.isPresent()) {
       resp = Collections.emptyList();
     } else {
-      resp = Lists.newArrayList(firstHeader);
+      resp = new ArrayList<>(Math.max(maxHeaders, 1));
+      resp.add(firstHeader.get());
       final long numberDelta = reversed ? -(skip + 1) : (skip + 1);
       for (int i = 1; i < maxHeaders; i++) {
-        final long blockNumber = firstHeader.getNumber() + i * numberDelta;
+        final long blockNumber = firstNumber + i * numberDelta;
         if (blockNumber < BlockHeader.GENESIS_BLOCK_NUMBER) {
           break;
         }
-        final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNumber);
+        final Optional<BytesValue> maybeHeader = blockchain.getBlockHeaderRlp(blockNumber);
         if (maybeHeader.isPresent()) {
           resp.add(maybeHeader.get());
         } else {
@@ -149,7 +160,7 @@ class EthServer {
         }
       }
     }
-    return BlockHeadersMessage.create(resp);
+    return BlockHeadersMessage.createUnsafe(resp);
   }
 
   static MessageData constructGetBodiesResponse(
@@ -157,20 +168,20 @@ class EthServer {
     final GetBlockBodiesMessage getBlockBodiesMessage = GetBlockBodiesMessage.readFrom(message);
     final Iterable<Hash> hashes = getBlockBodiesMessage.hashes();
 
-    final Collection<BlockBody> bodies = new ArrayList<>();
+    final Collection<BytesValue> bodies = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
       if (count >= requestLimit) {
         break;
       }
       count++;
-      final Optional<BlockBody> maybeBody = blockchain.getBlockBody(hash);
+      final Optional<BytesValue> maybeBody = blockchain.getBlockBodyRlp(hash);
       if (!maybeBody.isPresent()) {
         continue;
       }
       bodies.add(maybeBody.get());
     }
-    return BlockBodiesMessage.create(bodies);
+    return BlockBodiesMessage.createUnsafe(bodies);
   }
 
   static MessageData constructGetReceiptsResponse(
@@ -178,24 +189,26 @@ class EthServer {
     final GetReceiptsMessage getReceipts = GetReceiptsMessage.readFrom(message);
     final Iterable<Hash> hashes = getReceipts.hashes();
 
-    final List<List<TransactionReceipt>> receipts = new ArrayList<>();
+    final List<BytesValue> receipts = new ArrayList<>();
     int count = 0;
     for (final Hash hash : hashes) {
       if (count >= requestLimit) {
         break;
       }
       count++;
-      final Optional<List<TransactionReceipt>> maybeReceipts = blockchain.getTxReceipts(hash);
+      final Optional<BytesValue> maybeReceipts = blockchain.getTxReceiptsRlp(hash);
       if (!maybeReceipts.isPresent()) {
         continue;
       }
       receipts.add(maybeReceipts.get());
     }
-    return ReceiptsMessage.create(receipts);
+    return ReceiptsMessage.createUnsafe(receipts);
   }
 
   static MessageData constructGetNodeDataResponse(
-      final MessageData message, final int requestLimit) {
+      final WorldStateArchive worldStateArchive,
+      final MessageData message,
+      final int requestLimit) {
     final GetNodeDataMessage getNodeDataMessage = GetNodeDataMessage.readFrom(message);
     final Iterable<Hash> hashes = getNodeDataMessage.hashes();
 
@@ -206,7 +219,7 @@ class EthServer {
         break;
       }
       count++;
-      // TODO: Lookup node data and add it to the list
+      worldStateArchive.getNodeData(hash).ifPresent(nodeData::add);
     }
     return NodeDataMessage.create(nodeData);
   }
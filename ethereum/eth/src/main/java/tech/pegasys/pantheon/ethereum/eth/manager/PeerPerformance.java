@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks how well a peer serves each type of request (headers, bodies, receipts, node data) as
+ * moving averages of its response latency, throughput and failure rate. Requests are sent to the
+ * peers expected to answer soonest, and sized to what each peer delivers in about a second.
+ */
+public class PeerPerformance {
+  // Weight of each new sample in the moving averages.
+  private static final double SAMPLE_WEIGHT = 0.25;
+  private static final double TARGET_RESPONSE_SECONDS = 1.0;
+  private static final double MIN_SUCCESS_RATE = 0.1;
+  // Latency assumed for a peer until it answers, so failures before then rank it behind others.
+  private static final double PRIOR_LATENCY_MILLIS = TARGET_RESPONSE_SECONDS * 1000;
+
+  private final ConcurrentMap<Integer, RequestStats> statsByRequestType =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Records a response that completed a request.
+   *
+   * @param requestCode The message code of the request.
+   * @param items The number of items (headers, bodies, ...) in the response.
+   * @param bytes The size of the response.
+   * @param durationMillis The time between sending the request and receiving the response.
+   */
+  public void recordResponse(
+      final int requestCode, final int items, final long bytes, final long durationMillis) {
+    stats(requestCode).recordResponse(items, bytes, Math.max(durationMillis, 1));
+  }
+
+  /**
+   * Records a request that timed out or could not be answered.
+   *
+   * @param requestCode The message code of the request.
+   */
+  public void recordFailure(final int requestCode) {
+    stats(requestCode).recordFailure();
+  }
+
+  public double latencyMillis(final int requestCode) {
+    final RequestStats stats = statsByRequestType.get(requestCode);
+    return stats == null ? 0 : stats.latencyMillis;
+  }
+
+  public double bytesPerSecond(final int requestCode) {
+    final RequestStats stats = statsByRequestType.get(requestCode);
+    return stats == null ? 0 : stats.bytesPerSecond;
+  }
+
+  public double failureRate(final int requestCode) {
+    final RequestStats stats = statsByRequestType.get(requestCode);
+    return stats == null ? 0 : stats.failureRate;
+  }
+
+  /**
+   * Returns how long a new request is expected to take to be answered, given how many requests are
+   * already outstanding with the peer. Peers that haven't been sent this type of request yet are
+   * expected to answer immediately so that they are tried. Peers that have only failed to answer
+   * are expected to take about a second, slowed down by their failure rate, which decays again
+   * once they do answer.
+   *
+   * @param requestCode The message code of the request.
+   * @param outstandingRequests The number of requests the peer has yet to answer.
+   * @return The expected response time in milliseconds.
+   */
+  public double expectedResponseMillis(final int requestCode, final int outstandingRequests) {
+    final RequestStats stats = statsByRequestType.get(requestCode);
+    if (stats == null) {
+      return 0;
+    }
+    final double successRate = Math.max(1 - stats.failureRate, MIN_SUCCESS_RATE);
+    return stats.latencyMillis * (outstandingRequests + 1) / successRate;
+  }
+
+  /**
+   * Returns how many items to request from the peer, so it can be expected to answer within about a
+   * second.
+   *
+   * @param requestCode The message code of the request.
+   * @param maxItems The number of items wanted.
+   * @return The number of items to request, between 1 and {@code maxItems}, or {@code maxItems}
+   *     if the peer hasn't answered this type of request yet.
+   */
+  public int requestSize(final int requestCode, final int maxItems) {
+    final RequestStats stats = statsByRequestType.get(requestCode);
+    if (stats == null || stats.itemsPerSecond == 0) {
+      return maxItems;
+    }
+    final double size = Math.ceil(stats.itemsPerSecond * TARGET_RESPONSE_SECONDS);
+    return (int) Math.max(1, Math.min(size, maxItems));
+  }
+
+  private RequestStats stats(final int requestCode) {
+    return statsByRequestType.computeIfAbsent(requestCode, code -> new RequestStats());
+  }
+
+  private static double average(final double current, final double sample) {
+    return current + SAMPLE_WEIGHT * (sample - current);
+  }
+
+  private static class RequestStats {
+    private volatile double latencyMillis = PRIOR_LATENCY_MILLIS;
+    private volatile double bytesPerSecond;
+    private volatile double itemsPerSecond;
+    private volatile double failureRate;
+    private volatile boolean hasResponse;
+
+    private synchronized void recordResponse(
+        final int items, final long bytes, final long durationMillis) {
+      final double seconds = durationMillis / 1000.0;
+      if (hasResponse) {
+        latencyMillis = average(latencyMillis, durationMillis);
+        bytesPerSecond = average(bytesPerSecond, bytes / seconds);
+        itemsPerSecond = average(itemsPerSecond, items / seconds);
+      } else {
+        latencyMillis = durationMillis;
+        bytesPerSecond = bytes / seconds;
+        itemsPerSecond = items / seconds;
+        hasResponse = true;
+      }
+      failureRate = average(failureRate, 0);
+    }
+
+    private synchronized void recordFailure() {
+      failureRate = average(failureRate, 1);
+      // Back off quickly from request sizes the peer can't keep up with.
+      itemsPerSecond /= 2;
+    }
+  }
+}
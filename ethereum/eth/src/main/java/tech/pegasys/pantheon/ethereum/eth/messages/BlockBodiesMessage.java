@@ -44,6 +44,21 @@ public final class BlockBodiesMessage extends AbstractMessageData {
     return new BlockBodiesMessage(tmp.encoded());
   }
 
+  /**
+   * Create a message from bodies that are already RLP encoded, such as those read directly from
+   * storage. The encodings are copied into the message as they are, without being checked.
+   *
+   * @param bodyRlps The RLP encoded bodies.
+   * @return A message containing the bodies.
+   */
+  public static BlockBodiesMessage createUnsafe(final Iterable<BytesValue> bodyRlps) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    bodyRlps.forEach(tmp::writeRLPUnsafe);
+    tmp.endList();
+    return new BlockBodiesMessage(tmp.encoded());
+  }
+
   private BlockBodiesMessage(final BytesValue data) {
     super(data);
   }
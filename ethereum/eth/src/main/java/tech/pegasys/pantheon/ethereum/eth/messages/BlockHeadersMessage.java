@@ -48,6 +48,21 @@ public final class BlockHeadersMessage extends AbstractMessageData {
     return new BlockHeadersMessage(tmp.encoded());
   }
 
+  /**
+   * Create a message from headers that are already RLP encoded, such as those read directly from
+   * storage. The encodings are copied into the message as they are, without being checked.
+   *
+   * @param headerRlps The RLP encoded headers.
+   * @return A message containing the headers.
+   */
+  public static BlockHeadersMessage createUnsafe(final Iterable<BytesValue> headerRlps) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    headerRlps.forEach(tmp::writeRLPUnsafe);
+    tmp.endList();
+    return new BlockHeadersMessage(tmp.encoded());
+  }
+
   private BlockHeadersMessage(final BytesValue data) {
     super(data);
   }
@@ -50,6 +50,22 @@ public final class ReceiptsMessage extends AbstractMessageData {
     return new ReceiptsMessage(tmp.encoded());
   }
 
+  /**
+   * Create a message from the receipts of each block, already RLP encoded as a list, such as those
+   * read directly from storage. The encodings are copied into the message as they are, without
+   * being checked.
+   *
+   * @param receiptSetRlps The RLP encoded list of receipts for each block.
+   * @return A message containing the receipts.
+   */
+  public static ReceiptsMessage createUnsafe(final Iterable<BytesValue> receiptSetRlps) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    receiptSetRlps.forEach(tmp::writeRLPUnsafe);
+    tmp.endList();
+    return new ReceiptsMessage(tmp.encoded());
+  }
+
   private ReceiptsMessage(final BytesValue data) {
     super(data);
   }
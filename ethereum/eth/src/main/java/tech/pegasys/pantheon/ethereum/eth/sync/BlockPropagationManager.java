@@ -18,6 +18,7 @@ import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent.EventType;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.manager.AbstractPeerTask;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthMessage;
@@ -61,6 +62,7 @@ public class BlockPropagationManager<C> {
   private final ProtocolContext<C> protocolContext;
   private final EthContext ethContext;
   private final SyncState syncState;
+  private final TransactionSenderRecovery transactionSenderRecovery;
   private final LabelledMetric<OperationTimer> ethTasksTimer;
 
   private final AtomicBoolean started = new AtomicBoolean(false);
@@ -75,11 +77,13 @@ public class BlockPropagationManager<C> {
       final EthContext ethContext,
       final SyncState syncState,
       final PendingBlocks pendingBlocks,
+      final TransactionSenderRecovery transactionSenderRecovery,
       final LabelledMetric<OperationTimer> ethTasksTimer) {
     this.config = config;
     this.protocolSchedule = protocolSchedule;
     this.protocolContext = protocolContext;
     this.ethContext = ethContext;
+    this.transactionSenderRecovery = transactionSenderRecovery;
     this.ethTasksTimer = ethTasksTimer;
 
     this.syncState = syncState;
@@ -253,7 +257,7 @@ public class BlockPropagationManager<C> {
             protocolSchedule, protocolContext, block, HeaderValidationMode.FULL, ethTasksTimer);
     return ethContext
         .getScheduler()
-        .scheduleSyncWorkerTask(importTask::run)
+        .scheduleSyncWorkerTask(() -> runImportTask(block, importTask))
         .whenComplete(
             (r, t) -> {
               if (t != null) {
@@ -272,6 +276,12 @@ public class BlockPropagationManager<C> {
             });
   }
 
+  private CompletableFuture<Block> runImportTask(
+      final Block block, final PersistBlockTask<C> importTask) {
+    transactionSenderRecovery.recoverSenders(block.getBody().getTransactions());
+    return importTask.run();
+  }
+
   // Only import blocks within a certain range of our head and sync target
   private boolean shouldImportBlockAtHeight(
       final long blockNumber, final long localHeight, final long bestChainHeight) {
@@ -13,36 +13,57 @@
 package tech.pegasys.pantheon.ethereum.eth.sync;
 
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.SyncStatus;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.sync.fastsync.FastSyncChainDownloader;
+import tech.pegasys.pantheon.ethereum.eth.sync.fastsync.FastSyncDownloader;
+import tech.pegasys.pantheon.ethereum.eth.sync.fastsync.FastSyncStateStorage;
 import tech.pegasys.pantheon.ethereum.eth.sync.state.PendingBlocks;
 import tech.pegasys.pantheon.ethereum.eth.sync.state.SyncState;
+import tech.pegasys.pantheon.ethereum.eth.sync.worldstate.WorldStateDownloader;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorageQueue;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class DefaultSynchronizer<C> implements Synchronizer {
 
   private static final Logger LOG = LogManager.getLogger();
+  private static final String FAST_SYNC_FOLDER = "fastsync";
+  private static final String FAST_SYNC_QUEUE_FOLDER = "queue";
 
   private final SyncState syncState;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final BlockPropagationManager<C> blockPropagationManager;
   private final Downloader<C> downloader;
+  private final Path fastSyncDataDirectory;
+  private final Optional<FastSyncDownloader<C>> fastSyncDownloader;
+  private final Optional<KeyValueStorageQueue> fastSyncQueue;
 
   public DefaultSynchronizer(
       final SynchronizerConfiguration syncConfig,
       final ProtocolSchedule<C> protocolSchedule,
       final ProtocolContext<C> protocolContext,
+      final Path dataDirectory,
       final EthContext ethContext,
       final SyncState syncState,
+      final TransactionSenderRecovery transactionSenderRecovery,
       final LabelledMetric<OperationTimer> ethTasksTimer) {
     this.syncState = syncState;
     this.blockPropagationManager =
@@ -53,6 +74,7 @@ public class DefaultSynchronizer<C> implements Synchronizer {
             ethContext,
             syncState,
             new PendingBlocks(),
+            transactionSenderRecovery,
             ethTasksTimer);
     this.downloader =
         new Downloader<>(
@@ -60,22 +82,91 @@ public class DefaultSynchronizer<C> implements Synchronizer {
 
     ChainHeadTracker.trackChainHeadForPeers(
         ethContext, protocolSchedule, protocolContext.getBlockchain(), syncConfig, ethTasksTimer);
-    if (syncConfig.syncMode().equals(SyncMode.FAST)) {
+    this.fastSyncDataDirectory = dataDirectory.resolve(FAST_SYNC_FOLDER);
+    final FastSyncStateStorage fastSyncStateStorage =
+        new FastSyncStateStorage(fastSyncDataDirectory);
+    if (shouldFastSync(syncConfig, protocolContext.getBlockchain(), fastSyncStateStorage)) {
       LOG.info("Fast sync enabled.");
+      final KeyValueStorageQueue queue = createFastSyncQueue();
+      this.fastSyncQueue = Optional.of(queue);
+      this.fastSyncDownloader =
+          Optional.of(
+              new FastSyncDownloader<>(
+                  syncConfig,
+                  protocolSchedule,
+                  ethContext,
+                  new WorldStateDownloader(
+                      ethContext,
+                      protocolContext.getWorldStateArchive().getStorage(),
+                      queue,
+                      syncConfig.worldStateHashCountPerRequest(),
+                      syncConfig.worldStateRequestParallelism(),
+                      syncConfig.worldStateMaxRequestsWithoutProgress(),
+                      ethTasksTimer),
+                  new FastSyncChainDownloader<>(
+                      syncConfig, protocolSchedule, protocolContext, ethContext, ethTasksTimer),
+                  fastSyncStateStorage,
+                  ethTasksTimer));
+    } else {
+      this.fastSyncQueue = Optional.empty();
+      this.fastSyncDownloader = Optional.empty();
+    }
+  }
+
+  private static boolean shouldFastSync(
+      final SynchronizerConfiguration syncConfig,
+      final Blockchain blockchain,
+      final FastSyncStateStorage fastSyncStateStorage) {
+    if (fastSyncStateStorage.isFastSyncInProgress()) {
+      return true;
+    }
+    if (!syncConfig.syncMode().equals(SyncMode.FAST)) {
+      return false;
+    }
+    // Fast sync data is removed once it completes, so a chain beyond genesis without a stored
+    // pivot has already been synced and must continue with full sync.
+    return blockchain.getChainHeadBlockNumber() == BlockHeader.GENESIS_BLOCK_NUMBER;
+  }
+
+  private KeyValueStorageQueue createFastSyncQueue() {
+    final Path queueDirectory = fastSyncDataDirectory.resolve(FAST_SYNC_QUEUE_FOLDER);
+    try {
+      Files.createDirectories(queueDirectory);
+    } catch (final IOException e) {
+      throw new IllegalStateException("Unable to create fast sync directory", e);
     }
+    return new KeyValueStorageQueue(RocksDbKeyValueStorage.create(queueDirectory));
   }
 
   @Override
   public void start() {
     if (started.compareAndSet(false, true)) {
       LOG.info("Starting synchronizer.");
-      blockPropagationManager.start();
-      downloader.start();
+      if (fastSyncDownloader.isPresent()) {
+        fastSyncDownloader.get().start().thenRun(this::startFullSync);
+      } else {
+        startFullSync();
+      }
     } else {
       throw new IllegalStateException("Attempt to start an already started synchronizer.");
     }
   }
 
+  private void startFullSync() {
+    fastSyncQueue.ifPresent(this::cleanupFastSync);
+    blockPropagationManager.start();
+    downloader.start();
+  }
+
+  private void cleanupFastSync(final KeyValueStorageQueue queue) {
+    try {
+      queue.close();
+      MoreFiles.deleteRecursively(fastSyncDataDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+    } catch (final IOException e) {
+      LOG.error("Unable to remove fast sync data from " + fastSyncDataDirectory, e);
+    }
+  }
+
   @Override
   public Optional<SyncStatus> getSyncStatus() {
     if (!started.get()) {
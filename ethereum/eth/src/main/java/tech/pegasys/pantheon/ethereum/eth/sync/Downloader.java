@@ -360,7 +360,7 @@ public class Downloader<C> {
               protocolSchedule,
               protocolContext,
               ethContext,
-              config.downloaderParallelism(),
+              config.downloaderMaxActiveChunks(),
               ethTasksTimer,
               Lists.newArrayList(checkpointHeaders));
       importedBlocks = importTask.run();
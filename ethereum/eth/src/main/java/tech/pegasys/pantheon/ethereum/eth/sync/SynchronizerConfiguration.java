@@ -30,10 +30,19 @@ public class SynchronizerConfiguration {
   // TODO: Determine reasonable defaults here
   public static int DEFAULT_PIVOT_DISTANCE_FROM_HEAD = 500;
   public static float DEFAULT_FULL_VALIDATION_RATE = .1f;
+  public static int DEFAULT_FAST_SYNC_MINIMUM_PEERS = 5;
+  private static final int DEFAULT_WORLD_STATE_HASH_COUNT_PER_REQUEST = 384;
+  private static final int DEFAULT_WORLD_STATE_REQUEST_PARALLELISM = 10;
+  private static final int DEFAULT_WORLD_STATE_MAX_REQUESTS_WITHOUT_PROGRESS = 1000;
+  private static final int DEFAULT_DOWNLOADER_MAX_ACTIVE_CHUNKS = 8;
 
   // Fast sync config
   private final int fastSyncPivotDistance;
   private final float fastSyncFullValidationRate;
+  private final int fastSyncMinimumPeerCount;
+  private final int worldStateHashCountPerRequest;
+  private final int worldStateRequestParallelism;
+  private final int worldStateMaxRequestsWithoutProgress;
 
   // Block propagation config
   private final Range<Long> blockPropagationRange;
@@ -52,12 +61,17 @@ public class SynchronizerConfiguration {
   private final long trailingPeerBlocksBehindThreshold;
   private final int maxTrailingPeers;
   private final int downloaderParallelism;
+  private final int downloaderMaxActiveChunks;
   private final int transactionsParallelism;
 
   private SynchronizerConfiguration(
       final SyncMode requestedSyncMode,
       final int fastSyncPivotDistance,
       final float fastSyncFullValidationRate,
+      final int fastSyncMinimumPeerCount,
+      final int worldStateHashCountPerRequest,
+      final int worldStateRequestParallelism,
+      final int worldStateMaxRequestsWithoutProgress,
       final Range<Long> blockPropagationRange,
       final Optional<SyncMode> syncMode,
       final long downloaderChangeTargetThresholdByHeight,
@@ -69,10 +83,15 @@ public class SynchronizerConfiguration {
       final long trailingPeerBlocksBehindThreshold,
       final int maxTrailingPeers,
       final int downloaderParallelism,
+      final int downloaderMaxActiveChunks,
       final int transactionsParallelism) {
     this.requestedSyncMode = requestedSyncMode;
     this.fastSyncPivotDistance = fastSyncPivotDistance;
     this.fastSyncFullValidationRate = fastSyncFullValidationRate;
+    this.fastSyncMinimumPeerCount = fastSyncMinimumPeerCount;
+    this.worldStateHashCountPerRequest = worldStateHashCountPerRequest;
+    this.worldStateRequestParallelism = worldStateRequestParallelism;
+    this.worldStateMaxRequestsWithoutProgress = worldStateMaxRequestsWithoutProgress;
     this.blockPropagationRange = blockPropagationRange;
     this.syncMode = syncMode;
     this.downloaderChangeTargetThresholdByHeight = downloaderChangeTargetThresholdByHeight;
@@ -84,6 +103,7 @@ public class SynchronizerConfiguration {
     this.trailingPeerBlocksBehindThreshold = trailingPeerBlocksBehindThreshold;
     this.maxTrailingPeers = maxTrailingPeers;
     this.downloaderParallelism = downloaderParallelism;
+    this.downloaderMaxActiveChunks = downloaderMaxActiveChunks;
     this.transactionsParallelism = transactionsParallelism;
   }
 
@@ -115,6 +135,10 @@ public class SynchronizerConfiguration {
         requestedSyncMode,
         fastSyncPivotDistance,
         fastSyncFullValidationRate,
+        fastSyncMinimumPeerCount,
+        worldStateHashCountPerRequest,
+        worldStateRequestParallelism,
+        worldStateMaxRequestsWithoutProgress,
         blockPropagationRange,
         Optional.of(actualSyncMode),
         downloaderChangeTargetThresholdByHeight,
@@ -126,6 +150,7 @@ public class SynchronizerConfiguration {
         trailingPeerBlocksBehindThreshold,
         maxTrailingPeers,
         downloaderParallelism,
+        downloaderMaxActiveChunks,
         transactionsParallelism);
   }
 
@@ -207,6 +232,16 @@ public class SynchronizerConfiguration {
     return downloaderParallelism;
   }
 
+  /**
+   * The number of chunks of a chain segment that may be downloaded or waiting to be imported at
+   * once. Bodies are downloaded for all of them concurrently, from as many peers as have them.
+   *
+   * @return the maximum number of chunks in flight.
+   */
+  public int downloaderMaxActiveChunks() {
+    return downloaderMaxActiveChunks;
+  }
+
   public int transactionsParallelism() {
     return transactionsParallelism;
   }
@@ -222,9 +257,37 @@ public class SynchronizerConfiguration {
     return fastSyncFullValidationRate;
   }
 
+  /** @return the number of peers to wait for before selecting a fast sync pivot block. */
+  public int fastSyncMinimumPeerCount() {
+    return fastSyncMinimumPeerCount;
+  }
+
+  public int worldStateHashCountPerRequest() {
+    return worldStateHashCountPerRequest;
+  }
+
+  public int worldStateRequestParallelism() {
+    return worldStateRequestParallelism;
+  }
+
+  /**
+   * The number of consecutive node data requests which may return nothing before the world state
+   * download is considered stalled and a new pivot block is selected.
+   *
+   * @return the maximum number of requests without progress.
+   */
+  public int worldStateMaxRequestsWithoutProgress() {
+    return worldStateMaxRequestsWithoutProgress;
+  }
+
   public static class Builder {
     private int fastSyncPivotDistance = DEFAULT_PIVOT_DISTANCE_FROM_HEAD;
     private float fastSyncFullValidationRate = DEFAULT_FULL_VALIDATION_RATE;
+    private int fastSyncMinimumPeerCount = DEFAULT_FAST_SYNC_MINIMUM_PEERS;
+    private int worldStateHashCountPerRequest = DEFAULT_WORLD_STATE_HASH_COUNT_PER_REQUEST;
+    private int worldStateRequestParallelism = DEFAULT_WORLD_STATE_REQUEST_PARALLELISM;
+    private int worldStateMaxRequestsWithoutProgress =
+        DEFAULT_WORLD_STATE_MAX_REQUESTS_WITHOUT_PROGRESS;
     private SyncMode syncMode = SyncMode.FULL;
     private Range<Long> blockPropagationRange = Range.closed(-10L, 30L);
     private long downloaderChangeTargetThresholdByHeight = 20L;
@@ -236,6 +299,7 @@ public class SynchronizerConfiguration {
     private long trailingPeerBlocksBehindThreshold;
     private int maxTrailingPeers = Integer.MAX_VALUE;
     private int downloaderParallelism = 2;
+    private int downloaderMaxActiveChunks = DEFAULT_DOWNLOADER_MAX_ACTIVE_CHUNKS;
     private int transactionsParallelism = 2;
 
     public Builder fastSyncPivotDistance(final int distance) {
@@ -248,6 +312,27 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder fastSyncMinimumPeerCount(final int fastSyncMinimumPeerCount) {
+      this.fastSyncMinimumPeerCount = fastSyncMinimumPeerCount;
+      return this;
+    }
+
+    public Builder worldStateHashCountPerRequest(final int worldStateHashCountPerRequest) {
+      this.worldStateHashCountPerRequest = worldStateHashCountPerRequest;
+      return this;
+    }
+
+    public Builder worldStateRequestParallelism(final int worldStateRequestParallelism) {
+      this.worldStateRequestParallelism = worldStateRequestParallelism;
+      return this;
+    }
+
+    public Builder worldStateMaxRequestsWithoutProgress(
+        final int worldStateMaxRequestsWithoutProgress) {
+      this.worldStateMaxRequestsWithoutProgress = worldStateMaxRequestsWithoutProgress;
+      return this;
+    }
+
     public Builder syncMode(final SyncMode mode) {
       this.syncMode = mode;
       return this;
@@ -308,6 +393,11 @@ public class SynchronizerConfiguration {
       return this;
     }
 
+    public Builder downloaderMaxActiveChunks(final int downloaderMaxActiveChunks) {
+      this.downloaderMaxActiveChunks = downloaderMaxActiveChunks;
+      return this;
+    }
+
     public Builder transactionsParallelism(final int transactionsParallelism) {
       this.transactionsParallelism = transactionsParallelism;
       return this;
@@ -318,6 +408,10 @@ public class SynchronizerConfiguration {
           syncMode,
           fastSyncPivotDistance,
           fastSyncFullValidationRate,
+          fastSyncMinimumPeerCount,
+          worldStateHashCountPerRequest,
+          worldStateRequestParallelism,
+          worldStateMaxRequestsWithoutProgress,
           blockPropagationRange,
           Optional.empty(),
           downloaderChangeTargetThresholdByHeight,
@@ -329,6 +423,7 @@ public class SynchronizerConfiguration {
           trailingPeerBlocksBehindThreshold,
           maxTrailingPeers,
           downloaderParallelism,
+          downloaderMaxActiveChunks,
           transactionsParallelism);
     }
   }
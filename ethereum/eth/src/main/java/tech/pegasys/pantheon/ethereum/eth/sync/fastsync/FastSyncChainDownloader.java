@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.fastsync;
+
+import tech.pegasys.pantheon.ethereum.ProtocolContext;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockImporter;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.eth.manager.AbstractPeerTask.PeerTaskResult;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.CompleteBlocksTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.DownloadHeaderSequenceTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.GetHeadersFromPeerByNumberTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.GetReceiptsForHeadersTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.exceptions.InvalidBlockException;
+import tech.pegasys.pantheon.ethereum.mainnet.HeaderValidationMode;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Imports the chain up to the fast sync pivot block without executing transactions. Blocks are
+ * stored together with the receipts downloaded from peers, which are checked against each block's
+ * receipts root.
+ *
+ * @param <C> the consensus algorithm context
+ */
+public class FastSyncChainDownloader<C> {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final SynchronizerConfiguration config;
+  private final ProtocolSchedule<C> protocolSchedule;
+  private final ProtocolContext<C> protocolContext;
+  private final EthContext ethContext;
+  private final LabelledMetric<OperationTimer> ethTasksTimer;
+
+  public FastSyncChainDownloader(
+      final SynchronizerConfiguration config,
+      final ProtocolSchedule<C> protocolSchedule,
+      final ProtocolContext<C> protocolContext,
+      final EthContext ethContext,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    this.config = config;
+    this.protocolSchedule = protocolSchedule;
+    this.protocolContext = protocolContext;
+    this.ethContext = ethContext;
+    this.ethTasksTimer = ethTasksTimer;
+  }
+
+  /**
+   * Imports blocks from the current chain head up to and including the pivot block.
+   *
+   * @param pivotBlockHeader The header of the block to stop at.
+   * @return A future which completes once the pivot block is the chain head.
+   */
+  public CompletableFuture<Void> downloadToPivot(final BlockHeader pivotBlockHeader) {
+    final BlockHeader chainHead = protocolContext.getBlockchain().getChainHeadHeader();
+    if (chainHead.getNumber() >= pivotBlockHeader.getNumber()) {
+      LOG.info("Completed importing chain to pivot block {}.", pivotBlockHeader.getNumber());
+      return CompletableFuture.completedFuture(null);
+    }
+
+    final long segmentEnd =
+        Math.min(
+            chainHead.getNumber() + config.downloaderChainSegmentSize(),
+            pivotBlockHeader.getNumber());
+    final CompletableFuture<BlockHeader> segmentEndHeader =
+        segmentEnd == pivotBlockHeader.getNumber()
+            ? CompletableFuture.completedFuture(pivotBlockHeader)
+            : downloadHeader(segmentEnd);
+    return segmentEndHeader
+        .thenCompose(lastHeader -> downloadHeaders(chainHead, lastHeader))
+        .thenCompose(this::downloadBlocks)
+        .thenCompose(blocks -> downloadReceiptsAndImport(blocks, pivotBlockHeader))
+        .thenCompose(ignore -> downloadToPivot(pivotBlockHeader));
+  }
+
+  private CompletableFuture<BlockHeader> downloadHeader(final long blockNumber) {
+    return GetHeadersFromPeerByNumberTask.forSingleNumber(
+            protocolSchedule, ethContext, blockNumber, ethTasksTimer)
+        .run()
+        .thenApply(PeerTaskResult::getResult)
+        .thenApply(
+            headers -> {
+              if (headers.isEmpty()) {
+                throw new IllegalStateException("Peer returned no header for " + blockNumber);
+              }
+              return headers.get(0);
+            });
+  }
+
+  private CompletableFuture<List<BlockHeader>> downloadHeaders(
+      final BlockHeader chainHead, final BlockHeader lastHeader) {
+    final int segmentLength = Math.toIntExact(lastHeader.getNumber() - chainHead.getNumber() - 1);
+    final CompletableFuture<List<BlockHeader>> headers =
+        segmentLength == 0
+            ? CompletableFuture.completedFuture(new ArrayList<>())
+            : DownloadHeaderSequenceTask.endingAtHeader(
+                    protocolSchedule,
+                    protocolContext,
+                    ethContext,
+                    lastHeader,
+                    segmentLength,
+                    ethTasksTimer)
+                .run();
+    return headers.thenApply(
+        downloadedHeaders -> {
+          final List<BlockHeader> segment = new ArrayList<>(downloadedHeaders);
+          segment.add(lastHeader);
+          final BlockHeader firstHeader = segment.get(0);
+          if (!firstHeader.getParentHash().equals(chainHead.getHash())) {
+            throw new InvalidBlockException(
+                "Downloaded headers do not connect to chain head",
+                firstHeader.getNumber(),
+                firstHeader.getHash());
+          }
+          return segment;
+        });
+  }
+
+  private CompletableFuture<List<Block>> downloadBlocks(final List<BlockHeader> headers) {
+    LOG.debug(
+        "Downloading bodies {} to {}",
+        headers.get(0).getNumber(),
+        headers.get(headers.size() - 1).getNumber());
+    return CompleteBlocksTask.forHeaders(protocolSchedule, ethContext, headers, ethTasksTimer)
+        .run();
+  }
+
+  private CompletableFuture<Void> downloadReceiptsAndImport(
+      final List<Block> blocks, final BlockHeader pivotBlockHeader) {
+    final List<BlockHeader> headers = new ArrayList<>(blocks.size());
+    blocks.forEach(block -> headers.add(block.getHeader()));
+    return GetReceiptsForHeadersTask.forHeaders(ethContext, headers, ethTasksTimer)
+        .run()
+        .thenCompose(
+            receipts ->
+                ethContext
+                    .getScheduler()
+                    .scheduleSyncWorkerTask(
+                        () -> importBlocks(blocks, receipts, pivotBlockHeader)));
+  }
+
+  private CompletableFuture<Void> importBlocks(
+      final List<Block> blocks,
+      final List<List<TransactionReceipt>> receipts,
+      final BlockHeader pivotBlockHeader) {
+    final CompletableFuture<Void> result = new CompletableFuture<>();
+    for (int i = 0; i < blocks.size(); i++) {
+      final Block block = blocks.get(i);
+      final BlockHeader header = block.getHeader();
+      final BlockImporter<C> blockImporter =
+          protocolSchedule.getByBlockNumber(header.getNumber()).getBlockImporter();
+      final HeaderValidationMode validationMode = headerValidationMode(header, pivotBlockHeader);
+      if (!blockImporter.fastImportBlock(protocolContext, block, receipts.get(i), validationMode)) {
+        result.completeExceptionally(
+            new InvalidBlockException(
+                "Failed to import block", header.getNumber(), header.getHash()));
+        return result;
+      }
+    }
+    LOG.debug(
+        "Imported blocks {} to {} without execution.",
+        blocks.get(0).getHeader().getNumber(),
+        blocks.get(blocks.size() - 1).getHeader().getNumber());
+    result.complete(null);
+    return result;
+  }
+
+  private HeaderValidationMode headerValidationMode(
+      final BlockHeader header, final BlockHeader pivotBlockHeader) {
+    // Proof of work is only checked for a sample of blocks, but always for the pivot block
+    if (header.getNumber() == pivotBlockHeader.getNumber()
+        || ThreadLocalRandom.current().nextFloat() < config.fastSyncFullValidationRate()) {
+      return HeaderValidationMode.FULL;
+    }
+    return HeaderValidationMode.LIGHT;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.fastsync;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.eth.manager.AbstractPeerTask.PeerTaskResult;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.eth.sync.state.FastSyncState;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.GetHeadersFromPeerByNumberTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.WaitForPeersTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.worldstate.StalledDownloadException;
+import tech.pegasys.pantheon.ethereum.eth.sync.worldstate.WorldStateDownloader;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.mainnet.ScheduleBasedBlockHashFunction;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.util.ExceptionUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Drives a fast sync: selects a pivot block some distance behind the best peer, downloads the
+ * world state at that block and then imports the chain up to it without executing transactions.
+ * Failures are retried; if peers stop serving the world state of the pivot block a new pivot is
+ * selected, reusing the nodes downloaded so far.
+ *
+ * @param <C> the consensus algorithm context
+ */
+public class FastSyncDownloader<C> {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final SynchronizerConfiguration syncConfig;
+  private final ProtocolSchedule<C> protocolSchedule;
+  private final EthContext ethContext;
+  private final WorldStateDownloader worldStateDownloader;
+  private final FastSyncChainDownloader<C> chainDownloader;
+  private final FastSyncStateStorage fastSyncStateStorage;
+  private final LabelledMetric<OperationTimer> ethTasksTimer;
+
+  public FastSyncDownloader(
+      final SynchronizerConfiguration syncConfig,
+      final ProtocolSchedule<C> protocolSchedule,
+      final EthContext ethContext,
+      final WorldStateDownloader worldStateDownloader,
+      final FastSyncChainDownloader<C> chainDownloader,
+      final FastSyncStateStorage fastSyncStateStorage,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    this.syncConfig = syncConfig;
+    this.protocolSchedule = protocolSchedule;
+    this.ethContext = ethContext;
+    this.worldStateDownloader = worldStateDownloader;
+    this.chainDownloader = chainDownloader;
+    this.fastSyncStateStorage = fastSyncStateStorage;
+    this.ethTasksTimer = ethTasksTimer;
+  }
+
+  /**
+   * Runs fast sync until the chain has been imported up to the pivot block.
+   *
+   * @return A future which completes with the pivot block header once fast sync is complete.
+   */
+  public CompletableFuture<BlockHeader> start() {
+    final CompletableFuture<BlockHeader> result = new CompletableFuture<>();
+    attemptFastSync(result);
+    return result;
+  }
+
+  private void attemptFastSync(final CompletableFuture<BlockHeader> result) {
+    loadOrSelectPivotBlock()
+        .thenCompose(
+            pivotBlockHeader ->
+                worldStateDownloader
+                    .run(pivotBlockHeader)
+                    .thenCompose(ignore -> chainDownloader.downloadToPivot(pivotBlockHeader))
+                    .thenApply(ignore -> pivotBlockHeader))
+        .whenComplete(
+            (pivotBlockHeader, error) -> {
+              if (error == null) {
+                LOG.info("Fast sync completed at block {}.", pivotBlockHeader.getNumber());
+                result.complete(pivotBlockHeader);
+                return;
+              }
+              final Throwable rootCause = ExceptionUtils.rootCause(error);
+              if (rootCause instanceof StalledDownloadException) {
+                LOG.info("World state download stalled, selecting a new pivot block.");
+                fastSyncStateStorage.clearPivotBlockHeader();
+              } else {
+                LOG.warn("Fast sync failed, retrying: {}", rootCause.getMessage());
+              }
+              ethContext
+                  .getScheduler()
+                  .scheduleFutureTask(() -> attemptFastSync(result), Duration.ofSeconds(5));
+            });
+  }
+
+  private CompletableFuture<BlockHeader> loadOrSelectPivotBlock() {
+    final Optional<BlockHeader> storedPivotBlockHeader =
+        fastSyncStateStorage.loadPivotBlockHeader(
+            ScheduleBasedBlockHashFunction.create(protocolSchedule));
+    if (storedPivotBlockHeader.isPresent()) {
+      LOG.info("Resuming fast sync to pivot block {}.", storedPivotBlockHeader.get().getNumber());
+      return CompletableFuture.completedFuture(storedPivotBlockHeader.get());
+    }
+    return waitForSuitablePeers()
+        .thenCompose(ignore -> selectPivotBlock())
+        .thenApply(
+            pivotBlockHeader -> {
+              fastSyncStateStorage.storePivotBlockHeader(pivotBlockHeader);
+              return pivotBlockHeader;
+            });
+  }
+
+  private CompletableFuture<Void> waitForSuitablePeers() {
+    LOG.info("Waiting for at least {} peers.", syncConfig.fastSyncMinimumPeerCount());
+    return WaitForPeersTask.create(ethContext, syncConfig.fastSyncMinimumPeerCount(), ethTasksTimer)
+        .run();
+  }
+
+  private CompletableFuture<BlockHeader> selectPivotBlock() {
+    final Optional<EthPeer> maybeBestPeer = ethContext.getEthPeers().bestPeer();
+    if (!maybeBestPeer.isPresent()) {
+      return failed(new IllegalStateException("No peers available to select a pivot block"));
+    }
+
+    final EthPeer bestPeer = maybeBestPeer.get();
+    final FastSyncState fastSyncState = new FastSyncState(syncConfig);
+    fastSyncState.setFastSyncChainTarget(bestPeer.chainState().getEstimatedHeight());
+    final long pivotBlockNumber = fastSyncState.pivot();
+    if (pivotBlockNumber <= 0) {
+      return failed(
+          new IllegalStateException("Best peer's chain is too short to select a pivot block"));
+    }
+
+    LOG.info("Selecting block {} as fast sync pivot block.", pivotBlockNumber);
+    return GetHeadersFromPeerByNumberTask.forSingleNumber(
+            protocolSchedule, ethContext, pivotBlockNumber, ethTasksTimer)
+        .assignPeer(bestPeer)
+        .run()
+        .thenApply(PeerTaskResult::getResult)
+        .thenCompose(
+            headers -> {
+              if (headers.isEmpty()) {
+                return failed(
+                    new IllegalStateException("Peer did not return the pivot block header"));
+              }
+              return CompletableFuture.completedFuture(headers.get(0));
+            });
+  }
+
+  private static <T> CompletableFuture<T> failed(final Throwable error) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(error);
+    return future;
+  }
+}
@@ -23,6 +23,7 @@ import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.NoAvailablePeersException;
 import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.PeerBreachedProtocolException;
 import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.PeerDisconnectedException;
+import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.OperationTimer;
@@ -40,7 +41,9 @@ import org.apache.logging.log4j.Logger;
 
 /**
  * Given a set of headers, "completes" them by repeatedly requesting additional data (bodies) needed
- * to create the blocks that correspond to the supplied headers.
+ * to create the blocks that correspond to the supplied headers. Unless a peer is assigned, each
+ * round of requests is split between the idle peers with the blocks, and the bodies still missing
+ * afterwards are requested again in the next round, possibly from other peers.
  *
  * @param <C> the consensus algorithm context
  */
@@ -111,25 +114,43 @@ public class CompleteBlocksTask<C> extends AbstractRetryingPeerTask<List<Block>>
     return this;
   }
 
-  private CompletableFuture<PeerTaskResult<List<Block>>> requestBodies() {
+  private CompletableFuture<List<Block>> requestBodies() {
     final List<BlockHeader> incompleteHeaders = incompleteHeaders();
     LOG.debug(
         "Requesting bodies to complete {} blocks, starting with {}.",
         incompleteHeaders.size(),
         incompleteHeaders.get(0).getNumber());
+    if (assignedPeer.isPresent()) {
+      return requestBodies(assignedPeer, incompleteHeaders);
+    }
+
+    final long lastNumber = incompleteHeaders.get(incompleteHeaders.size() - 1).getNumber();
+    final List<EthPeer> peers =
+        ethContext.getEthPeers().idlePeers(lastNumber, EthPV62.GET_BLOCK_BODIES);
+    if (peers.size() < 2) {
+      return requestBodies(Optional.empty(), incompleteHeaders);
+    }
+    return SplitPeerRequests.request(
+            peers, incompleteHeaders, (peer, part) -> requestBodies(Optional.of(peer), part))
+        .thenApply(
+            responses -> responses.stream().flatMap(List::stream).collect(Collectors.toList()));
+  }
+
+  private CompletableFuture<List<Block>> requestBodies(
+      final Optional<EthPeer> peer, final List<BlockHeader> headers) {
     return executeSubTask(
-        () -> {
-          final GetBodiesFromPeerTask<C> task =
-              GetBodiesFromPeerTask.forHeaders(
-                  protocolSchedule, ethContext, incompleteHeaders, ethTasksTimer);
-          assignedPeer.ifPresent(task::assignPeer);
-          return task.run();
-        });
+            () -> {
+              final GetBodiesFromPeerTask<C> task =
+                  GetBodiesFromPeerTask.forHeaders(
+                      protocolSchedule, ethContext, headers, ethTasksTimer);
+              peer.ifPresent(task::assignPeer);
+              return task.run();
+            })
+        .thenApply(PeerTaskResult::getResult);
   }
 
-  private CompletableFuture<List<Block>> processBodiesResult(
-      final PeerTaskResult<List<Block>> blocksResult) {
-    blocksResult.getResult().forEach((block) -> blocks.put(block.getHeader().getNumber(), block));
+  private CompletableFuture<List<Block>> processBodiesResult(final List<Block> blocksResult) {
+    blocksResult.forEach((block) -> blocks.put(block.getHeader().getNumber(), block));
 
     if (incompleteHeaders().size() == 0) {
       result
@@ -138,7 +159,7 @@ public class CompleteBlocksTask<C> extends AbstractRetryingPeerTask<List<Block>>
               headers.stream().map(h -> blocks.get(h.getNumber())).collect(Collectors.toList()));
     }
 
-    return CompletableFuture.completedFuture(blocksResult.getResult());
+    return CompletableFuture.completedFuture(blocksResult);
   }
 
   private List<BlockHeader> incompleteHeaders() {
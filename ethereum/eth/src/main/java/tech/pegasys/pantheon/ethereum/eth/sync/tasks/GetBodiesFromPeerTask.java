@@ -86,8 +86,12 @@ public class GetBodiesFromPeerTask<C> extends AbstractPeerRequestTask<List<Block
 
   @Override
   protected ResponseStream sendRequest(final EthPeer peer) throws PeerNotConnected {
+    // Only ask for as many bodies as the peer can be expected to return promptly, the rest are
+    // requested again, possibly from other peers.
+    final int requestSize =
+        peer.performance().requestSize(EthPV62.GET_BLOCK_BODIES, headers.size());
     final List<Hash> blockHashes =
-        headers.stream().map(BlockHeader::getHash).collect(Collectors.toList());
+        headers.stream().limit(requestSize).map(BlockHeader::getHash).collect(Collectors.toList());
     LOG.debug("Requesting {} bodies from peer {}.", blockHashes.size(), peer);
     return peer.getBodies(blockHashes);
   }
@@ -128,7 +132,9 @@ public class GetBodiesFromPeerTask<C> extends AbstractPeerRequestTask<List<Block
 
   @Override
   protected Optional<EthPeer> findSuitablePeer() {
-    return this.ethContext.getEthPeers().idlePeer(headers.get(headers.size() - 1).getNumber());
+    return this.ethContext
+        .getEthPeers()
+        .idlePeer(headers.get(headers.size() - 1).getNumber(), EthPV62.GET_BLOCK_BODIES);
   }
 
   private static class BodyIdentifier {
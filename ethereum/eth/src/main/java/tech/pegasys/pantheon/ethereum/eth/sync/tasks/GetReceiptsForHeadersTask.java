@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.tasks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.eth.manager.AbstractPeerTask.PeerTaskResult;
+import tech.pegasys.pantheon.ethereum.eth.manager.AbstractRetryingPeerTask;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.NoAvailablePeersException;
+import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.PeerBreachedProtocolException;
+import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.PeerDisconnectedException;
+import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Given a set of headers, repeatedly requests the receipts for those headers until all have been
+ * retrieved. The receipts are returned in the same order as the headers. Each round of requests is
+ * split between the idle peers with the blocks.
+ */
+public class GetReceiptsForHeadersTask
+    extends AbstractRetryingPeerTask<List<List<TransactionReceipt>>> {
+  private static final Logger LOG = LogManager.getLogger();
+  private static final int DEFAULT_RETRIES = 3;
+
+  private final EthContext ethContext;
+  private final LabelledMetric<OperationTimer> ethTasksTimer;
+
+  private final List<BlockHeader> headers;
+  private final Map<BlockHeader, List<TransactionReceipt>> receipts = new HashMap<>();
+
+  private GetReceiptsForHeadersTask(
+      final EthContext ethContext,
+      final List<BlockHeader> headers,
+      final int maxRetries,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    super(ethContext, maxRetries, ethTasksTimer);
+    checkArgument(headers.size() > 0, "Must supply a non-empty headers list");
+    this.ethContext = ethContext;
+    this.ethTasksTimer = ethTasksTimer;
+    this.headers = headers;
+
+    // Blocks without transactions have no receipts to request
+    headers
+        .stream()
+        .filter(header -> header.getReceiptsRoot().equals(Hash.EMPTY_TRIE_HASH))
+        .forEach(header -> receipts.put(header, Collections.emptyList()));
+  }
+
+  public static GetReceiptsForHeadersTask forHeaders(
+      final EthContext ethContext,
+      final List<BlockHeader> headers,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    return new GetReceiptsForHeadersTask(ethContext, headers, DEFAULT_RETRIES, ethTasksTimer);
+  }
+
+  @Override
+  protected CompletableFuture<List<List<TransactionReceipt>>> executePeerTask() {
+    final List<BlockHeader> incompleteHeaders = incompleteHeaders();
+    if (incompleteHeaders.isEmpty()) {
+      result.get().complete(completedReceipts());
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    LOG.debug(
+        "Requesting receipts to complete {} blocks, starting with {}.",
+        incompleteHeaders.size(),
+        incompleteHeaders.get(0).getNumber());
+    final long lastNumber = incompleteHeaders.get(incompleteHeaders.size() - 1).getNumber();
+    final List<EthPeer> peers =
+        ethContext.getEthPeers().idlePeers(lastNumber, EthPV63.GET_RECEIPTS);
+    if (peers.size() < 2) {
+      return requestReceipts(Optional.empty(), incompleteHeaders)
+          .thenApply(this::processReceiptsResult);
+    }
+    return SplitPeerRequests.request(
+            peers, incompleteHeaders, (peer, part) -> requestReceipts(Optional.of(peer), part))
+        .thenApply(
+            responses -> {
+              final Map<BlockHeader, List<TransactionReceipt>> combined = new HashMap<>();
+              responses.forEach(combined::putAll);
+              return combined;
+            })
+        .thenApply(this::processReceiptsResult);
+  }
+
+  private CompletableFuture<Map<BlockHeader, List<TransactionReceipt>>> requestReceipts(
+      final Optional<EthPeer> peer, final List<BlockHeader> headers) {
+    return executeSubTask(
+            () -> {
+              final GetReceiptsFromPeerTask task =
+                  GetReceiptsFromPeerTask.forHeaders(ethContext, headers, ethTasksTimer);
+              peer.ifPresent(task::assignPeer);
+              return task.run();
+            })
+        .thenApply(PeerTaskResult::getResult);
+  }
+
+  @Override
+  protected boolean isRetryableError(final Throwable error) {
+    return error instanceof TimeoutException
+        || error instanceof PeerBreachedProtocolException
+        || error instanceof PeerDisconnectedException
+        || error instanceof NoAvailablePeersException;
+  }
+
+  private List<List<TransactionReceipt>> processReceiptsResult(
+      final Map<BlockHeader, List<TransactionReceipt>> receiptsResult) {
+    receipts.putAll(receiptsResult);
+
+    if (incompleteHeaders().isEmpty()) {
+      result.get().complete(completedReceipts());
+    }
+
+    return new ArrayList<>(receiptsResult.values());
+  }
+
+  private List<List<TransactionReceipt>> completedReceipts() {
+    return headers.stream().map(receipts::get).collect(Collectors.toList());
+  }
+
+  private List<BlockHeader> incompleteHeaders() {
+    return headers
+        .stream()
+        .filter(header -> !receipts.containsKey(header))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.tasks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.eth.manager.AbstractPeerRequestTask;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.RequestManager.ResponseStream;
+import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
+import tech.pegasys.pantheon.ethereum.eth.messages.ReceiptsMessage;
+import tech.pegasys.pantheon.ethereum.mainnet.BodyValidation;
+import tech.pegasys.pantheon.ethereum.p2p.api.MessageData;
+import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection.PeerNotConnected;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Requests receipts from a peer by header and matches them up to the headers using each header's
+ * receipts root.
+ */
+public class GetReceiptsFromPeerTask
+    extends AbstractPeerRequestTask<Map<BlockHeader, List<TransactionReceipt>>> {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final List<BlockHeader> headers;
+  private final Map<Hash, List<BlockHeader>> headersByReceiptsRoot = new HashMap<>();
+
+  private GetReceiptsFromPeerTask(
+      final EthContext ethContext,
+      final List<BlockHeader> headers,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    super(ethContext, EthPV63.GET_RECEIPTS, ethTasksTimer);
+    checkArgument(headers.size() > 0, "Must supply a non-empty headers list");
+    this.headers = headers;
+    headers.forEach(
+        header ->
+            headersByReceiptsRoot
+                .computeIfAbsent(header.getReceiptsRoot(), root -> new ArrayList<>())
+                .add(header));
+  }
+
+  public static GetReceiptsFromPeerTask forHeaders(
+      final EthContext ethContext,
+      final List<BlockHeader> headers,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    return new GetReceiptsFromPeerTask(ethContext, headers, ethTasksTimer);
+  }
+
+  @Override
+  protected ResponseStream sendRequest(final EthPeer peer) throws PeerNotConnected {
+    // Only ask for as many receipts as the peer can be expected to return promptly, the rest are
+    // requested again, possibly from other peers.
+    final int requestSize = peer.performance().requestSize(EthPV63.GET_RECEIPTS, headers.size());
+    final List<Hash> blockHashes =
+        headers.stream().limit(requestSize).map(BlockHeader::getHash).collect(Collectors.toList());
+    LOG.debug("Requesting {} receipts from peer {}.", blockHashes.size(), peer);
+    return peer.getReceipts(blockHashes);
+  }
+
+  @Override
+  protected Optional<Map<BlockHeader, List<TransactionReceipt>>> processResponse(
+      final boolean streamClosed, final MessageData message, final EthPeer peer) {
+    if (streamClosed) {
+      // All outstanding requests have been responded to and we still haven't found the response
+      // we wanted. It must have been empty or contain data that didn't match.
+      peer.recordUselessResponse();
+      return Optional.of(Collections.emptyMap());
+    }
+
+    final List<List<TransactionReceipt>> receiptsByBlock =
+        ReceiptsMessage.readFrom(message).receipts();
+    if (receiptsByBlock.isEmpty() || receiptsByBlock.size() > headers.size()) {
+      // Message doesn't match our request - nothing to do
+      return Optional.empty();
+    }
+
+    final Map<BlockHeader, List<TransactionReceipt>> receiptsByHeader = new HashMap<>();
+    for (final List<TransactionReceipt> receipts : receiptsByBlock) {
+      final List<BlockHeader> blockHeaders =
+          headersByReceiptsRoot.get(BodyValidation.receiptsRoot(receipts));
+      if (blockHeaders == null) {
+        // This message contains unrelated receipts - exit
+        return Optional.empty();
+      }
+      blockHeaders.forEach(header -> receiptsByHeader.put(header, receipts));
+    }
+    return Optional.of(receiptsByHeader);
+  }
+
+  @Override
+  protected Optional<EthPeer> findSuitablePeer() {
+    return ethContext
+        .getEthPeers()
+        .idlePeer(headers.get(headers.size() - 1).getNumber(), EthPV63.GET_RECEIPTS);
+  }
+}
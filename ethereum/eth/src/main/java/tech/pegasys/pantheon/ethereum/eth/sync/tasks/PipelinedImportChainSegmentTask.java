@@ -58,8 +58,6 @@ public class PipelinedImportChainSegmentTask<C> extends AbstractEthTask<List<Blo
 
   private final Deque<CompletableFuture<List<BlockHeader>>> downloadAndValidateHeadersTasks =
       new ConcurrentLinkedDeque<>();
-  private final Deque<CompletableFuture<List<Block>>> downloadBodiesTasks =
-      new ConcurrentLinkedDeque<>();
   private final Deque<CompletableFuture<List<Block>>> extractTransactionSendersTasks =
       new ConcurrentLinkedDeque<>();
   private final Deque<CompletableFuture<List<Block>>> validateAndImportBlocksTasks =
@@ -135,10 +133,10 @@ public class PipelinedImportChainSegmentTask<C> extends AbstractEthTask<List<Blo
         lastDownloadAndValidateHeadersTask()
             .thenCompose((ignore) -> downloadNextHeaders(firstChunkHeader, lastChunkHeader))
             .thenCompose(this::validateHeaders);
+    // Bodies are downloaded for all active chunks at once, while later stages run in chunk order.
+    // A chunk only leaves the window once imported, so a slow import holds back the downloads.
     final CompletableFuture<List<Block>> downloadBodiesTask =
-        downloadAndValidateHeadersTask
-            .thenCombine(lastDownloadBodiesTask(), (headers, ignored) -> headers)
-            .thenCompose(this::downloadBlocks);
+        downloadAndValidateHeadersTask.thenCompose(this::downloadBlocks);
     final CompletableFuture<List<Block>> extractTransactionSendersTask =
         downloadBodiesTask
             .thenCombine(lastExtractTransactionSendersTasks(), (blocks, ignored) -> blocks)
@@ -150,7 +148,6 @@ public class PipelinedImportChainSegmentTask<C> extends AbstractEthTask<List<Blo
     validateAndImportBlocksTask.whenComplete(this::completeChunkPipelineAndMaybeLaunchNextOne);
 
     downloadAndValidateHeadersTasks.addLast(downloadAndValidateHeadersTask);
-    downloadBodiesTasks.addLast(downloadBodiesTask);
     extractTransactionSendersTasks.addLast(extractTransactionSendersTask);
     validateAndImportBlocksTasks.addLast(validateAndImportBlocksTask);
     chunksIssued++;
@@ -184,7 +181,6 @@ public class PipelinedImportChainSegmentTask<C> extends AbstractEthTask<List<Blo
         result.get().complete(importedBlocks);
       } else {
         downloadAndValidateHeadersTasks.removeFirst();
-        downloadBodiesTasks.removeFirst();
         extractTransactionSendersTasks.removeFirst();
         validateAndImportBlocksTasks.removeFirst();
         if (chunksIssued < chunksInTotal) {
@@ -313,14 +309,6 @@ public class PipelinedImportChainSegmentTask<C> extends AbstractEthTask<List<Blo
     }
   }
 
-  private CompletableFuture<List<Block>> lastDownloadBodiesTask() {
-    if (downloadBodiesTasks.isEmpty()) {
-      return CompletableFuture.completedFuture(Lists.newArrayList());
-    } else {
-      return downloadBodiesTasks.getLast();
-    }
-  }
-
   private CompletableFuture<List<Block>> lastValidateAndImportBlocksTasks() {
     if (validateAndImportBlocksTasks.isEmpty()) {
       return CompletableFuture.completedFuture(Lists.newArrayList());
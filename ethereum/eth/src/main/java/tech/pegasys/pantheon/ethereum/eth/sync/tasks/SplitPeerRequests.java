@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.tasks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import com.google.common.collect.Lists;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Splits the data wanted for a range of headers (bodies, receipts) between several peers and
+ * requests each part concurrently, so a download isn't limited by the bandwidth of a single peer.
+ */
+class SplitPeerRequests {
+  private static final Logger LOG = LogManager.getLogger();
+  // Smaller requests aren't worth the overhead of another round trip.
+  private static final int MIN_HEADERS_PER_REQUEST = 8;
+
+  private SplitPeerRequests() {}
+
+  /**
+   * Requests the data for the given headers, split evenly between as many of the given peers as is
+   * worthwhile. A failed request only loses its own part, which the caller should request again.
+   *
+   * @param peers The peers to request from, fastest first.
+   * @param headers The headers to request the data for.
+   * @param request Sends a request for some of the headers to a peer.
+   * @param <R> The type of the responses.
+   * @return The responses received, completing exceptionally if every request failed.
+   */
+  static <R> CompletableFuture<List<R>> request(
+      final List<EthPeer> peers,
+      final List<BlockHeader> headers,
+      final BiFunction<EthPeer, List<BlockHeader>, CompletableFuture<R>> request) {
+    checkArgument(!peers.isEmpty(), "Must supply at least one peer");
+    final int maxRequests =
+        (headers.size() + MIN_HEADERS_PER_REQUEST - 1) / MIN_HEADERS_PER_REQUEST;
+    final int requestCount = Math.max(1, Math.min(peers.size(), maxRequests));
+    final int requestSize = (headers.size() + requestCount - 1) / requestCount;
+
+    final List<CompletableFuture<R>> requests = new ArrayList<>();
+    final List<List<BlockHeader>> parts = Lists.partition(headers, requestSize);
+    for (int i = 0; i < parts.size(); i++) {
+      requests.add(request.apply(peers.get(i), parts.get(i)));
+    }
+
+    final CompletableFuture<List<R>> result = new CompletableFuture<>();
+    CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0]))
+        .whenComplete(
+            (ignored, error) -> {
+              final List<R> responses = new ArrayList<>();
+              requests
+                  .stream()
+                  .filter(r -> !r.isCompletedExceptionally())
+                  .forEach(r -> responses.add(r.join()));
+              if (responses.isEmpty() && error != null) {
+                result.completeExceptionally(error);
+              } else {
+                if (error != null) {
+                  LOG.debug(
+                      "{} of {} requests failed: {}",
+                      requests.size() - responses.size(),
+                      requests.size(),
+                      error.getMessage());
+                }
+                result.complete(responses);
+              }
+            });
+    return result;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage.Updater;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+class AccountTrieNodeDataRequest extends TrieNodeDataRequest {
+
+  AccountTrieNodeDataRequest(final Hash hash) {
+    super(RequestType.ACCOUNT_TRIE_NODE, hash);
+  }
+
+  @Override
+  public Optional<BytesValue> getExistingData(final WorldStateStorage worldStateStorage) {
+    return worldStateStorage.getAccountStateTrieNode(getHash());
+  }
+
+  @Override
+  protected void doPersist(final Updater updater) {
+    updater.putAccountStateTrieNode(getHash(), getData());
+  }
+
+  @Override
+  protected NodeDataRequest createChildNodeDataRequest(final Hash childHash) {
+    return NodeDataRequest.createAccountDataRequest(childHash);
+  }
+
+  @Override
+  protected Stream<NodeDataRequest> getRequestsFromTrieNodeValue(final BytesValue value) {
+    // Account values are encoded as (nonce, balance, storageRoot, codeHash)
+    final RLPInput in = RLP.input(value);
+    in.enterList();
+    in.skipNext();
+    in.skipNext();
+    final Hash storageRoot = Hash.wrap(in.readBytes32());
+    final Hash codeHash = Hash.wrap(in.readBytes32());
+    in.leaveList();
+
+    final Stream.Builder<NodeDataRequest> builder = Stream.builder();
+    if (!storageRoot.equals(Hash.EMPTY_TRIE_HASH)) {
+      builder.add(NodeDataRequest.createStorageDataRequest(storageRoot));
+    }
+    if (!codeHash.equals(Hash.EMPTY)) {
+      builder.add(NodeDataRequest.createCodeRequest(codeHash));
+    }
+    return builder.build();
+  }
+}
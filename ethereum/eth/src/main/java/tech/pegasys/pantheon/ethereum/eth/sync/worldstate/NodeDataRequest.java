@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A request for a single piece of world state data, identified by its hash. Requests are
+ * serializable so that pending requests can be held in a persistent queue rather than in memory.
+ */
+public abstract class NodeDataRequest {
+
+  private final RequestType requestType;
+  private final Hash hash;
+  private BytesValue data;
+
+  protected NodeDataRequest(final RequestType requestType, final Hash hash) {
+    this.requestType = requestType;
+    this.hash = hash;
+  }
+
+  public static NodeDataRequest createAccountDataRequest(final Hash hash) {
+    return new AccountTrieNodeDataRequest(hash);
+  }
+
+  public static NodeDataRequest createStorageDataRequest(final Hash hash) {
+    return new StorageTrieNodeDataRequest(hash);
+  }
+
+  public static NodeDataRequest createCodeRequest(final Hash hash) {
+    return new CodeNodeDataRequest(hash);
+  }
+
+  public static BytesValue serialize(final NodeDataRequest request) {
+    return RLP.encode(
+        out -> {
+          out.startList();
+          out.writeIntScalar(request.getRequestType().getValue());
+          out.writeBytesValue(request.getHash());
+          out.endList();
+        });
+  }
+
+  public static NodeDataRequest deserialize(final BytesValue encoded) {
+    final RLPInput in = RLP.input(encoded);
+    in.enterList();
+    final RequestType requestType = RequestType.fromValue(in.readIntScalar());
+    final Hash hash = Hash.wrap(in.readBytes32());
+    in.leaveList();
+
+    switch (requestType) {
+      case ACCOUNT_TRIE_NODE:
+        return createAccountDataRequest(hash);
+      case STORAGE_TRIE_NODE:
+        return createStorageDataRequest(hash);
+      case CODE:
+        return createCodeRequest(hash);
+      default:
+        throw new IllegalArgumentException(
+            "Unable to deserialize provided data into a valid "
+                + NodeDataRequest.class.getSimpleName());
+    }
+  }
+
+  public RequestType getRequestType() {
+    return requestType;
+  }
+
+  public Hash getHash() {
+    return hash;
+  }
+
+  public BytesValue getData() {
+    return data;
+  }
+
+  public NodeDataRequest setData(final BytesValue data) {
+    this.data = data;
+    return this;
+  }
+
+  /**
+   * Looks up the requested data in local storage, such as when resuming an interrupted download.
+   *
+   * @param worldStateStorage The storage to check.
+   * @return The data held locally for this request, if any.
+   */
+  public abstract Optional<BytesValue> getExistingData(WorldStateStorage worldStateStorage);
+
+  /**
+   * Writes the data received for this request.
+   *
+   * @param updater The updater to write the data to.
+   */
+  public final void persist(final WorldStateStorage.Updater updater) {
+    checkNotNull(data, "Must set data before node can be persisted.");
+    doPersist(updater);
+  }
+
+  /** @return Requests for the data referenced by this request's data. */
+  public abstract Stream<NodeDataRequest> getChildRequests();
+
+  protected abstract void doPersist(WorldStateStorage.Updater updater);
+}
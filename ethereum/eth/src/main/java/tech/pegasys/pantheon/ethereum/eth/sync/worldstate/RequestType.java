@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
+
+public enum RequestType {
+  ACCOUNT_TRIE_NODE(0),
+  STORAGE_TRIE_NODE(1),
+  CODE(2);
+
+  private final int value;
+
+  RequestType(final int value) {
+    this.value = value;
+  }
+
+  public int getValue() {
+    return value;
+  }
+
+  public static RequestType fromValue(final int value) {
+    for (final RequestType requestType : values()) {
+      if (requestType.value == value) {
+        return requestType;
+      }
+    }
+    throw new IllegalArgumentException("Invalid request type value: " + value);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeDecoder;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+abstract class TrieNodeDataRequest extends NodeDataRequest {
+
+  TrieNodeDataRequest(final RequestType requestType, final Hash hash) {
+    super(requestType, hash);
+  }
+
+  @Override
+  public Stream<NodeDataRequest> getChildRequests() {
+    if (getData() == null) {
+      // If this node hasn't been downloaded yet, we can't return any child data
+      return Stream.empty();
+    }
+
+    final List<NodeDataRequest> requests = new ArrayList<>();
+    TrieNodeDecoder.decodeNode(
+        getData(),
+        childHash -> requests.add(createChildNodeDataRequest(Hash.wrap(childHash))),
+        value -> getRequestsFromTrieNodeValue(value).forEach(requests::add));
+    return requests.stream();
+  }
+
+  protected abstract NodeDataRequest createChildNodeDataRequest(Hash childHash);
+
+  protected abstract Stream<NodeDataRequest> getRequestsFromTrieNodeValue(BytesValue value);
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.GetNodeDataFromPeerTask;
+import tech.pegasys.pantheon.ethereum.eth.sync.tasks.WaitForPeerTask;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorageQueue;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Downloads the world state for a block by walking its account and storage tries breadth-first,
+ * requesting nodes by hash from many peers in parallel.
+ *
+ * <p>Pending requests are held in a {@link KeyValueStorageQueue} so the breadth of the trie never
+ * has to fit in memory. Every node is persisted as soon as it arrives, except for the state root
+ * which is persisted last. The presence of the root node therefore means the whole world state is
+ * available. An interrupted download restarts from the root, reading nodes which are already
+ * stored locally instead of requesting them again.
+ */
+public class WorldStateDownloader {
+  private static final Logger LOG = LogManager.getLogger();
+  private static final long PROGRESS_LOG_INTERVAL = 100_000;
+
+  private enum Status {
+    IDLE,
+    RUNNING,
+    DONE
+  }
+
+  private final EthContext ethContext;
+  private final WorldStateStorage worldStateStorage;
+  private final KeyValueStorageQueue pendingRequests;
+  private final int hashCountPerRequest;
+  private final int maxOutstandingRequests;
+  private final int maxRequestsWithoutProgress;
+  private final LabelledMetric<OperationTimer> ethTasksTimer;
+
+  private final AtomicBoolean waitingForPeer = new AtomicBoolean(false);
+  private volatile Status status = Status.IDLE;
+  private CompletableFuture<Void> future;
+  private Hash stateRoot;
+  private BytesValue rootNode;
+  private int outstandingRequests;
+  private int requestsWithoutProgress;
+  private long nodesDownloaded;
+
+  public WorldStateDownloader(
+      final EthContext ethContext,
+      final WorldStateStorage worldStateStorage,
+      final KeyValueStorageQueue pendingRequests,
+      final int hashCountPerRequest,
+      final int maxOutstandingRequests,
+      final int maxRequestsWithoutProgress,
+      final LabelledMetric<OperationTimer> ethTasksTimer) {
+    this.ethContext = ethContext;
+    this.worldStateStorage = worldStateStorage;
+    this.pendingRequests = pendingRequests;
+    this.hashCountPerRequest = hashCountPerRequest;
+    this.maxOutstandingRequests = maxOutstandingRequests;
+    this.maxRequestsWithoutProgress = maxRequestsWithoutProgress;
+    this.ethTasksTimer = ethTasksTimer;
+  }
+
+  /**
+   * Downloads the world state of the given block.
+   *
+   * @param header The header of the block whose world state should be downloaded.
+   * @return A future which completes once the whole world state has been persisted.
+   */
+  public synchronized CompletableFuture<Void> run(final BlockHeader header) {
+    if (status == Status.RUNNING) {
+      final CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(
+          new IllegalStateException("Cannot run an already running world state downloader"));
+      return failed;
+    }
+
+    stateRoot = header.getStateRoot();
+    if (worldStateStorage.getAccountStateTrieNode(stateRoot).isPresent()) {
+      LOG.info("World state for block {} is already available.", header.getNumber());
+      return CompletableFuture.completedFuture(null);
+    }
+
+    LOG.info(
+        "Downloading world state for block {} with state root {}.", header.getNumber(), stateRoot);
+    status = Status.RUNNING;
+    future = new CompletableFuture<>();
+    rootNode = null;
+    requestsWithoutProgress = 0;
+    nodesDownloaded = 0;
+    // Nodes already stored locally are revisited from the root, so any leftover queue is redundant
+    pendingRequests.clear();
+    pendingRequests.enqueue(
+        NodeDataRequest.serialize(NodeDataRequest.createAccountDataRequest(stateRoot)));
+
+    ethContext.getScheduler().scheduleSyncWorkerTask(this::requestNodeData);
+    return future;
+  }
+
+  private synchronized void requestNodeData() {
+    while (status == Status.RUNNING
+        && outstandingRequests < maxOutstandingRequests
+        && !pendingRequests.isEmpty()) {
+      final Optional<EthPeer> maybePeer = ethContext.getEthPeers().idlePeer();
+      if (!maybePeer.isPresent()) {
+        if (outstandingRequests == 0) {
+          waitForNewPeer();
+        }
+        return;
+      }
+
+      final List<NodeDataRequest> requests = new ArrayList<>();
+      final List<BytesValue> childRequests = new ArrayList<>();
+      for (final BytesValue encoded : pendingRequests.dequeue(hashCountPerRequest)) {
+        final NodeDataRequest request = NodeDataRequest.deserialize(encoded);
+        final Optional<BytesValue> existingData = request.getExistingData(worldStateStorage);
+        if (existingData.isPresent()) {
+          // Stored by an earlier run, but its children may still be missing
+          request.setData(existingData.get());
+          request.getChildRequests().map(NodeDataRequest::serialize).forEach(childRequests::add);
+        } else {
+          requests.add(request);
+        }
+      }
+      pendingRequests.enqueueAll(childRequests);
+
+      if (!requests.isEmpty()) {
+        outstandingRequests++;
+        sendRequest(maybePeer.get(), requests);
+      }
+    }
+
+    if (status == Status.RUNNING && outstandingRequests == 0 && pendingRequests.isEmpty()) {
+      markDone();
+    }
+  }
+
+  private void sendRequest(final EthPeer peer, final List<NodeDataRequest> requests) {
+    final List<Hash> hashes =
+        requests.stream().map(NodeDataRequest::getHash).distinct().collect(Collectors.toList());
+    GetNodeDataFromPeerTask.forHashes(ethContext, hashes, ethTasksTimer)
+        .assignPeer(peer)
+        .run()
+        .whenComplete(
+            (result, error) -> {
+              final Map<Hash, BytesValue> nodeData =
+                  result != null ? result.getResult() : Collections.emptyMap();
+              ethContext
+                  .getScheduler()
+                  .scheduleSyncWorkerTask(() -> handleResponse(requests, nodeData));
+            });
+  }
+
+  private synchronized void handleResponse(
+      final List<NodeDataRequest> requests, final Map<Hash, BytesValue> nodeData) {
+    outstandingRequests--;
+    if (status != Status.RUNNING) {
+      return;
+    }
+
+    if (nodeData.isEmpty()) {
+      requestsWithoutProgress++;
+      if (requestsWithoutProgress > maxRequestsWithoutProgress) {
+        fail(
+            new StalledDownloadException(
+                "Unable to download world state for "
+                    + stateRoot
+                    + " after "
+                    + requestsWithoutProgress
+                    + " requests without progress"));
+        return;
+      }
+    } else {
+      requestsWithoutProgress = 0;
+    }
+
+    final List<BytesValue> toQueue = new ArrayList<>();
+    final WorldStateStorage.Updater updater = worldStateStorage.updater();
+    for (final NodeDataRequest request : requests) {
+      final BytesValue data = nodeData.get(request.getHash());
+      if (data == null) {
+        // Not returned by this peer, try again later
+        toQueue.add(NodeDataRequest.serialize(request));
+        continue;
+      }
+      request.setData(data);
+      if (isRootRequest(request)) {
+        rootNode = data;
+      } else {
+        request.persist(updater);
+      }
+      request.getChildRequests().map(NodeDataRequest::serialize).forEach(toQueue::add);
+    }
+    pendingRequests.enqueueAll(toQueue);
+    updater.commit();
+
+    final long previouslyDownloaded = nodesDownloaded;
+    nodesDownloaded += nodeData.size();
+    if (nodesDownloaded / PROGRESS_LOG_INTERVAL != previouslyDownloaded / PROGRESS_LOG_INTERVAL) {
+      LOG.info(
+          "Downloaded {} world state nodes, {} requests pending.",
+          nodesDownloaded,
+          pendingRequests.size());
+    }
+
+    requestNodeData();
+  }
+
+  private boolean isRootRequest(final NodeDataRequest request) {
+    return request.getRequestType() == RequestType.ACCOUNT_TRIE_NODE
+        && request.getHash().equals(stateRoot);
+  }
+
+  private void waitForNewPeer() {
+    if (!waitingForPeer.compareAndSet(false, true)) {
+      return;
+    }
+    LOG.debug("No idle peers available for world state download, wait for peer.");
+    ethContext
+        .getScheduler()
+        .timeout(WaitForPeerTask.create(ethContext, ethTasksTimer), Duration.ofSeconds(5))
+        .whenComplete(
+            (result, error) -> {
+              waitingForPeer.set(false);
+              requestNodeData();
+            });
+  }
+
+  private void markDone() {
+    if (rootNode != null) {
+      final WorldStateStorage.Updater updater = worldStateStorage.updater();
+      updater.putAccountStateTrieNode(stateRoot, rootNode);
+      updater.commit();
+    }
+    LOG.info("Completed world state download for state root {}.", stateRoot);
+    status = Status.DONE;
+    future.complete(null);
+  }
+
+  private void fail(final Throwable error) {
+    LOG.info("World state download failed: {}", error.getMessage());
+    status = Status.DONE;
+    future.completeExceptionally(error);
+  }
+}
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.eth.transactions;
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.core.PendingTransactions;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
@@ -24,7 +25,8 @@ public class TransactionPoolFactory {
   public static TransactionPool createTransactionPool(
       final ProtocolSchedule<?> protocolSchedule,
       final ProtocolContext<?> protocolContext,
-      final EthContext ethContext) {
+      final EthContext ethContext,
+      final TransactionSenderRecovery transactionSenderRecovery) {
     final PendingTransactions pendingTransactions =
         new PendingTransactions(PendingTransactions.MAX_PENDING_TRANSACTIONS);
 
@@ -42,7 +44,8 @@ public class TransactionPoolFactory {
     final TransactionsMessageHandler transactionsMessageHandler =
         new TransactionsMessageHandler(
             ethContext.getScheduler(),
-            new TransactionsMessageProcessor(transactionTracker, transactionPool));
+            new TransactionsMessageProcessor(
+                transactionTracker, transactionPool, transactionSenderRecovery));
 
     ethContext.getEthMessages().subscribe(EthPV62.TRANSACTIONS, transactionsMessageHandler);
     protocolContext.getBlockchain().observeBlockAdded(transactionPool);
@@ -31,8 +31,10 @@ import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
-import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
 import tech.pegasys.pantheon.ethereum.eth.EthProtocol.EthVersion;
+import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
 import tech.pegasys.pantheon.ethereum.eth.manager.MockPeerConnection.PeerSendHandler;
 import tech.pegasys.pantheon.ethereum.eth.manager.ethtaskutils.BlockchainSetupUtil;
 import tech.pegasys.pantheon.ethereum.eth.messages.BlockBodiesMessage;
@@ -41,8 +43,10 @@ import tech.pegasys.pantheon.ethereum.eth.messages.EthPV62;
 import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockBodiesMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockHeadersMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.GetNodeDataMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetReceiptsMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.NewBlockMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.NodeDataMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.ReceiptsMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.StatusMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
@@ -54,6 +58,7 @@ import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.wire.Capability;
 import tech.pegasys.pantheon.ethereum.p2p.wire.DefaultMessage;
 import tech.pegasys.pantheon.ethereum.p2p.wire.RawMessage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
@@ -82,6 +87,7 @@ public final class EthProtocolManagerTest {
   private static ProtocolSchedule<Void> protocolSchedule;
   private static BlockDataGenerator gen;
   private static ProtocolContext<Void> protocolContext;
+  private static WorldStateArchive worldStateArchive;
 
   @BeforeClass
   public static void setup() {
@@ -91,12 +97,14 @@ public final class EthProtocolManagerTest {
     blockchain = blockchainSetupUtil.getBlockchain();
     protocolSchedule = blockchainSetupUtil.getProtocolSchedule();
     protocolContext = blockchainSetupUtil.getProtocolContext();
+    worldStateArchive = protocolContext.getWorldStateArchive();
     assert (blockchainSetupUtil.getMaxBlockNumber() >= 20L);
   }
 
   @Test
   public void disconnectOnUnsolicitedMessage() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer = setupPeer(ethManager, (cap, msg, conn) -> {});
@@ -107,7 +115,8 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void disconnectOnFailureToSendStatusMessage() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer =
@@ -119,7 +128,8 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void disconnectOnWrongChainId() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer =
@@ -142,7 +152,8 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void disconnectOnWrongGenesisHash() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final MessageData messageData =
           BlockHeadersMessage.create(Collections.singletonList(blockchain.getBlockHeader(1).get()));
       final MockPeerConnection peer =
@@ -165,7 +176,8 @@ public final class EthProtocolManagerTest {
 
   @Test(expected = ConditionTimeoutException.class)
   public void doNotDisconnectOnValidMessage() {
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final MessageData messageData =
           GetBlockBodiesMessage.create(Collections.singletonList(gen.hash()));
       final MockPeerConnection peer = setupPeer(ethManager, (cap, msg, conn) -> {});
@@ -180,7 +192,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeaders() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long startBlock = 5L;
       final int blockCount = 5;
       final MessageData messageData =
@@ -212,7 +225,7 @@ public final class EthProtocolManagerTest {
     final CompletableFuture<Void> done = new CompletableFuture<>();
     final int limit = 5;
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, 1, limit)) {
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1, limit)) {
       final long startBlock = 5L;
       final int blockCount = 10;
       final MessageData messageData =
@@ -242,7 +255,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersReversed() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long endBlock = 10L;
       final int blockCount = 5;
       final MessageData messageData = GetBlockHeadersMessage.create(endBlock, blockCount, 0, true);
@@ -271,7 +285,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersWithSkip() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long startBlock = 5L;
       final int blockCount = 5;
       final int skip = 1;
@@ -303,7 +318,8 @@ public final class EthProtocolManagerTest {
   public void respondToGetHeadersReversedWithSkip()
       throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long endBlock = 10L;
       final int blockCount = 5;
       final int skip = 1;
@@ -356,7 +372,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersPartial() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long startBlock = blockchain.getChainHeadBlockNumber() - 1L;
       final int blockCount = 5;
       final MessageData messageData =
@@ -386,7 +403,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetHeadersEmpty() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long startBlock = blockchain.getChainHeadBlockNumber() + 1;
       final int blockCount = 5;
       final MessageData messageData =
@@ -413,7 +431,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetBodies() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       // Setup blocks query
       final long startBlock = blockchain.getChainHeadBlockNumber() - 5;
       final int blockCount = 2;
@@ -457,7 +476,7 @@ public final class EthProtocolManagerTest {
     final CompletableFuture<Void> done = new CompletableFuture<>();
     final int limit = 5;
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, 1, limit)) {
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1, limit)) {
       // Setup blocks query
       final int blockCount = 10;
       final long startBlock = blockchain.getChainHeadBlockNumber() - blockCount;
@@ -499,7 +518,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetBodiesPartial() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       // Setup blocks query
       final long expectedBlockNumber = blockchain.getChainHeadBlockNumber() - 1;
       final BlockHeader header = blockchain.getBlockHeader(expectedBlockNumber).get();
@@ -535,7 +555,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetReceipts() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       // Setup blocks query
       final long startBlock = blockchain.getChainHeadBlockNumber() - 5;
       final int blockCount = 2;
@@ -573,12 +594,51 @@ public final class EthProtocolManagerTest {
     }
   }
 
+  @Test
+  public void respondToGetNodeData() throws ExecutionException, InterruptedException {
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
+      // Setup node data query, including a hash which isn't held locally
+      final long startBlock = blockchain.getChainHeadBlockNumber() - 5;
+      final int blockCount = 2;
+      final List<BytesValue> expectedNodeData = new ArrayList<>(blockCount);
+      final List<Hash> nodeHashes = new ArrayList<>(blockCount + 1);
+      for (int i = 0; i < blockCount; i++) {
+        final BlockHeader header = blockchain.getBlockHeader(startBlock + i).get();
+        expectedNodeData.add(worldStateArchive.getNodeData(header.getStateRoot()).get());
+        nodeHashes.add(header.getStateRoot());
+      }
+      nodeHashes.add(gen.hash());
+      final MessageData messageData = GetNodeDataMessage.create(nodeHashes);
+
+      // Define handler to validate response
+      final PeerSendHandler onSend =
+          (cap, message, conn) -> {
+            if (message.getCode() == EthPV62.STATUS) {
+              // Ignore status message
+              return;
+            }
+            assertThat(message.getCode()).isEqualTo(EthPV63.NODE_DATA);
+            final NodeDataMessage nodeDataMessage = NodeDataMessage.readFrom(message);
+            final List<BytesValue> nodeData = Lists.newArrayList(nodeDataMessage.nodeData());
+            assertThat(nodeData).isEqualTo(expectedNodeData);
+            done.complete(null);
+          };
+
+      // Run test
+      final PeerConnection peer = setupPeer(ethManager, onSend);
+      ethManager.processMessage(EthProtocol.ETH63, new DefaultMessage(peer, messageData));
+      done.get();
+    }
+  }
+
   @Test
   public void respondToGetReceiptsWithinLimits() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
     final int limit = 5;
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, 1, limit)) {
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1, limit)) {
       // Setup blocks query
       final int blockCount = 10;
       final long startBlock = blockchain.getChainHeadBlockNumber() - blockCount;
@@ -619,7 +679,8 @@ public final class EthProtocolManagerTest {
   @Test
   public void respondToGetReceiptsPartial() throws ExecutionException, InterruptedException {
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       // Setup blocks query
       final long blockNumber = blockchain.getChainHeadBlockNumber() - 5;
       final BlockHeader header = blockchain.getBlockHeader(blockNumber).get();
@@ -654,7 +715,8 @@ public final class EthProtocolManagerTest {
 
   @Test
   public void newBlockMinedSendsNewBlockMessageToAllPeers() {
-    final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1);
+    final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1);
 
     // Define handler to validate response
     final PeerSendHandler onSend = mock(PeerSendHandler.class);
@@ -716,7 +778,8 @@ public final class EthProtocolManagerTest {
     blockchain.appendBlock(block, receipts);
 
     final CompletableFuture<Void> done = new CompletableFuture<>();
-    try (final EthProtocolManager ethManager = new EthProtocolManager(blockchain, 1, true, 1, 1)) {
+    try (final EthProtocolManager ethManager =
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, 1)) {
       final long startBlock = 1L;
       final int requestedBlockCount = 13;
       final int receivedBlockCount = 2;
@@ -772,12 +835,15 @@ public final class EthProtocolManagerTest {
     final TransactionsMessage transactionMessage = TransactionsMessage.readFrom(raw);
 
     try (final EthProtocolManager ethManager =
-        new EthProtocolManager(blockchain, 1, true, 1, ethScheduler)) {
+        new EthProtocolManager(blockchain, worldStateArchive, 1, true, 1, ethScheduler)) {
 
       // Create a transaction pool.  This has a side effect of registring a listener for the
       // transactions message.
       TransactionPoolFactory.createTransactionPool(
-          protocolSchedule, protocolContext, ethManager.ethContext());
+          protocolSchedule,
+          protocolContext,
+          ethManager.ethContext(),
+          mock(TransactionSenderRecovery.class));
 
       // Send just a transaction message.
       final PeerConnection peer = setupPeer(ethManager, (cap, msg, connection) -> {});
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static tech.pegasys.pantheon.ethereum.eth.messages.EthPV62.GET_BLOCK_BODIES;
+import static tech.pegasys.pantheon.ethereum.eth.messages.EthPV62.GET_BLOCK_HEADERS;
+
+import org.junit.Test;
+
+public class PeerPerformanceTest {
+
+  private final PeerPerformance performance = new PeerPerformance();
+
+  @Test
+  public void shouldRequestAllItemsBeforeFirstResponse() {
+    assertThat(performance.requestSize(GET_BLOCK_BODIES, 128)).isEqualTo(128);
+  }
+
+  @Test
+  public void shouldSizeRequestsToPeerThroughput() {
+    performance.recordResponse(GET_BLOCK_BODIES, 32, 1000, 2000);
+
+    assertThat(performance.requestSize(GET_BLOCK_BODIES, 128)).isEqualTo(16);
+    assertThat(performance.requestSize(GET_BLOCK_BODIES, 10)).isEqualTo(10);
+    assertThat(performance.bytesPerSecond(GET_BLOCK_BODIES)).isEqualTo(500);
+    assertThat(performance.latencyMillis(GET_BLOCK_BODIES)).isEqualTo(2000);
+  }
+
+  @Test
+  public void shouldHalveRequestSizeOnFailure() {
+    performance.recordResponse(GET_BLOCK_BODIES, 32, 1000, 2000);
+    performance.recordFailure(GET_BLOCK_BODIES);
+
+    assertThat(performance.requestSize(GET_BLOCK_BODIES, 128)).isEqualTo(8);
+    assertThat(performance.failureRate(GET_BLOCK_BODIES)).isGreaterThan(0);
+  }
+
+  @Test
+  public void shouldTrackRequestTypesSeparately() {
+    performance.recordResponse(GET_BLOCK_BODIES, 32, 1000, 2000);
+
+    assertThat(performance.requestSize(GET_BLOCK_HEADERS, 128)).isEqualTo(128);
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0)).isZero();
+  }
+
+  @Test
+  public void shouldExpectFasterResponsesFromLowerLatencyPeers() {
+    final PeerPerformance slowPeer = new PeerPerformance();
+    slowPeer.recordResponse(GET_BLOCK_HEADERS, 10, 1000, 500);
+    performance.recordResponse(GET_BLOCK_HEADERS, 10, 1000, 100);
+
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0))
+        .isLessThan(slowPeer.expectedResponseMillis(GET_BLOCK_HEADERS, 0));
+    // Outstanding requests delay new ones.
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 5))
+        .isGreaterThan(slowPeer.expectedResponseMillis(GET_BLOCK_HEADERS, 0));
+  }
+
+  @Test
+  public void shouldTryPeersThatOnlyFailedAfterRespondingPeers() {
+    final PeerPerformance respondingPeer = new PeerPerformance();
+    respondingPeer.recordResponse(GET_BLOCK_HEADERS, 10, 1000, 500);
+    performance.recordFailure(GET_BLOCK_HEADERS);
+
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0))
+        .isGreaterThan(respondingPeer.expectedResponseMillis(GET_BLOCK_HEADERS, 0));
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0))
+        .isLessThan(Double.MAX_VALUE);
+  }
+
+  @Test
+  public void shouldExpectSlowerResponsesFromPeersThatFailMoreOften() {
+    final PeerPerformance unreliablePeer = new PeerPerformance();
+    performance.recordFailure(GET_BLOCK_HEADERS);
+    for (int i = 0; i < 3; i++) {
+      unreliablePeer.recordFailure(GET_BLOCK_HEADERS);
+    }
+
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0))
+        .isLessThan(unreliablePeer.expectedResponseMillis(GET_BLOCK_HEADERS, 0));
+  }
+
+  @Test
+  public void shouldRecoverFromFailuresOnceThePeerResponds() {
+    for (int i = 0; i < 3; i++) {
+      performance.recordFailure(GET_BLOCK_HEADERS);
+    }
+    final double expectedAfterFailures = performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0);
+
+    for (int i = 0; i < 3; i++) {
+      performance.recordResponse(GET_BLOCK_HEADERS, 10, 1000, 1000);
+    }
+
+    assertThat(performance.expectedResponseMillis(GET_BLOCK_HEADERS, 0))
+        .isLessThan(expectedAfterFailures);
+  }
+}
@@ -83,7 +83,8 @@ public abstract class AbstractMessageTaskTest<T, R> {
   @Test
   public void completesWhenPeersAreResponsive() throws ExecutionException, InterruptedException {
     // Setup a responsive peer
-    final Responder responder = RespondingEthPeer.blockchainResponder(blockchain);
+    final Responder responder =
+        RespondingEthPeer.blockchainResponder(blockchain, protocolContext.getWorldStateArchive());
     final RespondingEthPeer respondingPeer =
         EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
 
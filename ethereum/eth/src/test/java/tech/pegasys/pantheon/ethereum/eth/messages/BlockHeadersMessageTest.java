@@ -28,6 +28,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import com.google.common.io.Resources;
 import org.assertj.core.api.Assertions;
@@ -63,4 +64,27 @@ public final class BlockHeadersMessageTest {
       Assertions.assertThat(readHeaders.next()).isEqualTo(headers.get(i));
     }
   }
+
+  @Test
+  public void createUnsafeMatchesCreate() throws IOException {
+    final List<BlockHeader> headers = new ArrayList<>();
+    final ByteBuffer buffer =
+        ByteBuffer.wrap(Resources.toByteArray(Resources.getResource("50.blocks")));
+    for (int i = 0; i < 50; ++i) {
+      final int blockSize = RLP.calculateSize(BytesValue.wrapBuffer(buffer));
+      final byte[] block = new byte[blockSize];
+      buffer.get(block);
+      buffer.compact().position(0);
+      final RLPInput oneBlock = new BytesValueRLPInput(BytesValue.wrap(block), false);
+      oneBlock.enterList();
+      headers.add(BlockHeader.readFrom(oneBlock, MainnetBlockHashFunction::createHash));
+    }
+    final List<BytesValue> headerRlps =
+        headers.stream().map(header -> RLP.encode(header::writeTo)).collect(Collectors.toList());
+
+    final MessageData message = BlockHeadersMessage.createUnsafe(headerRlps);
+
+    Assertions.assertThat(message.getData())
+        .isEqualTo(BlockHeadersMessage.create(headers).getData());
+  }
 }
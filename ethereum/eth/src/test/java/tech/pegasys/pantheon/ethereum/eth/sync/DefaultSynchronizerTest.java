@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import tech.pegasys.pantheon.ethereum.eth.manager.ethtaskutils.BlockchainSetupUtil;
+import tech.pegasys.pantheon.ethereum.eth.sync.fastsync.FastSyncStateStorage;
+import tech.pegasys.pantheon.ethereum.eth.sync.state.SyncState;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.nio.file.Path;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DefaultSynchronizerTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private BlockchainSetupUtil<Void> blockchainSetup;
+  private MutableBlockchain blockchain;
+  private Path dataDirectory;
+  private Path fastSyncDataDirectory;
+
+  @Before
+  public void setUp() {
+    blockchainSetup = BlockchainSetupUtil.forTesting();
+    blockchain = blockchainSetup.getBlockchain();
+    dataDirectory = folder.getRoot().toPath();
+    fastSyncDataDirectory = dataDirectory.resolve("fastsync");
+  }
+
+  @Test
+  public void shouldNotFastSyncWhenRestartingSyncedNodeInFastMode() {
+    blockchainSetup.importFirstBlocks(5);
+
+    createSynchronizer(SyncMode.FAST);
+
+    assertThat(fastSyncDataDirectory).doesNotExist();
+  }
+
+  @Test
+  public void shouldFastSyncFromGenesisInFastMode() {
+    createSynchronizer(SyncMode.FAST);
+
+    assertThat(fastSyncDataDirectory.resolve("queue")).isDirectory();
+  }
+
+  @Test
+  public void shouldResumeFastSyncWhenPivotIsStored() {
+    blockchainSetup.importFirstBlocks(5);
+    new FastSyncStateStorage(fastSyncDataDirectory)
+        .storePivotBlockHeader(blockchainSetup.getBlock(10).getHeader());
+
+    createSynchronizer(SyncMode.FAST);
+
+    assertThat(fastSyncDataDirectory.resolve("queue")).isDirectory();
+  }
+
+  private DefaultSynchronizer<Void> createSynchronizer(final SyncMode syncMode) {
+    final EthContext ethContext = EthProtocolManagerTestUtil.create(blockchain).ethContext();
+    final SynchronizerConfiguration syncConfig =
+        SynchronizerConfiguration.builder().syncMode(syncMode).build().validated(blockchain);
+    return new DefaultSynchronizer<>(
+        syncConfig,
+        blockchainSetup.getProtocolSchedule(),
+        blockchainSetup.getProtocolContext(),
+        dataDirectory,
+        ethContext,
+        new SyncState(blockchain, ethContext.getEthPeers()),
+        new TransactionSenderRecovery(MoreExecutors.newDirectExecutorService()),
+        NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.fastsync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.ProtocolContext;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManager;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer.Responder;
+import tech.pegasys.pantheon.ethereum.eth.manager.ethtaskutils.BlockchainSetupUtil;
+import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FastSyncChainDownloaderTest {
+
+  private final SynchronizerConfiguration syncConfig =
+      SynchronizerConfiguration.builder().downloaderChainSegmentSize(5).build();
+
+  private Blockchain otherBlockchain;
+  private Responder responder;
+  private MutableBlockchain localBlockchain;
+  private ProtocolContext<Void> protocolContext;
+  private ProtocolSchedule<Void> protocolSchedule;
+  private EthProtocolManager ethProtocolManager;
+  private FastSyncChainDownloader<Void> downloader;
+
+  @Before
+  public void setUp() {
+    final BlockchainSetupUtil<Void> otherBlockchainSetup = BlockchainSetupUtil.forTesting();
+    otherBlockchain = otherBlockchainSetup.importAllBlocks();
+    responder = RespondingEthPeer.blockchainResponder(otherBlockchain);
+
+    final BlockchainSetupUtil<Void> localBlockchainSetup = BlockchainSetupUtil.forTesting();
+    localBlockchain = localBlockchainSetup.getBlockchain();
+    protocolContext = localBlockchainSetup.getProtocolContext();
+    protocolSchedule = localBlockchainSetup.getProtocolSchedule();
+    ethProtocolManager = EthProtocolManagerTestUtil.create(localBlockchain);
+    downloader =
+        new FastSyncChainDownloader<>(
+            syncConfig,
+            protocolSchedule,
+            protocolContext,
+            ethProtocolManager.ethContext(),
+            NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+  }
+
+  @Test
+  public void importsChainUpToPivotBlock() {
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+    final BlockHeader pivotBlockHeader = otherBlockchain.getBlockHeader(12).get();
+
+    final CompletableFuture<Void> result = downloader.downloadToPivot(pivotBlockHeader);
+    peer.respondWhile(responder, () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertThat(localBlockchain.getChainHeadHeader()).isEqualTo(pivotBlockHeader);
+    for (long i = 1; i <= pivotBlockHeader.getNumber(); i++) {
+      final BlockHeader header = otherBlockchain.getBlockHeader(i).get();
+      assertThat(localBlockchain.getBlockHeader(i)).contains(header);
+      assertThat(localBlockchain.getBlockBody(header.getHash()))
+          .isEqualTo(otherBlockchain.getBlockBody(header.getHash()));
+      assertThat(localBlockchain.getTxReceipts(header.getHash()))
+          .isEqualTo(otherBlockchain.getTxReceipts(header.getHash()));
+    }
+  }
+
+  @Test
+  public void importsBlocksWithoutExecutingTransactions() {
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+    final BlockHeader pivotBlockHeader = otherBlockchain.getBlockHeader(12).get();
+
+    final CompletableFuture<Void> result = downloader.downloadToPivot(pivotBlockHeader);
+    peer.respondWhile(responder, () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertThat(
+            protocolContext
+                .getWorldStateArchive()
+                .getNodeData(pivotBlockHeader.getStateRoot())
+                .isPresent())
+        .isFalse();
+  }
+
+  @Test
+  public void completesImmediatelyWhenChainHeadIsAtPivotBlock() {
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+
+    final CompletableFuture<Void> result =
+        downloader.downloadToPivot(localBlockchain.getChainHeadHeader());
+
+    assertThat(result).isCompleted();
+    assertThat(peer.hasOutstandingRequests()).isFalse();
+  }
+
+  @Test
+  public void failsWhenPeerReturnsNoData() {
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+    final BlockHeader pivotBlockHeader = otherBlockchain.getBlockHeader(12).get();
+
+    final CompletableFuture<Void> result = downloader.downloadToPivot(pivotBlockHeader);
+    peer.respondWhile(RespondingEthPeer.emptyResponder(), () -> !result.isDone());
+
+    assertThat(result).isCompletedExceptionally();
+    assertThat(localBlockchain.getChainHeadBlockNumber()).isEqualTo(0L);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.fastsync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.ProtocolContext;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManager;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer.Responder;
+import tech.pegasys.pantheon.ethereum.eth.manager.ethtaskutils.BlockchainSetupUtil;
+import tech.pegasys.pantheon.ethereum.eth.messages.EthPV63;
+import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.eth.sync.worldstate.WorldStateDownloader;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorageQueue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FastSyncDownloaderTest {
+
+  private static final int PIVOT_DISTANCE = 5;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final SynchronizerConfiguration syncConfig =
+      SynchronizerConfiguration.builder()
+          .fastSyncPivotDistance(PIVOT_DISTANCE)
+          .fastSyncMinimumPeerCount(1)
+          .worldStateMaxRequestsWithoutProgress(3)
+          .downloaderChainSegmentSize(5)
+          .build();
+
+  private Blockchain otherBlockchain;
+  private Responder responder;
+  private MutableBlockchain localBlockchain;
+  private WorldStateStorage localWorldStateStorage;
+  private EthProtocolManager ethProtocolManager;
+  private FastSyncStateStorage fastSyncStateStorage;
+  private FastSyncDownloader<Void> downloader;
+
+  @Before
+  public void setUp() {
+    final BlockchainSetupUtil<Void> otherBlockchainSetup = BlockchainSetupUtil.forTesting();
+    otherBlockchain = otherBlockchainSetup.importAllBlocks();
+    responder =
+        RespondingEthPeer.blockchainResponder(
+            otherBlockchain, otherBlockchainSetup.getWorldArchive());
+
+    final BlockchainSetupUtil<Void> localBlockchainSetup = BlockchainSetupUtil.forTesting();
+    final ProtocolSchedule<Void> protocolSchedule = localBlockchainSetup.getProtocolSchedule();
+    final ProtocolContext<Void> protocolContext = localBlockchainSetup.getProtocolContext();
+    localBlockchain = localBlockchainSetup.getBlockchain();
+    localWorldStateStorage = localBlockchainSetup.getWorldArchive().getStorage();
+    ethProtocolManager = EthProtocolManagerTestUtil.create(localBlockchain);
+    final EthContext ethContext = ethProtocolManager.ethContext();
+
+    fastSyncStateStorage = new FastSyncStateStorage(folder.getRoot().toPath());
+    final WorldStateDownloader worldStateDownloader =
+        new WorldStateDownloader(
+            ethContext,
+            localWorldStateStorage,
+            new KeyValueStorageQueue(new InMemoryKeyValueStorage()),
+            syncConfig.worldStateHashCountPerRequest(),
+            syncConfig.worldStateRequestParallelism(),
+            syncConfig.worldStateMaxRequestsWithoutProgress(),
+            NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+    final FastSyncChainDownloader<Void> chainDownloader =
+        new FastSyncChainDownloader<>(
+            syncConfig,
+            protocolSchedule,
+            protocolContext,
+            ethContext,
+            NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+    downloader =
+        new FastSyncDownloader<>(
+            syncConfig,
+            protocolSchedule,
+            ethContext,
+            worldStateDownloader,
+            chainDownloader,
+            fastSyncStateStorage,
+            NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+  }
+
+  @Test
+  public void syncsWorldStateAndChainToPivotBlock() {
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+    final BlockHeader expectedPivotBlockHeader =
+        otherBlockchain
+            .getBlockHeader(otherBlockchain.getChainHeadBlockNumber() - PIVOT_DISTANCE)
+            .get();
+
+    final CompletableFuture<BlockHeader> result = downloader.start();
+    peer.respondWhile(responder, () -> !result.isDone());
+
+    assertThat(result).isCompletedWithValue(expectedPivotBlockHeader);
+    assertThat(localBlockchain.getChainHeadHeader()).isEqualTo(expectedPivotBlockHeader);
+    assertThat(
+            localWorldStateStorage.getAccountStateTrieNode(
+                expectedPivotBlockHeader.getStateRoot()))
+        .isPresent();
+    assertThat(fastSyncStateStorage.loadPivotBlockHeader(MainnetBlockHashFunction::createHash))
+        .contains(expectedPivotBlockHeader);
+  }
+
+  @Test
+  public void waitsForMinimumNumberOfPeers() {
+    final CompletableFuture<BlockHeader> result = downloader.start();
+    assertThat(result.isDone()).isFalse();
+
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+    peer.respondWhile(responder, () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+  }
+
+  @Test
+  public void resumesWithStoredPivotBlock() {
+    final BlockHeader storedPivotBlockHeader = otherBlockchain.getBlockHeader(10).get();
+    fastSyncStateStorage.storePivotBlockHeader(storedPivotBlockHeader);
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, otherBlockchain);
+
+    final CompletableFuture<BlockHeader> result = downloader.start();
+    peer.respondWhile(responder, () -> !result.isDone());
+
+    assertThat(result).isCompletedWithValue(storedPivotBlockHeader);
+    assertThat(localBlockchain.getChainHeadHeader()).isEqualTo(storedPivotBlockHeader);
+  }
+
+  @Test
+  public void selectsNewPivotBlockWhenWorldStateDownloadStalls() {
+    final long chainHeight = otherBlockchain.getChainHeadBlockNumber();
+    final RespondingEthPeer peer =
+        EthProtocolManagerTestUtil.createPeer(
+            ethProtocolManager, UInt256.of(1000), chainHeight - 2);
+    final BlockHeader firstPivotBlockHeader =
+        otherBlockchain.getBlockHeader(chainHeight - 2 - PIVOT_DISTANCE).get();
+    final BlockHeader secondPivotBlockHeader =
+        otherBlockchain.getBlockHeader(chainHeight - PIVOT_DISTANCE).get();
+
+    final CompletableFuture<BlockHeader> result = downloader.start();
+    // Serve the pivot block header, which starts the world state download
+    peer.respond(responder);
+    assertThat(fastSyncStateStorage.loadPivotBlockHeader(MainnetBlockHashFunction::createHash))
+        .contains(firstPivotBlockHeader);
+
+    // Stop serving world state until the download stalls, by which time the chain has grown
+    peer.getEthPeer().chainState().update(otherBlockchain.getChainHeadHash(), chainHeight);
+    peer.respondWhile(
+        RespondingEthPeer.emptyResponder(),
+        () ->
+            peer.peekNextOutgoingRequest()
+                .map(request -> request.getCode() == EthPV63.GET_NODE_DATA)
+                .orElse(false));
+    assertThat(result.isDone()).isFalse();
+
+    peer.respondWhile(responder, () -> !result.isDone());
+
+    assertThat(result).isCompletedWithValue(secondPivotBlockHeader);
+    assertThat(localBlockchain.getChainHeadHeader()).isEqualTo(secondPivotBlockHeader);
+    assertThat(fastSyncStateStorage.loadPivotBlockHeader(MainnetBlockHashFunction::createHash))
+        .contains(secondPivotBlockHeader);
+  }
+}
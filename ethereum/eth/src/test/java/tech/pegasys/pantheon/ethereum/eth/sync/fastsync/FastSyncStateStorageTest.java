@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.fastsync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHashFunction;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHashFunction;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FastSyncStateStorageTest {
+
+  private static final BlockHashFunction BLOCK_HASH_FUNCTION = MainnetBlockHashFunction::createHash;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final BlockHeader pivotBlockHeader =
+      new BlockHeaderTestFixture().number(100).buildHeader();
+  private FastSyncStateStorage storage;
+
+  @Before
+  public void setUp() {
+    storage = new FastSyncStateStorage(folder.getRoot().toPath().resolve("fastsync"));
+  }
+
+  @Test
+  public void shouldNotBeInProgressBeforePivotIsStored() {
+    assertThat(storage.isFastSyncInProgress()).isFalse();
+    assertThat(storage.loadPivotBlockHeader(BLOCK_HASH_FUNCTION)).isEmpty();
+  }
+
+  @Test
+  public void shouldLoadStoredPivotBlockHeader() {
+    storage.storePivotBlockHeader(pivotBlockHeader);
+
+    assertThat(storage.isFastSyncInProgress()).isTrue();
+    assertThat(storage.loadPivotBlockHeader(BLOCK_HASH_FUNCTION)).contains(pivotBlockHeader);
+  }
+
+  @Test
+  public void shouldLoadPivotBlockHeaderStoredByEarlierInstance() {
+    storage.storePivotBlockHeader(pivotBlockHeader);
+
+    final FastSyncStateStorage reopened =
+        new FastSyncStateStorage(folder.getRoot().toPath().resolve("fastsync"));
+    assertThat(reopened.loadPivotBlockHeader(BLOCK_HASH_FUNCTION)).contains(pivotBlockHeader);
+  }
+
+  @Test
+  public void shouldReplacePreviouslyStoredPivotBlockHeader() {
+    final BlockHeader newPivotBlockHeader = new BlockHeaderTestFixture().number(200).buildHeader();
+    storage.storePivotBlockHeader(pivotBlockHeader);
+    storage.storePivotBlockHeader(newPivotBlockHeader);
+
+    assertThat(storage.loadPivotBlockHeader(BLOCK_HASH_FUNCTION)).contains(newPivotBlockHeader);
+  }
+
+  @Test
+  public void shouldNotBeInProgressOnceCleared() {
+    storage.storePivotBlockHeader(pivotBlockHeader);
+    storage.clearPivotBlockHeader();
+
+    assertThat(storage.isFastSyncInProgress()).isFalse();
+    assertThat(storage.loadPivotBlockHeader(BLOCK_HASH_FUNCTION)).isEmpty();
+  }
+}
@@ -12,29 +12,30 @@
  */
 package tech.pegasys.pantheon.ethereum.eth.sync.tasks;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthTask;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer.Responder;
 import tech.pegasys.pantheon.ethereum.eth.manager.ethtaskutils.RetryingMessageTaskTest;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import org.junit.Test;
+
 public class CompleteBlocksTaskTest extends RetryingMessageTaskTest<List<Block>> {
 
   @Override
   protected List<Block> generateDataToBeRequested() {
-    // Setup data to be requested and expected response
-    final List<Block> blocks = new ArrayList<>();
-    for (long i = 0; i < 3; i++) {
-      final BlockHeader header = blockchain.getBlockHeader(10 + i).get();
-      final BlockBody body = blockchain.getBlockBody(header.getHash()).get();
-      blocks.add(new Block(header, body));
-    }
-    return blocks;
+    return blocks(10, 3);
   }
 
   @Override
@@ -48,4 +49,61 @@ public class CompleteBlocksTaskTest extends RetryingMessageTaskTest<List<Block>>
         maxRetries,
         NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
   }
+
+  @Test
+  public void requestsBodiesMissingFromOnePeerFromAnother() {
+    final RespondingEthPeer emptyPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final RespondingEthPeer fullPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final Responder responder = RespondingEthPeer.blockchainResponder(blockchain);
+    final List<Block> requestedData = blocks(10, 16);
+
+    final CompletableFuture<List<Block>> future = createTask(requestedData).run();
+    // The bodies are split between both peers.
+    assertThat(emptyPeer.hasOutstandingRequests()).isTrue();
+    assertThat(fullPeer.hasOutstandingRequests()).isTrue();
+
+    emptyPeer.respond(RespondingEthPeer.emptyResponder());
+    fullPeer.respond(responder);
+    // The bodies the first peer didn't return are requested again from the peer that did.
+    assertThat(future.isDone()).isFalse();
+    assertThat(emptyPeer.hasOutstandingRequests()).isFalse();
+    fullPeer.respondWhile(responder, () -> !future.isDone());
+
+    assertThat(future).isCompletedWithValue(requestedData);
+  }
+
+  @Test
+  public void completesWhenOnePeerReturnsPartialBodies() {
+    final RespondingEthPeer partialPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final RespondingEthPeer fullPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final Responder partialResponder =
+        RespondingEthPeer.partialResponder(blockchain, protocolSchedule, 0.5f);
+    final Responder responder = RespondingEthPeer.blockchainResponder(blockchain);
+    final List<Block> requestedData = blocks(10, 16);
+
+    final CompletableFuture<List<Block>> future = createTask(requestedData).run();
+    assertThat(partialPeer.hasOutstandingRequests()).isTrue();
+    assertThat(fullPeer.hasOutstandingRequests()).isTrue();
+
+    while (!future.isDone()) {
+      partialPeer.respond(partialResponder);
+      fullPeer.respond(responder);
+    }
+
+    assertThat(future).isCompletedWithValue(requestedData);
+  }
+
+  private List<Block> blocks(final long firstNumber, final int count) {
+    final List<Block> blocks = new ArrayList<>();
+    for (long i = 0; i < count; i++) {
+      final BlockHeader header = blockchain.getBlockHeader(firstNumber + i).get();
+      final BlockBody body = blockchain.getBlockBody(header.getHash()).get();
+      blocks.add(new Block(header, body));
+    }
+    return blocks;
+  }
 }
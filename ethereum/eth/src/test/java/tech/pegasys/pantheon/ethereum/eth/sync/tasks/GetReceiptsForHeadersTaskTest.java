@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.tasks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthTask;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer.Responder;
+import tech.pegasys.pantheon.ethereum.eth.manager.ethtaskutils.RetryingMessageTaskTest;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class GetReceiptsForHeadersTaskTest
+    extends RetryingMessageTaskTest<List<List<TransactionReceipt>>> {
+
+  @Override
+  protected List<List<TransactionReceipt>> generateDataToBeRequested() {
+    return receipts(headers(10, 3));
+  }
+
+  @Override
+  protected EthTask<List<List<TransactionReceipt>>> createTask(
+      final List<List<TransactionReceipt>> requestedData) {
+    return createTaskForHeaders(headers(10, 3));
+  }
+
+  @Test
+  public void requestsReceiptsMissingFromOnePeerFromAnother() {
+    final RespondingEthPeer emptyPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final RespondingEthPeer fullPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final Responder responder = RespondingEthPeer.blockchainResponder(blockchain);
+    final List<BlockHeader> headers = headers(10, 16);
+
+    final CompletableFuture<List<List<TransactionReceipt>>> future =
+        createTaskForHeaders(headers).run();
+    // The receipts are split between both peers.
+    assertThat(emptyPeer.hasOutstandingRequests()).isTrue();
+    assertThat(fullPeer.hasOutstandingRequests()).isTrue();
+
+    emptyPeer.respond(RespondingEthPeer.emptyResponder());
+    fullPeer.respond(responder);
+    // The receipts the first peer didn't return are requested again from the peer that did.
+    assertThat(future.isDone()).isFalse();
+    assertThat(emptyPeer.hasOutstandingRequests()).isFalse();
+    fullPeer.respondWhile(responder, () -> !future.isDone());
+
+    assertThat(future).isCompletedWithValue(receipts(headers));
+  }
+
+  @Test
+  public void completesWhenOnePeerReturnsPartialReceipts() {
+    final RespondingEthPeer partialPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final RespondingEthPeer fullPeer =
+        EthProtocolManagerTestUtil.createPeer(ethProtocolManager, 1000);
+    final Responder partialResponder =
+        RespondingEthPeer.partialResponder(blockchain, protocolSchedule, 0.5f);
+    final Responder responder = RespondingEthPeer.blockchainResponder(blockchain);
+    final List<BlockHeader> headers = headers(10, 16);
+
+    final CompletableFuture<List<List<TransactionReceipt>>> future =
+        createTaskForHeaders(headers).run();
+    assertThat(partialPeer.hasOutstandingRequests()).isTrue();
+    assertThat(fullPeer.hasOutstandingRequests()).isTrue();
+
+    while (!future.isDone()) {
+      partialPeer.respond(partialResponder);
+      fullPeer.respond(responder);
+    }
+
+    assertThat(future).isCompletedWithValue(receipts(headers));
+  }
+
+  private EthTask<List<List<TransactionReceipt>>> createTaskForHeaders(
+      final List<BlockHeader> headers) {
+    return GetReceiptsForHeadersTask.forHeaders(
+        ethContext, headers, NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+  }
+
+  private List<BlockHeader> headers(final long firstNumber, final int count) {
+    final List<BlockHeader> headers = new ArrayList<>();
+    for (long i = 0; i < count; i++) {
+      headers.add(blockchain.getBlockHeader(firstNumber + i).get());
+    }
+    return headers;
+  }
+
+  private List<List<TransactionReceipt>> receipts(final List<BlockHeader> headers) {
+    return headers
+        .stream()
+        .map(header -> blockchain.getTxReceipts(header.getHash()).get())
+        .collect(Collectors.toList());
+  }
+}
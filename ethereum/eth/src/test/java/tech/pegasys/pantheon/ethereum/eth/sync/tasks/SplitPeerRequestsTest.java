@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.tasks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.exceptions.PeerDisconnectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class SplitPeerRequestsTest {
+
+  private final EthPeer peer1 = mock(EthPeer.class);
+  private final EthPeer peer2 = mock(EthPeer.class);
+  private final EthPeer peer3 = mock(EthPeer.class);
+  private final List<EthPeer> peers = Arrays.asList(peer1, peer2, peer3);
+
+  @Test
+  public void shouldSplitHeadersEvenlyBetweenPeers() {
+    final List<BlockHeader> headers = headers(20);
+    final Map<EthPeer, List<BlockHeader>> requests = new HashMap<>();
+
+    final CompletableFuture<List<Integer>> result =
+        SplitPeerRequests.request(
+            peers,
+            headers,
+            (peer, part) -> {
+              requests.put(peer, part);
+              return CompletableFuture.completedFuture(part.size());
+            });
+
+    assertThat(result).isCompletedWithValue(Arrays.asList(7, 7, 6));
+    assertThat(requests.get(peer1)).isEqualTo(headers.subList(0, 7));
+    assertThat(requests.get(peer2)).isEqualTo(headers.subList(7, 14));
+    assertThat(requests.get(peer3)).isEqualTo(headers.subList(14, 20));
+  }
+
+  @Test
+  public void shouldNotSplitSmallRequests() {
+    final List<BlockHeader> headers = headers(5);
+    final List<EthPeer> requestedPeers = new ArrayList<>();
+
+    final CompletableFuture<List<Integer>> result =
+        SplitPeerRequests.request(
+            peers,
+            headers,
+            (peer, part) -> {
+              requestedPeers.add(peer);
+              return CompletableFuture.completedFuture(part.size());
+            });
+
+    assertThat(result).isCompletedWithValue(Collections.singletonList(5));
+    assertThat(requestedPeers).containsExactly(peer1);
+  }
+
+  @Test
+  public void shouldReturnResponsesFromPeersThatDidNotFail() {
+    final CompletableFuture<List<Integer>> result =
+        SplitPeerRequests.request(
+            peers,
+            headers(20),
+            (peer, part) ->
+                peer == peer2 ? failedRequest() : CompletableFuture.completedFuture(part.size()));
+
+    assertThat(result).isCompletedWithValue(Arrays.asList(7, 6));
+  }
+
+  @Test
+  public void shouldFailWhenAllRequestsFail() {
+    final CompletableFuture<List<Integer>> result =
+        SplitPeerRequests.request(peers, headers(20), (peer, part) -> failedRequest());
+
+    assertThat(result).isCompletedExceptionally();
+  }
+
+  private List<BlockHeader> headers(final int count) {
+    final List<BlockHeader> headers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      headers.add(mock(BlockHeader.class));
+    }
+    return headers;
+  }
+
+  private CompletableFuture<Integer> failedRequest() {
+    final CompletableFuture<Integer> future = new CompletableFuture<>();
+    future.completeExceptionally(new PeerDisconnectedException());
+    return future;
+  }
+}
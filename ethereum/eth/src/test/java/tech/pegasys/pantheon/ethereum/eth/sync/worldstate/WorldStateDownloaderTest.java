@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static tech.pegasys.pantheon.ethereum.core.InMemoryStorageProvider.createInMemoryBlockchain;
+import static tech.pegasys.pantheon.ethereum.core.InMemoryStorageProvider.createInMemoryWorldStateArchive;
+
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableAccount;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldState;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManager;
+import tech.pegasys.pantheon.ethereum.eth.manager.EthProtocolManagerTestUtil;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer;
+import tech.pegasys.pantheon.ethereum.eth.manager.RespondingEthPeer.Responder;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStorageWorldStateStorage;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorageQueue;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorldStateDownloaderTest {
+
+  private static final int MAX_REQUESTS_WITHOUT_PROGRESS = 5;
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final WorldStateArchive remoteWorldStateArchive = createInMemoryWorldStateArchive();
+  private final List<Address> addresses = new ArrayList<>();
+  private final WorldStateStorage localStorage =
+      new KeyValueStorageWorldStateStorage(new InMemoryKeyValueStorage());
+
+  private Blockchain blockchain;
+  private EthProtocolManager ethProtocolManager;
+  private BlockHeader header;
+  private WorldStateDownloader downloader;
+
+  @Before
+  public void setUp() {
+    blockchain = createInMemoryBlockchain(gen.genesisBlock());
+    ethProtocolManager = EthProtocolManagerTestUtil.create(blockchain);
+    header = new BlockHeaderTestFixture().stateRoot(createRemoteWorldState()).buildHeader();
+    downloader =
+        new WorldStateDownloader(
+            ethProtocolManager.ethContext(),
+            localStorage,
+            new KeyValueStorageQueue(new InMemoryKeyValueStorage()),
+            10,
+            2,
+            MAX_REQUESTS_WITHOUT_PROGRESS,
+            NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+  }
+
+  @Test
+  public void downloadsWorldStateFromPeer() {
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager);
+
+    final CompletableFuture<Void> result = downloader.run(header);
+    peer.respondWhile(responder(), () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertWorldStateDownloaded();
+  }
+
+  @Test
+  public void storesRootNodeOnlyOnceDownloadCompletes() {
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager);
+
+    final CompletableFuture<Void> result = downloader.run(header);
+    peer.respond(responder());
+
+    assertThat(result.isDone()).isFalse();
+    assertThat(localStorage.getAccountStateTrieNode(header.getStateRoot())).isEmpty();
+
+    peer.respondWhile(responder(), () -> !result.isDone());
+    assertThat(localStorage.getAccountStateTrieNode(header.getStateRoot())).isPresent();
+  }
+
+  @Test
+  public void completesImmediatelyWhenWorldStateIsAlreadyAvailable() {
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager);
+    final WorldStateDownloader localDownloader =
+        new WorldStateDownloader(
+            ethProtocolManager.ethContext(),
+            remoteWorldStateArchive.getStorage(),
+            new KeyValueStorageQueue(new InMemoryKeyValueStorage()),
+            10,
+            2,
+            MAX_REQUESTS_WITHOUT_PROGRESS,
+            NoOpMetricsSystem.NO_OP_LABELLED_TIMER);
+
+    assertThat(localDownloader.run(header)).isCompleted();
+    assertThat(peer.hasOutstandingRequests()).isFalse();
+  }
+
+  @Test
+  public void waitsForPeerWhenNoneAreAvailable() {
+    final CompletableFuture<Void> result = downloader.run(header);
+    assertThat(result.isDone()).isFalse();
+
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager);
+    peer.respondWhile(responder(), () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertWorldStateDownloaded();
+  }
+
+  @Test
+  public void failsWhenPeersStopReturningData() {
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager);
+
+    final CompletableFuture<Void> result = downloader.run(header);
+    peer.respondWhile(RespondingEthPeer.emptyResponder(), () -> !result.isDone());
+
+    assertThat(result).isCompletedExceptionally();
+    assertThatThrownBy(result::get).hasCauseInstanceOf(StalledDownloadException.class);
+    assertThat(localStorage.getAccountStateTrieNode(header.getStateRoot())).isEmpty();
+  }
+
+  @Test
+  public void resumesAfterStalling() {
+    final RespondingEthPeer peer = EthProtocolManagerTestUtil.createPeer(ethProtocolManager);
+    final CompletableFuture<Void> stalled = downloader.run(header);
+    peer.respond(responder());
+    peer.respondWhile(RespondingEthPeer.emptyResponder(), () -> !stalled.isDone());
+    assertThat(stalled).isCompletedExceptionally();
+
+    final CompletableFuture<Void> result = downloader.run(header);
+    peer.respondWhile(responder(), () -> !result.isDone());
+
+    assertThat(result).isCompleted();
+    assertWorldStateDownloaded();
+  }
+
+  private Responder responder() {
+    return RespondingEthPeer.blockchainResponder(blockchain, remoteWorldStateArchive);
+  }
+
+  private Hash createRemoteWorldState() {
+    final MutableWorldState worldState = remoteWorldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    for (int i = 0; i < 50; i++) {
+      final Address address = gen.address();
+      addresses.add(address);
+      final MutableAccount account = updater.createAccount(address, i, Wei.of(1000 + i));
+      if (i % 5 == 0) {
+        account.setCode(gen.bytesValue(10, 100));
+        for (int j = 1; j <= 10; j++) {
+          account.setStorageValue(UInt256.of(j), UInt256.of(i * j + 1));
+        }
+      }
+    }
+    updater.commit();
+    worldState.persist();
+    return worldState.rootHash();
+  }
+
+  private void assertWorldStateDownloaded() {
+    final WorldState expected = remoteWorldStateArchive.get(header.getStateRoot());
+    final WorldState actual = new WorldStateArchive(localStorage).get(header.getStateRoot());
+    for (final Address address : addresses) {
+      final Account expectedAccount = expected.get(address);
+      final Account account = actual.get(address);
+      assertThat(account.getNonce()).isEqualTo(expectedAccount.getNonce());
+      assertThat(account.getBalance()).isEqualTo(expectedAccount.getBalance());
+      assertThat(account.getCode()).isEqualTo(expectedAccount.getCode());
+      assertThat(account.storageEntriesFrom(Bytes32.ZERO, Integer.MAX_VALUE))
+          .isEqualTo(expectedAccount.storageEntriesFrom(Bytes32.ZERO, Integer.MAX_VALUE));
+    }
+  }
+}
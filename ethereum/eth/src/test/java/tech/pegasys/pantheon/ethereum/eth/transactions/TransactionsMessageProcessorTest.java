@@ -19,6 +19,7 @@ import static org.mockito.Mockito.verify;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
 
@@ -29,6 +30,8 @@ public class TransactionsMessageProcessorTest {
 
   private final TransactionPool transactionPool = mock(TransactionPool.class);
   private final PeerTransactionTracker transactionTracker = mock(PeerTransactionTracker.class);
+  private final TransactionSenderRecovery transactionSenderRecovery =
+      mock(TransactionSenderRecovery.class);
   private final EthPeer peer1 = mock(EthPeer.class);
 
   private final BlockDataGenerator generator = new BlockDataGenerator();
@@ -37,7 +40,8 @@ public class TransactionsMessageProcessorTest {
   private final Transaction transaction3 = generator.transaction();
 
   private final TransactionsMessageProcessor messageHandler =
-      new TransactionsMessageProcessor(transactionTracker, transactionPool);
+      new TransactionsMessageProcessor(
+          transactionTracker, transactionPool, transactionSenderRecovery);
 
   @Test
   public void shouldMarkAllReceivedTransactionsAsSeen() {
@@ -56,4 +60,13 @@ public class TransactionsMessageProcessorTest {
     verify(transactionPool)
         .addRemoteTransactions(ImmutableSet.of(transaction1, transaction2, transaction3));
   }
+
+  @Test
+  public void shouldRecoverSendersOfReceivedTransactions() {
+    messageHandler.processTransactionsMessage(
+        peer1, TransactionsMessage.create(asList(transaction1, transaction2, transaction3)));
+
+    verify(transactionSenderRecovery)
+        .recoverSenders(ImmutableSet.of(transaction1, transaction2, transaction3));
+  }
 }
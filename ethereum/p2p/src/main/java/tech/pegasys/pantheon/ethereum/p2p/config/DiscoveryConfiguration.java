@@ -18,11 +18,13 @@ import tech.pegasys.pantheon.ethereum.p2p.peers.DefaultPeer;
 import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class DiscoveryConfiguration {
@@ -100,6 +102,7 @@ public class DiscoveryConfiguration {
   private String advertisedHost = "127.0.0.1";
   private int bucketSize = 16;
   private List<Peer> bootstrapPeers = new ArrayList<>();
+  private Optional<Path> nodeDatabasePath = Optional.empty();
 
   public static DiscoveryConfiguration create() {
     return new DiscoveryConfiguration();
@@ -164,6 +167,21 @@ public class DiscoveryConfiguration {
     return this;
   }
 
+  /**
+   * The file the peers we bonded with are stored in, so that discovery can resume from them after a
+   * restart.
+   *
+   * @return the node database file, if the peers are to be stored
+   */
+  public Optional<Path> getNodeDatabasePath() {
+    return nodeDatabasePath;
+  }
+
+  public DiscoveryConfiguration setNodeDatabasePath(final Path nodeDatabasePath) {
+    this.nodeDatabasePath = Optional.of(nodeDatabasePath);
+    return this;
+  }
+
   public int getBucketSize() {
     return bucketSize;
   }
@@ -187,12 +205,14 @@ public class DiscoveryConfiguration {
         && bucketSize == that.bucketSize
         && Objects.equals(bindHost, that.bindHost)
         && Objects.equals(advertisedHost, that.advertisedHost)
-        && Objects.equals(bootstrapPeers, that.bootstrapPeers);
+        && Objects.equals(bootstrapPeers, that.bootstrapPeers)
+        && Objects.equals(nodeDatabasePath, that.nodeDatabasePath);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(active, bindHost, bindPort, advertisedHost, bucketSize, bootstrapPeers);
+    return Objects.hash(
+        active, bindHost, bindPort, advertisedHost, bucketSize, bootstrapPeers, nodeDatabasePath);
   }
 
   @Override
@@ -212,6 +232,8 @@ public class DiscoveryConfiguration {
         + bucketSize
         + ", bootstrapPeers="
         + bootstrapPeers
+        + ", nodeDatabasePath="
+        + nodeDatabasePath
         + '}';
   }
 }
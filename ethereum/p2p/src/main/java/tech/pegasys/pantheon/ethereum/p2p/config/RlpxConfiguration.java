@@ -15,10 +15,13 @@ package tech.pegasys.pantheon.ethereum.p2p.config;
 import java.util.Objects;
 
 public class RlpxConfiguration {
+  public static final int DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+
   private String clientId = "TestClient/1.0.0";
   private String bindHost = "0.0.0.0";
   private int bindPort = 30303;
   private int maxPeers = 25;
+  private int workerThreads = DEFAULT_WORKER_THREADS;
   private WireProtocolConfig wire = new WireProtocolConfig();
 
   public static RlpxConfiguration create() {
@@ -61,6 +64,15 @@ public class RlpxConfiguration {
     return maxPeers;
   }
 
+  public RlpxConfiguration setWorkerThreads(final int workerThreads) {
+    this.workerThreads = workerThreads;
+    return this;
+  }
+
+  public int getWorkerThreads() {
+    return workerThreads;
+  }
+
   public String getClientId() {
     return clientId;
   }
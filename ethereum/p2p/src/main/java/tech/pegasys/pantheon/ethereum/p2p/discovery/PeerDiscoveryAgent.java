@@ -24,6 +24,7 @@ import tech.pegasys.pantheon.ethereum.p2p.api.PeerConnection;
 import tech.pegasys.pantheon.ethereum.p2p.config.DiscoveryConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.PeerDiscoveryEvent.PeerBondedEvent;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.PeerDiscoveryEvent.PeerDroppedEvent;
+import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.NodeDatabase;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.Packet;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.PacketData;
 import tech.pegasys.pantheon.ethereum.p2p.discovery.internal.PacketType;
@@ -45,11 +46,14 @@ import java.net.SocketException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.net.InetAddresses;
@@ -98,6 +102,8 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
   // clients ignore that, so we add in a little extra padding.
   private static final int MAX_PACKET_SIZE_BYTES = 1600;
   private static final long PEER_REFRESH_INTERVAL_MS = MILLISECONDS.convert(30, TimeUnit.MINUTES);
+  private static final long NODE_DATABASE_SAVE_INTERVAL_MS =
+      MILLISECONDS.convert(5, TimeUnit.MINUTES);
   private final Vertx vertx;
   /* The peer controller, which takes care of the state machine of peers. */
   private final PeerDiscoveryController controller;
@@ -105,6 +111,8 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
   private final SECP256K1.KeyPair keyPair;
   private final PeerTable peerTable;
   private final DiscoveryConfiguration config;
+  /* The peers bonded with in previous runs, if they are stored. */
+  private final Optional<NodeDatabase> nodeDatabase;
 
   /* This is the {@link tech.pegasys.pantheon.ethereum.p2p.Peer} object holding who we are. */
   private DiscoveryPeer advertisedPeer;
@@ -114,6 +122,8 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
   /* Is discovery enabled? */
   private boolean isActive = false;
 
+  private OptionalLong nodeDatabaseTimerId = OptionalLong.empty();
+
   public PeerDiscoveryAgent(
       final Vertx vertx,
       final SECP256K1.KeyPair keyPair,
@@ -127,8 +137,16 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
 
     validateConfiguration(config);
 
+    this.nodeDatabase =
+        config
+            .getNodeDatabasePath()
+            .map(path -> NodeDatabase.load(path, System.currentTimeMillis()));
+    // Peers from previous runs are bonded with like bootstrap peers, and asked for their neighbors.
     final List<DiscoveryPeer> bootstrapPeers =
-        config.getBootstrapPeers().stream().map(DiscoveryPeer::new).collect(Collectors.toList());
+        Stream.concat(
+                config.getBootstrapPeers().stream().map(DiscoveryPeer::new),
+                nodeDatabase.map(NodeDatabase::getPeers).orElse(Collections.emptyList()).stream())
+            .collect(Collectors.toList());
 
     this.vertx = vertx;
     this.config = config;
@@ -190,13 +208,19 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
       return CompletableFuture.completedFuture(null);
     }
 
+    nodeDatabaseTimerId.ifPresent(vertx::cancelTimer);
+    nodeDatabaseTimerId = OptionalLong.empty();
     final CompletableFuture<?> completion = new CompletableFuture<>();
     socket.close(
         ar -> {
           if (ar.succeeded()) {
-            controller.stop();
-            socket = null;
-            completion.complete(null);
+            saveNodeDatabase()
+                .whenComplete(
+                    (r, t) -> {
+                      controller.stop();
+                      socket = null;
+                      completion.complete(null);
+                    });
           } else {
             completion.completeExceptionally(ar.cause());
           }
@@ -223,6 +247,51 @@ public class PeerDiscoveryAgent implements DisconnectCallback {
     socket.exceptionHandler(this::handleException);
     socket.handler(this::handlePacket);
     controller.start();
+
+    nodeDatabase.ifPresent(
+        database -> {
+          controller.observePeerBondedEvents(event -> database.recordBonded(event.getPeer()));
+          nodeDatabaseTimerId =
+              OptionalLong.of(
+                  vertx.setPeriodic(NODE_DATABASE_SAVE_INTERVAL_MS, (l) -> saveNodeDatabase()));
+        });
+  }
+
+  /**
+   * Stores the peers currently bonded with, along with those from previous runs, off the event
+   * loop.
+   *
+   * @return A future completing once the peers are stored.
+   */
+  private CompletableFuture<?> saveNodeDatabase() {
+    final CompletableFuture<?> completion = new CompletableFuture<>();
+    if (!nodeDatabase.isPresent()) {
+      completion.complete(null);
+      return completion;
+    }
+
+    final NodeDatabase database = nodeDatabase.get();
+    controller
+        .getPeers()
+        .stream()
+        .filter(peer -> peer.getStatus() == PeerDiscoveryStatus.BONDED)
+        .forEach(database::recordBonded);
+    vertx.executeBlocking(
+        future -> {
+          try {
+            database.save();
+            future.complete();
+          } catch (final IOException e) {
+            future.fail(e);
+          }
+        },
+        res -> {
+          if (res.failed()) {
+            LOG.warn("Failed to store discovered peers", res.cause());
+          }
+          completion.complete(null);
+        });
+    return completion;
   }
 
   /**
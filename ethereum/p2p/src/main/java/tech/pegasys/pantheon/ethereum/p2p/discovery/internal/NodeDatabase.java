@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.discovery.internal;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import tech.pegasys.pantheon.ethereum.p2p.discovery.DiscoveryPeer;
+import tech.pegasys.pantheon.ethereum.p2p.discovery.PeerDiscoveryPacketDecodingException;
+import tech.pegasys.pantheon.ethereum.p2p.peers.Endpoint;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPException;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.ethereum.rlp.RLPOutput;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Remembers the peers we bonded with across restarts, so discovery can start from them rather than
+ * from the bootstrap nodes alone.
+ *
+ * <p>Each node is stored with its endpoint, when it was last seen and how many times in a row it
+ * failed to bond again after a restart. Nodes not seen for a day, or that failed to bond too often,
+ * are forgotten.
+ */
+public class NodeDatabase {
+  private static final Logger LOG = LogManager.getLogger();
+  private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(1);
+  private static final int MAX_FAILURES = 3;
+  private static final int MAX_NODES = 1000;
+
+  private final Path path;
+  private final Map<BytesValue, NodeRecord> records = new ConcurrentHashMap<>();
+
+  private NodeDatabase(final Path path) {
+    this.path = path;
+  }
+
+  /**
+   * Loads the nodes stored in a file, if it exists. As the nodes haven't bonded again yet, each is
+   * counted as having failed to, until {@link #recordBonded(DiscoveryPeer)} is called for it.
+   *
+   * @param path The file to store the nodes in.
+   * @param now The current time in milliseconds, to expire old nodes against.
+   * @return The node database.
+   */
+  public static NodeDatabase load(final Path path, final long now) {
+    final NodeDatabase database = new NodeDatabase(path);
+    if (!Files.exists(path)) {
+      return database;
+    }
+    try {
+      final RLPInput in = RLP.input(BytesValue.wrap(Files.readAllBytes(path)));
+      in.enterList();
+      while (!in.isEndOfCurrentList()) {
+        final NodeRecord record = NodeRecord.readFrom(in);
+        if (record.lastSeen >= now - MAX_AGE_MILLIS && record.failures < MAX_FAILURES) {
+          database.records.put(
+              record.id,
+              new NodeRecord(record.id, record.endpoint, record.lastSeen, record.failures + 1));
+        }
+      }
+      in.leaveList();
+    } catch (final IOException
+        | RLPException
+        | PeerDiscoveryPacketDecodingException
+        | IllegalArgumentException e) {
+      LOG.warn("Ignoring unreadable discovery node database {}: {}", path, e.getMessage());
+      database.records.clear();
+    }
+    LOG.debug("Loaded {} nodes from {}", database.records.size(), path);
+    return database;
+  }
+
+  /**
+   * Returns the stored nodes, most recently seen first.
+   *
+   * @return The nodes to bond with.
+   */
+  public List<DiscoveryPeer> getPeers() {
+    return records
+        .values()
+        .stream()
+        .sorted(NodeRecord.MOST_RECENTLY_SEEN)
+        .map(record -> new DiscoveryPeer(record.id, record.endpoint))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Records that we bonded with a peer, as of when it was last seen.
+   *
+   * @param peer The bonded peer.
+   */
+  public void recordBonded(final DiscoveryPeer peer) {
+    records.put(
+        peer.getId(), new NodeRecord(peer.getId(), peer.getEndpoint(), peer.getLastSeen(), 0));
+  }
+
+  /**
+   * Writes the most recently seen nodes to the file, replacing its previous contents atomically.
+   *
+   * @throws IOException If the file can't be written.
+   */
+  public void save() throws IOException {
+    final List<NodeRecord> saved =
+        records
+            .values()
+            .stream()
+            .sorted(NodeRecord.MOST_RECENTLY_SEEN)
+            .limit(MAX_NODES)
+            .collect(Collectors.toList());
+    final BytesValue encoded =
+        RLP.encode(
+            out -> {
+              out.startList();
+              saved.forEach(record -> record.writeTo(out));
+              out.endList();
+            });
+
+    final Path parent = path.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    final Path tempPath = Files.createTempFile(parent, ".tmp", "");
+    Files.write(tempPath, encoded.extractArray());
+    Files.move(tempPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  private static class NodeRecord {
+    private static final Comparator<NodeRecord> MOST_RECENTLY_SEEN =
+        Comparator.<NodeRecord>comparingLong(record -> record.lastSeen).reversed();
+
+    private final BytesValue id;
+    private final Endpoint endpoint;
+    private final long lastSeen;
+    private final int failures;
+
+    private NodeRecord(
+        final BytesValue id, final Endpoint endpoint, final long lastSeen, final int failures) {
+      this.id = id;
+      this.endpoint = endpoint;
+      this.lastSeen = lastSeen;
+      this.failures = failures;
+    }
+
+    private static NodeRecord readFrom(final RLPInput in) {
+      in.enterList();
+      final BytesValue id = in.readBytesValue();
+      final Endpoint endpoint = Endpoint.decodeStandalone(in);
+      final long lastSeen = in.readLongScalar();
+      final int failures = in.readIntScalar();
+      in.leaveList();
+      return new NodeRecord(id, endpoint, lastSeen, failures);
+    }
+
+    private void writeTo(final RLPOutput out) {
+      out.startList();
+      out.writeBytesValue(id);
+      endpoint.encodeStandalone(out);
+      out.writeLongScalar(lastSeen);
+      out.writeIntScalar(failures);
+      out.endList();
+    }
+  }
+}
@@ -29,6 +29,14 @@ final class MessageFramer extends MessageToByteEncoder<OutboundMessage> {
     this.framer = framer;
   }
 
+  @Override
+  protected ByteBuf allocateBuffer(
+      final ChannelHandlerContext ctx, final OutboundMessage msg, final boolean preferDirect) {
+    // Size the buffer for the whole frame up front, so large messages aren't copied as it grows.
+    final int size = framer.maxFramedSize(msg.getData().getSize());
+    return preferDirect ? ctx.alloc().ioBuffer(size) : ctx.alloc().heapBuffer(size);
+  }
+
   @Override
   protected void encode(
       final ChannelHandlerContext ctx, final OutboundMessage msg, final ByteBuf out) {
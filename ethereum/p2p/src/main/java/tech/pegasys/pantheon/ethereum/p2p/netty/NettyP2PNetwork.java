@@ -35,9 +35,11 @@ import tech.pegasys.pantheon.metrics.Counter;
 import tech.pegasys.pantheon.metrics.LabelledMetric;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.util.Subscribers;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -56,10 +58,9 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
 import io.vertx.core.Vertx;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -108,6 +109,7 @@ public final class NettyP2PNetwork implements P2PNetwork {
 
   private static final Logger LOG = LogManager.getLogger();
   private static final int TIMEOUT_SECONDS = 30;
+  private static final long EVENT_LOOP_PROBE_INTERVAL_SECONDS = 1;
 
   final Map<Capability, Subscribers<Consumer<Message>>> protocolCallbacks =
       new ConcurrentHashMap<>();
@@ -126,9 +128,11 @@ public final class NettyP2PNetwork implements P2PNetwork {
 
   private final AtomicInteger pendingConnections = new AtomicInteger(0);
 
-  private final EventLoopGroup boss = new NioEventLoopGroup(1);
+  private final NettyTransport transport = NettyTransport.select();
 
-  private final EventLoopGroup workers = new NioEventLoopGroup(1);
+  private final EventLoopGroup boss = transport.newEventLoopGroup(1, "p2p-boss");
+
+  private final EventLoopGroup workers;
 
   private volatile PeerInfo ourPeerInfo;
 
@@ -196,10 +200,17 @@ public final class NettyP2PNetwork implements P2PNetwork {
     this.keyPair = keyPair;
     this.subProtocols = config.getSupportedProtocols();
 
+    workers = transport.newEventLoopGroup(config.getRlpx().getWorkerThreads(), "p2p-worker");
+    registerEventLoopMetrics(metricsSystem);
+    LOG.debug(
+        "Using {} transport with {} P2P worker threads",
+        transport,
+        config.getRlpx().getWorkerThreads());
+
     server =
         new ServerBootstrap()
             .group(boss, workers)
-            .channel(NioServerSocketChannel.class)
+            .channel(transport.serverChannelClass())
             .childHandler(inboundChannelInitializer())
             .bind(config.getRlpx().getBindHost(), config.getRlpx().getBindPort());
     final CountDownLatch latch = new CountDownLatch(1);
@@ -233,6 +244,39 @@ public final class NettyP2PNetwork implements P2PNetwork {
     }
   }
 
+  /**
+   * Tracks the number of tasks queued across the worker event loops, and the time a task submitted
+   * to each loop waits before running, sampled every second by a probe scheduled on the loop
+   * itself.
+   */
+  private void registerEventLoopMetrics(final MetricsSystem metricsSystem) {
+    final LabelledMetric<OperationTimer> taskLatency =
+        metricsSystem.createLabelledTimer(
+            MetricCategory.NETWORK,
+            "p2p_event_loop_task_latency",
+            "Time between a task being submitted to a P2P event loop and running",
+            "event_loop");
+    final List<SingleThreadEventExecutor> eventLoops = new ArrayList<>();
+    int index = 0;
+    for (final EventExecutor executor : workers) {
+      final String name = Integer.toString(index++);
+      if (executor instanceof SingleThreadEventExecutor) {
+        eventLoops.add((SingleThreadEventExecutor) executor);
+      }
+      final OperationTimer timer = taskLatency.labels(name);
+      executor.scheduleAtFixedRate(
+          () -> executor.execute(timer.startTimer()::stopTimer),
+          EVENT_LOOP_PROBE_INTERVAL_SECONDS,
+          EVENT_LOOP_PROBE_INTERVAL_SECONDS,
+          TimeUnit.SECONDS);
+    }
+    metricsSystem.createGauge(
+        MetricCategory.NETWORK,
+        "p2p_event_loop_pending_tasks",
+        "Number of tasks waiting to run on the P2P event loops",
+        () -> (double) eventLoops.stream().mapToInt(SingleThreadEventExecutor::pendingTasks).sum());
+  }
+
   /** @return a channel initializer for inbound connections */
   public ChannelInitializer<SocketChannel> inboundChannelInitializer() {
     return new ChannelInitializer<SocketChannel>() {
@@ -301,7 +345,7 @@ public final class NettyP2PNetwork implements P2PNetwork {
 
     new Bootstrap()
         .group(workers)
-        .channel(NioSocketChannel.class)
+        .channel(transport.socketChannelClass())
         .remoteAddress(new InetSocketAddress(endpoint.getHost(), endpoint.getTcpPort().getAsInt()))
         .option(ChannelOption.TCP_NODELAY, true)
         .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_SECONDS * 1000)
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.netty;
+
+import java.util.concurrent.ThreadFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The Netty transport RLPx connections are served with: the native epoll transport where it can be
+ * loaded (Linux), which avoids the selector overhead of NIO, and NIO everywhere else.
+ */
+enum NettyTransport {
+  EPOLL {
+    @Override
+    EventLoopGroup newEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+      return new EpollEventLoopGroup(threads, threadFactory);
+    }
+
+    @Override
+    Class<? extends ServerChannel> serverChannelClass() {
+      return EpollServerSocketChannel.class;
+    }
+
+    @Override
+    Class<? extends SocketChannel> socketChannelClass() {
+      return EpollSocketChannel.class;
+    }
+  },
+
+  NIO {
+    @Override
+    EventLoopGroup newEventLoopGroup(final int threads, final ThreadFactory threadFactory) {
+      return new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    @Override
+    Class<? extends ServerChannel> serverChannelClass() {
+      return NioServerSocketChannel.class;
+    }
+
+    @Override
+    Class<? extends SocketChannel> socketChannelClass() {
+      return NioSocketChannel.class;
+    }
+  };
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  /** @return the epoll transport if its native library is available, otherwise NIO */
+  static NettyTransport select() {
+    if (Epoll.isAvailable()) {
+      return EPOLL;
+    }
+    LOG.debug("Native epoll transport unavailable, using NIO", Epoll.unavailabilityCause());
+    return NIO;
+  }
+
+  EventLoopGroup newEventLoopGroup(final int threads, final String name) {
+    return newEventLoopGroup(threads, new DefaultThreadFactory(name));
+  }
+
+  abstract EventLoopGroup newEventLoopGroup(int threads, ThreadFactory threadFactory);
+
+  abstract Class<? extends ServerChannel> serverChannelClass();
+
+  abstract Class<? extends SocketChannel> socketChannelClass();
+}
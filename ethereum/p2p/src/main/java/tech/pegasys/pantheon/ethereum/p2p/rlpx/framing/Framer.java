@@ -117,6 +117,7 @@ public class Framer {
    *
    * <p>This method can be called repetitively whenever new bytes appear in the buffer. It is worthy
    * to note that the byte buffer is not consumed unless the next expected amount of bytes appears.
+   * Consumed bytes are only skipped, not discarded, so compacting the buffer is left to the caller.
    *
    * <p>If there is more than one message in the byte buffer, only the first one is returned,
    * consuming it from the byte buffer. The caller should call this method again with the same byte
@@ -142,7 +143,6 @@ public class Framer {
       }
       frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
       headerProcessed = true;
-      buf.discardReadBytes();
     }
 
     final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
@@ -151,7 +151,6 @@ public class Framer {
     }
 
     final MessageData msg = processFrame(buf.readSlice(size), frameSize);
-    buf.discardReadBytes();
     headerProcessed = false;
     return msg;
   }
@@ -218,7 +217,8 @@ public class Framer {
    * Parses, decrypts and performs MAC verification on a frame.
    *
    * <p>This method expects a well-formed frame, sized according to the length indicated in this
-   * packet's header.
+   * packet's header. The frame is copied out of the buffer once and decrypted in place, and the
+   * message data is either decompressed straight from that copy or wraps it.
    *
    * @param f The buffer containing
    * @param frameSize The expected
@@ -250,20 +250,21 @@ public class Framer {
     final BytesValue idbv = RLP.decodeOne(BytesValue.of(frameData[0]));
     final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
 
-    // Write message data to ByteBuf, decompressing as necessary
+    // Extract the message data, decompressing as necessary.
+    final int messageLength = frameSize - LENGTH_MESSAGE_ID;
     final BytesValue data;
     if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+      final int uncompressedLength =
+          compressor.uncompressedLength(frameData, LENGTH_MESSAGE_ID, messageLength);
       if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
         throw error("Message size %s in excess of maximum length.", uncompressedLength);
       }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
+      final byte[] decompressedMessageData = new byte[uncompressedLength];
+      compressor.decompress(
+          frameData, LENGTH_MESSAGE_ID, messageLength, decompressedMessageData, 0);
       data = BytesValue.wrap(decompressedMessageData);
     } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = BytesValue.wrap(frameData, 1, messageLength);
+      data = BytesValue.wrap(frameData, LENGTH_MESSAGE_ID, messageLength);
     }
 
     return new RawMessage(id, data);
@@ -287,24 +288,52 @@ public class Framer {
   public synchronized void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
-    // Compress message
     if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().getArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), BytesValue.wrap(compressed)), output);
+      // Compress straight into the frame, after the message id.
+      final BytesValue data = message.getData();
+      final int maxCompressedSize = compressor.maxCompressedLength(data.size());
+      final byte[] f = new byte[paddedFrameSize(LENGTH_MESSAGE_ID + maxCompressedSize)];
+      final int compressedSize =
+          compressor.compress(data.getArrayUnsafe(), 0, data.size(), f, LENGTH_MESSAGE_ID);
+      writeFrame(message.getCode(), f, LENGTH_MESSAGE_ID + compressedSize, output);
     } else {
       frameMessage(message, output);
     }
   }
 
+  /**
+   * Returns an upper bound of the number of bytes {@link #frame(MessageData, ByteBuf)} writes for a
+   * message, so the output buffer can be allocated once.
+   *
+   * @param messageSize The size of the message data.
+   * @return The maximum size of the framed message.
+   */
+  public int maxFramedSize(final int messageSize) {
+    final int maxDataSize =
+        compressionEnabled ? compressor.maxCompressedLength(messageSize) : messageSize;
+    return LENGTH_FULL_HEADER + paddedFrameSize(LENGTH_MESSAGE_ID + maxDataSize) + LENGTH_MAC;
+  }
+
   @VisibleForTesting
   void frameMessage(final MessageData message, final ByteBuf buf) {
     final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
-    final int pad = padding16(frameSize);
+    final byte[] f = new byte[paddedFrameSize(frameSize)];
+    message.getData().copyTo(f, 0, LENGTH_MESSAGE_ID);
+    writeFrame(message.getCode(), f, frameSize, buf);
+  }
 
-    final byte id = (byte) message.getCode();
+  /**
+   * Writes a frame header and the given frame, encrypting the frame in place.
+   *
+   * @param code The message code.
+   * @param f The frame, with the message data from index 1, zero-padded past {@code frameSize} to
+   *     at least a 16-byte boundary.
+   * @param frameSize The size of the frame, including the message id.
+   * @param buf The {@link ByteBuf} to write the framed data to.
+   */
+  private void writeFrame(final int code, final byte[] f, final int frameSize, final ByteBuf buf) {
+    final int paddedSize = paddedFrameSize(frameSize);
+    final byte id = (byte) code;
 
     // Generate the header data.
     final byte[] h = new byte[LENGTH_HEADER_DATA];
@@ -322,24 +351,24 @@ public class Framer {
     hMac = Arrays.copyOf(hMac, LENGTH_MAC);
     buf.writeBytes(h).writeBytes(hMac);
 
-    // Encrypt payload.
-    final byte[] f = new byte[frameSize + pad];
-
+    // Encrypt payload, which is zero-padded to 16-byte boundary.
     final BytesValue bv = id == 0 ? RLP.NULL : RLP.encodeOne(BytesValue.of(id));
     assert bv.size() == 1;
     f[0] = bv.get(0);
-
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 0, 1);
-    encryptor.processBytes(f, 0, f.length, f, 0);
+    encryptor.processBytes(f, 0, paddedSize, f, 0);
 
     // Calculate the frame MAC.
-    final byte[] fMacSeed = Arrays.copyOf(secrets.updateEgress(f).getEgressMac(), LENGTH_MAC);
+    final byte[] fMacSeed =
+        Arrays.copyOf(secrets.updateEgress(f, 0, paddedSize).getEgressMac(), LENGTH_MAC);
     byte[] fMac = new byte[16];
     macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
     fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
 
-    buf.writeBytes(f).writeBytes(fMac);
+    buf.writeBytes(f, 0, paddedSize).writeBytes(fMac);
+  }
+
+  private static int paddedFrameSize(final int frameSize) {
+    return frameSize + padding16(frameSize);
   }
 
   private static int padding16(final int size) {
@@ -34,6 +34,35 @@ public class SnappyCompressor {
     }
   }
 
+  /**
+   * Compresses a range of an array into another array.
+   *
+   * @param uncompressed The array holding the data to compress.
+   * @param offset The index of the first byte to compress.
+   * @param length The number of bytes to compress.
+   * @param output The array to write the compressed data to, with at least {@link
+   *     #maxCompressedLength(int)} bytes available from {@code outputOffset}.
+   * @param outputOffset The index to write the compressed data from.
+   * @return The number of bytes written to {@code output}.
+   */
+  public int compress(
+      final byte[] uncompressed,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    checkNotNull(uncompressed, "input data must not be null");
+    try {
+      return Snappy.compress(uncompressed, offset, length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy compression failed", e);
+    }
+  }
+
+  public int maxCompressedLength(final int uncompressedLength) {
+    return Snappy.maxCompressedLength(uncompressedLength);
+  }
+
   public byte[] decompress(final byte[] compressed) {
     checkNotNull(compressed, "input data must not be null");
     try {
@@ -43,6 +72,31 @@ public class SnappyCompressor {
     }
   }
 
+  /**
+   * Decompresses a range of an array into another array.
+   *
+   * @param compressed The array holding the data to decompress.
+   * @param offset The index of the first byte of compressed data.
+   * @param length The number of bytes of compressed data.
+   * @param output The array to write the decompressed data to, with at least {@link
+   *     #uncompressedLength(byte[], int, int)} bytes available from {@code outputOffset}.
+   * @param outputOffset The index to write the decompressed data from.
+   * @return The number of bytes written to {@code output}.
+   */
+  public int decompress(
+      final byte[] compressed,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompress(compressed, offset, length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy decompression failed", e);
+    }
+  }
+
   public int uncompressedLength(final byte[] compressed) {
     checkNotNull(compressed, "input data must not be null");
     try {
@@ -51,4 +105,13 @@ public class SnappyCompressor {
       throw new FramingException("Snappy uncompressedLength failed", e);
     }
   }
+
+  public int uncompressedLength(final byte[] compressed, final int offset, final int length) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompressedLength(compressed, offset, length);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy uncompressedLength failed", e);
+    }
+  }
 }
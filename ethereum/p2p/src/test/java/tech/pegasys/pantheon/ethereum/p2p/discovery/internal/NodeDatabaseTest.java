@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.discovery.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.p2p.discovery.DiscoveryPeer;
+import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NodeDatabaseTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final long now = System.currentTimeMillis();
+  private Path path;
+
+  @Before
+  public void setUp() {
+    path = folder.getRoot().toPath().resolve("nodes");
+  }
+
+  @Test
+  public void shouldStartEmptyWithoutFile() {
+    assertThat(NodeDatabase.load(path, now).getPeers()).isEmpty();
+  }
+
+  @Test
+  public void shouldReloadSavedPeersMostRecentlySeenFirst() throws IOException {
+    final DiscoveryPeer older = peer("10.0.0.1", now - 1000);
+    final DiscoveryPeer newer = peer("10.0.0.2", now);
+    final NodeDatabase database = NodeDatabase.load(path, now);
+    database.recordBonded(older);
+    database.recordBonded(newer);
+    database.save();
+
+    assertThat(NodeDatabase.load(path, now).getPeers()).containsExactly(newer, older);
+  }
+
+  @Test
+  public void shouldExpirePeersNotSeenRecently() throws IOException {
+    final NodeDatabase database = NodeDatabase.load(path, now);
+    database.recordBonded(peer("10.0.0.1", now - TimeUnit.DAYS.toMillis(2)));
+    database.save();
+
+    assertThat(NodeDatabase.load(path, now).getPeers()).isEmpty();
+  }
+
+  @Test
+  public void shouldForgetPeersThatRepeatedlyFailToBond() throws IOException {
+    final DiscoveryPeer peer = peer("10.0.0.1", now);
+    final NodeDatabase database = NodeDatabase.load(path, now);
+    database.recordBonded(peer);
+    database.save();
+
+    for (int i = 0; i < 3; i++) {
+      final NodeDatabase reloaded = NodeDatabase.load(path, now);
+      assertThat(reloaded.getPeers()).containsExactly(peer);
+      reloaded.save();
+    }
+    assertThat(NodeDatabase.load(path, now).getPeers()).isEmpty();
+  }
+
+  @Test
+  public void shouldResetFailuresWhenPeerBondsAgain() throws IOException {
+    final DiscoveryPeer peer = peer("10.0.0.1", now);
+    NodeDatabase database = NodeDatabase.load(path, now);
+    database.recordBonded(peer);
+    database.save();
+
+    for (int i = 0; i < 5; i++) {
+      database = NodeDatabase.load(path, now);
+      assertThat(database.getPeers()).containsExactly(peer);
+      database.recordBonded(peer);
+      database.save();
+    }
+  }
+
+  @Test
+  public void shouldIgnoreCorruptFile() throws IOException {
+    Files.write(path, new byte[] {1, 2, 3});
+
+    assertThat(NodeDatabase.load(path, now).getPeers()).isEmpty();
+  }
+
+  private DiscoveryPeer peer(final String host, final long lastSeen) {
+    final DiscoveryPeer peer = new DiscoveryPeer(Peer.randomId(), host, 30303, 30303);
+    peer.setLastSeen(lastSeen);
+    return peer;
+  }
+}
@@ -223,6 +223,30 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void compressedMessageRoundTrip() throws IOException {
+    final JsonNode td = MAPPER.readTree(FramerTest.class.getResource("/peer1.json"));
+    final Framer sendingFramer = new Framer(secretsFrom(td, false));
+    final Framer receivingFramer = new Framer(secretsFrom(td, true));
+    sendingFramer.enableCompression();
+    receivingFramer.enableCompression();
+
+    final byte[] data = new byte[100_000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 7);
+    }
+    final MessageData message = new RawMessage(0x10, BytesValue.wrap(data));
+
+    final ByteBuf out = Unpooled.buffer();
+    sendingFramer.frame(message, out);
+    assertThat(out.readableBytes()).isLessThanOrEqualTo(sendingFramer.maxFramedSize(data.length));
+
+    final MessageData received = receivingFramer.deframe(out);
+    assertThat(received.getCode()).isEqualTo(message.getCode());
+    assertThat(received.getData()).isEqualTo(message.getData());
+    assertThat(out.isReadable()).isFalse();
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import java.util.function.Consumer;
+
+/**
+ * Visits every node of a trie. Stored children are unloaded once they have been visited so walking
+ * a large trie doesn't hold all of it in memory.
+ */
+class AllNodesVisitor<V> implements NodeVisitor<V> {
+
+  private final Consumer<Node<V>> nodeHandler;
+  private final Consumer<V> valueHandler;
+
+  AllNodesVisitor(final Consumer<Node<V>> nodeHandler, final Consumer<V> valueHandler) {
+    this.nodeHandler = nodeHandler;
+    this.valueHandler = valueHandler;
+  }
+
+  @Override
+  public void visit(final ExtensionNode<V> extensionNode) {
+    nodeHandler.accept(extensionNode);
+    acceptAndUnload(extensionNode.getChild());
+  }
+
+  @Override
+  public void visit(final BranchNode<V> branchNode) {
+    nodeHandler.accept(branchNode);
+    branchNode.getValue().ifPresent(valueHandler);
+    for (byte i = 0; i < BranchNode.RADIX; ++i) {
+      acceptAndUnload(branchNode.child(i));
+    }
+  }
+
+  @Override
+  public void visit(final LeafNode<V> leafNode) {
+    nodeHandler.accept(leafNode);
+    leafNode.getValue().ifPresent(valueHandler);
+  }
+
+  @Override
+  public void visit(final NullNode<V> nullNode) {}
+
+  private void acceptAndUnload(final Node<V> node) {
+    node.accept(this);
+    node.unload();
+  }
+}
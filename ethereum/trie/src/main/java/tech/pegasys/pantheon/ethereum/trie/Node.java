@@ -42,4 +42,7 @@ interface Node<V> {
   boolean isDirty();
 
   String print();
+
+  /** Releases any child data loaded from storage, so it can be garbage collected. */
+  default void unload() {}
 }
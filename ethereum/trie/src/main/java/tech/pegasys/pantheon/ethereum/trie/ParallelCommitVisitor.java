@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Commits dirty nodes like {@link CommitVisitor}, but visits the dirty children of branch nodes
+ * near the root as separate {@link ForkJoinTask}s so their subtrees are encoded and hashed in
+ * parallel. Each task buffers the nodes it finds, and they are passed to the {@link NodeUpdater}
+ * from the calling thread once all tasks complete, so the updater doesn't need to be thread-safe.
+ */
+class ParallelCommitVisitor<V> implements NodeVisitor<V> {
+  // Forking at the top two levels of branches gives up to 256 tasks.
+  private static final int MAX_FORK_DEPTH = 2;
+
+  private final int depth;
+  private final boolean collectNodes;
+  private final Map<Bytes32, BytesValue> storedNodes = new HashMap<>();
+  private final CommitVisitor<V> sequentialVisitor;
+
+  private ParallelCommitVisitor(final int depth, final boolean collectNodes) {
+    this.depth = depth;
+    this.collectNodes = collectNodes;
+    this.sequentialVisitor =
+        new CommitVisitor<>(collectNodes ? storedNodes::put : (hash, value) -> {});
+  }
+
+  /**
+   * Stores every dirty node reachable from {@code root}.
+   *
+   * @param root The root of the nodes to commit.
+   * @param nodeUpdater Receives each node to be stored, on the calling thread.
+   * @param pool The pool to hash subtrees on.
+   */
+  static <V> void commit(
+      final Node<V> root, final NodeUpdater nodeUpdater, final ForkJoinPool pool) {
+    final ParallelCommitVisitor<V> visitor = new ParallelCommitVisitor<>(0, true);
+    pool.invoke(new VisitAction<>(root, visitor));
+    visitor.storedNodes.forEach(nodeUpdater::store);
+  }
+
+  /**
+   * Computes the hash of every dirty node reachable from {@code root} without storing them. The
+   * hashes are cached by the nodes, so a later commit or root hash lookup doesn't repeat the work.
+   *
+   * @param root The root of the nodes to hash.
+   * @param pool The pool to hash subtrees on.
+   */
+  static <V> void hash(final Node<V> root, final ForkJoinPool pool) {
+    final ParallelCommitVisitor<V> visitor = new ParallelCommitVisitor<>(0, false);
+    pool.invoke(new VisitAction<>(root, visitor));
+  }
+
+  @Override
+  public void visit(final ExtensionNode<V> extensionNode) {
+    if (!extensionNode.isDirty()) {
+      return;
+    }
+
+    final Node<V> child = extensionNode.getChild();
+    if (child.isDirty()) {
+      child.accept(this);
+    }
+
+    maybeStoreNode(extensionNode);
+  }
+
+  @Override
+  public void visit(final BranchNode<V> branchNode) {
+    if (!branchNode.isDirty()) {
+      return;
+    }
+    if (depth >= MAX_FORK_DEPTH) {
+      sequentialVisitor.visit(branchNode);
+      return;
+    }
+
+    final List<ParallelCommitVisitor<V>> childVisitors = new ArrayList<>();
+    final List<ForkJoinTask<?>> childTasks = new ArrayList<>();
+    for (byte i = 0; i < BranchNode.RADIX; ++i) {
+      final Node<V> child = branchNode.child(i);
+      if (child.isDirty()) {
+        final ParallelCommitVisitor<V> childVisitor =
+            new ParallelCommitVisitor<>(depth + 1, collectNodes);
+        childVisitors.add(childVisitor);
+        childTasks.add(new VisitAction<>(child, childVisitor));
+      }
+    }
+    ForkJoinTask.invokeAll(childTasks);
+    childVisitors.forEach(childVisitor -> storedNodes.putAll(childVisitor.storedNodes));
+
+    maybeStoreNode(branchNode);
+  }
+
+  @Override
+  public void visit(final LeafNode<V> leafNode) {
+    if (!leafNode.isDirty()) {
+      return;
+    }
+
+    maybeStoreNode(leafNode);
+  }
+
+  @Override
+  public void visit(final NullNode<V> nullNode) {}
+
+  private void maybeStoreNode(final Node<V> node) {
+    final BytesValue nodeRLP = node.getRlp();
+    if (nodeRLP.size() >= 32) {
+      final Bytes32 hash = node.getHash();
+      if (collectNodes) {
+        storedNodes.put(hash, nodeRLP);
+      }
+    }
+  }
+
+  private static class VisitAction<V> extends RecursiveAction {
+    private final Node<V> node;
+    private final ParallelCommitVisitor<V> visitor;
+
+    private VisitAction(final Node<V> node, final ParallelCommitVisitor<V> visitor) {
+      this.node = node;
+      this.visitor = visitor;
+    }
+
+    @Override
+    protected void compute() {
+      node.accept(visitor);
+    }
+  }
+}
@@ -20,6 +20,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -28,11 +29,16 @@ import java.util.function.Function;
  * @param <V> The type of values stored by this trie.
  */
 public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements MerklePatriciaTrie<K, V> {
+  // Fewer updates than this leave too few dirty nodes to be worth hashing in parallel.
+  static final int PARALLEL_HASHING_THRESHOLD = 128;
+
   private final GetVisitor<V> getVisitor = new GetVisitor<>();
   private final RemoveVisitor<V> removeVisitor = new RemoveVisitor<>();
   private final StoredNodeFactory<V> nodeFactory;
+  private final TrieHashingPool hashingPool;
 
   private Node<V> root;
+  private int unhashedUpdates = 0;
 
   /**
    * Create a trie.
@@ -62,7 +68,27 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
       final Bytes32 rootHash,
       final Function<V, BytesValue> valueSerializer,
       final Function<BytesValue, V> valueDeserializer) {
+    this(nodeLoader, rootHash, valueSerializer, valueDeserializer, TrieHashingPool.sequential());
+  }
+
+  /**
+   * Create a trie.
+   *
+   * @param nodeLoader The {@link NodeLoader} to retrieve node data from.
+   * @param rootHash The initial root has for the trie, which should be already present in {@code
+   *     storage}.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param hashingPool The pool used to hash the trie when enough values have been updated.
+   */
+  public StoredMerklePatriciaTrie(
+      final NodeLoader nodeLoader,
+      final Bytes32 rootHash,
+      final Function<V, BytesValue> valueSerializer,
+      final Function<BytesValue, V> valueDeserializer,
+      final TrieHashingPool hashingPool) {
     this.nodeFactory = new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer);
+    this.hashingPool = hashingPool;
     this.root =
         rootHash.equals(MerklePatriciaTrie.EMPTY_TRIE_ROOT_HASH)
             ? NullNode.instance()
@@ -80,18 +106,25 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     checkNotNull(key);
     checkNotNull(value);
     this.root = root.accept(new PutVisitor<>(nodeFactory, value), bytesToPath(key));
+    unhashedUpdates++;
   }
 
   @Override
   public void remove(final K key) {
     checkNotNull(key);
     this.root = root.accept(removeVisitor, bytesToPath(key));
+    unhashedUpdates++;
   }
 
   @Override
   public void commit(final NodeUpdater nodeUpdater) {
-    final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater);
-    root.accept(commitVisitor);
+    if (shouldHashInParallel()) {
+      hashingPool.commit(root, nodeUpdater);
+    } else {
+      final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater);
+      root.accept(commitVisitor);
+    }
+    unhashedUpdates = 0;
     // Make sure root node was stored
     if (root.isDirty() && root.getRlpRef().size() < 32) {
       nodeUpdater.store(root.getHash(), root.getRlpRef());
@@ -109,11 +142,30 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     return StorageEntriesCollector.collectEntries(root, startKeyHash, limit);
   }
 
+  /**
+   * Walks every node of the trie, loading nodes from storage as required.
+   *
+   * @param nodeHashConsumer Receives the hash of each node visited.
+   * @param valueConsumer Receives each value stored in the trie.
+   */
+  public void visitAll(final Consumer<Bytes32> nodeHashConsumer, final Consumer<V> valueConsumer) {
+    root.accept(
+        new AllNodesVisitor<>(node -> nodeHashConsumer.accept(node.getHash()), valueConsumer));
+  }
+
   @Override
   public Bytes32 getRootHash() {
+    if (shouldHashInParallel()) {
+      hashingPool.hash(root);
+      unhashedUpdates = 0;
+    }
     return root.getHash();
   }
 
+  private boolean shouldHashInParallel() {
+    return hashingPool.isParallel() && unhashedUpdates >= PARALLEL_HASHING_THRESHOLD;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
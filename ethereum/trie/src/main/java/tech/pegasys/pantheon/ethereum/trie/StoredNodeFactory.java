@@ -101,6 +101,10 @@ class StoredNodeFactory<V> implements NodeFactory<V> {
         .orElseThrow(() -> new MerkleStorageException("Missing value for hash " + hash));
   }
 
+  Node<V> decode(final BytesValue rlp) throws MerkleStorageException {
+    return decode(rlp, () -> format("Invalid RLP value %s", rlp));
+  }
+
   private Node<V> decode(final BytesValue rlp, final Supplier<String> errMessage)
       throws MerkleStorageException {
     try {
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads on which {@link StoredMerklePatriciaTrie}s encode and hash their dirty nodes. A
+ * sequential pool does all of the work on the calling thread.
+ */
+public class TrieHashingPool implements AutoCloseable {
+  private static final TrieHashingPool SEQUENTIAL = new TrieHashingPool(null);
+
+  // Null when hashing is sequential.
+  private final ForkJoinPool pool;
+
+  private TrieHashingPool(final ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /** @return A pool that hashes every trie on the calling thread. */
+  public static TrieHashingPool sequential() {
+    return SEQUENTIAL;
+  }
+
+  /**
+   * Creates a pool with its own threads, which must be closed when no longer needed.
+   *
+   * @param parallelism The number of threads to hash on, or one to hash sequentially.
+   * @return The pool.
+   */
+  public static TrieHashingPool create(final int parallelism) {
+    if (parallelism <= 1) {
+      return SEQUENTIAL;
+    }
+    return new TrieHashingPool(
+        new ForkJoinPool(parallelism, new HashingThreadFactory(), null, false));
+  }
+
+  public boolean isParallel() {
+    return pool != null;
+  }
+
+  /**
+   * Runs the given tasks, in parallel with each other if this pool is parallel.
+   *
+   * @param tasks The tasks to run.
+   */
+  public void invokeAll(final Collection<? extends Runnable> tasks) {
+    if (!isParallel()) {
+      tasks.forEach(Runnable::run);
+      return;
+    }
+    final List<ForkJoinTask<?>> actions = new ArrayList<>(tasks.size());
+    for (final Runnable task : tasks) {
+      actions.add(ForkJoinTask.adapt(task));
+    }
+    pool.invoke(new InvokeAllAction(actions));
+  }
+
+  <V> void commit(final Node<V> root, final NodeUpdater nodeUpdater) {
+    ParallelCommitVisitor.commit(root, nodeUpdater, pool);
+  }
+
+  <V> void hash(final Node<V> root) {
+    ParallelCommitVisitor.hash(root, pool);
+  }
+
+  @Override
+  public void close() {
+    if (isParallel()) {
+      pool.shutdownNow();
+    }
+  }
+
+  // Forks from a worker thread so the tasks are queued on this pool rather than the common pool.
+  private static class InvokeAllAction extends RecursiveAction {
+    private final List<ForkJoinTask<?>> actions;
+
+    private InvokeAllAction(final List<ForkJoinTask<?>> actions) {
+      this.actions = actions;
+    }
+
+    @Override
+    protected void compute() {
+      ForkJoinTask.invokeAll(actions);
+    }
+  }
+
+  private static class HashingThreadFactory implements ForkJoinWorkerThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+      final ForkJoinWorkerThread thread =
+          ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("TrieHashing-" + threadCount.getAndIncrement());
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Decodes individual trie nodes without access to the rest of the trie, for callers such as sync
+ * which receive nodes one at a time.
+ */
+public class TrieNodeDecoder {
+
+  private static final StoredNodeFactory<BytesValue> NODE_FACTORY =
+      new StoredNodeFactory<>(hash -> Optional.empty(), Function.identity(), Function.identity());
+
+  private TrieNodeDecoder() {}
+
+  /**
+   * Decodes a trie node, reporting the hash of each child node stored separately and each value
+   * held by the node or by children embedded within it.
+   *
+   * @param nodeRlp The RLP encoded node.
+   * @param childHashConsumer Receives the hash of each child node which must be loaded separately.
+   * @param valueConsumer Receives each value contained in the node.
+   * @throws MerkleStorageException If the node can't be decoded.
+   */
+  public static void decodeNode(
+      final BytesValue nodeRlp,
+      final Consumer<Bytes32> childHashConsumer,
+      final Consumer<BytesValue> valueConsumer) {
+    NODE_FACTORY.decode(nodeRlp).accept(new InlineNodesVisitor(childHashConsumer, valueConsumer));
+  }
+
+  private static class InlineNodesVisitor implements NodeVisitor<BytesValue> {
+    private final Consumer<Bytes32> childHashConsumer;
+    private final Consumer<BytesValue> valueConsumer;
+
+    private InlineNodesVisitor(
+        final Consumer<Bytes32> childHashConsumer, final Consumer<BytesValue> valueConsumer) {
+      this.childHashConsumer = childHashConsumer;
+      this.valueConsumer = valueConsumer;
+    }
+
+    @Override
+    public void visit(final ExtensionNode<BytesValue> extensionNode) {
+      visitChild(extensionNode.getChild());
+    }
+
+    @Override
+    public void visit(final BranchNode<BytesValue> branchNode) {
+      for (byte i = 0; i < BranchNode.RADIX; ++i) {
+        visitChild(branchNode.child(i));
+      }
+      branchNode.getValue().ifPresent(valueConsumer);
+    }
+
+    @Override
+    public void visit(final LeafNode<BytesValue> leafNode) {
+      leafNode.getValue().ifPresent(valueConsumer);
+    }
+
+    @Override
+    public void visit(final NullNode<BytesValue> nullNode) {}
+
+    private void visitChild(final Node<BytesValue> child) {
+      if (child instanceof StoredNode) {
+        childHashConsumer.accept(child.getHash());
+      } else {
+        child.accept(this);
+      }
+    }
+  }
+}
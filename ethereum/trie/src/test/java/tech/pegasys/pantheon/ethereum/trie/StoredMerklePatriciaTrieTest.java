@@ -15,15 +15,19 @@ package tech.pegasys.pantheon.ethereum.trie;
 import static junit.framework.TestCase.assertFalse;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import tech.pegasys.pantheon.crypto.Hash;
 import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -33,6 +37,7 @@ public class StoredMerklePatriciaTrieTest {
   private Function<String, BytesValue> valueSerializer;
   private Function<BytesValue, String> valueDeserializer;
   private StoredMerklePatriciaTrie<BytesValue, String> trie;
+  private TrieHashingPool hashingPool;
 
   @Before
   public void setup() {
@@ -42,6 +47,12 @@ public class StoredMerklePatriciaTrieTest {
         value -> (value != null) ? BytesValue.wrap(value.getBytes(Charset.forName("UTF-8"))) : null;
     valueDeserializer = bytes -> new String(bytes.getArrayUnsafe(), Charset.forName("UTF-8"));
     trie = new StoredMerklePatriciaTrie<>(merkleStorage::get, valueSerializer, valueDeserializer);
+    hashingPool = TrieHashingPool.create(4);
+  }
+
+  @After
+  public void tearDown() {
+    hashingPool.close();
   }
 
   @Test
@@ -419,4 +430,57 @@ public class StoredMerklePatriciaTrieTest {
 
     newTrie.get(BytesValue.fromHexString("0x0401"));
   }
+
+  @Test
+  public void parallelHashingMatchesSequentialHashing() {
+    final StoredMerklePatriciaTrie<BytesValue, BytesValue> sequentialTrie =
+        new StoredMerklePatriciaTrie<>(merkleStorage::get, b -> b, b -> b);
+    final StoredMerklePatriciaTrie<BytesValue, BytesValue> parallelTrie =
+        new StoredMerklePatriciaTrie<>(
+            merkleStorage::get,
+            MerklePatriciaTrie.EMPTY_TRIE_ROOT_HASH,
+            b -> b,
+            b -> b,
+            hashingPool);
+
+    for (int i = 0; i < StoredMerklePatriciaTrie.PARALLEL_HASHING_THRESHOLD * 4; i++) {
+      final BytesValue key = keccakOf(i);
+      sequentialTrie.put(key, BytesValue.of(i % 256));
+      parallelTrie.put(key, BytesValue.of(i % 256));
+    }
+
+    assertThat(parallelTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+  }
+
+  @Test
+  public void parallelCommitStoresSameNodesAsSequentialCommit() {
+    final Map<Bytes32, BytesValue> sequentialNodes = new HashMap<>();
+    final Map<Bytes32, BytesValue> parallelNodes = new HashMap<>();
+    final StoredMerklePatriciaTrie<BytesValue, BytesValue> sequentialTrie =
+        new StoredMerklePatriciaTrie<>(
+            hash -> Optional.ofNullable(sequentialNodes.get(hash)), b -> b, b -> b);
+    final StoredMerklePatriciaTrie<BytesValue, BytesValue> parallelTrie =
+        new StoredMerklePatriciaTrie<>(
+            hash -> Optional.ofNullable(parallelNodes.get(hash)),
+            MerklePatriciaTrie.EMPTY_TRIE_ROOT_HASH,
+            b -> b,
+            b -> b,
+            hashingPool);
+
+    for (int i = 0; i < StoredMerklePatriciaTrie.PARALLEL_HASHING_THRESHOLD * 4; i++) {
+      final BytesValue key = keccakOf(i);
+      sequentialTrie.put(key, BytesValue.of(i % 256));
+      parallelTrie.put(key, BytesValue.of(i % 256));
+    }
+    sequentialTrie.commit(sequentialNodes::put);
+    parallelTrie.commit(parallelNodes::put);
+
+    assertThat(parallelNodes).isEqualTo(sequentialNodes);
+    assertThat(parallelTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+    assertThat(parallelTrie.get(keccakOf(7))).contains(BytesValue.of(7));
+  }
+
+  private static BytesValue keccakOf(final int value) {
+    return Hash.keccak256(BytesValue.wrap(new byte[] {(byte) (value >> 8), (byte) value}));
+  }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class TrieNodeDecoderTest {
+
+  private final Map<Bytes32, BytesValue> storage = new HashMap<>();
+  private final StoredMerklePatriciaTrie<BytesValue, BytesValue> trie =
+      new StoredMerklePatriciaTrie<>(
+          hash -> Optional.ofNullable(storage.get(hash)), Function.identity(), Function.identity());
+
+  @Test
+  public void shouldReachEveryStoredNodeAndValueFromTheRoot() {
+    final List<BytesValue> values = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final BytesValue value = BytesValue.of(i, i, i);
+      values.add(value);
+      trie.put(Bytes32.leftPad(BytesValue.of(i)), value);
+    }
+    trie.commit(storage::put);
+
+    final List<BytesValue> decodedValues = new ArrayList<>();
+    final Deque<Bytes32> pending = new ArrayDeque<>();
+    pending.add(trie.getRootHash());
+    int nodeCount = 0;
+    while (!pending.isEmpty()) {
+      final BytesValue node = storage.get(pending.remove());
+      assertThat(node).isNotNull();
+      nodeCount++;
+      TrieNodeDecoder.decodeNode(node, pending::add, decodedValues::add);
+    }
+
+    assertThat(nodeCount).isEqualTo(storage.size());
+    assertThat(decodedValues).containsExactlyInAnyOrderElementsOf(values);
+  }
+
+  @Test
+  public void shouldReportValueOfSingleLeafRoot() {
+    final BytesValue value = BytesValue.fromHexString("0x0102030405");
+    trie.put(Bytes32.leftPad(BytesValue.of(1)), value);
+    trie.commit(storage::put);
+
+    final List<Bytes32> childHashes = new ArrayList<>();
+    final List<BytesValue> decodedValues = new ArrayList<>();
+    TrieNodeDecoder.decodeNode(
+        storage.get(trie.getRootHash()), childHashes::add, decodedValues::add);
+
+    assertThat(childHashes).isEmpty();
+    assertThat(decodedValues).containsExactly(value);
+  }
+}
@@ -75,6 +75,7 @@ public class RunnerBuilder {
   private String discoveryHost;
   private int listenPort;
   private int maxPeers;
+  private int p2pWorkerThreads = RlpxConfiguration.DEFAULT_WORKER_THREADS;
   private JsonRpcConfiguration jsonRpcConfiguration;
   private WebSocketConfiguration webSocketConfiguration;
   private Path dataDir;
@@ -117,6 +118,11 @@ public class RunnerBuilder {
     return this;
   }
 
+  public RunnerBuilder p2pWorkerThreads(final int p2pWorkerThreads) {
+    this.p2pWorkerThreads = p2pWorkerThreads;
+    return this;
+  }
+
   public RunnerBuilder jsonRpcConfiguration(final JsonRpcConfiguration jsonRpcConfiguration) {
     this.jsonRpcConfiguration = jsonRpcConfiguration;
     return this;
@@ -164,7 +170,8 @@ public class RunnerBuilder {
           DiscoveryConfiguration.create()
               .setBindPort(listenPort)
               .setAdvertisedHost(discoveryHost)
-              .setBootstrapPeers(bootstrap);
+              .setBootstrapPeers(bootstrap)
+              .setNodeDatabasePath(dataDir.resolve("nodes"));
     } else {
       discoveryConfiguration = DiscoveryConfiguration.create().setActive(false);
     }
@@ -187,7 +194,11 @@ public class RunnerBuilder {
 
     final NetworkingConfiguration networkConfig =
         new NetworkingConfiguration()
-            .setRlpx(RlpxConfiguration.create().setBindPort(listenPort).setMaxPeers(maxPeers))
+            .setRlpx(
+                RlpxConfiguration.create()
+                    .setBindPort(listenPort)
+                    .setMaxPeers(maxPeers)
+                    .setWorkerThreads(p2pWorkerThreads))
             .setDiscovery(discoveryConfiguration)
             .setClientId(PantheonInfo.version())
             .setSupportedProtocols(subProtocols);
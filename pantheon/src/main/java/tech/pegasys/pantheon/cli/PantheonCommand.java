@@ -36,9 +36,11 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApis;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.config.DiscoveryConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.config.PermissioningConfiguration;
+import tech.pegasys.pantheon.ethereum.p2p.config.RlpxConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.peers.DefaultPeer;
 import tech.pegasys.pantheon.ethereum.p2p.peers.Peer;
 import tech.pegasys.pantheon.ethereum.util.InvalidConfigurationException;
+import tech.pegasys.pantheon.ethereum.worldstate.PrunerConfiguration;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.prometheus.PrometheusMetricsSystem;
 import tech.pegasys.pantheon.util.BlockImporter;
@@ -194,6 +196,14 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   )
   private final Integer maxTrailingPeers = Integer.MAX_VALUE;
 
+  @Option(
+    names = {"--p2p-worker-threads"},
+    paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+    description =
+        "Number of threads handling p2p connections (default: number of available processors)"
+  )
+  private final Integer p2pWorkerThreads = RlpxConfiguration.DEFAULT_WORKER_THREADS;
+
   @Option(
     names = {"--banned-nodeids"},
     description = "A list of node IDs to ban from the p2p network.",
@@ -202,14 +212,13 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   )
   private final Collection<String> bannedNodeIds = new ArrayList<>();
 
-  // TODO: Re-enable as per NC-1057/NC-1681
-  //  @Option(
-  //    names = {"--sync-mode"},
-  //    paramLabel = MANDATORY_MODE_FORMAT_HELP,
-  //    description =
-  //        "Synchronization mode (Value can be one of ${COMPLETION-CANDIDATES}, default:
-  // ${DEFAULT-VALUE})"
-  //  )
+  @Option(
+    names = {"--sync-mode"},
+    paramLabel = MANDATORY_MODE_FORMAT_HELP,
+    description =
+        "Synchronization mode (Value can be one of ${COMPLETION-CANDIDATES}, "
+            + "default: ${DEFAULT-VALUE})"
+  )
   private final SyncMode syncMode = DEFAULT_SYNC_MODE;
 
   // Boolean option to indicate if the client have to sync against the ottoman test network
@@ -399,6 +408,40 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   )
   private final BytesValue extraData = DEFAULT_EXTRA_DATA;
 
+  @Option(
+    names = {"--pruning-enabled"},
+    description =
+        "Remove world state which is no longer reachable from recent blocks. Requires a database "
+            + "created by this version of Pantheon (default: ${DEFAULT-VALUE})."
+  )
+  private final Boolean isPruningEnabled = false;
+
+  @Option(
+    names = {"--pruning-blocks-retained"},
+    paramLabel = MANDATORY_INTEGER_FORMAT_HELP,
+    description =
+        "Minimum number of recent blocks for which world state is kept when pruning is enabled "
+            + "(default: ${DEFAULT-VALUE})."
+  )
+  private final Long pruningBlocksRetained = PrunerConfiguration.DEFAULT_BLOCKS_RETAINED;
+
+  @Option(
+    names = {"--world-state-snapshot-enabled"},
+    description =
+        "Keep a flat copy of the world state at the chain head so account and storage reads "
+            + "don't walk the state trie. Requires a database created by this version of Pantheon "
+            + "(default: ${DEFAULT-VALUE})."
+  )
+  private final Boolean isWorldStateSnapshotEnabled = false;
+
+  @Option(
+    names = {"--speculative-execution-enabled"},
+    description =
+        "Execute the transactions of each imported block in parallel before applying them in "
+            + "order, executing again those that conflict (default: ${DEFAULT-VALUE})."
+  )
+  private final Boolean isSpeculativeExecutionEnabled = false;
+
   // Permissioning: A list of whitelist nodes can be passed.
   @Option(
     names = {"--nodes-whitelist"},
@@ -531,6 +574,9 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
           .devMode(isDevMode)
           .nodePrivateKeyFile(getNodePrivateKeyFile())
           .metricsSystem(metricsSystem)
+          .prunerConfiguration(new PrunerConfiguration(isPruningEnabled, pruningBlocksRetained))
+          .worldStateSnapshotEnabled(isWorldStateSnapshotEnabled)
+          .speculativeExecutionEnabled(isSpeculativeExecutionEnabled)
           .build();
     } catch (final InvalidConfigurationException e) {
       throw new ExecutionException(new CommandLine(this), e.getMessage());
@@ -603,6 +649,7 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
             .discoveryHost(discoveryHostAndPort.getHost())
             .discoveryPort(discoveryHostAndPort.getPort())
             .maxPeers(maxPeers)
+            .p2pWorkerThreads(p2pWorkerThreads)
             .jsonRpcConfiguration(jsonRpcConfiguration)
             .webSocketConfiguration(webSocketConfiguration)
             .dataDir(dataDir())
@@ -18,17 +18,30 @@ import static tech.pegasys.pantheon.controller.PantheonController.DATABASE_PATH;
 import tech.pegasys.pantheon.config.GenesisConfigFile;
 import tech.pegasys.pantheon.controller.MainnetPantheonController;
 import tech.pegasys.pantheon.controller.PantheonController;
+import tech.pegasys.pantheon.controller.PruningPantheonController;
+import tech.pegasys.pantheon.controller.SnapshotPantheonController;
 import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.development.DevelopmentProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.storage.CachingStorageProvider;
+import tech.pegasys.pantheon.ethereum.storage.SnapshotStorageProvider;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.RocksDbStorageProvider;
+import tech.pegasys.pantheon.ethereum.util.InvalidConfigurationException;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
+import tech.pegasys.pantheon.ethereum.worldstate.PrunerConfiguration;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.ColumnarRocksDbKeyValueStorage;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class PantheonControllerBuilder {
 
@@ -40,6 +53,9 @@ public class PantheonControllerBuilder {
   private boolean devMode;
   private File nodePrivateKeyFile;
   private MetricsSystem metricsSystem;
+  private PrunerConfiguration prunerConfiguration = PrunerConfiguration.disabled();
+  private boolean worldStateSnapshotEnabled;
+  private boolean speculativeExecutionEnabled;
 
   public PantheonControllerBuilder synchronizerConfiguration(
       final SynchronizerConfiguration synchronizerConfiguration) {
@@ -82,23 +98,82 @@ public class PantheonControllerBuilder {
     return this;
   }
 
+  public PantheonControllerBuilder prunerConfiguration(
+      final PrunerConfiguration prunerConfiguration) {
+    this.prunerConfiguration = prunerConfiguration;
+    return this;
+  }
+
+  public PantheonControllerBuilder worldStateSnapshotEnabled(
+      final boolean worldStateSnapshotEnabled) {
+    this.worldStateSnapshotEnabled = worldStateSnapshotEnabled;
+    return this;
+  }
+
+  public PantheonControllerBuilder speculativeExecutionEnabled(
+      final boolean speculativeExecutionEnabled) {
+    this.speculativeExecutionEnabled = speculativeExecutionEnabled;
+    return this;
+  }
+
   public PantheonController<?> build() throws IOException {
+    // Trie nodes and snapshot entries can only be stored apart from other data when world state
+    // has its own segment.
+    if (prunerConfiguration.isEnabled()) {
+      checkSegmentedDatabase("Pruning", "--pruning-enabled");
+    }
+    if (worldStateSnapshotEnabled) {
+      checkSegmentedDatabase("World state snapshotting", "--world-state-snapshot-enabled");
+    }
+    PantheonController<?> controller = buildController();
+    if (worldStateSnapshotEnabled) {
+      controller = SnapshotPantheonController.init(controller);
+    }
+    if (prunerConfiguration.isEnabled()) {
+      return PruningPantheonController.init(
+          controller, prunerConfiguration.getBlocksRetained(), metricsSystem);
+    }
+    return controller;
+  }
+
+  private void checkSegmentedDatabase(final String feature, final String option) {
+    if (ColumnarRocksDbKeyValueStorage.isUnsegmentedDatabase(homePath.resolve(DATABASE_PATH))) {
+      throw new InvalidConfigurationException(
+          feature
+              + " is not supported for databases created by earlier versions of Pantheon. "
+              + "Remove "
+              + option
+              + " or sync into a new data directory.");
+    }
+  }
+
+  private PantheonController<?> buildController() throws IOException {
     // instantiate a controller with mainnet config if no genesis file is defined
     // otherwise use the indicated genesis file
     final KeyPair nodeKeys = loadKeyPair(nodePrivateKeyFile);
 
+    final StorageProvider cachingStorageProvider =
+        new CachingStorageProvider(
+            RocksDbStorageProvider.create(homePath.resolve(DATABASE_PATH)), metricsSystem);
     final StorageProvider storageProvider =
-        RocksDbStorageProvider.create(homePath.resolve(DATABASE_PATH));
+        worldStateSnapshotEnabled
+            ? new SnapshotStorageProvider(cachingStorageProvider)
+            : cachingStorageProvider;
+    final Optional<ExecutorService> speculativeExecutor = createSpeculativeExecutor();
+    final CodeCache codeCache = new CodeCache(metricsSystem);
     if (devMode) {
       final GenesisConfigFile genesisConfig = GenesisConfigFile.development();
       return MainnetPantheonController.init(
           storageProvider,
+          homePath,
           genesisConfig,
-          DevelopmentProtocolSchedule.create(genesisConfig.getConfigOptions()),
+          DevelopmentProtocolSchedule.create(
+              genesisConfig.getConfigOptions(), speculativeExecutor, codeCache),
           synchronizerConfiguration,
           miningParameters,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          speculativeExecutor);
     } else {
       final String genesisConfig = ethNetworkConfig.getGenesisConfig();
       final GenesisConfigFile genesisConfigFile = GenesisConfigFile.fromConfig(genesisConfig);
@@ -106,11 +181,27 @@ public class PantheonControllerBuilder {
           genesisConfigFile,
           synchronizerConfiguration,
           storageProvider,
+          homePath,
           syncWithOttoman,
           ethNetworkConfig.getNetworkId(),
           miningParameters,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          speculativeExecutor,
+          codeCache);
+    }
+  }
+
+  private Optional<ExecutorService> createSpeculativeExecutor() {
+    if (!speculativeExecutionEnabled) {
+      return Optional.empty();
     }
+    return Optional.of(
+        Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("SpeculativeTransactionExecution-%d")
+                .build()));
   }
 }
@@ -38,6 +38,7 @@ import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.core.Util;
 import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.db.DefaultMutableBlockchain;
@@ -55,14 +56,17 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.api.ProtocolManager;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
-import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -78,6 +82,7 @@ public class CliquePantheonController implements PantheonController<CliqueContex
   private final ProtocolManager ethProtocolManager;
   private final KeyPair keyPair;
   private final TransactionPool transactionPool;
+  private final TransactionSenderRecovery transactionSenderRecovery;
   private final Runnable closer;
 
   private final MiningCoordinator miningCoordinator;
@@ -89,6 +94,7 @@ public class CliquePantheonController implements PantheonController<CliqueContex
       final Synchronizer synchronizer,
       final KeyPair keyPair,
       final TransactionPool transactionPool,
+      final TransactionSenderRecovery transactionSenderRecovery,
       final MiningCoordinator miningCoordinator,
       final Runnable closer) {
 
@@ -98,18 +104,22 @@ public class CliquePantheonController implements PantheonController<CliqueContex
     this.synchronizer = synchronizer;
     this.keyPair = keyPair;
     this.transactionPool = transactionPool;
+    this.transactionSenderRecovery = transactionSenderRecovery;
     this.closer = closer;
     this.miningCoordinator = miningCoordinator;
   }
 
   public static PantheonController<CliqueContext> init(
       final StorageProvider storageProvider,
+      final Path dataDirectory,
       final GenesisConfigFile genesisConfig,
       final SynchronizerConfiguration taintedSyncConfig,
       final MiningParameters miningParams,
       final int networkId,
       final KeyPair nodeKeys,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
     final Address localAddress = Util.publicKeyToAddress(nodeKeys.getPublicKey());
     final CliqueConfigOptions cliqueConfig =
         genesisConfig.getConfigOptions().getCliqueConfigOptions();
@@ -118,15 +128,18 @@ public class CliquePantheonController implements PantheonController<CliqueContex
 
     final EpochManager epochManger = new EpochManager(blocksPerEpoch);
     final ProtocolSchedule<CliqueContext> protocolSchedule =
-        CliqueProtocolSchedule.create(genesisConfig.getConfigOptions(), nodeKeys);
+        CliqueProtocolSchedule.create(
+            genesisConfig.getConfigOptions(), nodeKeys, speculativeExecutor, codeCache);
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final BlockchainStorage blockchainStorage =
         storageProvider.createBlockchainStorage(protocolSchedule);
     final MutableBlockchain blockchain =
         new DefaultMutableBlockchain(genesisState.getBlock(), blockchainStorage, metricsSystem);
 
-    final WorldStateStorage worldStateStorage = storageProvider.createWorldStateStorage();
-    final WorldStateArchive worldStateArchive = new WorldStateArchive(worldStateStorage);
+    final TrieHashingPool trieHashingPool =
+        TrieHashingPool.create(Runtime.getRuntime().availableProcessors());
+    final WorldStateArchive worldStateArchive =
+        storageProvider.createWorldStateArchive(trieHashingPool);
     genesisState.writeStateTo(worldStateArchive.getMutable(Hash.EMPTY_TRIE_HASH));
 
     final ProtocolContext<CliqueContext> protocolContext =
@@ -146,6 +159,7 @@ public class CliquePantheonController implements PantheonController<CliqueContex
     final EthProtocolManager ethProtocolManager =
         new EthProtocolManager(
             protocolContext.getBlockchain(),
+            protocolContext.getWorldStateArchive(),
             networkId,
             fastSyncEnabled,
             syncConfig.downloaderParallelism(),
@@ -153,19 +167,25 @@ public class CliquePantheonController implements PantheonController<CliqueContex
     final SyncState syncState =
         new SyncState(
             protocolContext.getBlockchain(), ethProtocolManager.ethContext().getEthPeers());
+    final TransactionSenderRecovery transactionSenderRecovery = TransactionSenderRecovery.create();
     final Synchronizer synchronizer =
         new DefaultSynchronizer<>(
             syncConfig,
             protocolSchedule,
             protocolContext,
+            dataDirectory,
             ethProtocolManager.ethContext(),
             syncState,
+            transactionSenderRecovery,
             metricsSystem.createLabelledTimer(
                 MetricCategory.SYNCHRONIZER, "task", "Internal processing tasks", "taskName"));
 
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
-            protocolSchedule, protocolContext, ethProtocolManager.ethContext());
+            protocolSchedule,
+            protocolContext,
+            ethProtocolManager.ethContext(),
+            transactionSenderRecovery);
 
     final ExecutorService minerThreadPool = Executors.newCachedThreadPool();
     final CliqueMinerExecutor miningExecutor =
@@ -200,6 +220,7 @@ public class CliquePantheonController implements PantheonController<CliqueContex
         synchronizer,
         nodeKeys,
         transactionPool,
+        transactionSenderRecovery,
         miningCoordinator,
         () -> {
           miningCoordinator.disable();
@@ -209,6 +230,9 @@ public class CliquePantheonController implements PantheonController<CliqueContex
           } catch (final InterruptedException e) {
             LOG.error("Failed to shutdown miner executor");
           }
+          speculativeExecutor.ifPresent(ExecutorService::shutdownNow);
+          transactionSenderRecovery.close();
+          trieHashingPool.close();
           try {
             storageProvider.close();
           } catch (final IOException e) {
@@ -247,6 +271,11 @@ public class CliquePantheonController implements PantheonController<CliqueContex
     return transactionPool;
   }
 
+  @Override
+  public TransactionSenderRecovery getTransactionSenderRecovery() {
+    return transactionSenderRecovery;
+  }
+
   @Override
   public MiningCoordinator getMiningCoordinator() {
     return miningCoordinator;
@@ -35,6 +35,7 @@ import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.db.DefaultMutableBlockchain;
 import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
@@ -52,13 +53,17 @@ import tech.pegasys.pantheon.ethereum.p2p.api.ProtocolManager;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
-import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.logging.log4j.Logger;
 
@@ -73,6 +78,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
   private final ProtocolManager ethProtocolManager;
   private final KeyPair keyPair;
   private final TransactionPool transactionPool;
+  private final TransactionSenderRecovery transactionSenderRecovery;
   private final Runnable closer;
   private final MetricsSystem metricsStystem;
 
@@ -85,6 +91,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
       final Synchronizer synchronizer,
       final KeyPair keyPair,
       final TransactionPool transactionPool,
+      final TransactionSenderRecovery transactionSenderRecovery,
       final Runnable closer,
       final MetricsSystem metricsSystem) {
 
@@ -96,28 +103,35 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
     this.synchronizer = synchronizer;
     this.keyPair = keyPair;
     this.transactionPool = transactionPool;
+    this.transactionSenderRecovery = transactionSenderRecovery;
     this.closer = closer;
     this.metricsStystem = metricsSystem;
   }
 
   public static PantheonController<IbftContext> init(
       final StorageProvider storageProvider,
+      final Path dataDirectory,
       final GenesisConfigFile genesisConfig,
       final SynchronizerConfiguration taintedSyncConfig,
       final boolean ottomanTestnetOperation,
       final int networkId,
       final KeyPair nodeKeys,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
     final ProtocolSchedule<IbftContext> protocolSchedule =
-        IbftProtocolSchedule.create(genesisConfig.getConfigOptions());
+        IbftProtocolSchedule.create(
+            genesisConfig.getConfigOptions(), speculativeExecutor, codeCache);
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final BlockchainStorage blockchainStorage =
         storageProvider.createBlockchainStorage(protocolSchedule);
     final MutableBlockchain blockchain =
         new DefaultMutableBlockchain(genesisState.getBlock(), blockchainStorage, metricsSystem);
 
-    final WorldStateStorage worldStateStorage = storageProvider.createWorldStateStorage();
-    final WorldStateArchive worldStateArchive = new WorldStateArchive(worldStateStorage);
+    final TrieHashingPool trieHashingPool =
+        TrieHashingPool.create(Runtime.getRuntime().availableProcessors());
+    final WorldStateArchive worldStateArchive =
+        storageProvider.createWorldStateArchive(trieHashingPool);
     genesisState.writeStateTo(worldStateArchive.getMutable(Hash.EMPTY_TRIE_HASH));
 
     final IbftConfigOptions ibftConfig = genesisConfig.getConfigOptions().getIbftConfigOptions();
@@ -143,6 +157,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
       ethProtocolManager =
           new Istanbul64ProtocolManager(
               protocolContext.getBlockchain(),
+              protocolContext.getWorldStateArchive(),
               networkId,
               fastSyncEnabled,
               syncConfig.downloaderParallelism(),
@@ -152,6 +167,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
       ethProtocolManager =
           new EthProtocolManager(
               protocolContext.getBlockchain(),
+              protocolContext.getWorldStateArchive(),
               networkId,
               fastSyncEnabled,
               syncConfig.downloaderParallelism(),
@@ -161,18 +177,24 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
     final SyncState syncState =
         new SyncState(
             protocolContext.getBlockchain(), ethProtocolManager.ethContext().getEthPeers());
+    final TransactionSenderRecovery transactionSenderRecovery = TransactionSenderRecovery.create();
     final Synchronizer synchronizer =
         new DefaultSynchronizer<>(
             syncConfig,
             protocolSchedule,
             protocolContext,
+            dataDirectory,
             ethProtocolManager.ethContext(),
             syncState,
+            transactionSenderRecovery,
             metricsSystem.createLabelledTimer(
                 MetricCategory.SYNCHRONIZER, "task", "Internal processing tasks", "taskName"));
 
     final Runnable closer =
         () -> {
+          speculativeExecutor.ifPresent(ExecutorService::shutdownNow);
+          transactionSenderRecovery.close();
+          trieHashingPool.close();
           try {
             storageProvider.close();
           } catch (final IOException e) {
@@ -182,7 +204,10 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
 
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
-            protocolSchedule, protocolContext, ethProtocolManager.ethContext());
+            protocolSchedule,
+            protocolContext,
+            ethProtocolManager.ethContext(),
+            transactionSenderRecovery);
 
     return new IbftLegacyPantheonController(
         genesisConfig.getConfigOptions(),
@@ -193,6 +218,7 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
         synchronizer,
         nodeKeys,
         transactionPool,
+        transactionSenderRecovery,
         closer,
         metricsSystem);
   }
@@ -227,6 +253,11 @@ public class IbftLegacyPantheonController implements PantheonController<IbftCont
     return transactionPool;
   }
 
+  @Override
+  public TransactionSenderRecovery getTransactionSenderRecovery() {
+    return transactionSenderRecovery;
+  }
+
   @Override
   public MiningCoordinator getMiningCoordinator() {
     return null;
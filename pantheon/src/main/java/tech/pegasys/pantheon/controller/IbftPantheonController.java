@@ -42,6 +42,7 @@ import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.core.Util;
 import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.db.DefaultMutableBlockchain;
@@ -60,13 +61,16 @@ import tech.pegasys.pantheon.ethereum.p2p.api.ProtocolManager;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.p2p.wire.SubProtocol;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
-import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -84,6 +88,7 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
   private final IbftProtocolManager ibftProtocolManager;
   private final KeyPair keyPair;
   private final TransactionPool transactionPool;
+  private final TransactionSenderRecovery transactionSenderRecovery;
   private final IbftProcessor ibftProcessor;
   private final Runnable closer;
 
@@ -96,6 +101,7 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
       final Synchronizer synchronizer,
       final KeyPair keyPair,
       final TransactionPool transactionPool,
+      final TransactionSenderRecovery transactionSenderRecovery,
       final IbftProcessor ibftProcessor,
       final Runnable closer) {
 
@@ -107,28 +113,35 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
     this.synchronizer = synchronizer;
     this.keyPair = keyPair;
     this.transactionPool = transactionPool;
+    this.transactionSenderRecovery = transactionSenderRecovery;
     this.ibftProcessor = ibftProcessor;
     this.closer = closer;
   }
 
   public static PantheonController<IbftContext> init(
       final StorageProvider storageProvider,
+      final Path dataDirectory,
       final GenesisConfigFile genesisConfig,
       final SynchronizerConfiguration taintedSyncConfig,
       final MiningParameters miningParams,
       final int networkId,
       final KeyPair nodeKeys,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
     final ProtocolSchedule<IbftContext> protocolSchedule =
-        IbftProtocolSchedule.create(genesisConfig.getConfigOptions());
+        IbftProtocolSchedule.create(
+            genesisConfig.getConfigOptions(), speculativeExecutor, codeCache);
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final BlockchainStorage blockchainStorage =
         storageProvider.createBlockchainStorage(protocolSchedule);
     final MutableBlockchain blockchain =
         new DefaultMutableBlockchain(genesisState.getBlock(), blockchainStorage, metricsSystem);
 
-    final WorldStateStorage worldStateStorage = storageProvider.createWorldStateStorage();
-    final WorldStateArchive worldStateArchive = new WorldStateArchive(worldStateStorage);
+    final TrieHashingPool trieHashingPool =
+        TrieHashingPool.create(Runtime.getRuntime().availableProcessors());
+    final WorldStateArchive worldStateArchive =
+        storageProvider.createWorldStateArchive(trieHashingPool);
     genesisState.writeStateTo(worldStateArchive.getMutable(Hash.EMPTY_TRIE_HASH));
 
     final IbftConfigOptions ibftConfig = genesisConfig.getConfigOptions().getIbftConfigOptions();
@@ -149,6 +162,7 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
     final EthProtocolManager ethProtocolManager =
         new EthProtocolManager(
             protocolContext.getBlockchain(),
+            protocolContext.getWorldStateArchive(),
             networkId,
             fastSyncEnabled,
             syncConfig.downloaderParallelism(),
@@ -158,19 +172,25 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
     final SyncState syncState =
         new SyncState(
             protocolContext.getBlockchain(), ethProtocolManager.ethContext().getEthPeers());
+    final TransactionSenderRecovery transactionSenderRecovery = TransactionSenderRecovery.create();
     final Synchronizer synchronizer =
         new DefaultSynchronizer<>(
             syncConfig,
             protocolSchedule,
             protocolContext,
+            dataDirectory,
             ethProtocolManager.ethContext(),
             syncState,
+            transactionSenderRecovery,
             metricsSystem.createLabelledTimer(
                 MetricCategory.SYNCHRONIZER, "task", "Internal processing tasks", "taskName"));
 
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
-            protocolSchedule, protocolContext, ethProtocolManager.ethContext());
+            protocolSchedule,
+            protocolContext,
+            ethProtocolManager.ethContext(),
+            transactionSenderRecovery);
 
     final IbftEventQueue ibftEventQueue = new IbftEventQueue();
 
@@ -203,6 +223,9 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
           } catch (final InterruptedException e) {
             LOG.error("Failed to shutdown ibft processor executor");
           }
+          speculativeExecutor.ifPresent(ExecutorService::shutdownNow);
+          transactionSenderRecovery.close();
+          trieHashingPool.close();
           try {
             storageProvider.close();
           } catch (final IOException e) {
@@ -222,6 +245,7 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
         synchronizer,
         nodeKeys,
         transactionPool,
+        transactionSenderRecovery,
         ibftProcessor,
         closer);
   }
@@ -258,6 +282,11 @@ public class IbftPantheonController implements PantheonController<IbftContext> {
     return transactionPool;
   }
 
+  @Override
+  public TransactionSenderRecovery getTransactionSenderRecovery() {
+    return transactionSenderRecovery;
+  }
+
   @Override
   public MiningCoordinator getMiningCoordinator() {
     return null;
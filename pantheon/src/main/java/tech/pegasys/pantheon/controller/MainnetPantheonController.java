@@ -25,6 +25,7 @@ import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.db.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.db.DefaultMutableBlockchain;
 import tech.pegasys.pantheon.ethereum.db.WorldStateArchive;
@@ -41,11 +42,14 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.api.ProtocolManager;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.trie.TrieHashingPool;
 import tech.pegasys.pantheon.metrics.MetricCategory;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Clock;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -64,6 +68,7 @@ public class MainnetPantheonController implements PantheonController<Void> {
   private final Synchronizer synchronizer;
 
   private final TransactionPool transactionPool;
+  private final TransactionSenderRecovery transactionSenderRecovery;
   private final MiningCoordinator miningCoordinator;
   private final Runnable close;
 
@@ -74,6 +79,7 @@ public class MainnetPantheonController implements PantheonController<Void> {
       final Synchronizer synchronizer,
       final KeyPair keyPair,
       final TransactionPool transactionPool,
+      final TransactionSenderRecovery transactionSenderRecovery,
       final MiningCoordinator miningCoordinator,
       final Runnable close) {
     this.protocolSchedule = protocolSchedule;
@@ -82,18 +88,21 @@ public class MainnetPantheonController implements PantheonController<Void> {
     this.synchronizer = synchronizer;
     this.keyPair = keyPair;
     this.transactionPool = transactionPool;
+    this.transactionSenderRecovery = transactionSenderRecovery;
     this.miningCoordinator = miningCoordinator;
     this.close = close;
   }
 
   public static PantheonController<Void> init(
       final StorageProvider storageProvider,
+      final Path dataDirectory,
       final GenesisConfigFile genesisConfig,
       final ProtocolSchedule<Void> protocolSchedule,
       final SynchronizerConfiguration taintedSyncConfig,
       final MiningParameters miningParams,
       final KeyPair nodeKeys,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final Optional<ExecutorService> speculativeExecutor) {
 
     final GenesisState genesisState = GenesisState.fromConfig(genesisConfig, protocolSchedule);
     final BlockchainStorage blockchainStorage =
@@ -101,8 +110,10 @@ public class MainnetPantheonController implements PantheonController<Void> {
     final MutableBlockchain blockchain =
         new DefaultMutableBlockchain(genesisState.getBlock(), blockchainStorage, metricsSystem);
 
+    final TrieHashingPool trieHashingPool =
+        TrieHashingPool.create(Runtime.getRuntime().availableProcessors());
     final WorldStateArchive worldStateArchive =
-        new WorldStateArchive(storageProvider.createWorldStateStorage());
+        storageProvider.createWorldStateArchive(trieHashingPool);
     genesisState.writeStateTo(worldStateArchive.getMutable(Hash.EMPTY_TRIE_HASH));
 
     final ProtocolContext<Void> protocolContext =
@@ -113,6 +124,7 @@ public class MainnetPantheonController implements PantheonController<Void> {
     final EthProtocolManager ethProtocolManager =
         new EthProtocolManager(
             protocolContext.getBlockchain(),
+            protocolContext.getWorldStateArchive(),
             genesisConfig
                 .getConfigOptions()
                 .getChainId()
@@ -123,19 +135,25 @@ public class MainnetPantheonController implements PantheonController<Void> {
     final SyncState syncState =
         new SyncState(
             protocolContext.getBlockchain(), ethProtocolManager.ethContext().getEthPeers());
+    final TransactionSenderRecovery transactionSenderRecovery = TransactionSenderRecovery.create();
     final Synchronizer synchronizer =
         new DefaultSynchronizer<>(
             syncConfig,
             protocolSchedule,
             protocolContext,
+            dataDirectory,
             ethProtocolManager.ethContext(),
             syncState,
+            transactionSenderRecovery,
             metricsSystem.createLabelledTimer(
                 MetricCategory.SYNCHRONIZER, "task", "Internal processing tasks", "taskName"));
 
     final TransactionPool transactionPool =
         TransactionPoolFactory.createTransactionPool(
-            protocolSchedule, protocolContext, ethProtocolManager.ethContext());
+            protocolSchedule,
+            protocolContext,
+            ethProtocolManager.ethContext(),
+            transactionSenderRecovery);
 
     final ExecutorService minerThreadPool = Executors.newCachedThreadPool();
     final EthHashMinerExecutor executor =
@@ -164,6 +182,7 @@ public class MainnetPantheonController implements PantheonController<Void> {
         synchronizer,
         nodeKeys,
         transactionPool,
+        transactionSenderRecovery,
         miningCoordinator,
         () -> {
           miningCoordinator.disable();
@@ -173,6 +192,9 @@ public class MainnetPantheonController implements PantheonController<Void> {
           } catch (final InterruptedException e) {
             LOG.error("Failed to shutdown miner executor");
           }
+          speculativeExecutor.ifPresent(ExecutorService::shutdownNow);
+          transactionSenderRecovery.close();
+          trieHashingPool.close();
           try {
             storageProvider.close();
           } catch (final IOException e) {
@@ -211,6 +233,11 @@ public class MainnetPantheonController implements PantheonController<Void> {
     return transactionPool;
   }
 
+  @Override
+  public TransactionSenderRecovery getTransactionSenderRecovery() {
+    return transactionSenderRecovery;
+  }
+
   @Override
   public MiningCoordinator getMiningCoordinator() {
     return miningCoordinator;
@@ -22,6 +22,7 @@ import tech.pegasys.pantheon.ethereum.blockcreation.MiningCoordinator;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.Synchronizer;
 import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
@@ -29,11 +30,15 @@ import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 
 import java.io.Closeable;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 public interface PantheonController<C> extends Closeable {
 
@@ -43,50 +48,64 @@ public interface PantheonController<C> extends Closeable {
       final GenesisConfigFile genesisConfigFile,
       final SynchronizerConfiguration syncConfig,
       final StorageProvider storageProvider,
+      final Path dataDirectory,
       final boolean ottomanTestnetOperation,
       final int networkId,
       final MiningParameters miningParameters,
       final KeyPair nodeKeys,
-      final MetricsSystem metricsSystem) {
+      final MetricsSystem metricsSystem,
+      final Optional<ExecutorService> speculativeExecutor,
+      final CodeCache codeCache) {
 
     final GenesisConfigOptions configOptions = genesisConfigFile.getConfigOptions();
 
     if (configOptions.isEthHash()) {
       return MainnetPantheonController.init(
           storageProvider,
+          dataDirectory,
           genesisConfigFile,
-          MainnetProtocolSchedule.fromConfig(configOptions),
+          MainnetProtocolSchedule.fromConfig(configOptions, speculativeExecutor, codeCache),
           syncConfig,
           miningParameters,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          speculativeExecutor);
     } else if (configOptions.isRevisedIbft()) {
       return IbftPantheonController.init(
           storageProvider,
+          dataDirectory,
           genesisConfigFile,
           syncConfig,
           miningParameters,
           networkId,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          speculativeExecutor,
+          codeCache);
     } else if (configOptions.isIbft()) {
       return IbftLegacyPantheonController.init(
           storageProvider,
+          dataDirectory,
           genesisConfigFile,
           syncConfig,
           ottomanTestnetOperation,
           networkId,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          speculativeExecutor,
+          codeCache);
     } else if (configOptions.isClique()) {
       return CliquePantheonController.init(
           storageProvider,
+          dataDirectory,
           genesisConfigFile,
           syncConfig,
           miningParameters,
           networkId,
           nodeKeys,
-          metricsSystem);
+          metricsSystem,
+          speculativeExecutor,
+          codeCache);
     } else {
       throw new IllegalArgumentException("Unknown consensus mechanism defined");
     }
@@ -104,6 +123,8 @@ public interface PantheonController<C> extends Closeable {
 
   TransactionPool getTransactionPool();
 
+  TransactionSenderRecovery getTransactionSenderRecovery();
+
   MiningCoordinator getMiningCoordinator();
 
   default Map<String, JsonRpcMethod> getAdditionalJsonRpcMethods(
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.controller;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.ProtocolContext;
+import tech.pegasys.pantheon.ethereum.blockcreation.MiningCoordinator;
+import tech.pegasys.pantheon.ethereum.core.Synchronizer;
+import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
+import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
+import tech.pegasys.pantheon.ethereum.worldstate.MarkSweepPruner;
+import tech.pegasys.pantheon.ethereum.worldstate.Pruner;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs a {@link Pruner} against the world state of another controller, stopping it before the
+ * controller's storage is closed.
+ */
+public class PruningPantheonController<C> implements PantheonController<C> {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final PantheonController<C> delegate;
+  private final Pruner pruner;
+
+  private PruningPantheonController(final PantheonController<C> delegate, final Pruner pruner) {
+    this.delegate = delegate;
+    this.pruner = pruner;
+  }
+
+  public static <C> PantheonController<C> init(
+      final PantheonController<C> delegate,
+      final long blocksRetained,
+      final MetricsSystem metricsSystem) {
+    final ProtocolContext<C> protocolContext = delegate.getProtocolContext();
+    final Pruner pruner =
+        new Pruner(
+            new MarkSweepPruner(
+                protocolContext.getWorldStateArchive().getStorage(), metricsSystem),
+            protocolContext.getBlockchain(),
+            Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Pruner").build()),
+            blocksRetained);
+    pruner.start();
+    return new PruningPantheonController<>(delegate, pruner);
+  }
+
+  @Override
+  public ProtocolContext<C> getProtocolContext() {
+    return delegate.getProtocolContext();
+  }
+
+  @Override
+  public ProtocolSchedule<C> getProtocolSchedule() {
+    return delegate.getProtocolSchedule();
+  }
+
+  @Override
+  public Synchronizer getSynchronizer() {
+    return delegate.getSynchronizer();
+  }
+
+  @Override
+  public SubProtocolConfiguration subProtocolConfiguration() {
+    return delegate.subProtocolConfiguration();
+  }
+
+  @Override
+  public KeyPair getLocalNodeKeyPair() {
+    return delegate.getLocalNodeKeyPair();
+  }
+
+  @Override
+  public TransactionPool getTransactionPool() {
+    return delegate.getTransactionPool();
+  }
+
+  @Override
+  public TransactionSenderRecovery getTransactionSenderRecovery() {
+    return delegate.getTransactionSenderRecovery();
+  }
+
+  @Override
+  public MiningCoordinator getMiningCoordinator() {
+    return delegate.getMiningCoordinator();
+  }
+
+  @Override
+  public Map<String, JsonRpcMethod> getAdditionalJsonRpcMethods(
+      final Collection<RpcApi> enabledRpcApis) {
+    return delegate.getAdditionalJsonRpcMethods(enabledRpcApis);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      pruner.stop();
+    } catch (final InterruptedException e) {
+      LOG.error("Interrupted while stopping pruner", e);
+      Thread.currentThread().interrupt();
+    }
+    delegate.close();
+  }
+}
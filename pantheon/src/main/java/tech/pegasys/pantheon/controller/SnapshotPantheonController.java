@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.controller;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.ProtocolContext;
+import tech.pegasys.pantheon.ethereum.blockcreation.MiningCoordinator;
+import tech.pegasys.pantheon.ethereum.core.Synchronizer;
+import tech.pegasys.pantheon.ethereum.core.TransactionPool;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
+import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApi;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
+import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
+import tech.pegasys.pantheon.ethereum.p2p.config.SubProtocolConfiguration;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateSnapshotManager;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Maintains the world state snapshot of another controller with a {@link
+ * WorldStateSnapshotManager}, stopping it before the controller's storage is closed.
+ */
+public class SnapshotPantheonController<C> implements PantheonController<C> {
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final PantheonController<C> delegate;
+  private final WorldStateSnapshotManager snapshotManager;
+
+  private SnapshotPantheonController(
+      final PantheonController<C> delegate, final WorldStateSnapshotManager snapshotManager) {
+    this.delegate = delegate;
+    this.snapshotManager = snapshotManager;
+  }
+
+  public static <C> PantheonController<C> init(final PantheonController<C> delegate) {
+    final ProtocolContext<C> protocolContext = delegate.getProtocolContext();
+    final WorldStateSnapshotManager snapshotManager =
+        new WorldStateSnapshotManager(
+            protocolContext
+                .getWorldStateArchive()
+                .getSnapshot()
+                .orElseThrow(
+                    () -> new IllegalStateException("World state snapshot is not enabled")),
+            protocolContext.getBlockchain(),
+            Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("WorldStateSnapshot")
+                    .build()));
+    snapshotManager.start();
+    return new SnapshotPantheonController<>(delegate, snapshotManager);
+  }
+
+  @Override
+  public ProtocolContext<C> getProtocolContext() {
+    return delegate.getProtocolContext();
+  }
+
+  @Override
+  public ProtocolSchedule<C> getProtocolSchedule() {
+    return delegate.getProtocolSchedule();
+  }
+
+  @Override
+  public Synchronizer getSynchronizer() {
+    return delegate.getSynchronizer();
+  }
+
+  @Override
+  public SubProtocolConfiguration subProtocolConfiguration() {
+    return delegate.subProtocolConfiguration();
+  }
+
+  @Override
+  public KeyPair getLocalNodeKeyPair() {
+    return delegate.getLocalNodeKeyPair();
+  }
+
+  @Override
+  public TransactionPool getTransactionPool() {
+    return delegate.getTransactionPool();
+  }
+
+  @Override
+  public TransactionSenderRecovery getTransactionSenderRecovery() {
+    return delegate.getTransactionSenderRecovery();
+  }
+
+  @Override
+  public MiningCoordinator getMiningCoordinator() {
+    return delegate.getMiningCoordinator();
+  }
+
+  @Override
+  public Map<String, JsonRpcMethod> getAdditionalJsonRpcMethods(
+      final Collection<RpcApi> enabledRpcApis) {
+    return delegate.getAdditionalJsonRpcMethods(enabledRpcApis);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      snapshotManager.stop();
+    } catch (final InterruptedException e) {
+      LOG.error("Interrupted while stopping world state snapshot manager", e);
+      Thread.currentThread().interrupt();
+    }
+    delegate.close();
+  }
+}
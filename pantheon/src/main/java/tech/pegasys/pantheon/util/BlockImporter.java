@@ -21,6 +21,7 @@ import tech.pegasys.pantheon.ethereum.blockcreation.BlockMiner;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.mainnet.BlockHeaderValidator;
 import tech.pegasys.pantheon.ethereum.mainnet.HeaderValidationMode;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
@@ -54,6 +55,8 @@ public class BlockImporter {
           final Path blocks, final PantheonController<C> pantheonController) throws IOException {
     final ProtocolSchedule<C> protocolSchedule = pantheonController.getProtocolSchedule();
     final ProtocolContext<C> context = pantheonController.getProtocolContext();
+    final TransactionSenderRecovery transactionSenderRecovery =
+        pantheonController.getTransactionSenderRecovery();
 
     try (final RawBlockIterator iterator =
         new RawBlockIterator(
@@ -88,6 +91,7 @@ public class BlockImporter {
           throw new IllegalStateException(
               "Invalid header at block number " + header.getNumber() + ".");
         }
+        transactionSenderRecovery.recoverSenders(block.getBody().getTransactions());
         final tech.pegasys.pantheon.ethereum.core.BlockImporter<C> blockImporter =
             protocolSpec.getBlockImporter();
         final boolean blockImported =
@@ -46,6 +46,7 @@ import java.net.InetAddress;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -90,10 +91,8 @@ public final class RunnerTest {
     final SynchronizerConfiguration fastSyncConfig =
         SynchronizerConfiguration.builder()
             .syncMode(mode)
-            // TODO: Disable switch from fast to full sync via configuration for now, set pivot to
-            // realistic value when world state persistence is added.
-            //        .fastSyncPivotDistance(blockCount / 2).build();
-            .fastSyncPivotDistance(0)
+            .fastSyncPivotDistance(blockCount / 2)
+            .fastSyncMinimumPeerCount(1)
             .build();
     final MetricsSystem noOpMetricsSystem = new NoOpMetricsSystem();
 
@@ -101,12 +100,14 @@ public final class RunnerTest {
     try (final PantheonController<Void> controller =
         MainnetPantheonController.init(
             createKeyValueStorageProvider(dbAhead),
+            dbAhead,
             GenesisConfigFile.mainnet(),
             MainnetProtocolSchedule.create(),
             fastSyncConfig,
             new MiningParametersTestBuilder().enabled(false).build(),
             aheadDbNodeKeys,
-            noOpMetricsSystem)) {
+            noOpMetricsSystem,
+            Optional.empty())) {
       setupState(blockCount, controller.getProtocolSchedule(), controller.getProtocolContext());
     }
 
@@ -114,12 +115,14 @@ public final class RunnerTest {
     final PantheonController<Void> controllerAhead =
         MainnetPantheonController.init(
             createKeyValueStorageProvider(dbAhead),
+            dbAhead,
             GenesisConfigFile.mainnet(),
             MainnetProtocolSchedule.create(),
             fastSyncConfig,
             new MiningParametersTestBuilder().enabled(false).build(),
             aheadDbNodeKeys,
-            noOpMetricsSystem);
+            noOpMetricsSystem,
+            Optional.empty());
     final String listenHost = InetAddress.getLoopbackAddress().getHostAddress();
     final ExecutorService executorService = Executors.newFixedThreadPool(2);
     final JsonRpcConfiguration aheadJsonRpcConfiguration = jsonRpcConfiguration();
@@ -151,15 +154,18 @@ public final class RunnerTest {
       final WebSocketConfiguration behindWebSocketConfiguration = wsRpcConfiguration();
 
       // Setup runner with no block data
+      final Path dataDirBehind = temp.newFolder().toPath();
       final PantheonController<Void> controllerBehind =
           MainnetPantheonController.init(
               new InMemoryStorageProvider(),
+              dataDirBehind,
               GenesisConfigFile.mainnet(),
               MainnetProtocolSchedule.create(),
               fastSyncConfig,
               new MiningParametersTestBuilder().enabled(false).build(),
               KeyPair.generate(),
-              noOpMetricsSystem);
+              noOpMetricsSystem,
+              Optional.empty());
       final Runner runnerBehind =
           runnerBuilder
               .pantheonController(controllerBehind)
@@ -172,7 +178,7 @@ public final class RunnerTest {
                           runnerAhead.getP2pTcpPort())))
               .jsonRpcConfiguration(behindJsonRpcConfiguration)
               .webSocketConfiguration(behindWebSocketConfiguration)
-              .dataDir(temp.newFolder().toPath())
+              .dataDir(dataDirBehind)
               .metricsSystem(noOpMetricsSystem)
               .build();
 
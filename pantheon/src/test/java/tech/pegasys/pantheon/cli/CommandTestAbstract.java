@@ -88,6 +88,11 @@ public abstract class CommandTestAbstract {
     when(mockControllerBuilder.devMode(anyBoolean())).thenReturn(mockControllerBuilder);
     when(mockControllerBuilder.nodePrivateKeyFile(any())).thenReturn(mockControllerBuilder);
     when(mockControllerBuilder.metricsSystem(any())).thenReturn(mockControllerBuilder);
+    when(mockControllerBuilder.prunerConfiguration(any())).thenReturn(mockControllerBuilder);
+    when(mockControllerBuilder.worldStateSnapshotEnabled(anyBoolean()))
+        .thenReturn(mockControllerBuilder);
+    when(mockControllerBuilder.speculativeExecutionEnabled(anyBoolean()))
+        .thenReturn(mockControllerBuilder);
 
     when(mockSyncConfBuilder.build()).thenReturn(mockSyncConf);
   }
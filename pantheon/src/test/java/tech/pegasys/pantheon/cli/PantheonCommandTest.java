@@ -37,6 +37,7 @@ import tech.pegasys.pantheon.ethereum.eth.sync.SyncMode;
 import tech.pegasys.pantheon.ethereum.jsonrpc.JsonRpcConfiguration;
 import tech.pegasys.pantheon.ethereum.jsonrpc.RpcApis;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
+import tech.pegasys.pantheon.ethereum.worldstate.PrunerConfiguration;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.File;
@@ -58,7 +59,6 @@ import com.google.common.collect.Lists;
 import com.google.common.io.Resources;
 import org.apache.commons.text.StringEscapeUtils;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -114,6 +114,7 @@ public class PantheonCommandTest extends CommandTestAbstract {
     when(mockRunnerBuilder.discoveryHost(anyString())).thenReturn(mockRunnerBuilder);
     when(mockRunnerBuilder.discoveryPort(anyInt())).thenReturn(mockRunnerBuilder);
     when(mockRunnerBuilder.maxPeers(anyInt())).thenReturn(mockRunnerBuilder);
+    when(mockRunnerBuilder.p2pWorkerThreads(anyInt())).thenReturn(mockRunnerBuilder);
     when(mockRunnerBuilder.jsonRpcConfiguration(any())).thenReturn(mockRunnerBuilder);
     when(mockRunnerBuilder.webSocketConfiguration(any())).thenReturn(mockRunnerBuilder);
     when(mockRunnerBuilder.permissioningConfiguration(any())).thenReturn(mockRunnerBuilder);
@@ -170,6 +171,9 @@ public class PantheonCommandTest extends CommandTestAbstract {
     verify(mockControllerBuilder).miningParameters(miningArg.capture());
     verify(mockControllerBuilder).devMode(eq(false));
     verify(mockControllerBuilder).nodePrivateKeyFile(isNotNull());
+    verify(mockControllerBuilder).prunerConfiguration(eq(PrunerConfiguration.disabled()));
+    verify(mockControllerBuilder).worldStateSnapshotEnabled(eq(false));
+    verify(mockControllerBuilder).speculativeExecutionEnabled(eq(false));
     verify(mockControllerBuilder).build();
 
     verify(mockSyncConfBuilder).syncMode(ArgumentMatchers.eq(SyncMode.FULL));
@@ -317,8 +321,7 @@ public class PantheonCommandTest extends CommandTestAbstract {
     verify(mockControllerBuilder).ethNetworkConfig(eq(networkConfig));
     verify(mockControllerBuilder).syncWithOttoman(eq(false));
 
-    // TODO: Re-enable as per NC-1057/NC-1681
-    // verify(mockSyncConfBuilder).syncMode(ArgumentMatchers.eq(SyncMode.FAST));
+    verify(mockSyncConfBuilder).syncMode(ArgumentMatchers.eq(SyncMode.FAST));
 
     assertThat(commandErrorOutput.toString()).isEmpty();
 
@@ -354,8 +357,7 @@ public class PantheonCommandTest extends CommandTestAbstract {
     verify(mockControllerBuilder).devMode(eq(false));
     verify(mockControllerBuilder).build();
 
-    // TODO: Re-enable as per NC-1057/NC-1681
-    // verify(mockSyncConfBuilder).syncMode(ArgumentMatchers.eq(SyncMode.FULL));
+    verify(mockSyncConfBuilder).syncMode(ArgumentMatchers.eq(SyncMode.FULL));
 
     assertThat(commandErrorOutput.toString()).isEmpty();
 
@@ -668,7 +670,6 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
-  @Ignore
   @Test
   public void syncModeOptionMustBeUsed() {
 
@@ -1037,6 +1038,50 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void p2pWorkerThreadsOptionMustBeUsed() {
+    parseCommand("--p2p-worker-threads", "3");
+
+    verify(mockRunnerBuilder).p2pWorkerThreads(eq(3));
+    verify(mockRunnerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void pruningOptionsMustBeUsed() throws Exception {
+    parseCommand("--pruning-enabled", "--pruning-blocks-retained", "64");
+
+    verify(mockControllerBuilder).prunerConfiguration(eq(new PrunerConfiguration(true, 64)));
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void worldStateSnapshotOptionMustBeUsed() throws Exception {
+    parseCommand("--world-state-snapshot-enabled");
+
+    verify(mockControllerBuilder).worldStateSnapshotEnabled(eq(true));
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
+  @Test
+  public void speculativeExecutionOptionMustBeUsed() throws Exception {
+    parseCommand("--speculative-execution-enabled");
+
+    verify(mockControllerBuilder).speculativeExecutionEnabled(eq(true));
+    verify(mockControllerBuilder).build();
+
+    assertThat(commandOutput.toString()).isEmpty();
+    assertThat(commandErrorOutput.toString()).isEmpty();
+  }
+
   @Test
   public void rinkebyValuesAreUsed() throws Exception {
     parseCommand("--rinkeby");
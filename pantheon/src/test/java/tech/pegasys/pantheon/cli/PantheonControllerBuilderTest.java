@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.cli;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static tech.pegasys.pantheon.controller.PantheonController.DATABASE_PATH;
+
+import tech.pegasys.pantheon.ethereum.util.InvalidConfigurationException;
+import tech.pegasys.pantheon.ethereum.worldstate.PrunerConfiguration;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
+
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PantheonControllerBuilderTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldRejectPruningForUnsegmentedDatabase() throws Exception {
+    final Path dataDir = folder.newFolder().toPath();
+    RocksDbKeyValueStorage.create(dataDir.resolve(DATABASE_PATH)).close();
+
+    assertThatThrownBy(
+            () ->
+                new PantheonControllerBuilder()
+                    .homePath(dataDir)
+                    .prunerConfiguration(new PrunerConfiguration(true, 64))
+                    .build())
+        .isInstanceOf(InvalidConfigurationException.class)
+        .hasMessageContaining("--pruning-enabled");
+  }
+
+  @Test
+  public void shouldRejectWorldStateSnapshotForUnsegmentedDatabase() throws Exception {
+    final Path dataDir = folder.newFolder().toPath();
+    RocksDbKeyValueStorage.create(dataDir.resolve(DATABASE_PATH)).close();
+
+    assertThatThrownBy(
+            () ->
+                new PantheonControllerBuilder()
+                    .homePath(dataDir)
+                    .worldStateSnapshotEnabled(true)
+                    .build())
+        .isInstanceOf(InvalidConfigurationException.class)
+        .hasMessageContaining("--world-state-snapshot-enabled");
+  }
+}
@@ -21,6 +21,7 @@ import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.core.InMemoryStorageProvider;
 import tech.pegasys.pantheon.ethereum.core.MiningParametersTestBuilder;
 import tech.pegasys.pantheon.ethereum.eth.sync.SynchronizerConfiguration;
+import tech.pegasys.pantheon.ethereum.vm.CodeCache;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.testutil.BlockTestUtil;
 import tech.pegasys.pantheon.util.uint.UInt256;
@@ -29,6 +30,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 
 import com.google.common.io.Resources;
 import org.junit.Rule;
@@ -51,11 +53,14 @@ public final class BlockImporterTest {
             GenesisConfigFile.mainnet(),
             SynchronizerConfiguration.builder().build(),
             new InMemoryStorageProvider(),
+            folder.newFolder().toPath(),
             false,
             1,
             new MiningParametersTestBuilder().enabled(false).build(),
             KeyPair.generate(),
-            new NoOpMetricsSystem());
+            new NoOpMetricsSystem(),
+            Optional.empty(),
+            new CodeCache(new NoOpMetricsSystem()));
     final BlockImporter.ImportResult result =
         blockImporter.importBlockchain(source, targetController);
     assertThat(result.count).isEqualTo(1000);
@@ -83,11 +88,14 @@ public final class BlockImporterTest {
             GenesisConfigFile.fromConfig(config),
             SynchronizerConfiguration.builder().build(),
             new InMemoryStorageProvider(),
+            folder.newFolder().toPath(),
             false,
             10,
             new MiningParametersTestBuilder().enabled(false).build(),
             KeyPair.generate(),
-            new NoOpMetricsSystem());
+            new NoOpMetricsSystem(),
+            Optional.empty(),
+            new CodeCache(new NoOpMetricsSystem()));
     final BlockImporter.ImportResult result = blockImporter.importBlockchain(source, controller);
 
     assertThat(result.count).isEqualTo(959);
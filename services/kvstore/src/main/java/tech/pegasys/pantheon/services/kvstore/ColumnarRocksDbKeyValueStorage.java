@@ -0,0 +1,321 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.StorageException;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage.RocksDbEntryIterator;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.TransactionDB;
+import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * A {@link SegmentedKeyValueStorage} which stores each segment in its own RocksDB column family,
+ * with compaction, bloom filter and block cache configured from the segment's {@link
+ * SegmentedKeyValueStorage.ReadPattern}.
+ */
+public class ColumnarRocksDbKeyValueStorage implements SegmentedKeyValueStorage {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final String DEFAULT_COLUMN_FAMILY_NAME =
+      new String(RocksDB.DEFAULT_COLUMN_FAMILY, StandardCharsets.UTF_8);
+  private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+  private static final long SEQUENTIAL_BLOCK_SIZE = 64 * 1024;
+
+  private final DBOptions options;
+  private final WriteOptions writeOptions;
+  private final boolean transactional;
+  private final TransactionDBOptions txOptions;
+  private final RocksDB db;
+  // Options and filters are native objects which the column families use until the DB is closed.
+  private final List<ColumnFamilyOptions> columnFamilyOptions = new ArrayList<>();
+  private final List<BloomFilter> bloomFilters = new ArrayList<>();
+  private final List<ColumnFamilyHandle> columnHandles = new ArrayList<>();
+  private final Map<String, ColumnFamilyHandle> columnHandlesByName = new HashMap<>();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  public static SegmentedKeyValueStorage create(
+      final Path storageDirectory, final List<? extends Segment> segments)
+      throws StorageException {
+    return create(storageDirectory, segments, RocksDbConfiguration.createDefault());
+  }
+
+  public static SegmentedKeyValueStorage create(
+      final Path storageDirectory,
+      final List<? extends Segment> segments,
+      final RocksDbConfiguration configuration)
+      throws StorageException {
+    return new ColumnarRocksDbKeyValueStorage(storageDirectory, segments, configuration);
+  }
+
+  /**
+   * Checks whether the given directory holds a database written by {@link RocksDbKeyValueStorage},
+   * which keeps all data in the default column family and can't be read as segments.
+   *
+   * @param storageDirectory The database directory.
+   * @return true if a database exists and has no column families other than the default.
+   */
+  public static boolean isUnsegmentedDatabase(final Path storageDirectory) {
+    if (!Files.exists(storageDirectory.resolve("CURRENT"))) {
+      return false;
+    }
+    try (final Options options = new Options()) {
+      return RocksDB.listColumnFamilies(options, storageDirectory.toString()).size() <= 1;
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private ColumnarRocksDbKeyValueStorage(
+      final Path storageDirectory,
+      final List<? extends Segment> segments,
+      final RocksDbConfiguration configuration) {
+    try {
+      options = new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(true);
+      writeOptions = configuration.createWriteOptions();
+      transactional = configuration.isTransactional();
+      txOptions = new TransactionDBOptions();
+
+      final List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+      final boolean hasDefaultSegment =
+          segments.stream().anyMatch(s -> s.getName().equals(DEFAULT_COLUMN_FAMILY_NAME));
+      if (!hasDefaultSegment) {
+        descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY));
+      }
+      for (final Segment segment : segments) {
+        final ColumnFamilyOptions segmentOptions = createColumnFamilyOptions(segment);
+        columnFamilyOptions.add(segmentOptions);
+        descriptors.add(
+            new ColumnFamilyDescriptor(
+                segment.getName().getBytes(StandardCharsets.UTF_8), segmentOptions));
+      }
+
+      final String path = storageDirectory.toString();
+      db =
+          transactional
+              ? TransactionDB.open(options, txOptions, path, descriptors, columnHandles)
+              : RocksDB.open(options, path, descriptors, columnHandles);
+      for (int i = 0; i < descriptors.size(); i++) {
+        columnHandlesByName.put(
+            new String(descriptors.get(i).columnFamilyName(), StandardCharsets.UTF_8),
+            columnHandles.get(i));
+      }
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private ColumnFamilyOptions createColumnFamilyOptions(final Segment segment) {
+    final BlockBasedTableConfig tableConfig =
+        new BlockBasedTableConfig().setBlockCacheSize(segment.getBlockCacheSize());
+    final ColumnFamilyOptions columnOptions = new ColumnFamilyOptions();
+    switch (segment.getReadPattern()) {
+      case RANDOM:
+        final BloomFilter bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+        bloomFilters.add(bloomFilter);
+        tableConfig.setFilter(bloomFilter).setCacheIndexAndFilterBlocks(true);
+        columnOptions.setCompactionStyle(CompactionStyle.LEVEL);
+        break;
+      case SEQUENTIAL:
+        tableConfig.setBlockSize(SEQUENTIAL_BLOCK_SIZE);
+        columnOptions.setCompactionStyle(CompactionStyle.UNIVERSAL);
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported read pattern: " + segment.getReadPattern());
+    }
+    return columnOptions.setTableFormatConfig(tableConfig);
+  }
+
+  @Override
+  public Optional<BytesValue> get(final Segment segment, final BytesValue key)
+      throws StorageException {
+    throwIfClosed();
+    try {
+      return Optional.ofNullable(db.get(handle(segment), key.extractArray()))
+          .map(BytesValue::wrap);
+    } catch (final RocksDBException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public Stream<Entry> entries(final Segment segment) {
+    throwIfClosed();
+    final RocksIterator rocksIt = db.newIterator(handle(segment));
+    rocksIt.seekToFirst();
+    return new RocksDbEntryIterator(rocksIt).toStream();
+  }
+
+  @Override
+  public Transaction getStartTransaction() throws StorageException {
+    throwIfClosed();
+    if (transactional) {
+      return new RocksDbTransaction(((TransactionDB) db).beginTransaction(writeOptions));
+    }
+    return new RocksDbWriteBatchTransaction(new WriteBatch());
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      columnHandles.forEach(ColumnFamilyHandle::close);
+      db.close();
+      columnFamilyOptions.forEach(ColumnFamilyOptions::close);
+      bloomFilters.forEach(BloomFilter::close);
+      txOptions.close();
+      writeOptions.close();
+      options.close();
+    }
+  }
+
+  private ColumnFamilyHandle handle(final Segment segment) {
+    final ColumnFamilyHandle handle = columnHandlesByName.get(segment.getName());
+    if (handle == null) {
+      throw new IllegalArgumentException("Unknown segment: " + segment.getName());
+    }
+    return handle;
+  }
+
+  private void throwIfClosed() {
+    if (closed.get()) {
+      LOG.error("Attempting to use a closed ColumnarRocksDbKeyValueStorage");
+      throw new IllegalStateException("Storage has been closed");
+    }
+  }
+
+  private class RocksDbTransaction extends AbstractTransaction {
+    private final org.rocksdb.Transaction innerTx;
+
+    RocksDbTransaction(final org.rocksdb.Transaction innerTx) {
+      this.innerTx = innerTx;
+    }
+
+    @Override
+    protected void doPut(final Segment segment, final BytesValue key, final BytesValue value) {
+      try {
+        innerTx.put(handle(segment), key.extractArray(), value.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final Segment segment, final BytesValue key) {
+      try {
+        innerTx.delete(handle(segment), key.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try {
+        innerTx.commit();
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      try {
+        innerTx.rollback();
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        close();
+      }
+    }
+
+    private void close() {
+      innerTx.close();
+    }
+  }
+
+  private class RocksDbWriteBatchTransaction extends AbstractTransaction {
+    private final WriteBatch batch;
+
+    RocksDbWriteBatchTransaction(final WriteBatch batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    protected void doPut(final Segment segment, final BytesValue key, final BytesValue value) {
+      try {
+        batch.put(handle(segment), key.extractArray(), value.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final Segment segment, final BytesValue key) {
+      try {
+        batch.delete(handle(segment), key.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try {
+        db.write(writeOptions, batch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        batch.close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      batch.close();
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class InMemorySegmentedKeyValueStorage implements SegmentedKeyValueStorage {
+
+  private final Map<String, Map<BytesValue, BytesValue>> segments = new HashMap<>();
+  private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+  @Override
+  public Optional<BytesValue> get(final Segment segment, final BytesValue key) {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      return Optional.ofNullable(segments.get(segment.getName())).map(values -> values.get(key));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Stream<Entry> entries(final Segment segment) {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      // Ensure we have collected all entries before releasing the lock and returning
+      return segments
+          .getOrDefault(segment.getName(), Collections.emptyMap())
+          .entrySet()
+          .stream()
+          .map(e -> Entry.create(e.getKey(), e.getValue()))
+          .collect(Collectors.toSet())
+          .stream();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Transaction getStartTransaction() {
+    return new InMemoryTransaction();
+  }
+
+  @Override
+  public void close() {}
+
+  private class InMemoryTransaction extends AbstractTransaction {
+
+    private Map<String, Map<BytesValue, Optional<BytesValue>>> updatedValues = new HashMap<>();
+
+    @Override
+    protected void doPut(final Segment segment, final BytesValue key, final BytesValue value) {
+      updatedValues
+          .computeIfAbsent(segment.getName(), name -> new HashMap<>())
+          .put(key, Optional.of(value));
+    }
+
+    @Override
+    protected void doRemove(final Segment segment, final BytesValue key) {
+      updatedValues
+          .computeIfAbsent(segment.getName(), name -> new HashMap<>())
+          .put(key, Optional.empty());
+    }
+
+    @Override
+    protected void doCommit() {
+      final Lock lock = rwLock.writeLock();
+      lock.lock();
+      try {
+        updatedValues.forEach(this::applyUpdates);
+        updatedValues = null;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void applyUpdates(
+        final String segmentName, final Map<BytesValue, Optional<BytesValue>> updates) {
+      final Map<BytesValue, BytesValue> values =
+          segments.computeIfAbsent(segmentName, name -> new HashMap<>());
+      updates.forEach(
+          (key, value) -> {
+            if (value.isPresent()) {
+              values.put(key, value.get());
+            } else {
+              values.remove(key);
+            }
+          });
+    }
+
+    @Override
+    protected void doRollback() {
+      updatedValues = null;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.StorageException;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Transaction;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.primitives.Longs;
+
+/**
+ * A first-in, first-out queue of byte values held in a {@link KeyValueStorage}. When backed by a
+ * persistent store the queue survives restarts, so long-running work can resume where it stopped.
+ *
+ * <p>Items are stored under their sequence number. The sequence numbers of the head and tail of the
+ * queue are kept alongside them and updated in the same transaction as the items.
+ */
+public class KeyValueStorageQueue implements Closeable {
+
+  private static final BytesValue HEAD_KEY = BytesValue.of(0);
+  private static final BytesValue TAIL_KEY = BytesValue.of(1);
+
+  private final KeyValueStorage storage;
+  private long head;
+  private long tail;
+
+  public KeyValueStorageQueue(final KeyValueStorage storage) throws StorageException {
+    this.storage = storage;
+    this.head = readIndex(HEAD_KEY);
+    this.tail = readIndex(TAIL_KEY);
+  }
+
+  public synchronized void enqueue(final BytesValue value) throws StorageException {
+    final Transaction transaction = storage.getStartTransaction();
+    transaction.put(encodeIndex(tail), value);
+    transaction.put(TAIL_KEY, encodeIndex(tail + 1));
+    transaction.commit();
+    tail++;
+  }
+
+  public synchronized void enqueueAll(final Collection<BytesValue> values)
+      throws StorageException {
+    if (values.isEmpty()) {
+      return;
+    }
+    final Transaction transaction = storage.getStartTransaction();
+    long newTail = tail;
+    for (final BytesValue value : values) {
+      transaction.put(encodeIndex(newTail++), value);
+    }
+    transaction.put(TAIL_KEY, encodeIndex(newTail));
+    transaction.commit();
+    tail = newTail;
+  }
+
+  /**
+   * Removes items from the head of the queue.
+   *
+   * @param maxItems The maximum number of items to remove.
+   * @return The removed items in the order they were added, or an empty list if the queue is empty.
+   */
+  public synchronized List<BytesValue> dequeue(final int maxItems) throws StorageException {
+    final List<BytesValue> values = new ArrayList<>(Math.min(maxItems, Math.toIntExact(size())));
+    if (head == tail) {
+      return values;
+    }
+    final Transaction transaction = storage.getStartTransaction();
+    long newHead = head;
+    while (newHead < tail && values.size() < maxItems) {
+      final BytesValue key = encodeIndex(newHead++);
+      storage.get(key).ifPresent(values::add);
+      transaction.remove(key);
+    }
+    transaction.put(HEAD_KEY, encodeIndex(newHead));
+    transaction.commit();
+    head = newHead;
+    return values;
+  }
+
+  public synchronized long size() {
+    return tail - head;
+  }
+
+  public synchronized boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public synchronized void clear() throws StorageException {
+    final Transaction transaction = storage.getStartTransaction();
+    for (long index = head; index < tail; index++) {
+      transaction.remove(encodeIndex(index));
+    }
+    transaction.put(HEAD_KEY, encodeIndex(0));
+    transaction.put(TAIL_KEY, encodeIndex(0));
+    transaction.commit();
+    head = 0;
+    tail = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    storage.close();
+  }
+
+  private long readIndex(final BytesValue key) {
+    return storage.get(key).map(value -> Longs.fromByteArray(value.extractArray())).orElse(0L);
+  }
+
+  private static BytesValue encodeIndex(final long index) {
+    return BytesValue.wrap(Longs.toByteArray(index));
+  }
+}
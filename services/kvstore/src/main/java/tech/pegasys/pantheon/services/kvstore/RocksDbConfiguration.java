@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import org.rocksdb.WriteOptions;
+
+/** Controls how RocksDB backed storage commits changes. */
+public class RocksDbConfiguration {
+
+  private final boolean transactional;
+  private final boolean syncWrites;
+  private final boolean writeAheadLogEnabled;
+
+  private RocksDbConfiguration(
+      final boolean transactional, final boolean syncWrites, final boolean writeAheadLogEnabled) {
+    this.transactional = transactional;
+    this.syncWrites = syncWrites;
+    this.writeAheadLogEnabled = writeAheadLogEnabled;
+  }
+
+  public static RocksDbConfiguration createDefault() {
+    return builder().build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return true if changes should be committed through pessimistic RocksDB transactions, which
+   *     track a lock for every written key. Otherwise changes are collected into a write batch and
+   *     applied atomically in a single write.
+   */
+  public boolean isTransactional() {
+    return transactional;
+  }
+
+  public boolean isSyncWrites() {
+    return syncWrites;
+  }
+
+  public boolean isWriteAheadLogEnabled() {
+    return writeAheadLogEnabled;
+  }
+
+  WriteOptions createWriteOptions() {
+    return new WriteOptions().setSync(syncWrites).setDisableWAL(!writeAheadLogEnabled);
+  }
+
+  public static class Builder {
+
+    private boolean transactional = false;
+    private boolean syncWrites = false;
+    private boolean writeAheadLogEnabled = true;
+
+    public Builder transactional(final boolean transactional) {
+      this.transactional = transactional;
+      return this;
+    }
+
+    public Builder syncWrites(final boolean syncWrites) {
+      this.syncWrites = syncWrites;
+      return this;
+    }
+
+    /**
+     * Disabling the write-ahead log speeds up bulk writes such as a full sync, at the cost of
+     * losing recent, unflushed commits if the process crashes.
+     */
+    public Builder writeAheadLogEnabled(final boolean writeAheadLogEnabled) {
+      this.writeAheadLogEnabled = writeAheadLogEnabled;
+      return this;
+    }
+
+    public RocksDbConfiguration build() {
+      return new RocksDbConfiguration(transactional, syncWrites, writeAheadLogEnabled);
+    }
+  }
+}
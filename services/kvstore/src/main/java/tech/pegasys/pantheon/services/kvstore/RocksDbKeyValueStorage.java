@@ -33,6 +33,7 @@ import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
@@ -40,8 +41,10 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   private static final Logger LOG = LogManager.getLogger();
 
   private final Options options;
+  private final WriteOptions writeOptions;
+  private final boolean transactional;
   private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final RocksDB db;
   private final AtomicBoolean closed = new AtomicBoolean(false);
 
   static {
@@ -49,14 +52,26 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   }
 
   public static KeyValueStorage create(final Path storageDirectory) throws StorageException {
-    return new RocksDbKeyValueStorage(storageDirectory);
+    return create(storageDirectory, RocksDbConfiguration.createDefault());
   }
 
-  private RocksDbKeyValueStorage(final Path storageDirectory) {
+  public static KeyValueStorage create(
+      final Path storageDirectory, final RocksDbConfiguration configuration)
+      throws StorageException {
+    return new RocksDbKeyValueStorage(storageDirectory, configuration);
+  }
+
+  private RocksDbKeyValueStorage(
+      final Path storageDirectory, final RocksDbConfiguration configuration) {
     try {
       options = new Options().setCreateIfMissing(true);
+      writeOptions = configuration.createWriteOptions();
+      transactional = configuration.isTransactional();
       txOptions = new TransactionDBOptions();
-      db = TransactionDB.open(options, txOptions, storageDirectory.toString());
+      db =
+          transactional
+              ? TransactionDB.open(options, txOptions, storageDirectory.toString())
+              : RocksDB.open(options, storageDirectory.toString());
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
@@ -95,8 +110,10 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   @Override
   public Transaction getStartTransaction() throws StorageException {
     throwIfClosed();
-    final WriteOptions options = new WriteOptions();
-    return new RocksDbTransaction(db.beginTransaction(options), options);
+    if (transactional) {
+      return new RocksDbTransaction(((TransactionDB) db).beginTransaction(writeOptions));
+    }
+    return new RocksDbWriteBatchTransaction(new WriteBatch());
   }
 
   @Override
@@ -111,6 +128,7 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   public void close() {
     if (closed.compareAndSet(false, true)) {
       txOptions.close();
+      writeOptions.close();
       options.close();
       db.close();
     }
@@ -131,7 +149,7 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
    * transformed to a stream (see {@link #toStream}), iterator is automatically closed when the
    * stream is closed.
    */
-  private static class RocksDbEntryIterator implements Iterator<Entry>, AutoCloseable {
+  static class RocksDbEntryIterator implements Iterator<Entry>, AutoCloseable {
     private final RocksIterator rocksIt;
     private volatile boolean closed = false;
 
@@ -180,11 +198,9 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
 
   private static class RocksDbTransaction extends AbstractTransaction {
     private final org.rocksdb.Transaction innerTx;
-    private final WriteOptions options;
 
-    RocksDbTransaction(final org.rocksdb.Transaction innerTx, final WriteOptions options) {
+    RocksDbTransaction(final org.rocksdb.Transaction innerTx) {
       this.innerTx = innerTx;
-      this.options = options;
     }
 
     @Override
@@ -229,7 +245,53 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
 
     private void close() {
       innerTx.close();
-      options.close();
+    }
+  }
+
+  /**
+   * Collects changes into a {@link WriteBatch} and applies them with a single atomic write. Unlike
+   * {@link RocksDbTransaction} no per-key locks are taken, so concurrent transactions writing the
+   * same key resolve as last commit wins.
+   */
+  private class RocksDbWriteBatchTransaction extends AbstractTransaction {
+    private final WriteBatch batch;
+
+    RocksDbWriteBatchTransaction(final WriteBatch batch) {
+      this.batch = batch;
+    }
+
+    @Override
+    protected void doPut(final BytesValue key, final BytesValue value) {
+      try {
+        batch.put(key.extractArray(), value.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final BytesValue key) {
+      try {
+        batch.delete(key.extractArray());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try {
+        db.write(writeOptions, batch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        batch.close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      batch.close();
     }
   }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.StorageException;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.Closeable;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Key-value storage split into independent segments. Each segment has its own keyspace and may be
+ * tuned separately by the underlying implementation, while transactions can still atomically
+ * update several segments at once.
+ */
+public interface SegmentedKeyValueStorage extends Closeable {
+
+  /**
+   * @param segment The segment to read from.
+   * @param key Index into the segment.
+   * @return The value persisted at the key index.
+   */
+  Optional<BytesValue> get(Segment segment, BytesValue key) throws StorageException;
+
+  /**
+   * Stream all key-value pairs stored in a segment. The stream must be closed once it is no longer
+   * needed.
+   *
+   * @param segment The segment to read from.
+   * @return A stream of the key-value pairs contained in the segment.
+   */
+  Stream<Entry> entries(Segment segment);
+
+  /**
+   * Begins a transaction. Returns a transaction object that can be updated and committed.
+   *
+   * @return An object representing the transaction.
+   */
+  Transaction getStartTransaction() throws StorageException;
+
+  /** Identifies a segment and describes how its data is accessed. */
+  interface Segment {
+
+    String getName();
+
+    ReadPattern getReadPattern();
+
+    /** @return The number of bytes of block cache to dedicate to this segment. */
+    long getBlockCacheSize();
+  }
+
+  /** How the data in a segment is predominantly read. */
+  enum ReadPattern {
+    /** Point lookups of keys with no locality, such as trie nodes addressed by hash. */
+    RANDOM,
+    /** Larger values read roughly in insertion order, such as block bodies and receipts. */
+    SEQUENTIAL
+  }
+
+  /**
+   * Represents a set of changes, possibly spanning several segments, to be committed atomically. A
+   * single transaction is not thread-safe, but multiple transactions can execute concurrently.
+   */
+  interface Transaction {
+
+    /**
+     * Add the given key-value pair to the set of updates to be committed.
+     *
+     * @param segment The segment the key belongs to.
+     * @param key The key to set / modify.
+     * @param value The value to be set.
+     */
+    void put(Segment segment, BytesValue key, BytesValue value);
+
+    /**
+     * Schedules the given key to be deleted from storage.
+     *
+     * @param segment The segment the key belongs to.
+     * @param key The key to delete
+     */
+    void remove(Segment segment, BytesValue key);
+
+    /**
+     * Atomically commit the set of changes contained in this transaction to the underlying
+     * storage. After committing, the transaction is no longer usable and will throw exceptions if
+     * modifications are attempted.
+     */
+    void commit() throws StorageException;
+
+    /**
+     * Cancel this transaction. After rolling back, the transaction is no longer usable and will
+     * throw exceptions if modifications are attempted.
+     */
+    void rollback();
+  }
+
+  abstract class AbstractTransaction implements Transaction {
+
+    private boolean active = true;
+
+    @Override
+    public final void put(final Segment segment, final BytesValue key, final BytesValue value) {
+      checkState(active, "Cannot invoke put() on a completed transaction.");
+      doPut(segment, key, value);
+    }
+
+    @Override
+    public final void remove(final Segment segment, final BytesValue key) {
+      checkState(active, "Cannot invoke remove() on a completed transaction.");
+      doRemove(segment, key);
+    }
+
+    @Override
+    public final void commit() throws StorageException {
+      checkState(active, "Cannot commit a completed transaction.");
+      active = false;
+      doCommit();
+    }
+
+    @Override
+    public final void rollback() {
+      checkState(active, "Cannot rollback a completed transaction.");
+      active = false;
+      doRollback();
+    }
+
+    protected abstract void doPut(Segment segment, BytesValue key, BytesValue value);
+
+    protected abstract void doRemove(Segment segment, BytesValue key);
+
+    protected abstract void doCommit() throws StorageException;
+
+    protected abstract void doRollback();
+  }
+}
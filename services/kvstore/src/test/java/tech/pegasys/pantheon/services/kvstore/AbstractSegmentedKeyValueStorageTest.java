@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static org.junit.Assert.assertEquals;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.ReadPattern;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Segment;
+import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Transaction;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+@Ignore
+public abstract class AbstractSegmentedKeyValueStorageTest {
+
+  protected static final Segment FIRST = new TestSegment("first", ReadPattern.RANDOM);
+  protected static final Segment SECOND = new TestSegment("second", ReadPattern.SEQUENTIAL);
+  protected static final List<Segment> SEGMENTS = Arrays.asList(FIRST, SECOND);
+
+  protected abstract SegmentedKeyValueStorage createStore() throws Exception;
+
+  @Test
+  public void segmentsAreIndependent() throws Exception {
+    final SegmentedKeyValueStorage store = createStore();
+
+    final Transaction tx = store.getStartTransaction();
+    tx.put(FIRST, BytesValue.of(1), BytesValue.of(10));
+    tx.put(SECOND, BytesValue.of(1), BytesValue.of(20));
+    tx.commit();
+
+    assertEquals(Optional.of(BytesValue.of(10)), store.get(FIRST, BytesValue.of(1)));
+    assertEquals(Optional.of(BytesValue.of(20)), store.get(SECOND, BytesValue.of(1)));
+  }
+
+  @Test
+  public void removeOnlyAffectsItsSegment() throws Exception {
+    final SegmentedKeyValueStorage store = createStore();
+
+    final Transaction tx = store.getStartTransaction();
+    tx.put(FIRST, BytesValue.of(1), BytesValue.of(10));
+    tx.put(SECOND, BytesValue.of(1), BytesValue.of(20));
+    tx.commit();
+
+    final Transaction removeTx = store.getStartTransaction();
+    removeTx.remove(FIRST, BytesValue.of(1));
+    removeTx.commit();
+
+    assertEquals(Optional.empty(), store.get(FIRST, BytesValue.of(1)));
+    assertEquals(Optional.of(BytesValue.of(20)), store.get(SECOND, BytesValue.of(1)));
+  }
+
+  @Test
+  public void transactionCommitSpansSegments() throws Exception {
+    final SegmentedKeyValueStorage store = createStore();
+
+    final Transaction tx = store.getStartTransaction();
+    tx.put(FIRST, BytesValue.of(1), BytesValue.of(1));
+    tx.put(SECOND, BytesValue.of(2), BytesValue.of(2));
+
+    // Check values before committing have not changed
+    assertEquals(Optional.empty(), store.get(FIRST, BytesValue.of(1)));
+    assertEquals(Optional.empty(), store.get(SECOND, BytesValue.of(2)));
+
+    tx.commit();
+
+    assertEquals(Optional.of(BytesValue.of(1)), store.get(FIRST, BytesValue.of(1)));
+    assertEquals(Optional.of(BytesValue.of(2)), store.get(SECOND, BytesValue.of(2)));
+  }
+
+  @Test
+  public void transactionRollback() throws Exception {
+    final SegmentedKeyValueStorage store = createStore();
+
+    final Transaction tx = store.getStartTransaction();
+    tx.put(FIRST, BytesValue.of(1), BytesValue.of(1));
+    tx.put(SECOND, BytesValue.of(2), BytesValue.of(2));
+    tx.rollback();
+
+    assertEquals(Optional.empty(), store.get(FIRST, BytesValue.of(1)));
+    assertEquals(Optional.empty(), store.get(SECOND, BytesValue.of(2)));
+  }
+
+  @Test
+  public void entriesOnlyIncludeTheSegment() throws Exception {
+    final SegmentedKeyValueStorage store = createStore();
+
+    final Transaction tx = store.getStartTransaction();
+    tx.put(FIRST, BytesValue.of(1), BytesValue.of(10));
+    tx.put(FIRST, BytesValue.of(2), BytesValue.of(20));
+    tx.put(SECOND, BytesValue.of(3), BytesValue.of(30));
+    tx.commit();
+
+    final Set<Entry> expectedEntries =
+        new HashSet<>(
+            Arrays.asList(
+                Entry.create(BytesValue.of(1), BytesValue.of(10)),
+                Entry.create(BytesValue.of(2), BytesValue.of(20))));
+    try (final Stream<Entry> entries = store.entries(FIRST)) {
+      assertEquals(expectedEntries, entries.collect(Collectors.toSet()));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void transactionPutAfterCommit() throws Exception {
+    final SegmentedKeyValueStorage store = createStore();
+    final Transaction tx = store.getStartTransaction();
+    tx.commit();
+    tx.put(FIRST, BytesValue.of(1), BytesValue.of(1));
+  }
+
+  private static class TestSegment implements Segment {
+    private final String name;
+    private final ReadPattern readPattern;
+
+    private TestSegment(final String name, final ReadPattern readPattern) {
+      this.name = name;
+      this.readPattern = readPattern;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public ReadPattern getReadPattern() {
+      return readPattern;
+    }
+
+    @Override
+    public long getBlockCacheSize() {
+      return 1024 * 1024;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ColumnarRocksDbKeyValueStorageTest extends AbstractSegmentedKeyValueStorageTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  protected SegmentedKeyValueStorage createStore() throws Exception {
+    return ColumnarRocksDbKeyValueStorage.create(folder.newFolder().toPath(), SEGMENTS);
+  }
+
+  @Test
+  public void valuesSurviveReopening() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final SegmentedKeyValueStorage store =
+        ColumnarRocksDbKeyValueStorage.create(directory, SEGMENTS);
+    final SegmentedKeyValueStorage.Transaction tx = store.getStartTransaction();
+    tx.put(SECOND, BytesValue.of(1), BytesValue.of(2));
+    tx.commit();
+    store.close();
+
+    final SegmentedKeyValueStorage reopened =
+        ColumnarRocksDbKeyValueStorage.create(directory, SEGMENTS);
+    assertEquals(Optional.of(BytesValue.of(2)), reopened.get(SECOND, BytesValue.of(1)));
+    reopened.close();
+  }
+
+  @Test
+  public void detectsUnsegmentedDatabase() throws Exception {
+    final Path unsegmented = folder.newFolder().toPath();
+    RocksDbKeyValueStorage.create(unsegmented).close();
+    assertTrue(ColumnarRocksDbKeyValueStorage.isUnsegmentedDatabase(unsegmented));
+
+    final Path segmented = folder.newFolder().toPath();
+    ColumnarRocksDbKeyValueStorage.create(segmented, SEGMENTS).close();
+    assertFalse(ColumnarRocksDbKeyValueStorage.isUnsegmentedDatabase(segmented));
+
+    assertFalse(ColumnarRocksDbKeyValueStorage.isUnsegmentedDatabase(folder.newFolder().toPath()));
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class KeyValueStorageQueueTest {
+
+  private static final BytesValue ONE = BytesValue.of(1);
+  private static final BytesValue TWO = BytesValue.of(2);
+  private static final BytesValue THREE = BytesValue.of(3);
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void dequeuesInInsertionOrder() {
+    final KeyValueStorageQueue queue = new KeyValueStorageQueue(new InMemoryKeyValueStorage());
+    queue.enqueue(ONE);
+    queue.enqueueAll(asList(TWO, THREE));
+
+    assertEquals(3, queue.size());
+    assertEquals(asList(ONE, TWO), queue.dequeue(2));
+    assertEquals(asList(THREE), queue.dequeue(2));
+    assertTrue(queue.isEmpty());
+    assertEquals(emptyList(), queue.dequeue(2));
+  }
+
+  @Test
+  public void clearRemovesAllItems() {
+    final KeyValueStorageQueue queue = new KeyValueStorageQueue(new InMemoryKeyValueStorage());
+    queue.enqueueAll(asList(ONE, TWO));
+    queue.clear();
+
+    assertTrue(queue.isEmpty());
+    queue.enqueue(THREE);
+    assertEquals(asList(THREE), queue.dequeue(10));
+  }
+
+  @Test
+  public void itemsSurviveReopening() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    try (final KeyValueStorageQueue queue =
+        new KeyValueStorageQueue(RocksDbKeyValueStorage.create(directory))) {
+      queue.enqueueAll(asList(ONE, TWO, THREE));
+      assertEquals(asList(ONE), queue.dequeue(1));
+    }
+
+    try (final KeyValueStorageQueue queue =
+        new KeyValueStorageQueue(RocksDbKeyValueStorage.create(directory))) {
+      assertEquals(2, queue.size());
+      assertEquals(asList(TWO, THREE), queue.dequeue(10));
+    }
+  }
+}
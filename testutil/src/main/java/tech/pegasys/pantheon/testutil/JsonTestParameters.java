@@ -163,6 +163,21 @@ public class JsonTestParameters<S, T> {
     return generate(getFilteredFiles(paths));
   }
 
+  /**
+   * Generates the test parameters from directories on the file system rather than from the
+   * classpath, for callers such as benchmarks that don't run with the test resources.
+   *
+   * @param directories The directories to read the test case files from.
+   * @return The test parameters.
+   */
+  public Collection<Object[]> generate(final Path... directories) {
+    final List<File> files = new ArrayList<>();
+    for (final Path directory : directories) {
+      addFilteredFiles(directory, files);
+    }
+    return generate(files);
+  }
+
   private Collection<Object[]> generate(final Collection<File> filteredFiles) {
     checkState(generator != null, "Missing generator function");
 
@@ -203,18 +218,22 @@ public class JsonTestParameters<S, T> {
       } catch (final URISyntaxException e) {
         throw new RuntimeException("Problem converting URL to URI " + url, e);
       }
-      try (final Stream<Path> s = Files.walk(dir)) {
-        s.map(Path::toFile)
-            .filter(f -> f.getPath().endsWith(".json"))
-            .filter(f -> !fileExcludes.contains(f.getName()))
-            .forEach(files::add);
-      } catch (final IOException e) {
-        throw new RuntimeException("Problem reading directory " + dir, e);
-      }
+      addFilteredFiles(dir, files);
     }
     return files;
   }
 
+  private void addFilteredFiles(final Path dir, final List<File> files) {
+    try (final Stream<Path> s = Files.walk(dir)) {
+      s.map(Path::toFile)
+          .filter(f -> f.getPath().endsWith(".json"))
+          .filter(f -> !fileExcludes.contains(f.getName()))
+          .forEach(files::add);
+    } catch (final IOException e) {
+      throw new RuntimeException("Problem reading directory " + dir, e);
+    }
+  }
+
   private JsonTestCaseReader<S> parseFile(final File file) {
     final JavaType javaType =
         objectMapper
@@ -0,0 +1,604 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.util.uint;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+/**
+ * A mutable 256 bits integer held as four 64 bits limbs, for arithmetic that has to be fast and
+ * produce little garbage, like the EVM's.
+ *
+ * <p>Unlike {@link UInt256Bytes}, nothing goes through {@link java.math.BigInteger}: every
+ * operation updates this value in place, and only division and the modular operations use small
+ * scratch arrays. Values are unsigned unless an operation says otherwise, in which case they are
+ * read as two's complement. As with the EVM, all results wrap modulo 2^256 and division or modulo
+ * by zero gives zero.
+ */
+public final class UInt256Limbs {
+
+  private static final int LIMBS = 4;
+  private static final long INT_MASK = 0xffffffffL;
+
+  // Least significant limb first.
+  private final long[] limbs = new long[LIMBS];
+
+  /** Creates a value of zero. */
+  public UInt256Limbs() {}
+
+  public static UInt256Limbs of(final Bytes32 bytes) {
+    return new UInt256Limbs().set(bytes);
+  }
+
+  public static UInt256Limbs of(final long value) {
+    return new UInt256Limbs().set(value);
+  }
+
+  public UInt256Limbs set(final Bytes32 bytes) {
+    limbs[3] = bytes.getLong(0);
+    limbs[2] = bytes.getLong(8);
+    limbs[1] = bytes.getLong(16);
+    limbs[0] = bytes.getLong(24);
+    return this;
+  }
+
+  /**
+   * @param value The value to set, read as unsigned.
+   * @return This value.
+   */
+  public UInt256Limbs set(final long value) {
+    limbs[0] = value;
+    limbs[1] = 0;
+    limbs[2] = 0;
+    limbs[3] = 0;
+    return this;
+  }
+
+  public UInt256Limbs set(final UInt256Limbs other) {
+    System.arraycopy(other.limbs, 0, limbs, 0, LIMBS);
+    return this;
+  }
+
+  public Bytes32 toBytes32() {
+    final MutableBytes32 bytes = MutableBytes32.create();
+    bytes.setLong(0, limbs[3]);
+    bytes.setLong(8, limbs[2]);
+    bytes.setLong(16, limbs[1]);
+    bytes.setLong(24, limbs[0]);
+    return bytes;
+  }
+
+  public boolean isZero() {
+    return (limbs[0] | limbs[1] | limbs[2] | limbs[3]) == 0;
+  }
+
+  /** @return True if the value, read as two's complement, is negative. */
+  public boolean isNegative() {
+    return limbs[3] < 0;
+  }
+
+  /**
+   * @param bound An upper bound, read as unsigned.
+   * @return True if this value is strictly less than {@code bound}.
+   */
+  public boolean lessThan(final long bound) {
+    return (limbs[1] | limbs[2] | limbs[3]) == 0 && Long.compareUnsigned(limbs[0], bound) < 0;
+  }
+
+  /**
+   * Returns the least significant 32 bits of the value, which is only the whole value when {@link
+   * #lessThan(long)} holds for a bound that fits an int.
+   *
+   * @return The least significant 32 bits.
+   */
+  public int lowInt() {
+    return (int) limbs[0];
+  }
+
+  public int bitLength() {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      if (limbs[i] != 0) {
+        return i * 64 + 64 - Long.numberOfLeadingZeros(limbs[i]);
+      }
+    }
+    return 0;
+  }
+
+  public int compareTo(final UInt256Limbs other) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final int cmp = Long.compareUnsigned(limbs[i], other.limbs[i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @param other The value to compare to.
+   * @return The result of comparing both values as two's complement.
+   */
+  public int compareSignedTo(final UInt256Limbs other) {
+    final int cmp = Long.compare(limbs[3], other.limbs[3]);
+    if (cmp != 0) {
+      return cmp;
+    }
+    for (int i = LIMBS - 2; i >= 0; i--) {
+      final int limbCmp = Long.compareUnsigned(limbs[i], other.limbs[i]);
+      if (limbCmp != 0) {
+        return limbCmp;
+      }
+    }
+    return 0;
+  }
+
+  // Arithmetic
+
+  public UInt256Limbs add(final UInt256Limbs other) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long partial = limbs[i] + other.limbs[i];
+      final long sum = partial + carry;
+      carry = unsignedLessThan(partial, limbs[i]) | unsignedLessThan(sum, partial);
+      limbs[i] = sum;
+    }
+    // The final carry is discarded since we work modulo 2^256.
+    return this;
+  }
+
+  public UInt256Limbs subtract(final UInt256Limbs other) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long partial = limbs[i] - other.limbs[i];
+      final long difference = partial - borrow;
+      borrow = unsignedLessThan(limbs[i], other.limbs[i]) | unsignedLessThan(partial, borrow);
+      limbs[i] = difference;
+    }
+    return this;
+  }
+
+  public UInt256Limbs multiply(final UInt256Limbs other) {
+    final long[] product = new long[LIMBS];
+    multiplyInto(limbs, other.limbs, product, LIMBS);
+    System.arraycopy(product, 0, limbs, 0, LIMBS);
+    return this;
+  }
+
+  public UInt256Limbs divide(final UInt256Limbs divisor) {
+    if (divisor.isZero()) {
+      return set(0);
+    }
+    if (compareTo(divisor) < 0) {
+      return set(0);
+    }
+    final int[] quotient = new int[2 * LIMBS];
+    divideDigits(toDigits(limbs, LIMBS), toDigits(divisor.limbs, LIMBS), quotient, null);
+    fromDigits(quotient, limbs);
+    return this;
+  }
+
+  public UInt256Limbs mod(final UInt256Limbs modulus) {
+    if (modulus.isZero()) {
+      return set(0);
+    }
+    if (compareTo(modulus) < 0) {
+      return this;
+    }
+    return remainderOf(toDigits(limbs, LIMBS), modulus);
+  }
+
+  /**
+   * Sets this value to {@code (this + other) % modulus}, computed without wrapping the sum.
+   *
+   * @param other The value to add.
+   * @param modulus The modulus.
+   * @return This value.
+   */
+  public UInt256Limbs addMod(final UInt256Limbs other, final UInt256Limbs modulus) {
+    if (modulus.isZero()) {
+      return set(0);
+    }
+    final long[] sum = new long[LIMBS + 1];
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long partial = limbs[i] + other.limbs[i];
+      sum[i] = partial + carry;
+      carry = unsignedLessThan(partial, limbs[i]) | unsignedLessThan(sum[i], partial);
+    }
+    sum[LIMBS] = carry;
+    return remainderOf(toDigits(sum, LIMBS + 1), modulus);
+  }
+
+  /**
+   * Sets this value to {@code (this * other) % modulus}, computed from the full 512 bits product.
+   *
+   * @param other The value to multiply by.
+   * @param modulus The modulus.
+   * @return This value.
+   */
+  public UInt256Limbs multiplyMod(final UInt256Limbs other, final UInt256Limbs modulus) {
+    if (modulus.isZero()) {
+      return set(0);
+    }
+    final long[] product = new long[2 * LIMBS];
+    multiplyInto(limbs, other.limbs, product, 2 * LIMBS);
+    return remainderOf(toDigits(product, 2 * LIMBS), modulus);
+  }
+
+  /**
+   * Sets this value to {@code this ^ exponent}, modulo 2^256.
+   *
+   * @param exponent The exponent.
+   * @return This value.
+   */
+  public UInt256Limbs exp(final UInt256Limbs exponent) {
+    final UInt256Limbs base = new UInt256Limbs().set(this);
+    set(1);
+    final int bits = exponent.bitLength();
+    for (int i = 0; i < bits; i++) {
+      if (exponent.testBit(i)) {
+        multiply(base);
+      }
+      if (i < bits - 1) {
+        base.multiply(base);
+      }
+    }
+    return this;
+  }
+
+  // Signed arithmetic
+
+  public UInt256Limbs negate() {
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[i] = ~limbs[i];
+    }
+    for (int i = 0; i < LIMBS; i++) {
+      if (++limbs[i] != 0) {
+        break;
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Divides two's complement values, rounding towards zero.
+   *
+   * @param divisor The divisor.
+   * @return This value.
+   */
+  public UInt256Limbs signedDivide(final UInt256Limbs divisor) {
+    if (divisor.isZero()) {
+      return set(0);
+    }
+    final boolean negativeResult = isNegative() != divisor.isNegative();
+    final UInt256Limbs absoluteDivisor = new UInt256Limbs().set(divisor);
+    if (absoluteDivisor.isNegative()) {
+      absoluteDivisor.negate();
+    }
+    if (isNegative()) {
+      negate();
+    }
+    divide(absoluteDivisor);
+    return negativeResult ? negate() : this;
+  }
+
+  /**
+   * Computes the two's complement remainder, which takes the sign of this value.
+   *
+   * @param modulus The modulus.
+   * @return This value.
+   */
+  public UInt256Limbs signedMod(final UInt256Limbs modulus) {
+    if (modulus.isZero()) {
+      return set(0);
+    }
+    final boolean negativeResult = isNegative();
+    final UInt256Limbs absoluteModulus = new UInt256Limbs().set(modulus);
+    if (absoluteModulus.isNegative()) {
+      absoluteModulus.negate();
+    }
+    if (negativeResult) {
+      negate();
+    }
+    mod(absoluteModulus);
+    return negativeResult ? negate() : this;
+  }
+
+  /**
+   * Extends the sign of the two's complement value held in the lowest {@code byteIndex + 1} bytes
+   * to the whole value.
+   *
+   * @param byteIndex The index, from the least significant end, of the byte holding the sign bit.
+   * @return This value.
+   */
+  public UInt256Limbs signExtend(final UInt256Limbs byteIndex) {
+    if (!byteIndex.lessThan(31)) {
+      return this;
+    }
+    final int signBit = byteIndex.lowInt() * 8 + 7;
+    final int limb = signBit / 64;
+    final int bit = signBit % 64;
+    final boolean negative = ((limbs[limb] >>> bit) & 1) != 0;
+    final long highMask = bit == 63 ? 0 : -1L << (bit + 1);
+    limbs[limb] = negative ? limbs[limb] | highMask : limbs[limb] & ~highMask;
+    for (int i = limb + 1; i < LIMBS; i++) {
+      limbs[i] = negative ? -1L : 0;
+    }
+    return this;
+  }
+
+  // Bitwise operations
+
+  public UInt256Limbs and(final UInt256Limbs other) {
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[i] &= other.limbs[i];
+    }
+    return this;
+  }
+
+  public UInt256Limbs or(final UInt256Limbs other) {
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[i] |= other.limbs[i];
+    }
+    return this;
+  }
+
+  public UInt256Limbs xor(final UInt256Limbs other) {
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[i] ^= other.limbs[i];
+    }
+    return this;
+  }
+
+  public UInt256Limbs not() {
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[i] = ~limbs[i];
+    }
+    return this;
+  }
+
+  public boolean testBit(final int bit) {
+    return ((limbs[bit / 64] >>> (bit % 64)) & 1) != 0;
+  }
+
+  /**
+   * @param shift The number of bits to shift by; anything from 256 up clears the value.
+   * @return This value.
+   */
+  public UInt256Limbs shiftLeft(final int shift) {
+    if (shift >= 256) {
+      return set(0);
+    }
+    final int limbShift = shift / 64;
+    final int bitShift = shift % 64;
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final int source = i - limbShift;
+      long value = source >= 0 ? limbs[source] << bitShift : 0;
+      if (bitShift != 0 && source > 0) {
+        value |= limbs[source - 1] >>> (64 - bitShift);
+      }
+      limbs[i] = value;
+    }
+    return this;
+  }
+
+  /**
+   * @param shift The number of bits to shift by; anything from 256 up clears the value.
+   * @return This value.
+   */
+  public UInt256Limbs shiftRight(final int shift) {
+    return shiftRight(shift, 0);
+  }
+
+  /**
+   * Shifts right, filling the vacated bits with the sign bit.
+   *
+   * @param shift The number of bits to shift by; anything from 256 up leaves only the sign.
+   * @return This value.
+   */
+  public UInt256Limbs arithmeticShiftRight(final int shift) {
+    return shiftRight(shift, isNegative() ? -1L : 0);
+  }
+
+  private UInt256Limbs shiftRight(final int shift, final long fill) {
+    if (shift >= 256) {
+      for (int i = 0; i < LIMBS; i++) {
+        limbs[i] = fill;
+      }
+      return this;
+    }
+    final int limbShift = shift / 64;
+    final int bitShift = shift % 64;
+    for (int i = 0; i < LIMBS; i++) {
+      final int source = i + limbShift;
+      final long low = source < LIMBS ? limbs[source] : fill;
+      final long high = source + 1 < LIMBS ? limbs[source + 1] : fill;
+      limbs[i] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return toBytes32().toString();
+  }
+
+  // Helpers
+
+  private static long unsignedLessThan(final long a, final long b) {
+    return Long.compareUnsigned(a, b) < 0 ? 1 : 0;
+  }
+
+  /** Multiplies two 256 bits values, keeping the {@code resultLimbs} least significant limbs. */
+  private static void multiplyInto(
+      final long[] a, final long[] b, final long[] result, final int resultLimbs) {
+    for (int i = 0; i < LIMBS; i++) {
+      long carry = 0;
+      for (int j = 0; j < LIMBS && i + j < resultLimbs; j++) {
+        final long low = a[i] * b[j];
+        final long high = unsignedMultiplyHigh(a[i], b[j]);
+        final long withResult = low + result[i + j];
+        final long withCarry = withResult + carry;
+        carry =
+            high + unsignedLessThan(withResult, low) + unsignedLessThan(withCarry, withResult);
+        result[i + j] = withCarry;
+      }
+      if (i + LIMBS < resultLimbs) {
+        result[i + LIMBS] = carry;
+      }
+    }
+  }
+
+  /** The high 64 bits of the unsigned 128 bits product of {@code a} and {@code b}. */
+  private static long unsignedMultiplyHigh(final long a, final long b) {
+    final long aLow = a & INT_MASK;
+    final long aHigh = a >>> 32;
+    final long bLow = b & INT_MASK;
+    final long bHigh = b >>> 32;
+    final long lowLow = aLow * bLow;
+    final long highLow = aHigh * bLow;
+    final long cross = (lowLow >>> 32) + (highLow & INT_MASK) + aLow * bHigh;
+    return aHigh * bHigh + (highLow >>> 32) + (cross >>> 32);
+  }
+
+  private UInt256Limbs remainderOf(final int[] dividend, final UInt256Limbs modulus) {
+    final int[] remainder = new int[2 * LIMBS];
+    divideDigits(dividend, toDigits(modulus.limbs, LIMBS), null, remainder);
+    fromDigits(remainder, limbs);
+    return this;
+  }
+
+  /** Splits limbs into little-endian 32 bits digits. */
+  private static int[] toDigits(final long[] source, final int sourceLimbs) {
+    final int[] digits = new int[2 * sourceLimbs];
+    for (int i = 0; i < sourceLimbs; i++) {
+      digits[2 * i] = (int) source[i];
+      digits[2 * i + 1] = (int) (source[i] >>> 32);
+    }
+    return digits;
+  }
+
+  private static void fromDigits(final int[] digits, final long[] destination) {
+    for (int i = 0; i < LIMBS; i++) {
+      destination[i] = (digits[2 * i] & INT_MASK) | ((long) digits[2 * i + 1] << 32);
+    }
+  }
+
+  private static int significantDigits(final int[] digits) {
+    int length = digits.length;
+    while (length > 0 && digits[length - 1] == 0) {
+      length--;
+    }
+    return length;
+  }
+
+  /**
+   * Divides little-endian 32 bits digits using Knuth's algorithm D (TAOCP vol. 2, 4.3.1).
+   *
+   * @param dividend The dividend's digits.
+   * @param divisor The divisor's digits, which must not all be zero.
+   * @param quotient Receives the quotient if not null, and must be as long as the dividend.
+   * @param remainder Receives the remainder if not null, and must be as long as the divisor.
+   */
+  private static void divideDigits(
+      final int[] dividend, final int[] divisor, final int[] quotient, final int[] remainder) {
+    final int m = significantDigits(dividend);
+    final int n = significantDigits(divisor);
+    if (m < n) {
+      if (remainder != null) {
+        System.arraycopy(dividend, 0, remainder, 0, m);
+      }
+      return;
+    }
+
+    if (n == 1) {
+      final long v = divisor[0] & INT_MASK;
+      long rest = 0;
+      for (int j = m - 1; j >= 0; j--) {
+        final long current = (rest << 32) | (dividend[j] & INT_MASK);
+        if (quotient != null) {
+          quotient[j] = (int) Long.divideUnsigned(current, v);
+        }
+        rest = Long.remainderUnsigned(current, v);
+      }
+      if (remainder != null) {
+        remainder[0] = (int) rest;
+      }
+      return;
+    }
+
+    // Normalize so the divisor's top digit has its high bit set.
+    final int s = Integer.numberOfLeadingZeros(divisor[n - 1]);
+    final int[] vn = new int[n];
+    for (int i = n - 1; i > 0; i--) {
+      vn[i] = (divisor[i] << s) | (s == 0 ? 0 : divisor[i - 1] >>> (32 - s));
+    }
+    vn[0] = divisor[0] << s;
+    final int[] un = new int[m + 1];
+    un[m] = s == 0 ? 0 : dividend[m - 1] >>> (32 - s);
+    for (int i = m - 1; i > 0; i--) {
+      un[i] = (dividend[i] << s) | (s == 0 ? 0 : dividend[i - 1] >>> (32 - s));
+    }
+    un[0] = dividend[0] << s;
+
+    final long vTop = vn[n - 1] & INT_MASK;
+    final long vNext = vn[n - 2] & INT_MASK;
+    for (int j = m - n; j >= 0; j--) {
+      // Estimate the quotient digit from the top two digits of the remainder.
+      final long numerator = ((un[j + n] & INT_MASK) << 32) | (un[j + n - 1] & INT_MASK);
+      long qhat = Long.divideUnsigned(numerator, vTop);
+      long rhat = Long.remainderUnsigned(numerator, vTop);
+      while (qhat > INT_MASK
+          || Long.compareUnsigned(qhat * vNext, (rhat << 32) | (un[j + n - 2] & INT_MASK)) > 0) {
+        qhat--;
+        rhat += vTop;
+        if (rhat > INT_MASK) {
+          break;
+        }
+      }
+
+      // Multiply and subtract.
+      long borrow = 0;
+      long t;
+      for (int i = 0; i < n; i++) {
+        final long p = qhat * (vn[i] & INT_MASK);
+        t = (un[i + j] & INT_MASK) - borrow - (p & INT_MASK);
+        un[i + j] = (int) t;
+        borrow = (p >>> 32) - (t >> 32);
+      }
+      t = (un[j + n] & INT_MASK) - borrow;
+      un[j + n] = (int) t;
+
+      if (t < 0) {
+        // The estimate was one too large, so add the divisor back.
+        qhat--;
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+          t = (un[i + j] & INT_MASK) + (vn[i] & INT_MASK) + carry;
+          un[i + j] = (int) t;
+          carry = t >>> 32;
+        }
+        un[j + n] += (int) carry;
+      }
+      if (quotient != null) {
+        quotient[j] = (int) qhat;
+      }
+    }
+
+    if (remainder != null) {
+      for (int i = 0; i < n; i++) {
+        remainder[i] = (un[i] >>> s) | (s == 0 ? 0 : un[i + 1] << (32 - s));
+      }
+    }
+  }
+}
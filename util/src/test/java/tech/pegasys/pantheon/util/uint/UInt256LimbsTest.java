@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.util.uint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import org.junit.Test;
+
+/** Checks every operation against the same computation done with {@link BigInteger}. */
+public class UInt256LimbsTest {
+
+  private static final BigInteger MODULUS = BigInteger.ONE.shiftLeft(256);
+  private static final BigInteger MAX = MODULUS.subtract(BigInteger.ONE);
+
+  private final List<BigInteger> values = values();
+
+  @Test
+  public void add() {
+    checkBinary(UInt256Limbs::add, BigInteger::add);
+  }
+
+  @Test
+  public void subtract() {
+    checkBinary(UInt256Limbs::subtract, BigInteger::subtract);
+  }
+
+  @Test
+  public void multiply() {
+    checkBinary(UInt256Limbs::multiply, BigInteger::multiply);
+  }
+
+  @Test
+  public void divide() {
+    checkBinary(UInt256Limbs::divide, (a, b) -> b.signum() == 0 ? b : a.divide(b));
+  }
+
+  @Test
+  public void mod() {
+    checkBinary(UInt256Limbs::mod, (a, b) -> b.signum() == 0 ? b : a.mod(b));
+  }
+
+  @Test
+  public void addMod() {
+    for (final BigInteger modulus : values) {
+      checkBinary(
+          (a, b) -> a.addMod(b, limbs(modulus)),
+          (a, b) -> modulus.signum() == 0 ? modulus : a.add(b).mod(modulus));
+    }
+  }
+
+  @Test
+  public void multiplyMod() {
+    for (final BigInteger modulus : values) {
+      checkBinary(
+          (a, b) -> a.multiplyMod(b, limbs(modulus)),
+          (a, b) -> modulus.signum() == 0 ? modulus : a.multiply(b).mod(modulus));
+    }
+  }
+
+  @Test
+  public void exp() {
+    checkBinary(UInt256Limbs::exp, (a, b) -> a.modPow(b, MODULUS));
+  }
+
+  @Test
+  public void signedDivide() {
+    checkBinary(
+        UInt256Limbs::signedDivide,
+        (a, b) -> signed(b).signum() == 0 ? b : signed(a).divide(signed(b)));
+  }
+
+  @Test
+  public void signedMod() {
+    checkBinary(
+        UInt256Limbs::signedMod,
+        (a, b) -> {
+          if (b.signum() == 0) {
+            return b;
+          }
+          final BigInteger remainder = signed(a).abs().mod(signed(b).abs());
+          return signed(a).signum() < 0 ? remainder.negate() : remainder;
+        });
+  }
+
+  @Test
+  public void compare() {
+    for (final BigInteger a : values) {
+      for (final BigInteger b : values) {
+        assertThat(Integer.signum(limbs(a).compareTo(limbs(b)))).isEqualTo(a.compareTo(b));
+        assertThat(Integer.signum(limbs(a).compareSignedTo(limbs(b))))
+            .isEqualTo(signed(a).compareTo(signed(b)));
+      }
+    }
+  }
+
+  @Test
+  public void bitwise() {
+    checkBinary(UInt256Limbs::and, BigInteger::and);
+    checkBinary(UInt256Limbs::or, BigInteger::or);
+    checkBinary(UInt256Limbs::xor, BigInteger::xor);
+    for (final BigInteger value : values) {
+      assertThat(bigInteger(limbs(value).not())).isEqualTo(value.xor(MAX));
+    }
+  }
+
+  @Test
+  public void shifts() {
+    for (final BigInteger value : values) {
+      for (int shift = 0; shift <= 260; shift++) {
+        assertThat(bigInteger(limbs(value).shiftLeft(shift)))
+            .isEqualTo(value.shiftLeft(shift).mod(MODULUS));
+        assertThat(bigInteger(limbs(value).shiftRight(shift))).isEqualTo(value.shiftRight(shift));
+        assertThat(bigInteger(limbs(value).arithmeticShiftRight(shift)))
+            .isEqualTo(signed(value).shiftRight(shift).mod(MODULUS));
+      }
+    }
+  }
+
+  @Test
+  public void signExtend() {
+    for (final BigInteger value : values) {
+      for (int byteIndex = 0; byteIndex < 34; byteIndex++) {
+        final BigInteger expected;
+        if (byteIndex < 31) {
+          final int signBit = byteIndex * 8 + 7;
+          final BigInteger lowMask = BigInteger.ONE.shiftLeft(signBit + 1).subtract(BigInteger.ONE);
+          final BigInteger low = value.and(lowMask);
+          expected = value.testBit(signBit) ? low.or(MAX.xor(lowMask)) : low;
+        } else {
+          expected = value;
+        }
+        assertThat(bigInteger(limbs(value).signExtend(UInt256Limbs.of(byteIndex))))
+            .isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void roundTripsThroughBytes() {
+    for (final BigInteger value : values) {
+      final Bytes32 bytes = UInt256.of(value).getBytes();
+      assertThat(UInt256Limbs.of(bytes).toBytes32()).isEqualTo(bytes);
+    }
+  }
+
+  private void checkBinary(
+      final BinaryOperator<UInt256Limbs> operation, final BinaryOperator<BigInteger> expected) {
+    for (final BigInteger a : values) {
+      for (final BigInteger b : values) {
+        assertThat(bigInteger(operation.apply(limbs(a), limbs(b))))
+            .describedAs("%s, %s", a.toString(16), b.toString(16))
+            .isEqualTo(expected.apply(a, b).mod(MODULUS));
+      }
+    }
+  }
+
+  private static UInt256Limbs limbs(final BigInteger value) {
+    return UInt256Limbs.of(UInt256.of(value).getBytes());
+  }
+
+  private static BigInteger bigInteger(final UInt256Limbs value) {
+    return BytesValues.asUnsignedBigInteger(value.toBytes32());
+  }
+
+  private static BigInteger signed(final BigInteger value) {
+    return value.testBit(255) ? value.subtract(MODULUS) : value;
+  }
+
+  private static List<BigInteger> values() {
+    final List<BigInteger> values = new ArrayList<>();
+    values.add(BigInteger.ZERO);
+    values.add(BigInteger.ONE);
+    values.add(BigInteger.valueOf(2));
+    values.add(MAX);
+    values.add(MAX.shiftRight(1));
+    values.add(BigInteger.ONE.shiftLeft(255));
+    // Limb and digit boundaries exercise the carries and the division's normalization.
+    for (final int bits : new int[] {32, 64, 128, 192}) {
+      values.add(BigInteger.ONE.shiftLeft(bits));
+      values.add(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE));
+    }
+    final Random random = new Random(42);
+    for (int i = 0; i < 24; i++) {
+      values.add(new BigInteger(random.nextInt(257), random));
+    }
+    return values;
+  }
+}